@@ -0,0 +1,77 @@
+package com.teleportapi;
+
+import net.minecraft.core.BlockPos;
+
+import java.util.List;
+
+/**
+ * In-memory stand-in for a block world. Real {@code BlockState}s need
+ * bootstrapped registries, so benchmarks use byte "states" through the
+ * generic {@link StructureTeleporter.StateProvider} overloads.
+ */
+final class BenchmarkWorld {
+    static final byte AIR = 0;
+    static final byte HULL = 1;
+    static final byte STONE = 2;
+    static final List<Byte> HULL_STATES = List.of(HULL);
+
+    final int size;
+    final BlockPos min;
+    final BlockPos max;
+    private final byte[] states;
+
+    private BenchmarkWorld(int size) {
+        this.size = size;
+        this.min = BlockPos.ZERO;
+        this.max = new BlockPos(size - 1, size - 1, size - 1);
+        this.states = new byte[size * size * size];
+    }
+
+    /**
+     * A closed one-block hull filling the box, with stone blocks scattered
+     * inside from a fixed seed so every run sees the same world.
+     */
+    static BenchmarkWorld hollowShip(int size) {
+        BenchmarkWorld world = new BenchmarkWorld(size);
+        java.util.Random random = new java.util.Random(42L);
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                for (int z = 0; z < size; z++) {
+                    boolean shell = x == 0 || y == 0 || z == 0 || x == size - 1 || y == size - 1 || z == size - 1;
+                    byte state = shell ? HULL : (random.nextInt(8) == 0 ? STONE : AIR);
+                    world.states[world.index(x, y, z)] = state;
+                }
+            }
+        }
+        return world;
+    }
+
+    int index(int x, int y, int z) {
+        return x + size * (y + size * z);
+    }
+
+    Byte getState(BlockPos pos) {
+        int x = pos.getX(), y = pos.getY(), z = pos.getZ();
+        if (x < 0 || y < 0 || z < 0 || x >= size || y >= size || z >= size) {
+            return AIR;
+        }
+        return states[index(x, y, z)];
+    }
+
+    static boolean matches(Byte state, List<Byte> allowed) {
+        return allowed.contains(state);
+    }
+
+    /**
+     * Valid-block mask the way the scans build it: every non-air voxel.
+     */
+    java.util.BitSet validMask() {
+        java.util.BitSet mask = new java.util.BitSet(states.length);
+        for (int i = 0; i < states.length; i++) {
+            if (states[i] != AIR) {
+                mask.set(i);
+            }
+        }
+        return mask;
+    }
+}
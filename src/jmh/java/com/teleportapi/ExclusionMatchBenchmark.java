@@ -0,0 +1,89 @@
+package com.teleportapi;
+
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.minecraft.core.BlockPos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exclusion check over every voxel of a hollow ship: a {@code List<Byte>}
+ * walk against a {@code ReferenceOpenHashSet<Byte>} lookup, the data
+ * structure {@link BlockMatcher} compiles its blocks into. Real blocks need
+ * bootstrapped registries, so both run on the world's byte states and
+ * {@code BlockMatcher.matches} itself is never called. The excluded stone
+ * comes last in the list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExclusionMatchBenchmark {
+    @Param({ "32", "64" })
+    public int size;
+
+    @Param({ "5", "50" })
+    public int excludedCount;
+
+    private BenchmarkWorld world;
+    private List<Byte> excludedList;
+    private Set<Byte> excludedSet;
+
+    @Setup
+    public void setup() {
+        world = BenchmarkWorld.hollowShip(size);
+        excludedList = new ArrayList<>();
+        for (int i = 1; i < excludedCount; i++) {
+            excludedList.add((byte) (BenchmarkWorld.STONE + i));
+        }
+        excludedList.add(BenchmarkWorld.STONE);
+        excludedSet = new ReferenceOpenHashSet<>(excludedList);
+    }
+
+    @Benchmark
+    public int listContains() {
+        int count = 0;
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        for (int z = 0; z < size; z++) {
+            for (int y = 0; y < size; y++) {
+                for (int x = 0; x < size; x++) {
+                    if (excludedList.contains(world.getState(pos.set(x, y, z)))) {
+                        count++;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int identitySet() {
+        int count = 0;
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        for (int z = 0; z < size; z++) {
+            for (int y = 0; y < size; y++) {
+                for (int x = 0; x < size; x++) {
+                    if (excludedSet.contains(world.getState(pos.set(x, y, z)))) {
+                        count++;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,48 @@
+package com.teleportapi;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hull flood fill and face coverage over a closed hollow ship.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2G", "-Xmx2G" })
+public class FloodFillBenchmark {
+    @Param({ "32", "64", "128" })
+    public int size;
+
+    private BenchmarkWorld world;
+
+    @Setup
+    public void setup() {
+        world = BenchmarkWorld.hollowShip(size);
+    }
+
+    @Benchmark
+    public Object enclosedPositions() {
+        return StructureTeleporter.getEnclosedPositionsGeneric(world.min, world.max, BenchmarkWorld.HULL_STATES,
+                world::getState, BenchmarkWorld::matches);
+    }
+
+    @Benchmark
+    public boolean areaCovered() {
+        return StructureTeleporter.isAreaCoveredGeneric(world.min, world.max, BenchmarkWorld.HULL_STATES,
+                world::getState, BenchmarkWorld::matches);
+    }
+}
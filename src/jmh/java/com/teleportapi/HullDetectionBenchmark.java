@@ -0,0 +1,54 @@
+package com.teleportapi;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The simulation hull pass: every valid voxel checked with
+ * {@link StructureTeleporter#isHullVoxel}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HullDetectionBenchmark {
+    @Param({ "32", "64", "128" })
+    public int size;
+
+    private java.util.BitSet validBlocks;
+
+    @Setup
+    public void setup() {
+        validBlocks = BenchmarkWorld.hollowShip(size).validMask();
+    }
+
+    @Benchmark
+    public java.util.BitSet hullPass() {
+        java.util.BitSet hull = new java.util.BitSet(size * size * size);
+        for (int dz = 0; dz < size; dz++) {
+            for (int dy = 0; dy < size; dy++) {
+                for (int dx = 0; dx < size; dx++) {
+                    int index = dx + size * (dy + size * dz);
+                    if (validBlocks.get(index)
+                            && StructureTeleporter.isHullVoxel(validBlocks, dx, dy, dz, size, size, size)) {
+                        hull.set(index);
+                    }
+                }
+            }
+        }
+        return hull;
+    }
+}
@@ -0,0 +1,53 @@
+package com.teleportapi;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of assembling a full {@link TeleportResult}, done once per job.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TeleportResultBenchmark {
+    private final java.util.BitSet mask = new java.util.BitSet(64 * 64 * 64);
+    private final List<String> players = List.of("Alex", "Steve");
+
+    @Benchmark
+    public TeleportResult buildFull() {
+        return TeleportResult.builder()
+                .success(true)
+                .totalBlocks(262_144)
+                .excludedBlocks(12)
+                .message("Teleportation complete (Async)")
+                .teleported(true)
+                .replacedBlockCount(1_024)
+                .skippedBlockCount(3)
+                .skippedByLimitCount(0)
+                .airBlockCount(200_000)
+                .solidBlockCount(62_132)
+                .fluidBlockCount(40)
+                .destinationSolidBlocksLost(900)
+                .teleportedEntitiesCount(2)
+                .teleportedPlayerNames(players)
+                .distance(1_500.0)
+                .sourceDimension("minecraft:overworld")
+                .targetDimension("minecraft:the_nether")
+                .validBlocksMask(mask)
+                .hullMask(mask)
+                .build();
+    }
+}
@@ -0,0 +1,71 @@
+package com.teleportapi;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Vec3i;
+import net.minecraft.world.level.block.Mirror;
+import net.minecraft.world.level.block.Rotation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link StructureTeleporter#transformPos} against the precompiled
+ * {@link StructureTransform} over a 32^3 box, for every rotation and mirror
+ * combination.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransformBenchmark {
+    private static final int SIZE = 32;
+    private static final Vec3i BOX = new Vec3i(SIZE - 1, SIZE - 1, SIZE - 1);
+
+    @Param
+    public Rotation rotation;
+
+    @Param
+    public Mirror mirror;
+
+    private StructureTransform transform;
+
+    @Setup
+    public void setup() {
+        transform = new StructureTransform(rotation, mirror, BOX, new BlockPos(1000, 64, -1000));
+    }
+
+    @Benchmark
+    public void transformBox(Blackhole blackhole) {
+        for (int x = 0; x < SIZE; x++) {
+            for (int y = 0; y < SIZE; y++) {
+                for (int z = 0; z < SIZE; z++) {
+                    blackhole.consume(StructureTeleporter.transformPos(new BlockPos(x, y, z), rotation, mirror, BOX));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void transformBoxPacked(Blackhole blackhole) {
+        for (int x = 0; x < SIZE; x++) {
+            for (int y = 0; y < SIZE; y++) {
+                for (int z = 0; z < SIZE; z++) {
+                    blackhole.consume(transform.apply(x, y, z));
+                }
+            }
+        }
+    }
+}
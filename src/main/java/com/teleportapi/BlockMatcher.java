@@ -0,0 +1,217 @@
+package com.teleportapi;
+
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.minecraft.core.Holder;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraftforge.event.TagsUpdatedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Compiled block filter used for exclusion and preservation checks.
+ * <p>
+ * Block states and block tags are resolved once, when the matcher is built,
+ * into an identity set of {@link Block}s, so the scan, copy, clear and paste
+ * loops do a single hash lookup per voxel instead of walking a
+ * {@code List<BlockState>}. Like the list checks it replaces, matching is by
+ * block, not by exact state.
+ * <p>
+ * Tags are resolved against the currently bound registry tags, so a matcher
+ * should be compiled per request rather than kept across datapack reloads.
+ * The default exclusion and preservation matchers are the exception: they are
+ * compiled once and dropped on {@link TagsUpdatedEvent}.
+ */
+public final class BlockMatcher {
+    /**
+     * Blocks that should never be moved, on top of
+     * {@link StructureTeleporter#getDefaultExcludedBlocks()}. Empty in the mod
+     * itself; included in the default exclusions so datapacks can extend them.
+     */
+    public static final TagKey<Block> UNMOVABLE = TagKey.create(Registries.BLOCK,
+            new ResourceLocation(TeleportAPI.MOD_ID, "unmovable"));
+
+    private static final BlockMatcher EMPTY = new BlockMatcher(Collections.emptySet(), Collections.emptyList());
+
+    // Compiled on first use, dropped when tags are reloaded
+    private static volatile BlockMatcher defaultExclusions;
+    private static volatile BlockMatcher defaultPreservation;
+
+    private final Set<Block> blocks;
+    private final List<TagKey<Block>> tags;
+
+    private BlockMatcher(Set<Block> blocks, List<TagKey<Block>> tags) {
+        this.blocks = blocks;
+        this.tags = tags;
+    }
+
+    public static BlockMatcher empty() {
+        return EMPTY;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Compile a list of block states. A {@code null} list yields an empty
+     * matcher.
+     */
+    public static BlockMatcher of(@Nullable Collection<BlockState> states) {
+        if (states == null || states.isEmpty()) {
+            return EMPTY;
+        }
+        return builder().addStates(states).build();
+    }
+
+    /**
+     * Parse block ids and tags, e.g. {@code "minecraft:bedrock"} or
+     * {@code "#forge:ores"}.
+     *
+     * @throws IllegalArgumentException for malformed ids or unknown blocks
+     */
+    public static BlockMatcher parse(Collection<String> specs) {
+        Builder builder = builder();
+        for (String spec : specs) {
+            builder.addSpec(spec);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Exclusion matcher for a request: the given list, or the API defaults
+     * ({@link StructureTeleporter#getDefaultExcludedBlocks()} plus
+     * {@link #UNMOVABLE}) when the list is {@code null}.
+     */
+    public static BlockMatcher forExclusions(@Nullable List<BlockState> excludedBlocks) {
+        if (excludedBlocks == null) {
+            BlockMatcher matcher = defaultExclusions;
+            if (matcher == null) {
+                matcher = builder().addStates(StructureTeleporter.getDefaultExcludedBlocks()).addTag(UNMOVABLE)
+                        .build();
+                defaultExclusions = matcher;
+            }
+            return matcher;
+        }
+        return of(excludedBlocks);
+    }
+
+    /**
+     * Preservation matcher for {@link PasteMode#PRESERVE_LIST}: the given list,
+     * or the API defaults when the list is {@code null}.
+     */
+    public static BlockMatcher forPreservation(@Nullable List<BlockState> preservedBlocks) {
+        if (preservedBlocks == null) {
+            BlockMatcher matcher = defaultPreservation;
+            if (matcher == null) {
+                matcher = builder().addStates(StructureTeleporter.getDefaultPreservedBlocks()).addTag(UNMOVABLE)
+                        .build();
+                defaultPreservation = matcher;
+            }
+            return matcher;
+        }
+        return of(preservedBlocks);
+    }
+
+    /**
+     * Drop the cached default matchers; the next request recompiles them
+     * against the reloaded tags.
+     */
+    @SubscribeEvent
+    public static void onTagsUpdated(TagsUpdatedEvent event) {
+        defaultExclusions = null;
+        defaultPreservation = null;
+    }
+
+    public boolean matches(BlockState state) {
+        return blocks.contains(state.getBlock());
+    }
+
+    public boolean matches(Block block) {
+        return blocks.contains(block);
+    }
+
+    public boolean isEmpty() {
+        return blocks.isEmpty();
+    }
+
+    /**
+     * Resolved blocks, including the members of all tags at build time.
+     */
+    public Set<Block> getBlocks() {
+        return Collections.unmodifiableSet(blocks);
+    }
+
+    public List<TagKey<Block>> getTags() {
+        return Collections.unmodifiableList(tags);
+    }
+
+    public static class Builder {
+        private final Set<Block> blocks = new ReferenceOpenHashSet<>();
+        private final List<TagKey<Block>> tags = new ArrayList<>();
+
+        public Builder add(Block block) {
+            blocks.add(block);
+            return this;
+        }
+
+        public Builder add(BlockState state) {
+            blocks.add(state.getBlock());
+            return this;
+        }
+
+        public Builder addStates(Collection<BlockState> states) {
+            for (BlockState state : states) {
+                add(state);
+            }
+            return this;
+        }
+
+        public Builder addTag(TagKey<Block> tag) {
+            if (!tags.contains(tag)) {
+                tags.add(tag);
+            }
+            return this;
+        }
+
+        /**
+         * Add a block id ({@code "minecraft:bedrock"}) or a tag
+         * ({@code "#forge:ores"}).
+         */
+        public Builder addSpec(String spec) {
+            boolean isTag = spec.startsWith("#");
+            String id = isTag ? spec.substring(1) : spec;
+            ResourceLocation location = ResourceLocation.tryParse(id);
+            if (location == null) {
+                throw new IllegalArgumentException("Invalid block or tag id: " + spec);
+            }
+
+            if (isTag) {
+                return addTag(TagKey.create(Registries.BLOCK, location));
+            }
+            Block block = BuiltInRegistries.BLOCK.getOptional(location)
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown block: " + spec));
+            return add(block);
+        }
+
+        public BlockMatcher build() {
+            Set<Block> resolved = new ReferenceOpenHashSet<>(blocks);
+            for (TagKey<Block> tag : tags) {
+                for (Holder<Block> holder : BuiltInRegistries.BLOCK.getTagOrEmpty(tag)) {
+                    resolved.add(holder.value());
+                }
+            }
+            return new BlockMatcher(resolved, new ArrayList<>(tags));
+        }
+    }
+}
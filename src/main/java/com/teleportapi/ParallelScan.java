@@ -0,0 +1,451 @@
+package com.teleportapi;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.core.Vec3i;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.Mirror;
+import net.minecraft.world.level.block.Rotation;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.PalettedContainer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Off-thread simulation scan used by {@link StructureTeleporter.AsyncScanTask}.
+ * <p>
+ * The main thread only copies the section palettes that cover the source and
+ * target boxes ({@link SectionCopy}). Pass 1, the hull pass and pass 2 then
+ * run on a dedicated {@link ForkJoinPool}, in parallel per source section,
+ * against those immutable copies. Per-section partial results are merged
+ * sequentially on the pool and the future completes with a {@link Result}
+ * that the task applies back on the main thread.
+ */
+final class ParallelScan {
+    private static final ForkJoinPool POOL = new ForkJoinPool(
+            Math.max(1, Runtime.getRuntime().availableProcessors() - 1),
+            pool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("TeleportAPI-Scan-" + thread.getPoolIndex());
+                thread.setDaemon(true);
+                thread.setContextClassLoader(ParallelScan.class.getClassLoader());
+                return thread;
+            }, null, false);
+
+    private final SectionCopy source;
+    private final SectionCopy target;
+    private final int minX, minY, minZ;
+    private final int maxX, maxY, maxZ;
+    private final int width, height, depth;
+    private final RegionMask filter;
+    private final BlockMatcher excludedBlocks;
+    private final boolean checkExclusions;
+    private final boolean includeAir;
+    private final PasteMode pasteMode;
+    private final BlockMatcher preservedBlocks;
+    // Position methods only, which are safe to share between workers
+    private final StructureTransform transform;
+    private final boolean sameLevel;
+    private final int targetMinBuild;
+    private final int targetMaxBuild;
+
+    // Sections finished across all three passes, for job progress
+    private final AtomicInteger sectionsDone = new AtomicInteger();
+    private volatile int sectionCount = 0;
+    private volatile boolean cancelled = false;
+
+    ParallelScan(TeleportRequest request, SectionCopy source, SectionCopy target) {
+        BlockPos min = request.getSelection().getMin();
+        BlockPos max = request.getSelection().getMax();
+        this.source = source;
+        this.target = target;
+        this.minX = min.getX();
+        this.minY = min.getY();
+        this.minZ = min.getZ();
+        this.maxX = max.getX();
+        this.maxY = max.getY();
+        this.maxZ = max.getZ();
+        this.width = maxX - minX + 1;
+        this.height = maxY - minY + 1;
+        this.depth = maxZ - minZ + 1;
+        this.filter = request.getFilterMask();
+        this.excludedBlocks = request.getExclusionMatcher();
+        this.checkExclusions = request.isCheckExclusions();
+        this.includeAir = request.isIncludeAir();
+        this.pasteMode = request.getPasteMode();
+        this.preservedBlocks = request.getPreservationMatcher();
+        this.transform = new StructureTransform(request.getRotation(), request.getMirror(),
+                new Vec3i(width - 1, height - 1, depth - 1), request.getTargetPos());
+        this.sameLevel = source == target;
+        this.targetMinBuild = target.getLevel().getMinBuildHeight();
+        this.targetMaxBuild = target.getLevel().getMaxBuildHeight();
+    }
+
+    /**
+     * Bounding box of the transformed destination for a source box, as
+     * {@code {minX, minY, minZ, maxX, maxY, maxZ}}.
+     */
+    static int[] targetBounds(BlockPos targetPos, Vec3i sourceSize, Rotation rotation, Mirror mirror) {
+        int[] bounds = { Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE,
+                Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE };
+        StructureTransform transform = new StructureTransform(rotation, mirror, sourceSize, targetPos);
+        for (int corner = 0; corner < 8; corner++) {
+            BlockPos pos = BlockPos.of(transform.apply((corner & 1) != 0 ? sourceSize.getX() : 0,
+                    (corner & 2) != 0 ? sourceSize.getY() : 0, (corner & 4) != 0 ? sourceSize.getZ() : 0));
+            bounds[0] = Math.min(bounds[0], pos.getX());
+            bounds[1] = Math.min(bounds[1], pos.getY());
+            bounds[2] = Math.min(bounds[2], pos.getZ());
+            bounds[3] = Math.max(bounds[3], pos.getX());
+            bounds[4] = Math.max(bounds[4], pos.getY());
+            bounds[5] = Math.max(bounds[5], pos.getZ());
+        }
+        return bounds;
+    }
+
+    CompletableFuture<Result> start() {
+        return CompletableFuture.supplyAsync(this::run, POOL);
+    }
+
+    /**
+     * Stop at the next section boundary; the future then completes with a
+     * {@link CancellationException}.
+     */
+    void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Fraction of section work done over all passes, between 0 and 1.
+     */
+    double getProgress() {
+        int total = sectionCount * 3;
+        return total == 0 ? 0.0 : (double) sectionsDone.get() / total;
+    }
+
+    private Result run() {
+        List<int[]> sections = new ArrayList<>();
+        for (int sx = minX >> 4; sx <= maxX >> 4; sx++) {
+            for (int sy = minY >> 4; sy <= maxY >> 4; sy++) {
+                for (int sz = minZ >> 4; sz <= maxZ >> 4; sz++) {
+                    sections.add(new int[] { sx, sy, sz });
+                }
+            }
+        }
+
+        sectionCount = sections.size();
+        Result result = new Result(width * height * depth);
+
+        // Pass 1: source metrics and valid mask
+        List<Partial> pass1 = sections.parallelStream().map(s -> step(runPass1(s))).collect(Collectors.toList());
+        for (Partial partial : pass1) {
+            partial.mergeInto(result, result.validBlocks);
+        }
+
+        // Hull pass: reads the merged valid mask, which is no longer written
+        List<Partial> hull = sections.parallelStream().map(s -> step(runHullPass(s, result.validBlocks)))
+                .collect(Collectors.toList());
+        for (Partial partial : hull) {
+            partial.mergeInto(result, result.hullBlocks);
+        }
+
+        // Pass 2: destination feedback
+        List<Partial> pass2 = sections.parallelStream().map(s -> step(runPass2(s))).collect(Collectors.toList());
+        for (Partial partial : pass2) {
+            partial.mergeInto(result, null);
+        }
+        return result;
+    }
+
+    private Partial step(Partial partial) {
+        if (cancelled) {
+            throw new CancellationException("Scan cancelled");
+        }
+        sectionsDone.incrementAndGet();
+        return partial;
+    }
+
+    private int index(int x, int y, int z) {
+        return (x - minX) + width * ((y - minY) + height * (z - minZ));
+    }
+
+    private Partial runPass1(int[] section) {
+        Partial partial = new Partial();
+        forEachInSection(section, (x, y, z) -> {
+            if (filter != null && !filter.contains(x, y, z))
+                return;
+
+            BlockState state = source.get(x, y, z);
+            if (state.isAir()) {
+                if (includeAir) {
+                    partial.airBlockCount++;
+                    partial.totalBlocks++;
+                    partial.sourceBlockCounts.mergeInt(state, 1, Integer::sum);
+                    partial.indices.add(index(x, y, z));
+                }
+                return;
+            }
+
+            partial.totalBlocks++;
+            partial.sourceBlockCounts.mergeInt(state, 1, Integer::sum);
+            if (StructureTeleporter.isExcluded(state, excludedBlocks, checkExclusions)) {
+                partial.excludedCount++;
+                partial.excludedTypes.add(state);
+            } else {
+                partial.solidBlockCount++;
+                if (!state.getFluidState().isEmpty() && state.getFluidState().isSource()) {
+                    partial.fluidBlockCount++;
+                }
+                partial.indices.add(index(x, y, z));
+            }
+        });
+        return partial;
+    }
+
+    private Partial runHullPass(int[] section, java.util.BitSet validBlocks) {
+        Partial partial = new Partial();
+        forEachInSection(section, (x, y, z) -> {
+            int index = index(x, y, z);
+            if (validBlocks.get(index) && isHull(x - minX, y - minY, z - minZ, validBlocks)) {
+                partial.indices.add(index);
+            }
+        });
+        return partial;
+    }
+
+    private boolean isHull(int dx, int dy, int dz, java.util.BitSet validBlocks) {
+        return StructureTeleporter.isHullVoxel(validBlocks, dx, dy, dz, width, height, depth);
+    }
+
+    private Partial runPass2(int[] section) {
+        Partial partial = new Partial();
+        forEachInSection(section, (x, y, z) -> {
+            if (filter != null && !filter.contains(x, y, z))
+                return;
+            BlockState srcState = source.get(x, y, z);
+            if (srcState.isAir() && !includeAir)
+                return;
+            if (StructureTeleporter.isExcluded(srcState, excludedBlocks, checkExclusions))
+                return;
+
+            int dx = x - minX;
+            int dz = z - minZ;
+            int dstX = transform.applyX(dx, dz);
+            int dstY = transform.applyY(y - minY);
+            int dstZ = transform.applyZ(dx, dz);
+            if (StructureTeleporter.isOutsideHeightLimits(dstY, targetMinBuild, targetMaxBuild)) {
+                partial.skippedByLimitCount++;
+                return;
+            }
+
+            BlockState dstState = target.get(dstX, dstY, dstZ);
+            boolean isDstBlockFromSource = false;
+            if (sameLevel && dstX >= minX && dstX <= maxX
+                    && dstY >= minY && dstY <= maxY
+                    && dstZ >= minZ && dstZ <= maxZ) {
+                if (filter == null || filter.contains(dstX, dstY, dstZ)) {
+                    BlockState dstSourceState = source.get(dstX, dstY, dstZ);
+                    if (!StructureTeleporter.isExcluded(dstSourceState, excludedBlocks, checkExclusions)) {
+                        isDstBlockFromSource = true;
+                    }
+                }
+            }
+
+            BlockState effectiveDstState = isDstBlockFromSource ? Blocks.AIR.defaultBlockState() : dstState;
+            if (StructureTeleporter.shouldReplace(effectiveDstState, srcState, pasteMode, preservedBlocks)) {
+                partial.replacedCount++;
+                partial.replacedBlocksMap.mergeInt(dstState, 1, Integer::sum);
+                if (!dstState.isAir() && !isDstBlockFromSource)
+                    partial.destinationSolidBlocksLost++;
+            } else {
+                partial.skippedCount++;
+                partial.skippedBlocksMap.mergeInt(srcState, 1, Integer::sum);
+            }
+        });
+        return partial;
+    }
+
+    @FunctionalInterface
+    private interface VoxelVisitor {
+        void accept(int x, int y, int z);
+    }
+
+    private void forEachInSection(int[] section, VoxelVisitor visitor) {
+        int x0 = Math.max(minX, section[0] << 4), x1 = Math.min(maxX, (section[0] << 4) + 15);
+        int y0 = Math.max(minY, section[1] << 4), y1 = Math.min(maxY, (section[1] << 4) + 15);
+        int z0 = Math.max(minZ, section[2] << 4), z1 = Math.min(maxZ, (section[2] << 4) + 15);
+        for (int x = x0; x <= x1; x++) {
+            for (int y = y0; y <= y1; y++) {
+                for (int z = z0; z <= z1; z++) {
+                    visitor.accept(x, y, z);
+                }
+            }
+        }
+    }
+
+    /**
+     * Merged scan output, in the shape {@link StructureTeleporter.AsyncScanTask}
+     * keeps its metrics.
+     */
+    static final class Result {
+        int totalBlocks;
+        int excludedCount;
+        int replacedCount;
+        int skippedCount;
+        int skippedByLimitCount;
+        int airBlockCount;
+        int solidBlockCount;
+        int fluidBlockCount;
+        int destinationSolidBlocksLost;
+        final Set<BlockState> excludedTypes = new HashSet<>();
+        final Map<BlockState, Integer> sourceBlockCounts = new HashMap<>();
+        final Map<BlockState, Integer> replacedBlocksMap = new HashMap<>();
+        final Map<BlockState, Integer> skippedBlocksMap = new HashMap<>();
+        final java.util.BitSet validBlocks;
+        final java.util.BitSet hullBlocks;
+
+        Result(int volume) {
+            this.validBlocks = new java.util.BitSet(volume);
+            this.hullBlocks = new java.util.BitSet(volume);
+        }
+    }
+
+    /**
+     * Per-section result, written by a single worker only.
+     */
+    private static final class Partial {
+        int totalBlocks;
+        int excludedCount;
+        int replacedCount;
+        int skippedCount;
+        int skippedByLimitCount;
+        int airBlockCount;
+        int solidBlockCount;
+        int fluidBlockCount;
+        int destinationSolidBlocksLost;
+        final Set<BlockState> excludedTypes = new HashSet<>();
+        final Reference2IntOpenHashMap<BlockState> sourceBlockCounts = new Reference2IntOpenHashMap<>();
+        final Reference2IntOpenHashMap<BlockState> replacedBlocksMap = new Reference2IntOpenHashMap<>();
+        final Reference2IntOpenHashMap<BlockState> skippedBlocksMap = new Reference2IntOpenHashMap<>();
+        final IntArrayList indices = new IntArrayList();
+
+        void mergeInto(Result result, java.util.BitSet mask) {
+            result.totalBlocks += totalBlocks;
+            result.excludedCount += excludedCount;
+            result.replacedCount += replacedCount;
+            result.skippedCount += skippedCount;
+            result.skippedByLimitCount += skippedByLimitCount;
+            result.airBlockCount += airBlockCount;
+            result.solidBlockCount += solidBlockCount;
+            result.fluidBlockCount += fluidBlockCount;
+            result.destinationSolidBlocksLost += destinationSolidBlocksLost;
+            result.excludedTypes.addAll(excludedTypes);
+            mergeCounts(sourceBlockCounts, result.sourceBlockCounts);
+            mergeCounts(replacedBlocksMap, result.replacedBlocksMap);
+            mergeCounts(skippedBlocksMap, result.skippedBlocksMap);
+            if (mask != null) {
+                for (int i = 0; i < indices.size(); i++) {
+                    mask.set(indices.getInt(i));
+                }
+            }
+        }
+
+        private static void mergeCounts(Reference2IntOpenHashMap<BlockState> from, Map<BlockState, Integer> into) {
+            for (Reference2IntMap.Entry<BlockState> entry : from.reference2IntEntrySet()) {
+                into.merge(entry.getKey(), entry.getIntValue(), Integer::sum);
+            }
+        }
+    }
+
+    /**
+     * Immutable copy of the block palettes of every section that intersects a
+     * box. Built on the main thread, column by column, and then safe to read
+     * from any thread.
+     */
+    static final class SectionCopy {
+        private final Level level;
+        // Pending columns as {cx, cz, minSectionY, maxSectionY}
+        private final List<int[]> columns = new ArrayList<>();
+        private final Long2ObjectOpenHashMap<PalettedContainer<BlockState>> sections = new Long2ObjectOpenHashMap<>();
+        private int nextColumn = 0;
+
+        SectionCopy(Level level) {
+            this.level = level;
+        }
+
+        /**
+         * Queue every chunk column intersecting the box. Boxes may be far
+         * apart; only their own columns are copied.
+         */
+        SectionCopy addBox(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+            int minSy = Math.max(minY >> 4, level.getMinSection());
+            int maxSy = Math.min(maxY >> 4, level.getMaxSection() - 1);
+            for (int cx = minX >> 4; cx <= maxX >> 4; cx++) {
+                for (int cz = minZ >> 4; cz <= maxZ >> 4; cz++) {
+                    columns.add(new int[] { cx, cz, minSy, maxSy });
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Copy queued chunk columns until done or past the deadline.
+         *
+         * @return true once every column has been copied
+         */
+        boolean copyUntil(long deadlineNanos) {
+            while (nextColumn < columns.size()) {
+                int[] column = columns.get(nextColumn++);
+                LevelChunk chunk = level.getChunk(column[0], column[1]);
+                for (int sy = column[2]; sy <= column[3]; sy++) {
+                    long key = SectionPos.asLong(column[0], sy, column[1]);
+                    if (sections.containsKey(key)) {
+                        continue;
+                    }
+                    LevelChunkSection section = chunk.getSection(chunk.getSectionIndexFromSectionY(sy));
+                    if (!section.hasOnlyAir()) {
+                        sections.put(key, section.getStates().copy());
+                    }
+                }
+                if (System.nanoTime() - deadlineNanos >= 0) {
+                    break;
+                }
+            }
+            return nextColumn >= columns.size();
+        }
+
+        /**
+         * Block state at a position inside a copied box. Positions outside the
+         * level's height are void air, like {@code Level#getBlockState}.
+         */
+        BlockState get(int x, int y, int z) {
+            int sy = y >> 4;
+            if (sy < level.getMinSection() || sy >= level.getMaxSection()) {
+                return Blocks.VOID_AIR.defaultBlockState();
+            }
+            PalettedContainer<BlockState> states = sections.get(SectionPos.asLong(x >> 4, sy, z >> 4));
+            return states == null ? Blocks.AIR.defaultBlockState() : states.get(x & 15, y & 15, z & 15);
+        }
+
+        Level getLevel() {
+            return level;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.teleportapi;
+
+import com.teleportapi.jfr.TeleportPhaseEvent;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Where the time of one teleport went.
+ * <p>
+ * Phases are accumulated in nanoseconds, so work that is spread over several
+ * scheduler slices (async pastes) adds up. Allocation is measured per thread
+ * through {@code com.sun.management.ThreadMXBean} and summed over the spans
+ * bracketed by {@link #beginAllocation()} / {@link #endAllocation()}; it is
+ * {@code -1} when the JVM does not expose it. Not thread safe; a teleport is
+ * driven from the server thread.
+ * <p>
+ * While a JFR recording has {@link TeleportPhaseEvent} enabled, every
+ * {@link #lap} also commits one event spanning from the previous
+ * {@link #start()} or lap, tagged with the request id and the current
+ * {@link #setEventScope scope}. Otherwise no event is kept.
+ */
+public final class PhaseTimings {
+    public enum Phase {
+        SCAN,
+        PERMISSION_CHECK,
+        // Building paste and undo data once the scan has read the source
+        CAPTURE,
+        CLEAR,
+        PASTE,
+        NEIGHBOR_UPDATES,
+        CLIENT_SYNC,
+        ENTITY_TRANSFER,
+        // Wall time spent waiting for chunk tickets to load
+        CHUNK_LOAD_WAIT
+    }
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final boolean ALLOCATION_SUPPORTED = initAllocationSupport();
+
+    private final long[] nanos = new long[Phase.values().length];
+    private int ticksSpanned = 0;
+    private long allocatedBytes = ALLOCATION_SUPPORTED ? 0L : -1L;
+    private long allocationMark = -1L;
+
+    private long requestId = 0L;
+    private long scopeBlocks = 0L;
+    private int scopeChunks = 0;
+    private TeleportPhaseEvent phaseEvent;
+
+    private static boolean initAllocationSupport() {
+        try {
+            if (THREADS instanceof com.sun.management.ThreadMXBean sun
+                    && sun.isThreadAllocatedMemorySupported()) {
+                if (!sun.isThreadAllocatedMemoryEnabled()) {
+                    sun.setThreadAllocatedMemoryEnabled(true);
+                }
+                return sun.isThreadAllocatedMemoryEnabled();
+            }
+        } catch (UnsupportedOperationException | SecurityException | LinkageError e) {
+            // Not a HotSpot-style JVM
+        }
+        return false;
+    }
+
+    /**
+     * Bytes allocated so far by the current thread, or -1 if unsupported.
+     */
+    public static long currentThreadAllocatedBytes() {
+        if (!ALLOCATION_SUPPORTED) {
+            return -1L;
+        }
+        return ((com.sun.management.ThreadMXBean) THREADS).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    public void setRequestId(long requestId) {
+        this.requestId = requestId;
+    }
+
+    public long getRequestId() {
+        return requestId;
+    }
+
+    /**
+     * Blocks and chunk columns the following phases work on, reported in
+     * their JFR events.
+     */
+    public void setEventScope(long blocks, int chunks) {
+        this.scopeBlocks = blocks;
+        this.scopeChunks = chunks;
+    }
+
+    /**
+     * Start of a phase that does not directly follow a {@link #lap}.
+     *
+     * @return {@link System#nanoTime()}, to pass to {@link #lap}
+     */
+    public long start() {
+        beginPhaseEvent();
+        return System.nanoTime();
+    }
+
+    public void add(Phase phase, long elapsedNanos) {
+        nanos[phase.ordinal()] += elapsedNanos;
+    }
+
+    /**
+     * Add the time since {@code startNanos} ({@link System#nanoTime()}) to
+     * {@code phase} and return the current time, so consecutive phases can be
+     * chained.
+     */
+    public long lap(Phase phase, long startNanos) {
+        long now = System.nanoTime();
+        nanos[phase.ordinal()] += now - startNanos;
+        commitPhaseEvent(phase);
+        beginPhaseEvent();
+        return now;
+    }
+
+    private void beginPhaseEvent() {
+        TeleportPhaseEvent event = new TeleportPhaseEvent();
+        if (event.isEnabled()) {
+            event.begin();
+            phaseEvent = event;
+        } else {
+            phaseEvent = null;
+        }
+    }
+
+    private void commitPhaseEvent(Phase phase) {
+        TeleportPhaseEvent event = phaseEvent;
+        phaseEvent = null;
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.requestId = requestId;
+            event.phase = phase.name();
+            event.blocksProcessed = scopeBlocks;
+            event.chunksTouched = scopeChunks;
+            event.commit();
+        }
+    }
+
+    public long getNanos(Phase phase) {
+        return nanos[phase.ordinal()];
+    }
+
+    /**
+     * Sum of all phases except {@link Phase#CHUNK_LOAD_WAIT}, which is wall
+     * time during which the server did other work.
+     */
+    public long getBusyNanos() {
+        long total = 0;
+        for (Phase phase : Phase.values()) {
+            if (phase != Phase.CHUNK_LOAD_WAIT) {
+                total += nanos[phase.ordinal()];
+            }
+        }
+        return total;
+    }
+
+    public void addTick() {
+        ticksSpanned++;
+    }
+
+    public void setTicksSpanned(int ticks) {
+        this.ticksSpanned = ticks;
+    }
+
+    public int getTicksSpanned() {
+        return ticksSpanned;
+    }
+
+    public void beginAllocation() {
+        allocationMark = currentThreadAllocatedBytes();
+    }
+
+    public void endAllocation() {
+        if (allocationMark >= 0) {
+            long now = currentThreadAllocatedBytes();
+            if (now >= allocationMark) {
+                allocatedBytes += now - allocationMark;
+            }
+            allocationMark = -1L;
+        }
+    }
+
+    /**
+     * Bytes allocated on the server thread by this teleport, -1 if the JVM
+     * does not expose per-thread allocation.
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    public Map<Phase, Long> asMap() {
+        Map<Phase, Long> map = new EnumMap<>(Phase.class);
+        for (Phase phase : Phase.values()) {
+            map.put(phase, nanos[phase.ordinal()]);
+        }
+        return map;
+    }
+
+    public PhaseTimings copy() {
+        PhaseTimings copy = new PhaseTimings();
+        System.arraycopy(nanos, 0, copy.nanos, 0, nanos.length);
+        copy.ticksSpanned = ticksSpanned;
+        copy.allocatedBytes = allocatedBytes;
+        copy.requestId = requestId;
+        return copy;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("PhaseTimings{");
+        for (Phase phase : Phase.values()) {
+            long value = nanos[phase.ordinal()];
+            if (value > 0) {
+                sb.append(phase.name().toLowerCase()).append('=')
+                        .append(String.format(java.util.Locale.ROOT, "%.3fms", value / 1_000_000.0)).append(", ");
+            }
+        }
+        sb.append("ticks=").append(ticksSpanned);
+        sb.append(", allocated=").append(allocatedBytes);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,412 @@
+package com.teleportapi;
+
+import net.minecraft.core.BlockPos;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A set of block positions stored as a dense bitset over a bounding box.
+ * <p>
+ * Bits use the same layout as the scan masks
+ * ({@code dx + sizeX * (dy + sizeY * dz)}, relative to {@link #getMin()}),
+ * so a mask over a selection lines up with {@code validBlocksMask} and
+ * {@code hullMask}. Membership is a bounds check and one bit test, with no
+ * {@link BlockPos} allocation. An empty mask has a zero-sized box.
+ */
+public final class RegionMask {
+    private final int minX, minY, minZ;
+    private final int sizeX, sizeY, sizeZ;
+    private final java.util.BitSet bits;
+
+    /**
+     * Empty mask over the box {@code min..max} (inclusive).
+     */
+    public RegionMask(BlockPos min, BlockPos max) {
+        this(min, max, new java.util.BitSet());
+    }
+
+    /**
+     * Mask over {@code min..max} backed by {@code bits} (not copied).
+     */
+    public RegionMask(BlockPos min, BlockPos max, java.util.BitSet bits) {
+        this(min.getX(), min.getY(), min.getZ(), max.getX() - min.getX() + 1, max.getY() - min.getY() + 1,
+                max.getZ() - min.getZ() + 1, bits);
+    }
+
+    private RegionMask(int minX, int minY, int minZ, int sizeX, int sizeY, int sizeZ, java.util.BitSet bits) {
+        if (sizeX < 0 || sizeY < 0 || sizeZ < 0 || (long) sizeX * sizeY * sizeZ > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid mask size: " + sizeX + "x" + sizeY + "x" + sizeZ);
+        }
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.sizeX = sizeX;
+        this.sizeY = sizeY;
+        this.sizeZ = sizeZ;
+        this.bits = bits;
+    }
+
+    public static RegionMask empty() {
+        return new RegionMask(0, 0, 0, 0, 0, 0, new java.util.BitSet());
+    }
+
+    /**
+     * Mask with every position of {@code min..max} set.
+     */
+    public static RegionMask full(BlockPos min, BlockPos max) {
+        RegionMask mask = new RegionMask(min, max);
+        mask.bits.set(0, mask.getVolume());
+        return mask;
+    }
+
+    /**
+     * Adapter for the {@code Set<BlockPos>} API: a mask over the bounding box
+     * of {@code positions}.
+     */
+    public static RegionMask of(Collection<BlockPos> positions) {
+        if (positions.isEmpty()) {
+            return empty();
+        }
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+        for (BlockPos pos : positions) {
+            minX = Math.min(minX, pos.getX());
+            minY = Math.min(minY, pos.getY());
+            minZ = Math.min(minZ, pos.getZ());
+            maxX = Math.max(maxX, pos.getX());
+            maxY = Math.max(maxY, pos.getY());
+            maxZ = Math.max(maxZ, pos.getZ());
+        }
+        RegionMask mask = new RegionMask(new BlockPos(minX, minY, minZ), new BlockPos(maxX, maxY, maxZ));
+        for (BlockPos pos : positions) {
+            mask.set(pos.getX(), pos.getY(), pos.getZ());
+        }
+        return mask;
+    }
+
+    public BlockPos getMin() {
+        return new BlockPos(minX, minY, minZ);
+    }
+
+    /**
+     * Inclusive maximum corner. Meaningless for a zero-sized mask.
+     */
+    public BlockPos getMax() {
+        return new BlockPos(minX + sizeX - 1, minY + sizeY - 1, minZ + sizeZ - 1);
+    }
+
+    public int getSizeX() {
+        return sizeX;
+    }
+
+    public int getSizeY() {
+        return sizeY;
+    }
+
+    public int getSizeZ() {
+        return sizeZ;
+    }
+
+    public int getVolume() {
+        return sizeX * sizeY * sizeZ;
+    }
+
+    /**
+     * Bit index of an absolute position, or -1 outside the box.
+     */
+    public int index(int x, int y, int z) {
+        int dx = x - minX;
+        int dy = y - minY;
+        int dz = z - minZ;
+        if (dx < 0 || dy < 0 || dz < 0 || dx >= sizeX || dy >= sizeY || dz >= sizeZ) {
+            return -1;
+        }
+        return dx + sizeX * (dy + sizeY * dz);
+    }
+
+    public boolean contains(int x, int y, int z) {
+        int index = index(x, y, z);
+        return index >= 0 && bits.get(index);
+    }
+
+    public boolean contains(BlockPos pos) {
+        return contains(pos.getX(), pos.getY(), pos.getZ());
+    }
+
+    /**
+     * @throws IllegalArgumentException if the position is outside the box
+     */
+    public void set(int x, int y, int z) {
+        int index = index(x, y, z);
+        if (index < 0) {
+            throw new IllegalArgumentException("Position outside mask: " + x + ", " + y + ", " + z);
+        }
+        bits.set(index);
+    }
+
+    public void clear(int x, int y, int z) {
+        int index = index(x, y, z);
+        if (index >= 0) {
+            bits.clear(index);
+        }
+    }
+
+    public int cardinality() {
+        return bits.cardinality();
+    }
+
+    public boolean isEmpty() {
+        return bits.isEmpty();
+    }
+
+    /**
+     * The backing bitset, in the layout described on the class.
+     */
+    public java.util.BitSet getBits() {
+        return bits;
+    }
+
+    public RegionMask copy() {
+        return new RegionMask(minX, minY, minZ, sizeX, sizeY, sizeZ, (java.util.BitSet) bits.clone());
+    }
+
+    /**
+     * Positions set in either mask, over the box enclosing both.
+     */
+    public RegionMask union(RegionMask other) {
+        if (sameBox(other)) {
+            RegionMask result = copy();
+            result.bits.or(other.bits);
+            return result;
+        }
+        if (getVolume() == 0) {
+            return other.copy();
+        }
+        if (other.getVolume() == 0) {
+            return copy();
+        }
+        int x0 = Math.min(minX, other.minX);
+        int y0 = Math.min(minY, other.minY);
+        int z0 = Math.min(minZ, other.minZ);
+        int x1 = Math.max(minX + sizeX, other.minX + other.sizeX);
+        int y1 = Math.max(minY + sizeY, other.minY + other.sizeY);
+        int z1 = Math.max(minZ + sizeZ, other.minZ + other.sizeZ);
+        RegionMask result = new RegionMask(x0, y0, z0, x1 - x0, y1 - y0, z1 - z0, new java.util.BitSet());
+        copyInto(result);
+        other.copyInto(result);
+        return result;
+    }
+
+    /**
+     * Positions set in both masks, over the overlap of the two boxes.
+     */
+    public RegionMask intersect(RegionMask other) {
+        if (sameBox(other)) {
+            RegionMask result = copy();
+            result.bits.and(other.bits);
+            return result;
+        }
+        int x0 = Math.max(minX, other.minX);
+        int y0 = Math.max(minY, other.minY);
+        int z0 = Math.max(minZ, other.minZ);
+        int x1 = Math.min(minX + sizeX, other.minX + other.sizeX);
+        int y1 = Math.min(minY + sizeY, other.minY + other.sizeY);
+        int z1 = Math.min(minZ + sizeZ, other.minZ + other.sizeZ);
+        if (x1 <= x0 || y1 <= y0 || z1 <= z0) {
+            return empty();
+        }
+        RegionMask result = new RegionMask(x0, y0, z0, x1 - x0, y1 - y0, z1 - z0, new java.util.BitSet());
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            int x = minX + i % sizeX;
+            int rest = i / sizeX;
+            int y = minY + rest % sizeY;
+            int z = minZ + rest / sizeY;
+            if (other.contains(x, y, z)) {
+                result.set(x, y, z);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Positions set in this mask but not in {@code other}, over this box.
+     */
+    public RegionMask subtract(RegionMask other) {
+        RegionMask result = copy();
+        if (sameBox(other)) {
+            result.bits.andNot(other.bits);
+            return result;
+        }
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            int x = minX + i % sizeX;
+            int rest = i / sizeX;
+            if (other.contains(x, minY + rest % sizeY, minZ + rest / sizeY)) {
+                result.bits.clear(i);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Grow the mask by {@code radius} face-connected steps. The box grows by
+     * one on every side per step, so nothing is clipped.
+     */
+    public RegionMask dilate(int radius) {
+        if (radius < 0) {
+            throw new IllegalArgumentException("Negative radius: " + radius);
+        }
+        RegionMask current = this;
+        for (int step = 0; step < radius && !current.isEmpty(); step++) {
+            RegionMask next = new RegionMask(current.minX - 1, current.minY - 1, current.minZ - 1,
+                    current.sizeX + 2, current.sizeY + 2, current.sizeZ + 2, new java.util.BitSet());
+            int nx = next.sizeX;
+            int plane = nx * next.sizeY;
+            java.util.BitSet src = current.bits;
+            for (int i = src.nextSetBit(0); i >= 0; i = src.nextSetBit(i + 1)) {
+                int dx = i % current.sizeX;
+                int rest = i / current.sizeX;
+                // Shift into the grown box, which always has room for the neighbours
+                int index = (dx + 1) + nx * ((rest % current.sizeY + 1) + next.sizeY * (rest / current.sizeY + 1));
+                next.bits.set(index - 1, index + 2);
+                next.bits.set(index - nx);
+                next.bits.set(index + nx);
+                next.bits.set(index - plane);
+                next.bits.set(index + plane);
+            }
+            current = next;
+        }
+        return current == this ? copy() : current;
+    }
+
+    /**
+     * Shrink the mask by {@code radius} face-connected steps: a position
+     * survives a step only if all six neighbours are set. Positions outside
+     * the box count as unset. The box is unchanged.
+     */
+    public RegionMask erode(int radius) {
+        if (radius < 0) {
+            throw new IllegalArgumentException("Negative radius: " + radius);
+        }
+        int plane = sizeX * sizeY;
+        java.util.BitSet current = bits;
+        for (int step = 0; step < radius && !current.isEmpty(); step++) {
+            java.util.BitSet next = new java.util.BitSet(getVolume());
+            for (int i = current.nextSetBit(0); i >= 0; i = current.nextSetBit(i + 1)) {
+                int dx = i % sizeX;
+                int rest = i / sizeX;
+                int dy = rest % sizeY;
+                int dz = rest / sizeY;
+                if (dx > 0 && dx < sizeX - 1 && dy > 0 && dy < sizeY - 1 && dz > 0 && dz < sizeZ - 1
+                        && current.get(i - 1) && current.get(i + 1)
+                        && current.get(i - sizeX) && current.get(i + sizeX)
+                        && current.get(i - plane) && current.get(i + plane)) {
+                    next.set(i);
+                }
+            }
+            current = next;
+        }
+        return new RegionMask(minX, minY, minZ, sizeX, sizeY, sizeZ,
+                current == bits ? (java.util.BitSet) bits.clone() : current);
+    }
+
+    /**
+     * This mask re-laid over the box {@code min..max}; positions outside the
+     * new box are dropped. Used to turn a mask into a selection-relative
+     * {@code validBlocksMask}/{@code hullMask}.
+     */
+    public RegionMask reframe(BlockPos min, BlockPos max) {
+        RegionMask result = new RegionMask(min, max);
+        if (sameBox(result)) {
+            result.bits.or(bits);
+            return result;
+        }
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            int x = minX + i % sizeX;
+            int rest = i / sizeX;
+            int index = result.index(x, minY + rest % sizeY, minZ + rest / sizeY);
+            if (index >= 0) {
+                result.bits.set(index);
+            }
+        }
+        return result;
+    }
+
+    private boolean sameBox(RegionMask other) {
+        return minX == other.minX && minY == other.minY && minZ == other.minZ
+                && sizeX == other.sizeX && sizeY == other.sizeY && sizeZ == other.sizeZ;
+    }
+
+    private void copyInto(RegionMask target) {
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            int x = minX + i % sizeX;
+            int rest = i / sizeX;
+            target.bits.set(target.index(x, minY + rest % sizeY, minZ + rest / sizeY));
+        }
+    }
+
+    /**
+     * Read-only {@code Set<BlockPos>} view; {@code contains} is a bit test.
+     */
+    public Set<BlockPos> asSet() {
+        return new AbstractSet<>() {
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof BlockPos pos && RegionMask.this.contains(pos);
+            }
+
+            @Override
+            public int size() {
+                return cardinality();
+            }
+
+            @Override
+            public boolean isEmpty() {
+                return RegionMask.this.isEmpty();
+            }
+
+            @Override
+            public Iterator<BlockPos> iterator() {
+                return new Iterator<>() {
+                    private int next = bits.nextSetBit(0);
+
+                    @Override
+                    public boolean hasNext() {
+                        return next >= 0;
+                    }
+
+                    @Override
+                    public BlockPos next() {
+                        if (next < 0) {
+                            throw new NoSuchElementException();
+                        }
+                        BlockPos pos = toPos(next);
+                        next = bits.nextSetBit(next + 1);
+                        return pos;
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Materialized copy of the positions, for callers that need a mutable set.
+     */
+    public Set<BlockPos> toPositionSet() {
+        Set<BlockPos> positions = new HashSet<>(Math.max(16, cardinality() * 4 / 3 + 1));
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            positions.add(toPos(i));
+        }
+        return positions;
+    }
+
+    private BlockPos toPos(int index) {
+        int dx = index % sizeX;
+        int rest = index / sizeX;
+        return new BlockPos(minX + dx, minY + rest % sizeY, minZ + rest / sizeY);
+    }
+}
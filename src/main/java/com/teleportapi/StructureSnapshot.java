@@ -0,0 +1,346 @@
+package com.teleportapi;
+
+import com.teleportapi.StructureTeleporter.BlockData;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.util.SimpleBitStorage;
+import net.minecraft.world.level.block.state.BlockState;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Palette-compressed, in-memory copy of a structure.
+ * <p>
+ * Positions are implicit: every voxel of the bounding box has a dense index
+ * {@code x + sizeX * (y + sizeY * z)} (the same layout as
+ * {@link TeleportResult#getValidBlocksMask()}). Each index stores a palette id
+ * in a packed bit array, the same way vanilla's {@code PalettedContainer} does.
+ * Palette id 0 is reserved for "not captured" (filtered, excluded or skipped
+ * air). Block entity NBT is kept in a sparse map keyed by dense index.
+ * <p>
+ * A captured block costs {@code bits} bits instead of a
+ * {@link BlockData}/{@link BlockPos} pair, which keeps multi-million block
+ * regions on the heap.
+ */
+public class StructureSnapshot {
+    private final int sizeX;
+    private final int sizeY;
+    private final int sizeZ;
+    private final int volume;
+    // Offset of local (0,0,0) relative to the structure origin
+    private final BlockPos offset;
+
+    private final List<BlockState> palette = new ArrayList<>();
+    private final Map<BlockState, Integer> paletteIds = new IdentityHashMap<>();
+    private final Int2ObjectMap<CompoundTag> blockEntities = new Int2ObjectOpenHashMap<>();
+    private SimpleBitStorage storage;
+    private int blockCount;
+
+    /**
+     * Visitor for captured blocks. Coordinates are local to the snapshot
+     * (0..size-1); add {@link #getOffset()} to get structure-relative positions.
+     */
+    @FunctionalInterface
+    public interface BlockVisitor {
+        void accept(int x, int y, int z, BlockState state, @Nullable CompoundTag nbt);
+    }
+
+    public StructureSnapshot(int sizeX, int sizeY, int sizeZ) {
+        this(sizeX, sizeY, sizeZ, BlockPos.ZERO);
+    }
+
+    public StructureSnapshot(int sizeX, int sizeY, int sizeZ, BlockPos offset) {
+        if (sizeX <= 0 || sizeY <= 0 || sizeZ <= 0) {
+            throw new IllegalArgumentException("Snapshot size must be positive: " + sizeX + "x" + sizeY + "x" + sizeZ);
+        }
+        long longVolume = (long) sizeX * sizeY * sizeZ;
+        if (longVolume > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Snapshot volume too large: " + longVolume);
+        }
+        this.sizeX = sizeX;
+        this.sizeY = sizeY;
+        this.sizeZ = sizeZ;
+        this.volume = (int) longVolume;
+        this.offset = offset;
+        this.palette.add(null); // id 0 = not captured
+        this.storage = new SimpleBitStorage(1, volume);
+    }
+
+    /**
+     * Build a snapshot from a legacy block list. The bounding box is derived
+     * from the relative positions, so negative positions are supported.
+     */
+    public static StructureSnapshot fromBlockDataList(List<BlockData> blocks) {
+        if (blocks == null || blocks.isEmpty()) {
+            return null;
+        }
+
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+        for (BlockData data : blocks) {
+            BlockPos pos = data.relativePos;
+            minX = Math.min(minX, pos.getX());
+            minY = Math.min(minY, pos.getY());
+            minZ = Math.min(minZ, pos.getZ());
+            maxX = Math.max(maxX, pos.getX());
+            maxY = Math.max(maxY, pos.getY());
+            maxZ = Math.max(maxZ, pos.getZ());
+        }
+
+        StructureSnapshot snapshot = new StructureSnapshot(maxX - minX + 1, maxY - minY + 1, maxZ - minZ + 1,
+                new BlockPos(minX, minY, minZ));
+        for (BlockData data : blocks) {
+            BlockPos pos = data.relativePos;
+            snapshot.set(pos.getX() - minX, pos.getY() - minY, pos.getZ() - minZ, data.blockState, data.nbt);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Rebuild a snapshot from its serialized parts, the inverse of
+     * {@link #getPalette()}, {@link #getBitsPerBlock()}, {@link #getPackedIds()}
+     * and {@link #getBlockEntities()}. {@code palette} must start with the
+     * {@code null} "not captured" entry.
+     */
+    public static StructureSnapshot fromPacked(int sizeX, int sizeY, int sizeZ, BlockPos offset,
+            List<BlockState> palette, int bits, long[] packedIds, Int2ObjectMap<CompoundTag> blockEntities) {
+        if (palette.isEmpty() || palette.get(0) != null) {
+            throw new IllegalArgumentException("Palette must start with the empty entry");
+        }
+        StructureSnapshot snapshot = new StructureSnapshot(sizeX, sizeY, sizeZ, offset);
+        for (int id = 1; id < palette.size(); id++) {
+            BlockState state = palette.get(id);
+            snapshot.palette.add(state);
+            snapshot.paletteIds.putIfAbsent(state, id);
+        }
+        snapshot.storage = new SimpleBitStorage(bits, snapshot.volume, packedIds);
+        for (int i = 0; i < snapshot.volume; i++) {
+            int id = snapshot.storage.get(i);
+            if (id >= palette.size()) {
+                throw new IllegalArgumentException("Palette id " + id + " out of range at index " + i);
+            }
+            if (id != 0) {
+                snapshot.blockCount++;
+            }
+        }
+        snapshot.blockEntities.putAll(blockEntities);
+        return snapshot;
+    }
+
+    /**
+     * Convert back to the legacy list representation (x -> y -> z order, the
+     * same order {@code copyStructure} produces).
+     */
+    public List<BlockData> toBlockDataList() {
+        List<BlockData> blocks = new ArrayList<>(blockCount);
+        forEachBlock((x, y, z, state, nbt) -> blocks.add(new BlockData(
+                new BlockPos(offset.getX() + x, offset.getY() + y, offset.getZ() + z), state, nbt)));
+        return blocks;
+    }
+
+    /**
+     * Read-only {@link BlockData} view in the order of {@link #toBlockDataList()}.
+     * Only the dense index of each captured block is kept (4 bytes instead of a
+     * {@link BlockData}/{@link BlockPos} pair); elements are created on each
+     * {@link List#get} call, and {@link List#sort} reorders the indices. The
+     * view does not follow later changes to the snapshot.
+     */
+    public List<BlockData> asBlockDataList() {
+        return new BlockDataView();
+    }
+
+    private final class BlockDataView extends AbstractList<BlockData> implements RandomAccess {
+        private final int[] indices = new int[blockCount];
+
+        BlockDataView() {
+            int n = 0;
+            for (int x = 0; x < sizeX; x++) {
+                for (int y = 0; y < sizeY; y++) {
+                    for (int z = 0; z < sizeZ; z++) {
+                        int index = index(x, y, z);
+                        if (storage.get(index) != 0) {
+                            indices[n++] = index;
+                        }
+                    }
+                }
+            }
+        }
+
+        @Override
+        public int size() {
+            return indices.length;
+        }
+
+        @Override
+        public BlockData get(int i) {
+            return blockAt(indices[i]);
+        }
+
+        @Override
+        public void sort(Comparator<? super BlockData> comparator) {
+            IntArrays.mergeSort(indices, (a, b) -> comparator.compare(blockAt(a), blockAt(b)));
+        }
+
+        private BlockData blockAt(int index) {
+            int x = index % sizeX;
+            int y = (index / sizeX) % sizeY;
+            int z = index / (sizeX * sizeY);
+            return new BlockData(new BlockPos(offset.getX() + x, offset.getY() + y, offset.getZ() + z),
+                    palette.get(storage.get(index)), blockEntities.get(index));
+        }
+    }
+
+    public int index(int x, int y, int z) {
+        return x + sizeX * (y + sizeY * z);
+    }
+
+    /**
+     * Store a block at local coordinates. A {@code null} state clears the voxel.
+     */
+    public void set(int x, int y, int z, @Nullable BlockState state, @Nullable CompoundTag nbt) {
+        set(index(x, y, z), state, nbt);
+    }
+
+    public void set(int index, @Nullable BlockState state, @Nullable CompoundTag nbt) {
+        int id = state == null ? 0 : idFor(state);
+        int previous = storage.getAndSet(index, id);
+        if (previous == 0 && id != 0) {
+            blockCount++;
+        } else if (previous != 0 && id == 0) {
+            blockCount--;
+        }
+
+        if (nbt != null && id != 0) {
+            blockEntities.put(index, nbt);
+        } else {
+            blockEntities.remove(index);
+        }
+    }
+
+    private int idFor(BlockState state) {
+        Integer id = paletteIds.get(state);
+        if (id != null) {
+            return id;
+        }
+
+        int newId = palette.size();
+        palette.add(state);
+        paletteIds.put(state, newId);
+
+        // Grow the packed storage when the palette outgrows the current bit width
+        if (newId >= (1 << storage.getBits())) {
+            SimpleBitStorage grown = new SimpleBitStorage(storage.getBits() + 1, volume);
+            for (int i = 0; i < volume; i++) {
+                grown.set(i, storage.get(i));
+            }
+            storage = grown;
+        }
+        return newId;
+    }
+
+    @Nullable
+    public BlockState getState(int x, int y, int z) {
+        return getState(index(x, y, z));
+    }
+
+    @Nullable
+    public BlockState getState(int index) {
+        return palette.get(storage.get(index));
+    }
+
+    public boolean isPresent(int index) {
+        return storage.get(index) != 0;
+    }
+
+    @Nullable
+    public CompoundTag getBlockEntityTag(int index) {
+        return blockEntities.get(index);
+    }
+
+    /**
+     * Visit every captured block in x -> y -> z order.
+     */
+    public void forEachBlock(BlockVisitor visitor) {
+        for (int x = 0; x < sizeX; x++) {
+            for (int y = 0; y < sizeY; y++) {
+                for (int z = 0; z < sizeZ; z++) {
+                    int index = index(x, y, z);
+                    int id = storage.get(index);
+                    if (id != 0) {
+                        visitor.accept(x, y, z, palette.get(id), blockEntities.get(index));
+                    }
+                }
+            }
+        }
+    }
+
+    public int getSizeX() {
+        return sizeX;
+    }
+
+    public int getSizeY() {
+        return sizeY;
+    }
+
+    public int getSizeZ() {
+        return sizeZ;
+    }
+
+    public int getVolume() {
+        return volume;
+    }
+
+    /**
+     * Position of local (0,0,0) relative to the structure origin.
+     */
+    public BlockPos getOffset() {
+        return offset;
+    }
+
+    /**
+     * Number of captured (non-empty) voxels.
+     */
+    public int getBlockCount() {
+        return blockCount;
+    }
+
+    public boolean isEmpty() {
+        return blockCount == 0;
+    }
+
+    /**
+     * Palette entries, index 0 is always {@code null} (not captured).
+     */
+    public List<BlockState> getPalette() {
+        return Collections.unmodifiableList(palette);
+    }
+
+    public int getBitsPerBlock() {
+        return storage.getBits();
+    }
+
+    /**
+     * Sparse block entity data keyed by dense index.
+     */
+    public Int2ObjectMap<CompoundTag> getBlockEntities() {
+        return it.unimi.dsi.fastutil.ints.Int2ObjectMaps.unmodifiable(blockEntities);
+    }
+
+    /**
+     * Raw packed palette ids, for serialization.
+     */
+    public long[] getPackedIds() {
+        return storage.getRaw();
+    }
+}
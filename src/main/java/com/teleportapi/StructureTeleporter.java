@@ -1,6 +1,7 @@
 package com.teleportapi;
 
 import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
 
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.FloatTag;
@@ -8,6 +9,9 @@ import net.minecraft.nbt.ListTag;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.PalettedContainer;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.block.state.properties.BlockStateProperties;
 import net.minecraft.world.level.block.Rotation;
@@ -19,15 +23,26 @@ import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.server.level.ServerLevel;
-import net.minecraft.server.level.TicketType;
+import net.minecraft.server.MinecraftServer;
 import com.teleportapi.permissions.PermissionHelper;
 import com.teleportapi.permissions.PermissionHelper.CheckResult;
-import net.minecraft.world.level.ChunkPos;
 
 import com.teleportapi.event.StructureTeleportEvent;
+import com.teleportapi.jfr.TeleportJobEvent;
+import com.teleportapi.structure.StructureBlockList;
+import com.teleportapi.structure.StructureFileFormat;
+import com.teleportapi.structure.StructureFileReader;
+import com.teleportapi.structure.StructureSection;
+import com.teleportapi.world.ChunkTicketManager;
+import com.teleportapi.world.ClientSyncPlanner;
+import com.teleportapi.world.RegionLockManager;
+import com.teleportapi.world.SectionPasteWriter;
 import net.minecraftforge.common.MinecraftForge;
-import net.minecraftforge.event.TickEvent;
-import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.server.ServerLifecycleHooks;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 
@@ -37,6 +52,7 @@ import java.util.List;
 import java.util.Map;
 
 import java.util.Set;
+import java.util.function.Consumer;
 
 import net.minecraft.world.level.GameType;
 import net.minecraft.world.entity.EntityType;
@@ -103,26 +119,29 @@ public class StructureTeleporter {
      * Check if a block state should be excluded from teleportation.
      * 
      * @param state           Block state to check
-     * @param excludedBlocks  List of excluded block states
+     * @param excludedBlocks  Compiled exclusion filter (see
+     *                        {@link BlockMatcher#forExclusions(List)})
      * @param checkExclusions Whether to actually check exclusions (if false, always
      *                        returns false)
      */
-    private static boolean isExcluded(BlockState state, List<BlockState> excludedBlocks, boolean checkExclusions) {
-        if (!checkExclusions) {
-            return false;
-        }
-
-        // If list is null, fallback to API defaults
-        if (excludedBlocks == null) {
-            excludedBlocks = getDefaultExcludedBlocks();
-        }
+    static boolean isExcluded(BlockState state, BlockMatcher excludedBlocks, boolean checkExclusions) {
+        return checkExclusions && excludedBlocks.matches(state);
+    }
 
-        for (BlockState excluded : excludedBlocks) {
-            if (state.getBlock() == excluded.getBlock()) {
-                return true;
-            }
-        }
-        return false;
+    /**
+     * Hull test shared by the simulation scans: a valid voxel is hull when it
+     * lies on the selection boundary or any of its 6 neighbours is not valid.
+     * Indices use the {@code dx + width * (dy + height * dz)} layout.
+     */
+    static boolean isHullVoxel(java.util.BitSet validBlocks, int dx, int dy, int dz, int width, int height,
+            int depth) {
+        if (dx == 0 || dx == width - 1 || dy == 0 || dy == height - 1 || dz == 0 || dz == depth - 1)
+            return true;
+        int index = dx + width * (dy + height * dz);
+        int plane = width * height;
+        return !validBlocks.get(index - 1) || !validBlocks.get(index + 1)
+                || !validBlocks.get(index - width) || !validBlocks.get(index + width)
+                || !validBlocks.get(index - plane) || !validBlocks.get(index + plane);
     }
 
     /**
@@ -161,90 +180,138 @@ public class StructureTeleporter {
      */
     @SuppressWarnings("null")
     public static Set<BlockPos> getEnclosedPositions(Selection selection, List<BlockState> coverageBlocks) {
+        BlockMatcher coverage = BlockMatcher.of(coverageBlocks);
         return getEnclosedPositionsGeneric(selection.getMin(), selection.getMax(), coverageBlocks,
-                selection.getWorld()::getBlockState, StructureTeleporter::isBlockInList);
+                selection.getWorld()::getBlockState, (state, allowed) -> coverage.matches(state));
     }
 
     /**
-     * Generic version of the enclosed positions filter.
+     * Generic version of the enclosed positions filter. Materializes
+     * {@link #getEnclosedMaskGeneric} into a position set.
      */
     public static <T> Set<BlockPos> getEnclosedPositionsGeneric(BlockPos min, BlockPos max, List<T> allowedStates,
             StateProvider<T> provider, StateMatcher<T> matcher) {
-        Set<BlockPos> outside = new java.util.HashSet<>();
-        java.util.Queue<BlockPos> queue = new java.util.LinkedList<>();
-
-        // 1. Queue up all border positions that are NOT coverage blocks
-        for (int x = min.getX(); x <= max.getX(); x++) {
-            for (int y = min.getY(); y <= max.getY(); y++) {
-                addIfOutsideGeneric(new BlockPos(x, y, min.getZ()), allowedStates, provider, matcher, outside, queue);
-                if (max.getZ() > min.getZ())
-                    addIfOutsideGeneric(new BlockPos(x, y, max.getZ()), allowedStates, provider, matcher, outside,
-                            queue);
-            }
-        }
-        for (int x = min.getX(); x <= max.getX(); x++) {
-            for (int z = min.getZ(); z <= max.getZ(); z++) {
-                addIfOutsideGeneric(new BlockPos(x, min.getY(), z), allowedStates, provider, matcher, outside, queue);
-                if (max.getY() > min.getY())
-                    addIfOutsideGeneric(new BlockPos(x, max.getY(), z), allowedStates, provider, matcher, outside,
-                            queue);
-            }
-        }
-        for (int y = min.getY(); y <= max.getY(); y++) {
-            for (int z = min.getZ(); z <= max.getZ(); z++) {
-                addIfOutsideGeneric(new BlockPos(min.getX(), y, z), allowedStates, provider, matcher, outside, queue);
-                if (max.getX() > min.getX())
-                    addIfOutsideGeneric(new BlockPos(max.getX(), y, z), allowedStates, provider, matcher, outside,
-                            queue);
-            }
-        }
+        return getEnclosedMaskGeneric(min, max, allowedStates, provider, matcher).toPositionSet();
+    }
 
-        // 2. Flood fill to find all reachable "open" space
-        while (!queue.isEmpty()) {
-            BlockPos current = queue.poll();
+    /**
+     * Same as {@link #getEnclosedPositions(Selection, List)}, as a
+     * {@link RegionMask} over the selection box.
+     */
+    @SuppressWarnings("null")
+    public static RegionMask getEnclosedMask(Selection selection, List<BlockState> coverageBlocks) {
+        BlockMatcher coverage = BlockMatcher.of(coverageBlocks);
+        return getEnclosedMaskGeneric(selection.getMin(), selection.getMax(), coverageBlocks,
+                selection.getWorld()::getBlockState, (state, allowed) -> coverage.matches(state));
+    }
 
-            for (net.minecraft.core.Direction dir : net.minecraft.core.Direction.values()) {
-                @SuppressWarnings("null")
-                BlockPos neighbor = current.relative(dir);
-                if (isWithinBounds(neighbor, min, max) && !outside.contains(neighbor)) {
-                    if (!matcher.matches(provider.getState(neighbor), allowedStates)) {
-                        outside.add(neighbor);
-                        queue.add(neighbor);
+    /**
+     * Flood fill from the faces of the box through every voxel that is not a
+     * coverage block. Whatever the fill cannot reach is hull or enclosed.
+     * <p>
+     * Visited and outside voxels are tracked in {@code long[]} bitsets indexed
+     * by box-relative offset and the frontier is a primitive int ring queue,
+     * so no {@link BlockPos} is kept per voxel. Each position is passed to the
+     * provider at most once; the position object passed in is reused.
+     */
+    public static <T> RegionMask getEnclosedMaskGeneric(BlockPos min, BlockPos max, List<T> allowedStates,
+            StateProvider<T> provider, StateMatcher<T> matcher) {
+        int width = max.getX() - min.getX() + 1;
+        int height = max.getY() - min.getY() + 1;
+        int depth = max.getZ() - min.getZ() + 1;
+        int plane = width * height;
+        int volume = plane * depth;
+
+        FloodFill<T> fill = new FloodFill<>(min, width, height, volume, allowedStates, provider, matcher);
+
+        // 1. Seed with every face voxel that is not a coverage block
+        for (int dz = 0; dz < depth; dz++) {
+            for (int dy = 0; dy < height; dy++) {
+                boolean faceRow = dz == 0 || dz == depth - 1 || dy == 0 || dy == height - 1;
+                int rowBase = width * (dy + height * dz);
+                if (faceRow) {
+                    for (int dx = 0; dx < width; dx++) {
+                        fill.visit(rowBase + dx);
                     }
+                } else {
+                    fill.visit(rowBase);
+                    fill.visit(rowBase + width - 1);
                 }
             }
         }
 
-        // 3. Everything NOT in 'outside' is 'inside' (hull or enclosed)
-        Set<BlockPos> enclosed = new java.util.HashSet<>();
-        for (int x = min.getX(); x <= max.getX(); x++) {
-            for (int y = min.getY(); y <= max.getY(); y++) {
-                for (int z = min.getZ(); z <= max.getZ(); z++) {
-                    BlockPos pos = new BlockPos(x, y, z);
-                    if (!outside.contains(pos)) {
-                        enclosed.add(pos);
-                    }
-                }
-            }
+        // 2. Flood fill through open space, 6-connected
+        it.unimi.dsi.fastutil.ints.IntArrayFIFOQueue queue = fill.queue;
+        while (!queue.isEmpty()) {
+            int index = queue.dequeueInt();
+            int dx = index % width;
+            int dy = (index / width) % height;
+            int dz = index / plane;
+
+            if (dx > 0)
+                fill.visit(index - 1);
+            if (dx < width - 1)
+                fill.visit(index + 1);
+            if (dy > 0)
+                fill.visit(index - width);
+            if (dy < height - 1)
+                fill.visit(index + width);
+            if (dz > 0)
+                fill.visit(index - plane);
+            if (dz < depth - 1)
+                fill.visit(index + plane);
         }
 
-        return enclosed;
+        // 3. Everything not reached is inside (hull or enclosed)
+        java.util.BitSet inside = java.util.BitSet.valueOf(fill.outside);
+        inside.flip(0, volume);
+        return new RegionMask(min, max, inside);
     }
 
-    private static <T> void addIfOutsideGeneric(BlockPos pos, List<T> allowedStates, StateProvider<T> provider,
-            StateMatcher<T> matcher, Set<BlockPos> outside, java.util.Queue<BlockPos> queue) {
-        if (!outside.contains(pos) && !matcher.matches(provider.getState(pos), allowedStates)) {
-            outside.add(pos);
-            queue.add(pos);
+    /**
+     * State of one {@link #getEnclosedMaskGeneric} run.
+     */
+    private static final class FloodFill<T> {
+        final long[] seen;
+        final long[] outside;
+        final it.unimi.dsi.fastutil.ints.IntArrayFIFOQueue queue = new it.unimi.dsi.fastutil.ints.IntArrayFIFOQueue();
+        private final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        private final BlockPos min;
+        private final int width;
+        private final int height;
+        private final List<T> allowedStates;
+        private final StateProvider<T> provider;
+        private final StateMatcher<T> matcher;
+
+        FloodFill(BlockPos min, int width, int height, int volume, List<T> allowedStates, StateProvider<T> provider,
+                StateMatcher<T> matcher) {
+            this.seen = new long[(volume + 63) >>> 6];
+            this.outside = new long[(volume + 63) >>> 6];
+            this.min = min;
+            this.width = width;
+            this.height = height;
+            this.allowedStates = allowedStates;
+            this.provider = provider;
+            this.matcher = matcher;
         }
-    }
 
-    @SuppressWarnings("null")
-
-    private static boolean isWithinBounds(BlockPos pos, BlockPos min, BlockPos max) {
-        return pos.getX() >= min.getX() && pos.getX() <= max.getX() &&
-                pos.getY() >= min.getY() && pos.getY() <= max.getY() &&
-                pos.getZ() >= min.getZ() && pos.getZ() <= max.getZ();
+        void visit(int index) {
+            int word = index >>> 6;
+            long bit = 1L << index;
+            if ((seen[word] & bit) != 0) {
+                return;
+            }
+            seen[word] |= bit;
+
+            int dx = index % width;
+            int dy = (index / width) % height;
+            int dz = index / (width * height);
+            cursor.set(min.getX() + dx, min.getY() + dy, min.getZ() + dz);
+            if (!matcher.matches(provider.getState(cursor), allowedStates)) {
+                outside[word] |= bit;
+                queue.enqueue(index);
+            }
+        }
     }
 
     /**
@@ -280,8 +347,9 @@ public class StructureTeleporter {
      */
     public static boolean isAreaCovered(BlockPos min, BlockPos max, List<BlockState> coverageBlocks,
             BlockStateProvider provider) {
+        BlockMatcher coverage = BlockMatcher.of(coverageBlocks);
         return isAreaCoveredGeneric(min, max, coverageBlocks, provider::getBlockState,
-                StructureTeleporter::isBlockInList);
+                (state, allowed) -> coverage.matches(state));
     }
 
     /**
@@ -344,22 +412,13 @@ public class StructureTeleporter {
         return true;
     }
 
-    private static boolean isBlockInList(BlockState state, List<BlockState> list) {
-        for (BlockState allowed : list) {
-            if (state.getBlock() == allowed.getBlock()) {
-                return true;
-            }
-        }
-        return false;
-    }
-
     /**
      * Check if a block at the target should be replaced by the incoming block based
      * on the mode.
      */
     @SuppressWarnings("null")
-    private static boolean shouldReplace(BlockState existing, BlockState incoming, PasteMode mode,
-            List<BlockState> preservedBlocks) {
+    static boolean shouldReplace(BlockState existing, BlockState incoming, PasteMode mode,
+            BlockMatcher preservedBlocks) {
         // If incoming is air, usually we might still want to replace if we are moving
         // (clearing space),
         // but typically structure paste might want to avoid pasting air over blocks
@@ -380,19 +439,8 @@ public class StructureTeleporter {
         }
 
         if (mode == PasteMode.PRESERVE_LIST) {
-            // If list is null, fallback to API defaults
-            if (preservedBlocks == null) {
-                preservedBlocks = getDefaultPreservedBlocks();
-            }
-
-            if (preservedBlocks != null) {
-                for (BlockState preserved : preservedBlocks) {
-                    if (existing.is(preserved.getBlock())) {
-                        return false;
-                    }
-                }
-            }
-            return true;
+            // Defaults are already folded in by BlockMatcher.forPreservation
+            return !preservedBlocks.matches(existing);
         }
 
         return true;
@@ -423,7 +471,15 @@ public class StructureTeleporter {
         return copyStructure(selection, excludedBlocks, checkExclusions, includeAir, enclosedPositions, null);
     }
 
-    @SuppressWarnings("null")
+    /**
+     * Copy the selected region to memory.
+     * <p>
+     * Blocks are read one {@link LevelChunkSection} at a time instead of going
+     * through {@code Level#getBlockState} for every voxel: all-air sections are
+     * skipped via {@code hasOnlyAir()}, and block entities are taken from each
+     * chunk's block-entity map. The returned list is identical (content and
+     * order) to a plain x/y/z walk of the region.
+     */
     public static List<BlockData> copyStructure(Selection selection, List<BlockState> excludedBlocks,
             boolean checkExclusions, boolean includeAir, Set<BlockPos> enclosedPositions,
             java.util.BitSet validBlocksMask) {
@@ -433,75 +489,468 @@ public class StructureTeleporter {
         }
 
         List<BlockData> blocks = new ArrayList<>();
+        captureRegion(selection.getWorld(), selection.getMin(), selection.getMax(),
+                BlockMatcher.forExclusions(excludedBlocks), checkExclusions, includeAir, toMask(enclosedPositions),
+                validBlocksMask,
+                (dx, dy, dz, state, nbt) -> blocks.add(new BlockData(new BlockPos(dx, dy, dz), state, nbt)));
+
+        TeleportAPI.LOGGER.debug("[TeleportAPI] Blocks copied: " + blocks.size());
+        return blocks;
+    }
+
+    /**
+     * Copy the positions of the selection that are set in {@code filter},
+     * e.g. the result of {@link #getEnclosedMask(Selection, List)}. A
+     * {@code null} filter copies the whole selection.
+     */
+    public static List<BlockData> copyStructure(Selection selection, RegionMask filter,
+            List<BlockState> excludedBlocks, boolean checkExclusions, boolean includeAir) {
+        if (!selection.isComplete()) {
+            return null;
+        }
+
+        List<BlockData> blocks = new ArrayList<>();
+        captureRegion(selection.getWorld(), selection.getMin(), selection.getMax(),
+                BlockMatcher.forExclusions(excludedBlocks), checkExclusions, includeAir, filter, null,
+                (dx, dy, dz, state, nbt) -> blocks.add(new BlockData(new BlockPos(dx, dy, dz), state, nbt)));
+        return blocks;
+    }
+
+    /**
+     * Adapter from the {@code Set<BlockPos>} filter API.
+     */
+    private static RegionMask toMask(Set<BlockPos> positions) {
+        return positions != null ? RegionMask.of(positions) : null;
+    }
+
+    public static StructureSnapshot copySnapshot(Selection selection) {
+        return copySnapshot(selection, null, true, true, null, null);
+    }
+
+    /**
+     * Copy the selected region into a palette-compressed
+     * {@link StructureSnapshot}. Same filtering rules as
+     * {@link #copyStructure(Selection, List, boolean, boolean, Set, java.util.BitSet)},
+     * but no per-block objects are created.
+     */
+    public static StructureSnapshot copySnapshot(Selection selection, List<BlockState> excludedBlocks,
+            boolean checkExclusions, boolean includeAir, Set<BlockPos> enclosedPositions,
+            java.util.BitSet validBlocksMask) {
+        return captureSnapshot(selection, BlockMatcher.forExclusions(excludedBlocks), checkExclusions, includeAir,
+                toMask(enclosedPositions), validBlocksMask);
+    }
+
+    /**
+     * Snapshot variant of
+     * {@link #copyStructure(Selection, RegionMask, List, boolean, boolean)}.
+     */
+    public static StructureSnapshot copySnapshot(Selection selection, RegionMask filter,
+            List<BlockState> excludedBlocks, boolean checkExclusions, boolean includeAir) {
+        return captureSnapshot(selection, BlockMatcher.forExclusions(excludedBlocks), checkExclusions, includeAir,
+                filter, null);
+    }
+
+    private static StructureSnapshot captureSnapshot(Selection selection, BlockMatcher excludedBlocks,
+            boolean checkExclusions, boolean includeAir, RegionMask filter,
+            java.util.BitSet validBlocksMask) {
+
+        if (!selection.isComplete()) {
+            return null;
+        }
 
         BlockPos min = selection.getMin();
         BlockPos max = selection.getMax();
-        Level world = selection.getWorld();
+        StructureSnapshot snapshot = new StructureSnapshot(max.getX() - min.getX() + 1, max.getY() - min.getY() + 1,
+                max.getZ() - min.getZ() + 1);
+        captureRegion(selection.getWorld(), min, max, excludedBlocks, checkExclusions, includeAir,
+                filter, validBlocksMask, snapshot::set);
+
+        TeleportAPI.LOGGER.debug("[TeleportAPI] Blocks copied to snapshot: " + snapshot.getBlockCount()
+                + " (palette " + (snapshot.getPalette().size() - 1) + ")");
+        return snapshot;
+    }
 
-        // Iterate through all blocks in the selected region
-        for (int x = min.getX(); x <= max.getX(); x++) {
-            for (int y = min.getY(); y <= max.getY(); y++) {
-                for (int z = min.getZ(); z <= max.getZ(); z++) {
-                    BlockPos pos = new BlockPos(x, y, z);
+    /**
+     * Section-direct capture of every block in {@code min..max}, without
+     * exclusions or masks. Blocks are sanitized and their block entity NBT is
+     * cleaned like for a teleport, and passed to the visitor in x -> y -> z
+     * order relative to {@code min}.
+     */
+    public static void captureRegion(Level world, BlockPos min, BlockPos max, boolean includeAir,
+            StructureSnapshot.BlockVisitor visitor) {
+        captureRegion(world, min, max, null, false, includeAir, null, null, visitor);
+    }
 
-                    // Coverage filter check
-                    if (enclosedPositions != null && !enclosedPositions.contains(pos)) {
-                        continue;
-                    }
+    /**
+     * Section-direct capture shared by {@code copyStructure} and
+     * {@code copySnapshot}. Accepted blocks are passed to the visitor in
+     * x -> y -> z order with coordinates relative to {@code min}, already
+     * sanitized and with cleaned block entity NBT.
+     */
+    @SuppressWarnings("null")
+    private static void captureRegion(Level world, BlockPos min, BlockPos max, BlockMatcher excludedBlocks,
+            boolean checkExclusions, boolean includeAir, RegionMask filter,
+            java.util.BitSet validBlocksMask, StructureSnapshot.BlockVisitor visitor) {
 
-                    // BitSet filter check - CRITICAL for preventing unwanted blocks from being
-                    // copied
-                    if (validBlocksMask != null) {
-                        int dx = x - min.getX();
-                        int dy = y - min.getY();
-                        int dz = z - min.getZ();
-                        int width = max.getX() - min.getX() + 1;
-                        int height = max.getY() - min.getY() + 1;
-                        int index = dx + width * (dy + height * dz);
+        int width = max.getX() - min.getX() + 1;
+        int height = max.getY() - min.getY() + 1;
+        int depth = max.getZ() - min.getZ() + 1;
 
-                        // If bit is not set, skip this block (don't copy it)
-                        if (!validBlocksMask.get(index)) {
+        // The region is captured in strips of one chunk column width along X, so the
+        // emitted order still matches the x -> y -> z walk of the legacy path while
+        // only one strip of states is buffered at a time.
+        BlockState[] strip = new BlockState[Math.min(16, width) * height * depth];
+        Long2ObjectOpenHashMap<BlockEntity> stripEntities = new Long2ObjectOpenHashMap<>();
+
+        for (int cx = min.getX() >> 4; cx <= max.getX() >> 4; cx++) {
+            int xStart = Math.max(min.getX(), cx << 4);
+            int xEnd = Math.min(max.getX(), (cx << 4) + 15);
+
+            java.util.Arrays.fill(strip, null);
+            stripEntities.clear();
+            captureStrip(world, xStart, xEnd, min, max, strip, stripEntities);
+
+            for (int x = xStart; x <= xEnd; x++) {
+                for (int y = min.getY(); y <= max.getY(); y++) {
+                    int rowBase = ((x - xStart) * height + (y - min.getY())) * depth;
+                    for (int z = min.getZ(); z <= max.getZ(); z++) {
+                        // Coverage filter check
+                        if (filter != null && !filter.contains(x, y, z)) {
                             continue;
                         }
-                    }
 
-                    BlockState state = world.getBlockState(pos);
+                        // BitSet filter check - CRITICAL for preventing unwanted blocks from being
+                        // copied
+                        if (validBlocksMask != null) {
+                            int index = (x - min.getX()) + width * ((y - min.getY()) + height * (z - min.getZ()));
+                            if (!validBlocksMask.get(index)) {
+                                continue;
+                            }
+                        }
 
-                    // Skip air if not included
-                    if (!includeAir && state.isAir()) {
-                        continue;
-                    }
+                        BlockState state = strip[rowBase + (z - min.getZ())];
 
-                    // Skip excluded blocks
-                    if (isExcluded(state, excludedBlocks, checkExclusions)) {
-                        continue;
+                        // Skip air if not included
+                        if (!includeAir && state.isAir()) {
+                            continue;
+                        }
+
+                        // Skip excluded blocks
+                        if (isExcluded(state, excludedBlocks, checkExclusions)) {
+                            continue;
+                        }
+
+                        // Get NBT data if available (for chests, etc.)
+                        // Note: blockEntity.saveWithFullMetadata() ensures that all modded data
+                        // like AE2 cell contents, Botania mana, and various block timers are preserved.
+                        BlockEntity blockEntity = stripEntities.isEmpty() ? null
+                                : stripEntities.get(BlockPos.asLong(x, y, z));
+                        CompoundTag nbt = saveBlockEntity(blockEntity);
+
+                        // Save block (sanitized), relative to the minimum point
+                        visitor.accept(x - min.getX(), y - min.getY(), z - min.getZ(), sanitizeBlockState(state),
+                                nbt);
                     }
+                }
+            }
+        }
+    }
 
-                    // Get NBT data if available (for chests, etc.)
-                    // Note: blockEntity.saveWithFullMetadata() ensures that all modded data
-                    // like AE2 cell contents, Botania mana, and various block timers are preserved.
-                    CompoundTag nbt = null;
-                    BlockEntity blockEntity = world.getBlockEntity(pos);
-                    if (blockEntity != null) {
-                        nbt = blockEntity.saveWithFullMetadata();
-
-                        // Clean up volatile tags (coordinates, multiblock links)
-                        for (String tag : DEFAULT_CLEANED_TAGS) {
-                            nbt.remove(tag);
+    /**
+     * Reads the block states of one chunk-column-wide strip
+     * ({@code xStart..xEnd}, full Y/Z extent of the region) straight from the
+     * chunk sections. States are stored at
+     * {@code ((x - xStart) * height + dy) * depth + dz}.
+     * <p>
+     * Mirrors {@code Level#getBlockState}: positions outside the build height
+     * read as VOID_AIR and sections with {@code hasOnlyAir()} read as AIR.
+     */
+    @SuppressWarnings("null")
+    private static void captureStrip(Level world, int xStart, int xEnd, BlockPos min, BlockPos max,
+            BlockState[] strip, Long2ObjectOpenHashMap<BlockEntity> stripEntities) {
+        int height = max.getY() - min.getY() + 1;
+        int depth = max.getZ() - min.getZ() + 1;
+        BlockState air = Blocks.AIR.defaultBlockState();
+        BlockState voidAir = Blocks.VOID_AIR.defaultBlockState();
+
+        for (int cz = min.getZ() >> 4; cz <= max.getZ() >> 4; cz++) {
+            int zStart = Math.max(min.getZ(), cz << 4);
+            int zEnd = Math.min(max.getZ(), (cz << 4) + 15);
+
+            LevelChunk chunk = world.getChunk(xStart >> 4, cz);
+            LevelChunkSection[] sections = chunk.getSections();
+
+            for (int sy = min.getY() >> 4; sy <= max.getY() >> 4; sy++) {
+                int yStart = Math.max(min.getY(), sy << 4);
+                int yEnd = Math.min(max.getY(), (sy << 4) + 15);
+                int sectionIndex = chunk.getSectionIndexFromSectionY(sy);
+
+                LevelChunkSection section = sectionIndex >= 0 && sectionIndex < sections.length
+                        ? sections[sectionIndex]
+                        : null;
+                PalettedContainer<BlockState> states = section != null && !section.hasOnlyAir()
+                        ? section.getStates()
+                        : null;
+                BlockState fill = section == null ? voidAir : air;
+
+                for (int x = xStart; x <= xEnd; x++) {
+                    for (int y = yStart; y <= yEnd; y++) {
+                        int rowBase = ((x - xStart) * height + (y - min.getY())) * depth;
+                        for (int z = zStart; z <= zEnd; z++) {
+                            strip[rowBase + (z - min.getZ())] = states != null
+                                    ? states.get(x & 15, y & 15, z & 15)
+                                    : fill;
                         }
                     }
+                }
+            }
 
-                    // Calculate relative position (relative to minimum point)
-                    BlockPos relativePos = pos.subtract(min);
+            // Only block entities actually present in the chunk are visited
+            for (Map.Entry<BlockPos, BlockEntity> entry : chunk.getBlockEntities().entrySet()) {
+                BlockPos pos = entry.getKey();
+                if (pos.getX() >= xStart && pos.getX() <= xEnd &&
+                        pos.getY() >= min.getY() && pos.getY() <= max.getY() &&
+                        pos.getZ() >= zStart && pos.getZ() <= zEnd) {
+                    stripEntities.put(pos.asLong(), entry.getValue());
+                }
+            }
+        }
+    }
 
-                    // Save block (sanitized)
-                    blocks.add(new BlockData(relativePos, sanitizeBlockState(state), nbt));
+    /**
+     * Result of {@link #scanForTeleport}.
+     */
+    private static final class TeleportScan {
+        int totalBlocks = 0;
+        int excludedCount = 0;
+        int airBlockCount = 0;
+        int solidBlockCount = 0;
+        int fluidBlockCount = 0;
+        int skippedByLimitCount = 0;
+        int destinationSolidBlocksLost = 0;
+        final Set<BlockState> excludedTypes = new HashSet<>();
+        final Map<BlockState, Integer> sourceBlockCounts = new HashMap<>();
+
+        // Only filled when capturing
+        StructureSnapshot snapshot;
+        // Positions captured into the snapshot, i.e. the ones to clear at the source
+        RegionMask clearMask;
+        // Undo records: only the blocks the move actually changes, relative to
+        // targetPos and min. Null when nothing changes on that side.
+        StructureSnapshot undoTarget;
+        StructureSnapshot undoSource;
+    }
+
+    /**
+     * Fused scan for the synchronous teleport. Each source voxel is read once
+     * (section-direct, see {@link #captureStrip}) and its destination at most
+     * once, producing the metrics, the destination prediction and, with
+     * {@code capture}, the source snapshot and clear mask with the same rules
+     * as {@link #captureRegion} and {@link #clearArea}. With
+     * {@code captureUndo} the undo records are built as deltas: destination
+     * blocks whose state or block entity the paste will change with their
+     * non-air neighbours, and the non-air captured source blocks (the clear
+     * only writes air).
+     * <p>
+     * Metrics and prediction ignore {@code validBlocksMask}; capture honours it.
+     */
+    @SuppressWarnings("null")
+    private static TeleportScan scanForTeleport(Level sourceWorld, Level targetLevel, BlockPos min, BlockPos max,
+            BlockPos targetPos, Rotation rotation, Mirror mirror, RegionMask filter,
+            java.util.BitSet validBlocksMask, BlockMatcher excludedBlocks, boolean checkExclusions,
+            boolean includeAir, PasteMode pasteMode, BlockMatcher preservedBlocks, boolean capture,
+            boolean captureUndo) {
+        TeleportScan scan = new TeleportScan();
+
+        int width = max.getX() - min.getX() + 1;
+        int height = max.getY() - min.getY() + 1;
+        int depth = max.getZ() - min.getZ() + 1;
+        Vec3i sourceSize = max.subtract(min);
+        StructureTransform transform = new StructureTransform(rotation, mirror, sourceSize, targetPos);
+        BlockPos.MutableBlockPos dstPos = new BlockPos.MutableBlockPos();
+        int minHeight = targetLevel.getMinBuildHeight();
+        int maxHeight = targetLevel.getMaxBuildHeight();
+        boolean sameWorld = sourceWorld == targetLevel;
+
+        com.teleportapi.undo.UndoDelta targetDelta = null;
+        com.teleportapi.undo.UndoDelta sourceDelta = null;
+        if (capture) {
+            scan.snapshot = new StructureSnapshot(width, height, depth);
+            scan.clearMask = new RegionMask(min, max);
+            if (captureUndo) {
+                targetDelta = new com.teleportapi.undo.UndoDelta();
+                // Without air the snapshot already is the inverse of the clear
+                sourceDelta = includeAir ? new com.teleportapi.undo.UndoDelta() : null;
+            }
+        }
+        java.util.BitSet clearBits = capture ? scan.clearMask.getBits() : null;
+
+        BlockState[] strip = new BlockState[Math.min(16, width) * height * depth];
+        Long2ObjectOpenHashMap<BlockEntity> stripEntities = new Long2ObjectOpenHashMap<>();
+
+        for (int cx = min.getX() >> 4; cx <= max.getX() >> 4; cx++) {
+            int xStart = Math.max(min.getX(), cx << 4);
+            int xEnd = Math.min(max.getX(), (cx << 4) + 15);
+
+            java.util.Arrays.fill(strip, null);
+            stripEntities.clear();
+            captureStrip(sourceWorld, xStart, xEnd, min, max, strip, stripEntities);
+
+            for (int x = xStart; x <= xEnd; x++) {
+                for (int y = min.getY(); y <= max.getY(); y++) {
+                    int rowBase = ((x - xStart) * height + (y - min.getY())) * depth;
+                    for (int z = min.getZ(); z <= max.getZ(); z++) {
+                        if (filter != null && !filter.contains(x, y, z))
+                            continue;
+
+                        BlockState state = strip[rowBase + (z - min.getZ())];
+                        boolean air = state.isAir();
+                        if (air && !includeAir)
+                            continue;
+
+                        // Metrics
+                        scan.totalBlocks++;
+                        scan.sourceBlockCounts.merge(state, 1, Integer::sum);
+                        boolean excluded = isExcluded(state, excludedBlocks, checkExclusions);
+                        if (air) {
+                            scan.airBlockCount++;
+                        } else if (excluded) {
+                            scan.excludedCount++;
+                            scan.excludedTypes.add(state);
+                        } else {
+                            scan.solidBlockCount++;
+                            if (!state.getFluidState().isEmpty() && state.getFluidState().isSource()) {
+                                scan.fluidBlockCount++;
+                            }
+                        }
+                        if (excluded)
+                            continue;
+
+                        int index = (x - min.getX()) + width * ((y - min.getY()) + height * (z - min.getZ()));
+                        boolean captured = capture && (validBlocksMask == null || validBlocksMask.get(index));
+                        BlockState capturedState = null;
+                        CompoundTag capturedTag = null;
+                        if (captured) {
+                            BlockEntity blockEntity = stripEntities.isEmpty() ? null
+                                    : stripEntities.get(BlockPos.asLong(x, y, z));
+                            capturedState = sanitizeBlockState(state);
+                            capturedTag = saveBlockEntity(blockEntity);
+                            scan.snapshot.set(x - min.getX(), y - min.getY(), z - min.getZ(), capturedState,
+                                    capturedTag);
+                            clearBits.set(index);
+                            if (sourceDelta != null && !air) {
+                                sourceDelta.add(x, y, z, capturedState, capturedTag);
+                            }
+                        }
+
+                        // Destination prediction
+                        int dx = x - min.getX();
+                        int dz = z - min.getZ();
+                        int dstX = transform.applyX(dx, dz);
+                        int dstY = transform.applyY(y - min.getY());
+                        int dstZ = transform.applyZ(dx, dz);
+                        if (isOutsideHeightLimits(dstY, minHeight, maxHeight)) {
+                            scan.skippedByLimitCount++;
+                        } else {
+                            BlockState dstState = targetLevel.getBlockState(dstPos.set(dstX, dstY, dstZ));
+
+                            // In the same level the destination's source state is dstState itself
+                            boolean isDstBlockFromSource = sameWorld
+                                    && dstX >= min.getX() && dstX <= max.getX()
+                                    && dstY >= min.getY() && dstY <= max.getY()
+                                    && dstZ >= min.getZ() && dstZ <= max.getZ()
+                                    && (filter == null || filter.contains(dstX, dstY, dstZ))
+                                    && !isExcluded(dstState, excludedBlocks, checkExclusions);
+                            BlockState effectiveDstState = isDstBlockFromSource ? Blocks.AIR.defaultBlockState()
+                                    : dstState;
+                            boolean replaced = shouldReplace(effectiveDstState, state, pasteMode, preservedBlocks);
+                            if (replaced && !dstState.isAir() && !isDstBlockFromSource) {
+                                scan.destinationSolidBlocksLost++;
+                            }
+
+                            if (captured && targetDelta != null) {
+                                recordTargetDelta(targetDelta, targetLevel, dstPos, dstState,
+                                        transform.apply(capturedState), capturedTag, replaced, isDstBlockFromSource);
+                            }
+                        }
+                    }
                 }
             }
         }
 
-        TeleportAPI.LOGGER.debug("[TeleportAPI] Blocks copied: " + blocks.size());
-        return blocks;
+        if (targetDelta != null) {
+            scan.undoTarget = targetDelta.toSnapshot(targetPos);
+            scan.undoSource = sourceDelta != null ? sourceDelta.toSnapshot(min) : scan.snapshot;
+        }
+        return scan;
+    }
+
+    /**
+     * Record a destination block for undo unless the paste leaves it as it is:
+     * not replaced at all, or replaced by an identical state and block entity.
+     * Destinations inside the cleared source are always recorded; their final
+     * state depends on the clear as well.
+     * <p>
+     * Neighbours the paste can break are recorded too: the survival pass and
+     * neighbour updates can pop a kept torch, lever or plant whose support
+     * was replaced, or drop sand, and undo has to put it back. Neighbours
+     * with a block entity are left out: restoring them would reset their
+     * contents to the time of the teleport.
+     */
+    private static void recordTargetDelta(com.teleportapi.undo.UndoDelta delta, Level targetLevel,
+            BlockPos dstPos, BlockState dstState, BlockState incoming, CompoundTag incomingTag, boolean replaced,
+            boolean isDstBlockFromSource) {
+        if (!replaced && !isDstBlockFromSource) {
+            return;
+        }
+        BlockState original = sanitizeBlockState(dstState);
+        CompoundTag originalTag = dstState.hasBlockEntity() ? saveBlockEntity(targetLevel.getBlockEntity(dstPos))
+                : null;
+        if (!isDstBlockFromSource && incoming == original && java.util.Objects.equals(incomingTag, originalTag)) {
+            return;
+        }
+        delta.add(dstPos.getX(), dstPos.getY(), dstPos.getZ(), original, originalTag);
+
+        BlockPos.MutableBlockPos neighbourPos = new BlockPos.MutableBlockPos();
+        for (Direction direction : Direction.values()) {
+            neighbourPos.setWithOffset(dstPos, direction);
+            if (delta.contains(neighbourPos.getX(), neighbourPos.getY(), neighbourPos.getZ())) {
+                continue;
+            }
+            BlockState neighbour = targetLevel.getBlockState(neighbourPos);
+            if (!canLoseSupport(neighbour)) {
+                continue;
+            }
+            delta.add(neighbourPos.getX(), neighbourPos.getY(), neighbourPos.getZ(), sanitizeBlockState(neighbour),
+                    null);
+        }
+    }
+
+    /**
+     * Whether a block next to a replaced one may break or fall once its
+     * support changes: attachments a piston would destroy and falling blocks.
+     */
+    private static boolean canLoseSupport(BlockState state) {
+        if (state.isAir() || state.hasBlockEntity()) {
+            return false;
+        }
+        return state.getPistonPushReaction() == net.minecraft.world.level.material.PushReaction.DESTROY
+                || state.getBlock() instanceof net.minecraft.world.level.block.FallingBlock;
+    }
+
+    /**
+     * Full-metadata NBT of a block entity with the volatile tags (coordinates,
+     * multiblock links) removed, or {@code null} without a block entity.
+     */
+    private static CompoundTag saveBlockEntity(BlockEntity blockEntity) {
+        if (blockEntity == null) {
+            return null;
+        }
+        CompoundTag nbt = blockEntity.saveWithFullMetadata();
+        for (String tag : DEFAULT_CLEANED_TAGS) {
+            nbt.remove(tag);
+        }
+        return nbt;
     }
 
     /**
@@ -535,6 +984,7 @@ public class StructureTeleporter {
         }
 
         List<BlockData> blocks = new ArrayList<>();
+        BlockMatcher excluded = BlockMatcher.forExclusions(excludedBlocks);
 
         for (BlockPos pos : positions) {
             BlockState state = world.getBlockState(pos);
@@ -545,7 +995,7 @@ public class StructureTeleporter {
             }
 
             // Skip excluded blocks
-            if (isExcluded(state, excludedBlocks, checkExclusions)) {
+            if (isExcluded(state, excluded, checkExclusions)) {
                 continue;
             }
 
@@ -572,6 +1022,60 @@ public class StructureTeleporter {
         return blocks;
     }
 
+    /**
+     * Copy specific positions into a {@link StructureSnapshot}. The snapshot's
+     * bounding box is the bounding box of {@code positions}, relative to
+     * {@code origin}.
+     *
+     * @return the snapshot, or null if nothing was captured
+     */
+    @SuppressWarnings("null")
+    public static StructureSnapshot copySnapshot(Level world, Collection<BlockPos> positions, BlockPos origin,
+            List<BlockState> excludedBlocks, boolean checkExclusions, boolean includeAir) {
+        if (positions == null || positions.isEmpty() || world == null) {
+            return null;
+        }
+
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+        for (BlockPos pos : positions) {
+            minX = Math.min(minX, pos.getX());
+            minY = Math.min(minY, pos.getY());
+            minZ = Math.min(minZ, pos.getZ());
+            maxX = Math.max(maxX, pos.getX());
+            maxY = Math.max(maxY, pos.getY());
+            maxZ = Math.max(maxZ, pos.getZ());
+        }
+
+        StructureSnapshot snapshot = new StructureSnapshot(maxX - minX + 1, maxY - minY + 1, maxZ - minZ + 1,
+                new BlockPos(minX - origin.getX(), minY - origin.getY(), minZ - origin.getZ()));
+        BlockMatcher excluded = BlockMatcher.forExclusions(excludedBlocks);
+
+        for (BlockPos pos : positions) {
+            BlockState state = world.getBlockState(pos);
+
+            if (!includeAir && state.isAir()) {
+                continue;
+            }
+            if (isExcluded(state, excluded, checkExclusions)) {
+                continue;
+            }
+
+            CompoundTag nbt = null;
+            BlockEntity blockEntity = world.getBlockEntity(pos);
+            if (blockEntity != null) {
+                nbt = blockEntity.saveWithFullMetadata();
+                for (String tag : DEFAULT_CLEANED_TAGS) {
+                    nbt.remove(tag);
+                }
+            }
+
+            snapshot.set(pos.getX() - minX, pos.getY() - minY, pos.getZ() - minZ, sanitizeBlockState(state), nbt);
+        }
+
+        return snapshot.isEmpty() ? null : snapshot;
+    }
+
     /**
      * Clear blocks within a selection without dropping items or causing block
      * entity drops.
@@ -663,101 +1167,410 @@ public class StructureTeleporter {
             return;
         }
 
-        // Force load chunks at target location
-        if (world instanceof ServerLevel serverLevel) {
-            Set<ChunkPos> targetedChunks = new HashSet<>();
-            for (BlockData blockData : blocks) {
-                BlockPos absolutePos = targetPos.offset(blockData.relativePos);
-                targetedChunks.add(new ChunkPos(absolutePos));
+        // Legacy list adapter: positions become implicit in the snapshot
+        pasteStructure(StructureSnapshot.fromBlockDataList(blocks), targetPos, world, mode, preservedBlocks);
+    }
+
+    /**
+     * Section-batched variant of
+     * {@link #pasteStructure(StructureSnapshot, BlockPos, Level, PasteMode, List)}.
+     * Blocks are written straight into chunk sections with a single
+     * heightmap/light/dirty pass per chunk and neighbor updates only on the
+     * outer shell. Falls back to the regular paste on client levels.
+     */
+    public static void pasteStructureBatched(StructureSnapshot snapshot, BlockPos targetPos, Level world,
+            PasteMode mode, List<BlockState> preservedBlocks) {
+        if (snapshot == null || snapshot.isEmpty()) {
+            TeleportAPI.LOGGER.warn("[TeleportAPI] Paste: No blocks to paste!");
+            return;
+        }
+        pasteSnapshotBatched(snapshot, targetPos, world, mode, BlockMatcher.forPreservation(preservedBlocks), null);
+    }
+
+    @SuppressWarnings("null")
+    private static void pasteSnapshotBatched(StructureSnapshot snapshot, BlockPos targetPos, Level world,
+            PasteMode mode, BlockMatcher preservedBlocks, PhaseTimings timings) {
+        if (!(world instanceof ServerLevel serverLevel)) {
+            pasteSnapshot(snapshot, targetPos, world, mode, preservedBlocks, timings);
+            return;
+        }
+
+        long start = timings != null ? timings.start() : System.nanoTime();
+        // Shell updates and sync happen inside the writer, so it all counts as paste
+        int changed = SectionPasteWriter.paste(serverLevel, snapshot, targetPos,
+                (existing, incoming) -> shouldReplace(existing, incoming, mode, preservedBlocks));
+        TeleportAPI.LOGGER.debug("[TeleportAPI] Batched paste changed {} blocks", changed);
+        if (timings != null) {
+            timings.lap(PhaseTimings.Phase.PASTE, start);
+        }
+    }
+
+    /**
+     * Paste a {@link StructureSnapshot} so that its structure origin lands on
+     * {@code targetPos}.
+     */
+    public static void pasteStructure(StructureSnapshot snapshot, BlockPos targetPos, Level world,
+            PasteMode mode, List<BlockState> preservedBlocks) {
+        if (snapshot == null || snapshot.isEmpty()) {
+            TeleportAPI.LOGGER.warn("[TeleportAPI] Paste: No blocks to paste!");
+            return;
+        }
+        pasteSnapshot(snapshot, targetPos, world, mode, BlockMatcher.forPreservation(preservedBlocks), null);
+    }
+
+    /**
+     * Paste a structure file so that its structure origin lands on
+     * {@code targetPos}, e.g. one from the
+     * {@link com.teleportapi.structure.StructureLibrary}. Runs the same passes
+     * as the snapshot paste, but sections are decoded one at a time from the
+     * reader, each once, and at most three layers of them are held, so the
+     * structure is never expanded in memory. Entities stored in the file are
+     * not spawned.
+     *
+     * @throws UncheckedIOException if a section cannot be read
+     */
+    public static void pasteStructure(StructureFileReader structure, BlockPos targetPos, Level world,
+            PasteMode mode, List<BlockState> preservedBlocks) {
+        if (structure == null || structure.getBlockCount() == 0) {
+            TeleportAPI.LOGGER.warn("[TeleportAPI] Paste: No blocks to paste!");
+            return;
+        }
+
+        BlockPos origin = targetPos.offset(structure.getOffset());
+        try {
+            runSectionPasses(structure, origin, world, mode, BlockMatcher.forPreservation(preservedBlocks));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read structure section", e);
+        }
+    }
+
+    /**
+     * Section layers are walked bottom-up and every section is decoded once.
+     * A layer is cleared and placed as soon as it is read; its neighbour
+     * updates and client sync run two layers later, once every block they
+     * can touch or lean on is in place. Only those three layers are kept
+     * decoded.
+     */
+    private static void runSectionPasses(StructureFileReader structure, BlockPos origin, Level world,
+            PasteMode mode, BlockMatcher preservedBlocks) throws IOException {
+        // Section layers bottom-up; within a layer the file order is kept
+        List<StructureFileFormat.SectionEntry> sections = new ArrayList<>(structure.getSections());
+        sections.sort(Comparator.comparingInt(entry -> entry.y));
+
+        ArrayDeque<List<DecodedSection>> pending = new ArrayDeque<>();
+        int next = 0;
+        while (next < sections.size()) {
+            int layerY = sections.get(next).y;
+            List<DecodedSection> layer = new ArrayList<>();
+            for (; next < sections.size() && sections.get(next).y == layerY; next++) {
+                StructureFileFormat.SectionEntry entry = sections.get(next);
+                DecodedSection decoded = new DecodedSection(entry, structure.readSection(entry), origin);
+                placeSection(decoded, world, mode, preservedBlocks);
+                layer.add(decoded);
+            }
+            // Two layers up is placed, so nothing an update reaches is missing
+            while (!pending.isEmpty() && pending.peekFirst().get(0).entry.y <= layerY - 2) {
+                settleLayer(pending.pollFirst(), world);
+            }
+            pending.addLast(layer);
+        }
+        while (!pending.isEmpty()) {
+            settleLayer(pending.pollFirst(), world);
+        }
+    }
+
+    /**
+     * A section read for {@link #runSectionPasses}, with its world origin.
+     */
+    private static final class DecodedSection {
+        final StructureFileFormat.SectionEntry entry;
+        final StructureSection section;
+        final int baseX, baseY, baseZ;
+
+        DecodedSection(StructureFileFormat.SectionEntry entry, StructureSection section, BlockPos origin) {
+            this.entry = entry;
+            this.section = section;
+            this.baseX = origin.getX() + entry.x * StructureSection.SIZE;
+            this.baseY = origin.getY() + entry.y * StructureSection.SIZE;
+            this.baseZ = origin.getZ() + entry.z * StructureSection.SIZE;
+        }
+    }
+
+    /**
+     * Clear and place one section. Neither write notifies neighbours, so the
+     * order against other sections does not matter.
+     */
+    @SuppressWarnings("null")
+    private static void placeSection(DecodedSection decoded, Level world, PasteMode mode,
+            BlockMatcher preservedBlocks) {
+        int minBuild = world.getMinBuildHeight();
+        int maxBuild = world.getMaxBuildHeight();
+        int size = StructureSection.SIZE;
+        StructureSection section = decoded.section;
+        BlockPos.MutableBlockPos absolutePos = new BlockPos.MutableBlockPos();
+
+        // Pass 1: Clearing Top-to-Bottom to prevent dependent blocks from dropping.
+        for (int y = size - 1; y >= 0; y--) {
+            if (isOutsideHeightLimits(decoded.baseY + y, minBuild, maxBuild)) {
+                continue;
+            }
+            for (int z = 0; z < size; z++) {
+                for (int x = 0; x < size; x++) {
+                    BlockState incoming = section.getState(x, y, z);
+                    if (incoming == null) {
+                        continue;
+                    }
+                    absolutePos.set(decoded.baseX + x, decoded.baseY + y, decoded.baseZ + z);
+                    if (shouldReplace(world.getBlockState(absolutePos), incoming, mode, preservedBlocks)) {
+                        if (world.getBlockEntity(absolutePos) != null) {
+                            world.removeBlockEntity(absolutePos);
+                        }
+                        world.setBlock(absolutePos, Blocks.AIR.defaultBlockState(), 16 | 32 | 64);
+                    }
+                }
+            }
+        }
+
+        // Pass 2: Set real blocks (Bottom-to-Top) and load NBT
+        for (int y = 0; y < size; y++) {
+            if (isOutsideHeightLimits(decoded.baseY + y, minBuild, maxBuild)) {
+                continue;
+            }
+            for (int z = 0; z < size; z++) {
+                for (int x = 0; x < size; x++) {
+                    int index = StructureSection.index(x, y, z);
+                    BlockState incoming = section.getState(index);
+                    if (incoming == null) {
+                        continue;
+                    }
+                    absolutePos.set(decoded.baseX + x, decoded.baseY + y, decoded.baseZ + z);
+                    if (!shouldReplace(world.getBlockState(absolutePos), incoming, mode, preservedBlocks)) {
+                        continue;
+                    }
+                    world.setBlock(absolutePos, incoming, 16);
+                    CompoundTag nbt = section.getBlockEntityTag(index);
+                    if (nbt != null) {
+                        BlockEntity be = world.getBlockEntity(absolutePos);
+                        if (be != null) {
+                            CompoundTag tag = nbt.copy();
+                            tag.putInt("x", absolutePos.getX());
+                            tag.putInt("y", absolutePos.getY());
+                            tag.putInt("z", absolutePos.getZ());
+                            tag.remove("id");
+                            be.load(tag);
+                            be.setChanged();
+                        }
+                    }
+                }
             }
+        }
+    }
 
-            for (ChunkPos chunkPos : targetedChunks) {
-                serverLevel.getChunkSource().addRegionTicket(TicketType.FORCED, chunkPos, 2, chunkPos);
+    /**
+     * Neighbour updates, survival checks and client sync for a layer whose
+     * neighbouring layers are placed.
+     */
+    @SuppressWarnings("null")
+    private static void settleLayer(List<DecodedSection> layer, Level world) {
+        int minBuild = world.getMinBuildHeight();
+        int maxBuild = world.getMaxBuildHeight();
+
+        // Pass 3: Neighbor and shape updates, survival check
+        for (DecodedSection decoded : layer) {
+            decoded.section.forEachBlock((x, y, z, incoming, nbt) -> {
+                if (isOutsideHeightLimits(decoded.baseY + y, minBuild, maxBuild)) {
+                    return;
+                }
+                BlockPos pos = new BlockPos(decoded.baseX + x, decoded.baseY + y, decoded.baseZ + z);
+                BlockState state = world.getBlockState(pos);
+                world.updateNeighborsAt(pos, state.getBlock());
+                state.updateNeighbourShapes(world, pos, 3);
+                if (!state.canSurvive(world, pos)) {
+                    world.destroyBlock(pos, true);
+                } else {
+                    world.neighborChanged(pos, Blocks.AIR, pos.below());
+                }
+            });
+        }
+
+        // Pass 4: Client synchronization of the settled states
+        BlockPos.MutableBlockPos absolutePos = new BlockPos.MutableBlockPos();
+        for (DecodedSection decoded : layer) {
+            decoded.section.forEachBlock((x, y, z, incoming, nbt) -> {
+                if (isOutsideHeightLimits(decoded.baseY + y, minBuild, maxBuild)) {
+                    return;
+                }
+                absolutePos.set(decoded.baseX + x, decoded.baseY + y, decoded.baseZ + z);
+                syncBlock(world, absolutePos, world.getBlockState(absolutePos));
+            });
+        }
+    }
+
+    /**
+     * Tick-sliced paste of a structure file, the async counterpart of
+     * {@link #pasteStructure(StructureFileReader, BlockPos, Level, PasteMode, List)}.
+     * The paste task walks a {@link StructureBlockList}, so sections are
+     * decoded as its batches reach them. The destination is locked like a
+     * teleport destination; the job stays queued until the lock is granted.
+     * Replaced blocks are not recorded, so cancelling with rollback stops the
+     * paste without restoring what it already overwrote. Entities stored in
+     * the file are not spawned.
+     */
+    public static TeleportJob pasteStructureAsync(StructureFileReader structure, BlockPos targetPos, Level world,
+            PasteMode mode, List<BlockState> preservedBlocks, int blocksPerTick) {
+        TeleportJob job = new TeleportJob();
+        BlockPos min = targetPos.offset(structure.getOffset());
+        BlockPos max = min.offset(structure.getSizeX() - 1, structure.getSizeY() - 1, structure.getSizeZ() - 1);
+        acquireForJob(job, List.of(RegionLockManager.Box.of(world, min, max)), "Paste cancelled", lease -> {
+            Selection target = new Selection();
+            target.setWorld(world);
+            target.setFromCorners(min, max);
+            AsyncPasteTask task = new AsyncPasteTask(new StructureBlockList(structure), targetPos, world, mode,
+                    BlockMatcher.forPreservation(preservedBlocks), new ArrayList<>(), null, target, Rotation.NONE, Mirror.NONE,
+                    max.subtract(min), Math.max(1, blocksPerTick), TeleportResult.builder(),
+                    VisualizationType.NONE, null, null);
+            task.setPasteBounds(min.getX(), min.getZ(), max.getX(), max.getZ());
+            task.setLease(lease);
+            task.setJob(job, null);
+            task.disableRollback();
+            job.setPhase(TeleportJob.Phase.LOADING);
+            TeleportScheduler.getInstance().submit(task);
+        });
+        return job;
+    }
+
+    @SuppressWarnings("null")
+    private static void pasteSnapshot(StructureSnapshot snapshot, BlockPos targetPos, Level world,
+            PasteMode mode, BlockMatcher preservedBlocks, PhaseTimings timings) {
+        long start = timings != null ? timings.start() : System.nanoTime();
+
+        BlockPos origin = targetPos.offset(snapshot.getOffset());
+        int sizeX = snapshot.getSizeX();
+        int sizeY = snapshot.getSizeY();
+        int sizeZ = snapshot.getSizeZ();
+        int minBuild = world.getMinBuildHeight();
+        int maxBuild = world.getMaxBuildHeight();
+        BlockPos.MutableBlockPos absolutePos = new BlockPos.MutableBlockPos();
+
+        // Pass 1: Clearing Top-to-Bottom to prevent dependent blocks from dropping.
+        for (int y = sizeY - 1; y >= 0; y--) {
+            if (isOutsideHeightLimits(origin.getY() + y, minBuild, maxBuild)) {
+                continue;
+            }
+            for (int x = 0; x < sizeX; x++) {
+                for (int z = 0; z < sizeZ; z++) {
+                    int index = snapshot.index(x, y, z);
+                    BlockState incoming = snapshot.getState(index);
+                    if (incoming == null) {
+                        continue;
+                    }
+                    absolutePos.set(origin.getX() + x, origin.getY() + y, origin.getZ() + z);
+
+                    BlockState existingState = world.getBlockState(absolutePos);
+                    if (shouldReplace(existingState, incoming, mode, preservedBlocks)) {
+                        // Pre-emptively remove block entity to prevent item drops (e.g. chests)
+                        BlockEntity be = world.getBlockEntity(absolutePos);
+                        if (be != null) {
+                            world.removeBlockEntity(absolutePos);
+                        }
+                        // Clear to AIR (flag 16 | 32 | 64); clients are synced in pass 4
+                        world.setBlock(absolutePos, Blocks.AIR.defaultBlockState(), 16 | 32 | 64);
+                    }
+                }
+            }
+        }
+
+        // Pass 2: Set real blocks (Bottom-to-Top) and IMMEDIATELY load NBT
+        for (int y = 0; y < sizeY; y++) {
+            if (isOutsideHeightLimits(origin.getY() + y, minBuild, maxBuild)) {
+                continue;
+            }
+            for (int x = 0; x < sizeX; x++) {
+                for (int z = 0; z < sizeZ; z++) {
+                    int index = snapshot.index(x, y, z);
+                    BlockState incoming = snapshot.getState(index);
+                    if (incoming == null) {
+                        continue;
+                    }
+                    absolutePos.set(origin.getX() + x, origin.getY() + y, origin.getZ() + z);
+
+                    if (shouldReplace(world.getBlockState(absolutePos), incoming, mode, preservedBlocks)) {
+                        // Set block with NO_NEIGHBOR_UPDATE only; clients are synced in pass 4
+                        world.setBlock(absolutePos, incoming, 16);
+
+                        // Immediately load NBT if it exists
+                        CompoundTag nbt = snapshot.getBlockEntityTag(index);
+                        if (nbt != null) {
+                            BlockEntity be = world.getBlockEntity(absolutePos);
+                            if (be != null) {
+                                CompoundTag tag = nbt.copy();
+                                tag.putInt("x", absolutePos.getX());
+                                tag.putInt("y", absolutePos.getY());
+                                tag.putInt("z", absolutePos.getZ());
+                                tag.remove("id");
+                                be.load(tag);
+                                be.setChanged();
+                            }
+                        }
+                    }
+                }
             }
         }
 
-        // Create a map for NBT data for Pass 1
-        Map<BlockPos, CompoundTag> nbtMap = new HashMap<>();
-        for (BlockData blockData : blocks) {
-            if (blockData.nbt != null) {
-                nbtMap.put(targetPos.offset(blockData.relativePos), blockData.nbt);
-            }
+        if (timings != null) {
+            start = timings.lap(PhaseTimings.Phase.PASTE, start);
         }
 
-        // Clearing in reverse order (Top-to-Bottom) to prevent dependent blocks from
-        // dropping.
-        for (int i = blocks.size() - 1; i >= 0; i--) {
-            BlockData blockData = blocks.get(i);
-            BlockPos absolutePos = targetPos.offset(blockData.relativePos);
-
-            if (isOutsideHeightLimits(absolutePos, world.getMinBuildHeight(), world.getMaxBuildHeight())) {
+        // Pass 3: Neighbor and shape updates
+        for (int y = 0; y < sizeY; y++) {
+            if (isOutsideHeightLimits(origin.getY() + y, minBuild, maxBuild)) {
                 continue;
             }
+            for (int x = 0; x < sizeX; x++) {
+                for (int z = 0; z < sizeZ; z++) {
+                    if (!snapshot.isPresent(snapshot.index(x, y, z))) {
+                        continue;
+                    }
+                    BlockPos pos = new BlockPos(origin.getX() + x, origin.getY() + y, origin.getZ() + z);
+                    BlockState state = world.getBlockState(pos);
 
-            BlockState existingState = world.getBlockState(absolutePos);
+                    // 1. Neighbor and Shape Updates
+                    world.updateNeighborsAt(pos, state.getBlock());
+                    state.updateNeighbourShapes(world, pos, 3);
 
-            if (shouldReplace(existingState, blockData.blockState, mode, preservedBlocks)) {
-                // Pre-emptively remove block entity to prevent item drops (e.g. chests)
-                BlockEntity be = world.getBlockEntity(absolutePos);
-                if (be != null) {
-                    world.removeBlockEntity(absolutePos);
+                    // 2. Survival Check
+                    if (!state.canSurvive(world, pos)) {
+                        world.destroyBlock(pos, true);
+                    } else {
+                        world.neighborChanged(pos, Blocks.AIR, pos.below());
+                    }
                 }
-                // Clear to AIR (flag 2 | 16 | 32 | 64)
-                world.setBlock(absolutePos, Blocks.AIR.defaultBlockState(), 2 | 16 | 32 | 64);
             }
         }
 
-        // Pass 2: Set real blocks and IMMEDIATELY load NBT
-        for (BlockData blockData : blocks) {
-            BlockPos absolutePos = targetPos.offset(blockData.relativePos);
+        if (timings != null) {
+            start = timings.lap(PhaseTimings.Phase.NEIGHBOR_UPDATES, start);
+        }
 
-            if (isOutsideHeightLimits(absolutePos, world.getMinBuildHeight(), world.getMaxBuildHeight())) {
+        // Pass 4: Client synchronization of the settled states (coalesced per
+        // section, flushed at end of tick)
+        for (int y = 0; y < sizeY; y++) {
+            if (isOutsideHeightLimits(origin.getY() + y, minBuild, maxBuild)) {
                 continue;
             }
-
-            if (shouldReplace(world.getBlockState(absolutePos), blockData.blockState, mode, preservedBlocks)) {
-                // Set block with UPDATE_CLIENTS and NO_NEIGHBOR_UPDATE
-                world.setBlock(absolutePos, blockData.blockState, 18);
-
-                // Immediately load NBT if it exists
-                if (nbtMap.containsKey(absolutePos)) {
-                    BlockEntity be = world.getBlockEntity(absolutePos);
-                    if (be != null) {
-                        CompoundTag tag = nbtMap.get(absolutePos).copy();
-                        tag.putInt("x", absolutePos.getX());
-                        tag.putInt("y", absolutePos.getY());
-                        tag.putInt("z", absolutePos.getZ());
-                        tag.remove("id");
-                        be.load(tag);
-                        be.setChanged();
+            for (int x = 0; x < sizeX; x++) {
+                for (int z = 0; z < sizeZ; z++) {
+                    if (!snapshot.isPresent(snapshot.index(x, y, z))) {
+                        continue;
                     }
+                    absolutePos.set(origin.getX() + x, origin.getY() + y, origin.getZ() + z);
+                    syncBlock(world, absolutePos, world.getBlockState(absolutePos));
                 }
             }
         }
 
-        // Pass 3: Combined Updates and Client Sync
-        for (BlockData blockData : blocks) {
-            BlockPos absolutePos = targetPos.offset(blockData.relativePos);
-
-            if (isOutsideHeightLimits(absolutePos, world.getMinBuildHeight(), world.getMaxBuildHeight())) {
-                continue;
-            }
-
-            BlockState state = world.getBlockState(absolutePos);
-
-            // 1. Neighbor and Shape Updates
-            world.updateNeighborsAt(absolutePos, state.getBlock());
-            state.updateNeighbourShapes(world, absolutePos, 3);
-
-            // 2. Survival Check
-            if (!state.canSurvive(world, absolutePos)) {
-                world.destroyBlock(absolutePos, true);
-            } else {
-                world.neighborChanged(absolutePos, Blocks.AIR, absolutePos.below());
-            }
-
-            // 3. Client Synchronization
-            world.sendBlockUpdated(absolutePos, Blocks.AIR.defaultBlockState(), state, 2);
+        if (timings != null) {
+            timings.lap(PhaseTimings.Phase.CLIENT_SYNC, start);
         }
     }
 
@@ -797,9 +1610,195 @@ public class StructureTeleporter {
 
     /**
      * Main teleportation method using the new TeleportRequest API.
+     * <p>
+     * For async requests ({@code blocksPerTick > 0}) this returns as soon as the
+     * paste is scheduled; use {@link #teleportAsync(TeleportRequest)} to get a
+     * handle on the running job.
      */
-    @SuppressWarnings({ "null", "deprecation" })
     public static TeleportResult teleport(TeleportRequest request) {
+        List<RegionLockManager.Box> boxes = lockBoxes(request);
+        if (boxes == null) {
+            return runTeleport(request, null, null);
+        }
+        RegionLockManager.Lease lease = RegionLockManager.getInstance().tryAcquire(boxes);
+        if (lease == null) {
+            return TeleportResult.failure("Teleportation denied: area is locked by another operation.", 0, 0,
+                    new HashSet<>(), 0, 0);
+        }
+        try {
+            return runTeleport(request, null, lease);
+        } finally {
+            if (!lease.isHandedOff()) {
+                lease.release();
+            }
+        }
+    }
+
+    /**
+     * Start a teleport and return a handle to it. Async requests
+     * ({@code blocksPerTick > 0}) paste over the following ticks and can be
+     * paused or cancelled; anything else runs synchronously and the returned
+     * job is already complete.
+     * <p>
+     * If another operation holds an overlapping source or destination area,
+     * the job stays {@link TeleportJob.Phase#QUEUED} and starts once that area
+     * is released. A job cancelled while queued leaves the queue and completes
+     * as cancelled right away.
+     */
+    public static TeleportJob teleportAsync(TeleportRequest request) {
+        TeleportJob job = new TeleportJob();
+        List<RegionLockManager.Box> boxes = lockBoxes(request);
+        if (boxes == null) {
+            TeleportResult result = runTeleport(request, job, null);
+            if (job.getPhase() == TeleportJob.Phase.QUEUED) {
+                job.complete(result);
+            }
+            return job;
+        }
+        acquireForJob(job, boxes, "Teleportation cancelled", lease -> {
+            TeleportResult result;
+            try {
+                result = runTeleport(request, job, lease);
+            } finally {
+                if (!lease.isHandedOff()) {
+                    lease.release();
+                }
+            }
+            if (job.getPhase() == TeleportJob.Phase.QUEUED) {
+                job.complete(result);
+            }
+        });
+        return job;
+    }
+
+    /**
+     * Lock {@code boxes} for {@code job} and run {@code start} once they are
+     * granted. While the job waits in the queue, cancelling it leaves the queue
+     * and completes it as cancelled right away, so it neither hangs until the
+     * blocking lease is released nor keeps blocking later leases; the server
+     * stopping does the same.
+     */
+    private static void acquireForJob(TeleportJob job, List<RegionLockManager.Box> boxes, String cancelMessage,
+            Consumer<RegionLockManager.Lease> start) {
+        Runnable completeCancelled = () -> job.completeCancelled(TeleportResult.builder()
+                .success(false)
+                .message(cancelMessage)
+                .teleported(false)
+                .build());
+        RegionLockManager.Lease lease = RegionLockManager.getInstance().acquire(boxes, granted -> {
+            if (job.isCancelRequested()) {
+                granted.release();
+                completeCancelled.run();
+                return;
+            }
+            start.accept(granted);
+        }, completeCancelled);
+        if (lease.isGranted() || lease.isReleased()) {
+            return;
+        }
+        // Lock state is main thread only; cancel() may come from anywhere
+        Runnable leaveQueue = () -> {
+            if (!lease.isGranted() && !lease.isReleased()) {
+                lease.release();
+                completeCancelled.run();
+            }
+        };
+        job.setCancelHook(() -> {
+            MinecraftServer server = ServerLifecycleHooks.getCurrentServer();
+            if (server != null) {
+                server.execute(leaveQueue);
+            } else {
+                leaveQueue.run();
+            }
+        });
+    }
+
+    /**
+     * Source and destination boxes a teleport writes to, or {@code null} when
+     * it writes nothing (simulation, incomplete selection).
+     */
+    private static List<RegionLockManager.Box> lockBoxes(TeleportRequest request) {
+        Selection selection = request.getSelection();
+        if (!request.shouldTeleport() || !selection.isComplete()) {
+            return null;
+        }
+        Level sourceWorld = selection.getWorld();
+        Level targetLevel = request.getTargetLevel() != null ? request.getTargetLevel() : sourceWorld;
+        return lockBoxes(sourceWorld, selection.getMin(), selection.getMax(), targetLevel, request.getTargetPos(),
+                request.getRotation(), request.getMirror());
+    }
+
+    private static List<RegionLockManager.Box> lockBoxes(Level sourceWorld, BlockPos min, BlockPos max,
+            Level targetLevel, BlockPos targetPos, Rotation rotation, Mirror mirror) {
+        int[] target = ParallelScan.targetBounds(targetPos, max.subtract(min), rotation, mirror);
+        return List.of(RegionLockManager.Box.of(sourceWorld, min, max),
+                RegionLockManager.Box.of(targetLevel, new BlockPos(target[0], target[1], target[2]),
+                        new BlockPos(target[3], target[4], target[5])));
+    }
+
+    /**
+     * @param lease locks held for the source and destination; handed off to
+     *              the paste task when the paste runs async
+     */
+    private static TeleportResult runTeleport(TeleportRequest request, TeleportJob job,
+            RegionLockManager.Lease lease) {
+        long requestId = job != null ? job.getId() : TeleportJob.nextId();
+        TeleportJobEvent event = new TeleportJobEvent();
+        if (!event.isEnabled()) {
+            return runTeleport(request, job, lease, requestId);
+        }
+        event.begin();
+        TeleportResult result = runTeleport(request, job, lease, requestId);
+        event.end();
+        if (event.shouldCommit()) {
+            describeJobEvent(event, request, requestId, result);
+            event.commit();
+        }
+        return result;
+    }
+
+    /**
+     * Fill a job event; only runs while JFR is recording it.
+     */
+    private static void describeJobEvent(TeleportJobEvent event, TeleportRequest request, long requestId,
+            TeleportResult result) {
+        Selection selection = request.getSelection();
+        Level sourceWorld = selection.getWorld();
+        Level targetLevel = request.getTargetLevel() != null ? request.getTargetLevel() : sourceWorld;
+        Integer blocksPerTick = request.getBlocksPerTick();
+
+        event.requestId = requestId;
+        event.sourceDimension = sourceWorld != null ? sourceWorld.dimension().location().toString() : null;
+        event.targetDimension = targetLevel != null ? targetLevel.dimension().location().toString() : null;
+        if (!request.shouldTeleport()) {
+            event.mode = "SIMULATE";
+        } else if (blocksPerTick != null && blocksPerTick > 0) {
+            event.mode = "ASYNC";
+        } else {
+            event.mode = request.isSectionBatchedPaste() ? "SYNC_BATCHED" : "SYNC";
+        }
+        if (selection.isComplete()) {
+            BlockPos min = selection.getMin();
+            BlockPos max = selection.getMax();
+            event.volume = (long) (max.getX() - min.getX() + 1) * (max.getY() - min.getY() + 1)
+                    * (max.getZ() - min.getZ() + 1);
+            int[] target = ParallelScan.targetBounds(request.getTargetPos(), max.subtract(min),
+                    request.getRotation(), request.getMirror());
+            event.chunksTouched = chunkColumns(min.getX(), min.getZ(), max.getX(), max.getZ())
+                    + chunkColumns(target[0], target[2], target[3], target[5]);
+        }
+        event.blocksProcessed = result.getTotalBlocks();
+        event.success = result.isSuccess();
+        event.allocatedBytes = result.getTimings().getAllocatedBytes();
+    }
+
+    private static int chunkColumns(int minX, int minZ, int maxX, int maxZ) {
+        return ((maxX >> 4) - (minX >> 4) + 1) * ((maxZ >> 4) - (minZ >> 4) + 1);
+    }
+
+    @SuppressWarnings({ "null", "deprecation" })
+    private static TeleportResult runTeleport(TeleportRequest request, TeleportJob job,
+            RegionLockManager.Lease lease, long requestId) {
         Selection selection = request.getSelection();
         if (!selection.isComplete()) {
             TeleportAPI.LOGGER.warn("Selection not complete!");
@@ -817,7 +1816,7 @@ public class StructureTeleporter {
         Player player = request.getPlayer();
 
         // Coverage filter
-        Set<BlockPos> filter = request.getFilter();
+        RegionMask filter = request.getFilterMask();
         if (filter != null && filter.isEmpty()) {
             TeleportAPI.LOGGER.warn("Teleportation denied: Filter is empty.");
             return TeleportResult.failure("Teleportation denied: Filter is empty.", 0, 0, new HashSet<>(), 0, 0);
@@ -827,120 +1826,89 @@ public class StructureTeleporter {
         Mirror mirror = request.getMirror();
         Vec3i sourceSize = max.subtract(min);
 
-        // Metrics and tracking
-        int totalBlocks = 0;
-        int excludedCount = 0;
-        int replacedCount = 0;
-        int skippedCount = 0;
-        int skippedByLimitCount = 0;
-        int airBlockCount = 0;
-        int solidBlockCount = 0;
-        int fluidBlockCount = 0;
-        int destinationSolidBlocksLost = 0;
-
-        Set<BlockState> excludedTypes = new HashSet<>();
-        Map<BlockState, Integer> sourceBlockCounts = new HashMap<>();
-        Map<BlockState, Integer> replacedBlocksMap = new HashMap<>();
-        Map<BlockState, Integer> skippedBlocksMap = new HashMap<>();
-
-        List<BlockState> excludedBlocks = request.getExcludedBlocks();
+        // Compiled once per request; every loop below does O(1) lookups
+        BlockMatcher excludedBlocks = request.getExclusionMatcher();
         boolean checkExclusions = request.isCheckExclusions();
         boolean includeAir = request.isIncludeAir();
         PasteMode pasteMode = request.getPasteMode();
-        List<BlockState> preservedBlocks = request.getPreservedBlocks();
+        BlockMatcher preservedBlocks = request.getPreservationMatcher();
 
         Integer blocksPerTickVal = request.getBlocksPerTick();
         int blocksPerTick = blocksPerTickVal != null ? blocksPerTickVal : 0;
         boolean useAsync = blocksPerTick > 0;
 
-        // Pass 1: Count metrics
-        for (int x = min.getX(); x <= max.getX(); x++) {
-            for (int y = min.getY(); y <= max.getY(); y++) {
-                for (int z = min.getZ(); z <= max.getZ(); z++) {
-                    BlockPos pos = new BlockPos(x, y, z);
-                    BlockState state = sourceWorld.getBlockState(pos);
-
-                    if (filter != null && !filter.contains(pos))
-                        continue;
-
-                    if (state.isAir()) {
-                        if (includeAir) {
-                            airBlockCount++;
-                            totalBlocks++;
-                            sourceBlockCounts.merge(state, 1, (a, b) -> a + b);
-                        }
-                        continue;
-                    }
+        // Get BitSet mask if provided - restricts what is copied and cleared
+        java.util.BitSet validBlocksMask = request.getValidBlocksMask();
 
-                    totalBlocks++;
-                    sourceBlockCounts.merge(state, 1, (a, b) -> a + b);
-                    if (isExcluded(state, excludedBlocks, checkExclusions)) {
-                        excludedCount++;
-                        excludedTypes.add(state);
-                    } else {
-                        solidBlockCount++;
-                        if (!state.getFluidState().isEmpty() && state.getFluidState().isSource()) {
-                            fluidBlockCount++;
-                        }
-                    }
-                }
-            }
+        PhaseTimings timings = new PhaseTimings();
+        timings.setRequestId(requestId);
+        timings.addTick();
+        timings.beginAllocation();
+        long phaseStart = timings.start();
+
+        // Permission Checks and the Pre event come first, so a rejected request
+        // never pays for the capture; its result only needs the metrics
+        java.util.function.Supplier<TeleportScan> countsOnly = () -> scanForTeleport(sourceWorld, targetLevel, min,
+                max, targetPos, rotation, mirror, filter, validBlocksMask, excludedBlocks, checkExclusions,
+                includeAir, pasteMode, preservedBlocks, false, false);
+        CheckResult sourceCheck = PermissionHelper.checkAreaPermissions(player, sourceWorld, selection, true);
+        if (!sourceCheck.isAllowed()) {
+            TeleportScan counts = countsOnly.get();
+            return TeleportResult.permissionDeny("Source permission denied: " + sourceCheck.getReason(),
+                    counts.totalBlocks, counts.excludedCount, counts.excludedTypes, counts.airBlockCount,
+                    counts.solidBlockCount, sourceCheck.getFailedPos(), sourceCheck.getReason());
         }
 
-        // Pass 2: Scanning target area feedback
-        // In the legacy synchronous version, we can do a simplified pre-check or just
-        // calculate potential overlaps.
-        for (int x = min.getX(); x <= max.getX(); x++) {
-            for (int y = min.getY(); y <= max.getY(); y++) {
-                for (int z = min.getZ(); z <= max.getZ(); z++) {
-                    BlockPos srcPos = new BlockPos(x, y, z);
-                    BlockState srcState = sourceWorld.getBlockState(srcPos);
-
-                    if (filter != null && !filter.contains(srcPos))
-                        continue;
-                    if (srcState.isAir() && !includeAir)
-                        continue;
-
-                    if (!isExcluded(srcState, excludedBlocks, checkExclusions)) {
-                        BlockPos relPos = srcPos.subtract(min);
-                        BlockPos transformedRelPos = transformPos(relPos, rotation, mirror, sourceSize);
-                        BlockPos dstPos = targetPos.offset(transformedRelPos);
-
-                        if (isOutsideHeightLimits(dstPos, targetLevel.getMinBuildHeight(),
-                                targetLevel.getMaxBuildHeight())) {
-                            skippedByLimitCount++;
-                            continue;
-                        }
-
-                        BlockState dstState = targetLevel.getBlockState(dstPos);
-
-                        boolean isDstBlockFromSource = false;
-                        if (sourceWorld == targetLevel) {
-                            if (dstPos.getX() >= min.getX() && dstPos.getX() <= max.getX() &&
-                                    dstPos.getY() >= min.getY() && dstPos.getY() <= max.getY() &&
-                                    dstPos.getZ() >= min.getZ() && dstPos.getZ() <= max.getZ()) {
-                                // It's inside the bounding box, check filter
-                                if (filter == null || filter.contains(dstPos)) {
-                                    BlockState dstSourceState = sourceWorld.getBlockState(dstPos);
-                                    if (!isExcluded(dstSourceState, excludedBlocks, checkExclusions)) {
-                                        isDstBlockFromSource = true;
-                                    }
-                                }
-                            }
-                        }
-
-                        BlockState effectiveDstState = isDstBlockFromSource ? Blocks.AIR.defaultBlockState() : dstState;
+        Selection targetSelection = new Selection();
+        targetSelection.setWorld(targetLevel);
+        BlockPos transformedSize = transformPos(new BlockPos(sourceSize), rotation, mirror, sourceSize);
+        // Approximate target bounds
+        targetSelection.setFromCorners(targetPos, targetPos.offset(transformedSize));
+        CheckResult targetCheck = PermissionHelper.checkAreaPermissions(player, targetLevel, targetSelection, false);
+        if (!targetCheck.isAllowed()) {
+            TeleportScan counts = countsOnly.get();
+            return TeleportResult.permissionDeny("Target permission denied: " + targetCheck.getReason(),
+                    counts.totalBlocks, counts.excludedCount, counts.excludedTypes, counts.airBlockCount,
+                    counts.solidBlockCount, targetCheck.getFailedPos(), targetCheck.getReason());
+        }
+        timings.lap(PhaseTimings.Phase.PERMISSION_CHECK, phaseStart);
 
-                        if (shouldReplace(effectiveDstState, srcState, pasteMode, preservedBlocks)) {
-                            // Predicted replacement
-                            if (!dstState.isAir() && !isDstBlockFromSource)
-                                destinationSolidBlocksLost++;
-                        }
-                    }
-                }
+        // Fire Pre Event
+        if (request.shouldTeleport()) {
+            StructureTeleportEvent.Pre preEvent = new StructureTeleportEvent.Pre(selection, targetLevel, targetPos,
+                    player);
+            if (MinecraftForge.EVENT_BUS.post(preEvent)) {
+                TeleportScan counts = countsOnly.get();
+                return TeleportResult.failure("Teleportation canceled by event", counts.totalBlocks,
+                        counts.excludedCount, counts.excludedTypes, counts.airBlockCount, counts.solidBlockCount);
             }
         }
 
+        // One walk over the selection: metrics, destination prediction and, when
+        // teleporting, the source snapshot, clear mask and undo capture
+        phaseStart = timings.start();
+        TeleportScan scan = scanForTeleport(sourceWorld, targetLevel, min, max, targetPos, rotation, mirror, filter,
+                validBlocksMask, excludedBlocks, checkExclusions, includeAir, pasteMode, preservedBlocks,
+                request.shouldTeleport(), request.shouldTeleport() && player != null);
+        int sourceChunks = chunkColumns(min.getX(), min.getZ(), max.getX(), max.getZ());
+        timings.setEventScope(scan.totalBlocks, sourceChunks);
+        timings.lap(PhaseTimings.Phase.SCAN, phaseStart);
+
+        int totalBlocks = scan.totalBlocks;
+        int excludedCount = scan.excludedCount;
+        int replacedCount = 0;
+        int skippedCount = 0;
+        int skippedByLimitCount = scan.skippedByLimitCount;
+        int airBlockCount = scan.airBlockCount;
+        int solidBlockCount = scan.solidBlockCount;
+        int fluidBlockCount = scan.fluidBlockCount;
+        int destinationSolidBlocksLost = scan.destinationSolidBlocksLost;
+
+        Set<BlockState> excludedTypes = scan.excludedTypes;
+        Map<BlockState, Integer> sourceBlockCounts = scan.sourceBlockCounts;
+        Map<BlockState, Integer> replacedBlocksMap = new HashMap<>();
+        Map<BlockState, Integer> skippedBlocksMap = new HashMap<>();
+
         // Entity Detection
         AABB selectionBox = new AABB(min.getX(), min.getY(), min.getZ(), max.getX() + 1, max.getY() + 1,
                 max.getZ() + 1);
@@ -982,31 +1950,12 @@ public class StructureTeleporter {
             entitiesToTeleport.add(new EntityData(entity, relX, relY, relZ, entityPlayerName, entityTag, gameType));
         }
 
-        // Permission Checks
-        CheckResult sourceCheck = PermissionHelper.checkAreaPermissions(player, sourceWorld, selection, true);
-        if (!sourceCheck.isAllowed()) {
-            return TeleportResult.permissionDeny("Source permission denied: " + sourceCheck.getReason(),
-                    totalBlocks, excludedCount, excludedTypes, airBlockCount, solidBlockCount,
-                    sourceCheck.getFailedPos(), sourceCheck.getReason());
-        }
-
-        Selection targetSelection = new Selection();
-        targetSelection.setWorld(targetLevel);
-        BlockPos transformedSize = transformPos(new BlockPos(sourceSize), rotation, mirror, sourceSize);
-        // Approximate target bounds
-        targetSelection.setFromCorners(targetPos, targetPos.offset(transformedSize));
-        CheckResult targetCheck = PermissionHelper.checkAreaPermissions(player, targetLevel, targetSelection, false);
-        if (!targetCheck.isAllowed()) {
-            return TeleportResult.permissionDeny("Target permission denied: " + targetCheck.getReason(),
-                    totalBlocks, excludedCount, excludedTypes, airBlockCount, solidBlockCount,
-                    targetCheck.getFailedPos(), targetCheck.getReason());
-        }
-
         double distance = Math.sqrt(min.distSqr(targetPos));
         String sourceDim = sourceWorld.dimension().location().toString();
         String targetDim = targetLevel.dimension().location().toString();
 
         if (!request.shouldTeleport()) {
+            timings.endAllocation();
             return TeleportResult.builder()
                     .success(true)
                     .totalBlocks(totalBlocks)
@@ -1024,59 +1973,46 @@ public class StructureTeleporter {
                     .sourceDimension(sourceDim)
                     .targetDimension(targetDim)
                     .sourceBlockCounts(sourceBlockCounts)
+                    .timings(timings)
                     .build();
         }
 
-        // Fire Pre Event
-        StructureTeleportEvent.Pre preEvent = new StructureTeleportEvent.Pre(selection, targetLevel, targetPos, player);
-        if (MinecraftForge.EVENT_BUS.post(preEvent)) {
-            return TeleportResult.failure("Teleportation canceled by event", totalBlocks, excludedCount, excludedTypes,
-                    airBlockCount, solidBlockCount);
-        }
-
         // *** RESTORED LEGACY LOGIC ***
 
         TeleportAPI.LOGGER.info("[TeleportAPI] Starting Synchronous Teleport...");
 
-        // Get BitSet mask if provided - needed for copyStructure
-        java.util.BitSet validBlocksMask = request.getValidBlocksMask();
-
-        // 1. SNAPSHOT: Copy blocks to memory
-        // Pass BitSet to copyStructure to prevent unwanted blocks from being copied
-        List<BlockData> sourceSnapshot = copyStructure(selection, excludedBlocks, checkExclusions, includeAir, filter,
-                validBlocksMask);
+        // 1. SNAPSHOT: captured by the scan, honouring the filter and BitSet
+        StructureSnapshot sourceSnapshot = scan.snapshot;
         if (sourceSnapshot.isEmpty()) {
             return TeleportResult.failure("No blocks to teleport after filtering.", totalBlocks, 0, new HashSet<>(), 0,
                     0);
         }
 
-        // Prepare Target List (Transformed) - Keep sourceSnapshot intact for Rollback!
-        List<BlockData> blocksToPaste = new ArrayList<>(sourceSnapshot.size());
-        Set<BlockPos> targetPositions = new HashSet<>();
-        for (BlockData srcData : sourceSnapshot) {
-            BlockPos transformedRelPos = transformPos(srcData.relativePos, rotation, mirror, sourceSize);
-            BlockState transformedState = srcData.blockState.rotate(rotation).mirror(mirror);
-            blocksToPaste.add(new BlockData(transformedRelPos, transformedState, srcData.nbt));
-            targetPositions.add(targetPos.offset(transformedRelPos));
-        }
+        // Prepare Target Snapshot (Transformed) - Keep sourceSnapshot intact for Rollback!
+        timings.setEventScope(sourceSnapshot.getBlockCount(), sourceChunks);
+        phaseStart = timings.start();
+        StructureSnapshot blocksToPaste = transformSnapshot(sourceSnapshot, rotation, mirror);
 
         // UNDO SYSTEM INTEGRATION
-        // Capture the state of the target area BEFORE we do anything to it.
-        // We use copyStructure to get what's currently there.
-        if (request.getPlayer() != null) {
-            List<BlockData> targetSnapshot = copyStructure(targetLevel, targetPositions, targetPos, null, true, true);
-            com.teleportapi.undo.UndoManager.getInstance().push(request.getPlayer(),
-                    new com.teleportapi.undo.UndoContext(sourceWorld, targetLevel, min, targetPos, sourceSnapshot,
-                            targetSnapshot, entitiesToTeleport));
+        // The scan recorded only the blocks this move changes, BEFORE we touch anything.
+        if (player != null) {
+            com.teleportapi.undo.UndoManager.getInstance().push(player,
+                    new com.teleportapi.undo.UndoContext(sourceWorld, targetLevel, min, targetPos, scan.undoSource,
+                            scan.undoTarget, entitiesToTeleport));
         }
+        phaseStart = timings.lap(PhaseTimings.Phase.CAPTURE, phaseStart);
 
         List<String> teleportedPlayers = new ArrayList<>();
 
         try {
             // 2. CLEAR SOURCE
-            // Extracted to reusable API method
-            clearAreaWithMask(sourceWorld, selection, validBlocksMask, excludedBlocks, checkExclusions, includeAir,
-                    filter);
+            // Exactly the positions the scan captured
+            clearMasked(sourceWorld, scan.clearMask);
+            timings.lap(PhaseTimings.Phase.CLEAR, phaseStart);
+            BlockPos pasteOrigin = targetPos.offset(blocksToPaste.getOffset());
+            timings.setEventScope(blocksToPaste.getBlockCount(), chunkColumns(pasteOrigin.getX(),
+                    pasteOrigin.getZ(), pasteOrigin.getX() + blocksToPaste.getSizeX() - 1,
+                    pasteOrigin.getZ() + blocksToPaste.getSizeZ() - 1));
 
             // 3. PASTE TARGET
             if (useAsync && blocksPerTick > 0) {
@@ -1115,7 +2051,17 @@ public class StructureTeleporter {
                         entitiesToTeleport, player, selection, rotation, mirror, sourceSize, blocksPerTick,
                         resultBuilder, request.getVisualizationType(), request.getVisualizationAxis(),
                         request.getHullMask());
-                MinecraftForge.EVENT_BUS.register(pasteTask);
+                pasteTask.setPriority(request.getPriority());
+                timings.endAllocation();
+                pasteTask.setTimings(timings);
+                if (lease != null) {
+                    pasteTask.setLease(lease);
+                }
+                if (job != null) {
+                    pasteTask.setJob(job, sourceSnapshot);
+                    job.setPhase(TeleportJob.Phase.LOADING);
+                }
+                TeleportScheduler.getInstance().submit(pasteTask);
 
                 // Return "InProgress" result or null?
                 // The prompt implies we return a result.
@@ -1124,17 +2070,25 @@ public class StructureTeleporter {
                         .success(true)
                         .message("Async Teleportation Started")
                         .teleported(false) // Not yet
+                        .timings(timings)
                         .build();
 
             } else {
                 // SYNC MODE (Instant)
-                pasteStructure(blocksToPaste, targetPos, targetLevel, pasteMode, preservedBlocks);
+                if (request.isSectionBatchedPaste()) {
+                    pasteSnapshotBatched(blocksToPaste, targetPos, targetLevel, pasteMode, preservedBlocks,
+                            timings);
+                } else {
+                    pasteSnapshot(blocksToPaste, targetPos, targetLevel, pasteMode, preservedBlocks, timings);
+                }
             }
 
             // 4. TELEPORT ENTITIES (Sync only - Async handles it in finish())
             if (!useAsync || blocksPerTick <= 0) {
+                phaseStart = timings.start();
                 teleportEntities(entitiesToTeleport, targetLevel, targetPos, rotation, mirror, sourceSize, sourceWorld,
                         teleportedPlayers);
+                timings.lap(PhaseTimings.Phase.ENTITY_TRANSFER, phaseStart);
             } // End Sync-Only Entity Teleport
 
         } catch (Exception e) {
@@ -1157,6 +2111,9 @@ public class StructureTeleporter {
                     totalBlocks, excludedCount, excludedTypes, airBlockCount, solidBlockCount);
         }
 
+        timings.endAllocation();
+        TeleportMetrics.getInstance().record(timings);
+
         TeleportResult result = TeleportResult.builder()
                 .success(true)
                 .totalBlocks(totalBlocks)
@@ -1183,6 +2140,7 @@ public class StructureTeleporter {
                 .sourceDimension(sourceDim)
                 .targetDimension(targetDim)
                 .sourceBlockCounts(sourceBlockCounts)
+                .timings(timings)
                 .build();
 
         MinecraftForge.EVENT_BUS
@@ -1190,6 +2148,28 @@ public class StructureTeleporter {
         return result;
     }
 
+    /**
+     * Rotate and mirror a snapshot inside its own bounding box, the same way
+     * {@link #transformPos(BlockPos, Rotation, Mirror, Vec3i)} maps source
+     * positions to destination positions. Block states are rotated/mirrored too,
+     * once per distinct state.
+     */
+    public static StructureSnapshot transformSnapshot(StructureSnapshot source, Rotation rotation, Mirror mirror) {
+        if (rotation == Rotation.NONE && mirror == Mirror.NONE) {
+            return source;
+        }
+
+        Vec3i size = new Vec3i(source.getSizeX() - 1, source.getSizeY() - 1, source.getSizeZ() - 1);
+        StructureTransform transform = StructureTransform.of(rotation, mirror, size);
+        Vec3i transformedSize = transform.getTransformedSize();
+        StructureSnapshot result = new StructureSnapshot(transformedSize.getX() + 1, transformedSize.getY() + 1,
+                transformedSize.getZ() + 1);
+
+        source.forEachBlock((x, y, z, state, nbt) -> result.set(transform.applyX(x, z), y, transform.applyZ(x, z),
+                transform.apply(state), nbt));
+        return result;
+    }
+
     /**
      * Checks if a destination position is outside the target level's height
      * limits.
@@ -1200,25 +2180,36 @@ public class StructureTeleporter {
      * @return true if the position is out of bounds.
      */
     public static boolean isOutsideHeightLimits(BlockPos pos, int minHeight, int maxHeight) {
-        return pos.getY() < minHeight || pos.getY() >= maxHeight;
+        return isOutsideHeightLimits(pos.getY(), minHeight, maxHeight);
+    }
+
+    public static boolean isOutsideHeightLimits(int y, int minHeight, int maxHeight) {
+        return y < minHeight || y >= maxHeight;
     }
 
     /**
      * Start an asynchronous simulation.
+     *
+     * @return handle completing with the scan result
      */
-    public static void simulateAsync(TeleportRequest request) {
+    public static TeleportJob simulateAsync(TeleportRequest request) {
         AsyncScanTask task = new AsyncScanTask(request,
                 request.getBlocksPerTick() != null ? request.getBlocksPerTick() : 1000);
-        MinecraftForge.EVENT_BUS.register(task);
+        TeleportJob job = new TeleportJob();
+        task.setJob(job);
+        TeleportScheduler.getInstance().submit(task);
+        return job;
     }
 
     /**
-     * Asynchronous scanning task for simulation
-     */
-    /**
-     * Asynchronous scanning task for simulation
+     * Asynchronous scanning task for simulation.
+     * <p>
+     * The main thread only copies the section palettes of the source and
+     * destination areas, within the scheduler's budget. The three passes then
+     * run on {@link ParallelScan}'s pool and the result is applied back here.
+     * If the off-thread scan fails, the tick-sliced passes run instead.
      */
-    public static class AsyncScanTask {
+    public static class AsyncScanTask implements TeleportScheduler.ScheduledTask {
         private final TeleportRequest request;
         private final Selection selection;
         private final Level sourceWorld;
@@ -1234,7 +2225,7 @@ public class StructureTeleporter {
         private boolean pass1Complete = false;
         private boolean hullPassComplete = false;
         private boolean pass2Complete = false;
-        private final Set<BlockPos> filter;
+        private final RegionMask filter;
 
         // Metrics
         private int totalBlocks = 0;
@@ -1251,11 +2242,11 @@ public class StructureTeleporter {
         private Map<BlockState, Integer> replacedBlocksMap = new HashMap<>();
         private Map<BlockState, Integer> skippedBlocksMap = new HashMap<>();
 
-        private List<BlockState> excludedBlocks;
+        private BlockMatcher excludedBlocks;
         private boolean checkExclusions;
         private boolean includeAir;
         private PasteMode pasteMode;
-        List<BlockState> preservedBlocks;
+        private BlockMatcher preservedBlocks;
 
         // BitSet for optimization (1 = valid block to teleport, 0 = skip/air)
         private final java.util.BitSet validBlocks;
@@ -1264,6 +2255,19 @@ public class StructureTeleporter {
         private final int height;
         private final int depth;
 
+        // Off-thread scan: palettes are copied here, passes run on ParallelScan's pool
+        private ParallelScan.SectionCopy sourceCopy;
+        private ParallelScan.SectionCopy targetCopy;
+        private ParallelScan parallelScan;
+        private java.util.concurrent.CompletableFuture<ParallelScan.Result> parallelResult;
+        private boolean parallelFailed = false;
+        private TeleportJob job;
+
+        // Source and destination chunks are ticketed and loaded before scanning
+        private long ticketKey;
+        private boolean ticketsAcquired = false;
+        private boolean chunksReady = false;
+
         public AsyncScanTask(TeleportRequest request, int blocksPerTick) {
             this.request = request;
             this.selection = request.getSelection();
@@ -1272,13 +2276,13 @@ public class StructureTeleporter {
             this.targetPos = request.getTargetPos();
             this.player = request.getPlayer();
             this.blocksPerTick = blocksPerTick <= 0 ? Integer.MAX_VALUE : blocksPerTick;
-            this.filter = request.getFilter();
+            this.filter = request.getFilterMask();
 
-            this.excludedBlocks = request.getExcludedBlocks();
+            this.excludedBlocks = request.getExclusionMatcher();
             this.checkExclusions = request.isCheckExclusions();
             this.includeAir = request.isIncludeAir();
             this.pasteMode = request.getPasteMode();
-            this.preservedBlocks = request.getPreservedBlocks();
+            this.preservedBlocks = request.getPreservationMatcher();
 
             BlockPos min = selection.getMin();
             BlockPos max = selection.getMax();
@@ -1302,38 +2306,213 @@ public class StructureTeleporter {
             this.z = minZ;
         }
 
-        @SubscribeEvent
-        public void onServerTick(TickEvent.ServerTickEvent event) {
-            if (event.phase != TickEvent.Phase.END)
-                return;
+        public void setJob(TeleportJob job) {
+            this.job = job;
+        }
+
+        @Override
+        public TeleportJob getJob() {
+            return job;
+        }
+
+        @Override
+        public boolean runSlice(long deadlineNanos) {
+            if (job != null) {
+                if (job.isCancelRequested()) {
+                    // A scan never touches the world, so there is nothing to roll back
+                    if (parallelScan != null) {
+                        parallelScan.cancel();
+                    }
+                    releaseTickets();
+                    job.completeCancelled(TeleportResult.builder()
+                            .success(false)
+                            .message("Simulation cancelled")
+                            .teleported(false)
+                            .build());
+                    return true;
+                }
+                if (job.isPaused()) {
+                    return false;
+                }
+            }
+
+            if (!chunksReady && !awaitChunks()) {
+                return false;
+            }
+
+            if (!parallelFailed) {
+                try {
+                    return runParallelSlice(deadlineNanos);
+                } catch (Exception e) {
+                    // Fall back to the sequential main-thread passes below
+                    TeleportAPI.LOGGER.warn("[TeleportAPI] Parallel scan failed, scanning on the main thread", e);
+                    parallelFailed = true;
+                    sourceCopy = null;
+                    targetCopy = null;
+                    parallelScan = null;
+                    parallelResult = null;
+                }
+            }
 
             if (!pass1Complete) {
-                runPass1();
+                runPass1(deadlineNanos);
             } else if (!hullPassComplete) {
-                runHullPass();
+                runHullPass(deadlineNanos);
             } else if (!pass2Complete) {
-                runPass2();
-            } else {
+                runPass2(deadlineNanos);
+            }
+
+            if (job != null) {
+                long volume = (long) width * height * depth;
+                int passesDone = (pass1Complete ? 1 : 0) + (hullPassComplete ? 1 : 0) + (pass2Complete ? 1 : 0);
+                job.setProgress(volume * passesDone / 3, volume);
+            }
+
+            if (pass2Complete) {
                 finish();
-                MinecraftForge.EVENT_BUS.unregister(this);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void onDropped(Throwable cause) {
+            if (parallelScan != null) {
+                parallelScan.cancel();
+            }
+            releaseTickets();
+            if (job != null) {
+                job.fail(cause);
+            }
+        }
+
+        /**
+         * Ticket the source box and the transformed destination box once, then
+         * wait for the server to load them in the background.
+         */
+        private boolean awaitChunks() {
+            ChunkTicketManager tickets = ChunkTicketManager.getInstance();
+            if (!ticketsAcquired) {
+                ticketKey = job != null ? job.getId() : ChunkTicketManager.newAnonymousKey();
+                if (sourceWorld instanceof ServerLevel sl) {
+                    tickets.acquire(ticketKey, sl, minX, minZ, maxX, maxZ);
+                }
+                if (targetLevel instanceof ServerLevel sl) {
+                    int[] target = ParallelScan.targetBounds(targetPos, new Vec3i(width - 1, height - 1, depth - 1),
+                            request.getRotation(), request.getMirror());
+                    tickets.acquire(ticketKey, sl, target[0], target[2], target[3], target[5]);
+                }
+                ticketsAcquired = true;
+                if (job != null) {
+                    job.setPhase(TeleportJob.Phase.LOADING);
+                }
+            }
+
+            if (!tickets.isReady(ticketKey)) {
+                return false;
+            }
+            chunksReady = true;
+            if (job != null) {
+                job.setPhase(TeleportJob.Phase.SCANNING);
+            }
+            return true;
+        }
+
+        private void releaseTickets() {
+            if (ticketsAcquired) {
+                ChunkTicketManager.getInstance().release(ticketKey);
+            }
+        }
+
+        @Override
+        public long getTicketKey() {
+            return ticketsAcquired ? ticketKey : 0L;
+        }
+
+        @Override
+        public int getPriority() {
+            return request.getPriority();
+        }
+
+        private int getRelativeIndex(int dx, int dy, int dz) {
+            return dx + width * (dy + height * dz);
+        }
+
+        private int getIndex(int x, int y, int z) {
+            return getRelativeIndex(x - minX, y - minY, z - minZ);
+        }
+
+        /**
+         * Main-thread part of the parallel scan: copy section palettes within
+         * the tick budget, start the off-thread passes, then wait for them
+         * without blocking and apply the result.
+         */
+        private boolean runParallelSlice(long deadlineNanos) {
+            if (parallelResult == null) {
+                if (sourceCopy == null) {
+                    Vec3i sourceSize = new Vec3i(width - 1, height - 1, depth - 1);
+                    int[] target = ParallelScan.targetBounds(targetPos, sourceSize, request.getRotation(),
+                            request.getMirror());
+                    sourceCopy = new ParallelScan.SectionCopy(sourceWorld)
+                            .addBox(minX, minY, minZ, maxX, maxY, maxZ);
+                    targetCopy = targetLevel == sourceWorld ? sourceCopy
+                            : new ParallelScan.SectionCopy(targetLevel);
+                    targetCopy.addBox(target[0], target[1], target[2], target[3], target[4], target[5]);
+                }
+
+                if (!sourceCopy.copyUntil(deadlineNanos)
+                        || (targetCopy != sourceCopy && !targetCopy.copyUntil(deadlineNanos))) {
+                    return false;
+                }
+                parallelScan = new ParallelScan(request, sourceCopy, targetCopy);
+                parallelResult = parallelScan.start();
+                sourceCopy = null;
+                targetCopy = null;
+                return false;
+            }
+
+            if (!parallelResult.isDone()) {
+                if (job != null) {
+                    long volume = (long) width * height * depth;
+                    job.setProgress((long) (volume * parallelScan.getProgress()), volume);
+                }
+                return false;
             }
-        }
 
-        private int getRelativeIndex(int dx, int dy, int dz) {
-            return dx + width * (dy + height * dz);
+            applyResult(parallelResult.join());
+            pass1Complete = true;
+            hullPassComplete = true;
+            pass2Complete = true;
+            finish();
+            return true;
         }
 
-        private int getIndex(int x, int y, int z) {
-            return getRelativeIndex(x - minX, y - minY, z - minZ);
+        private void applyResult(ParallelScan.Result result) {
+            totalBlocks = result.totalBlocks;
+            excludedCount = result.excludedCount;
+            replacedCount = result.replacedCount;
+            skippedCount = result.skippedCount;
+            skippedByLimitCount = result.skippedByLimitCount;
+            airBlockCount = result.airBlockCount;
+            solidBlockCount = result.solidBlockCount;
+            fluidBlockCount = result.fluidBlockCount;
+            destinationSolidBlocksLost = result.destinationSolidBlocksLost;
+            excludedTypes = result.excludedTypes;
+            sourceBlockCounts = result.sourceBlockCounts;
+            replacedBlocksMap = result.replacedBlocksMap;
+            skippedBlocksMap = result.skippedBlocksMap;
+            validBlocks.or(result.validBlocks);
+            hullBlocks.or(result.hullBlocks);
         }
 
         @SuppressWarnings("null")
-        private void runPass1() {
+        private void runPass1(long deadlineNanos) {
             int actions = 0;
+            int iterations = 0;
             // 50x scan speed for P1 (read only)
             int limit = (blocksPerTick == Integer.MAX_VALUE) ? Integer.MAX_VALUE : blocksPerTick * 50;
 
-            while (actions < limit) {
+            while (actions < limit && !TeleportScheduler.shouldYield(iterations++, deadlineNanos)) {
                 if (z > maxZ) {
                     z = minZ;
                     y++;
@@ -1351,27 +2530,16 @@ public class StructureTeleporter {
                     }
                 }
 
-                BlockPos pos = new BlockPos(x, y, z);
                 // Save current coords for BitSet before incrementing
                 int cx = x;
                 int cy = y;
                 int cz = z;
                 z++; // advance cursor for next loop
 
-                if (filter != null && !filter.contains(pos))
+                if (filter != null && !filter.contains(cx, cy, cz))
                     continue;
 
-                // Chunk load check (P1 only needs source)
-                if (sourceWorld instanceof ServerLevel sl) {
-                    ChunkPos cp = new ChunkPos(pos);
-                    if (!sl.hasChunk(cp.x, cp.z)) {
-                        // We could force load, or skip? Simulation should probably force load or it's
-                        // inaccurate.
-                        // Let's force load lightly
-                        sl.getChunkSource().addRegionTicket(TicketType.FORCED, cp, 2, cp);
-                        sl.getChunk(cp.x, cp.z);
-                    }
-                }
+                BlockPos pos = new BlockPos(cx, cy, cz);
 
                 BlockState state = sourceWorld.getBlockState(pos);
                 if (state.isAir()) {
@@ -1405,11 +2573,12 @@ public class StructureTeleporter {
         }
 
         @SuppressWarnings("null")
-        private void runHullPass() {
+        private void runHullPass(long deadlineNanos) {
             int actions = 0;
+            int iterations = 0;
             int limit = (blocksPerTick == Integer.MAX_VALUE) ? Integer.MAX_VALUE : blocksPerTick * 100;
 
-            while (actions < limit) {
+            while (actions < limit && !TeleportScheduler.shouldYield(iterations++, deadlineNanos)) {
                 if (z > maxZ) {
                     z = minZ;
                     y++;
@@ -1443,39 +2612,20 @@ public class StructureTeleporter {
         }
 
         private boolean isHull(int dx, int dy, int dz) {
-            // Boundary of selection
-            if (dx == 0 || dx == width - 1 || dy == 0 || dy == height - 1 || dz == 0 || dz == depth - 1)
-                return true;
-
-            // Check 6 neighbors
-            int[][] neighbors = { { -1, 0, 0 }, { 1, 0, 0 }, { 0, -1, 0 }, { 0, 1, 0 }, { 0, 0, -1 }, { 0, 0, 1 } };
-            for (int[] n : neighbors) {
-                int nx = dx + n[0];
-                int ny = dy + n[1];
-                int nz = dz + n[2];
-
-                // If neighbor is within bounds, check if it's NOT a valid block (air/excluded)
-                if (nx >= 0 && nx < width && ny >= 0 && ny < height && nz >= 0 && nz < depth) {
-                    if (!validBlocks.get(getRelativeIndex(nx, ny, nz))) {
-                        return true;
-                    }
-                }
-            }
-            return false;
+            return isHullVoxel(validBlocks, dx, dy, dz, width, height, depth);
         }
 
         @SuppressWarnings("null")
-        private void runPass2() {
+        private void runPass2(long deadlineNanos) {
             int actions = 0;
+            int iterations = 0;
             // 20x scan speed for P2 (read target)
             int limit = (blocksPerTick == Integer.MAX_VALUE) ? Integer.MAX_VALUE : blocksPerTick * 20;
 
-            Rotation rotation = request.getRotation();
-            Mirror mirror = request.getMirror();
-            Vec3i sourceSize = new BlockPos(maxX, maxY, maxZ).subtract(new BlockPos(minX, minY, minZ));
-            BlockPos min = new BlockPos(minX, minY, minZ);
+            StructureTransform transform = new StructureTransform(request.getRotation(), request.getMirror(),
+                    new Vec3i(maxX - minX, maxY - minY, maxZ - minZ), targetPos);
 
-            while (actions < limit) {
+            while (actions < limit && !TeleportScheduler.shouldYield(iterations++, deadlineNanos)) {
                 if (z > maxZ) {
                     z = minZ;
                     y++;
@@ -1489,38 +2639,30 @@ public class StructureTeleporter {
                     }
                 }
 
+                if (filter != null && !filter.contains(x, y, z)) {
+                    z++;
+                    continue;
+                }
+
                 BlockPos srcPos = new BlockPos(x, y, z);
                 z++;
 
                 BlockState srcState = sourceWorld.getBlockState(srcPos);
 
-                if (filter != null && !filter.contains(srcPos))
-                    continue;
-
                 if (srcState.isAir() && !includeAir)
                     continue;
 
                 if (!isExcluded(srcState, excludedBlocks, checkExclusions)) {
-                    BlockPos relPos = srcPos.subtract(min);
-                    BlockPos transformedRelPos = transformPos(relPos, rotation, mirror, sourceSize);
-                    @SuppressWarnings("null")
-                    BlockPos dstPos = targetPos.offset(transformedRelPos);
-
-                    if (targetLevel instanceof ServerLevel sl) {
-                        @SuppressWarnings("null")
-                        ChunkPos cp = new ChunkPos(dstPos);
-                        if (!sl.hasChunk(cp.x, cp.z)) {
-                            sl.getChunkSource().addRegionTicket(TicketType.FORCED, cp, 2, cp);
-                            sl.getChunk(cp.x, cp.z);
-                        }
-                    }
-
-                    if (isOutsideHeightLimits(dstPos, targetLevel.getMinBuildHeight(),
+                    int dx = srcPos.getX() - minX;
+                    int dz = srcPos.getZ() - minZ;
+                    int dstY = transform.applyY(srcPos.getY() - minY);
+                    if (isOutsideHeightLimits(dstY, targetLevel.getMinBuildHeight(),
                             targetLevel.getMaxBuildHeight())) {
                         skippedByLimitCount++;
                         actions++;
                         continue;
                     }
+                    BlockPos dstPos = new BlockPos(transform.applyX(dx, dz), dstY, transform.applyZ(dx, dz));
 
                     @SuppressWarnings("null")
                     BlockState dstState = targetLevel.getBlockState(dstPos);
@@ -1604,6 +2746,10 @@ public class StructureTeleporter {
 
             MinecraftForge.EVENT_BUS
                     .post(new StructureTeleportEvent.Post(selection, targetLevel, targetPos, player, result));
+            releaseTickets();
+            if (job != null) {
+                job.complete(result);
+            }
         }
     }
 
@@ -1678,12 +2824,12 @@ public class StructureTeleporter {
         }
     }
 
-    public static class AsyncPasteTask {
+    public static class AsyncPasteTask implements TeleportScheduler.ScheduledTask {
         private final List<BlockData> blocksToPaste;
         private final BlockPos targetPos;
         private final Level targetLevel;
         private final PasteMode mode;
-        private final List<BlockState> preservedBlocks;
+        private final BlockMatcher preservedBlocks;
         private final List<EntityData> entitiesToTeleport;
         private final Player player;
         private final Selection selection;
@@ -1699,14 +2845,70 @@ public class StructureTeleporter {
 
         private int currentIndex = 0;
         private boolean isCompleted = false;
+        // Passes after the last block is placed, resumed across slices like the paste itself
+        private static final int FINISH_SHAPES = 0, FINISH_SYNC = 1, FINISH_ENTITIES = 2;
+        private int finishPass = FINISH_SHAPES;
+        private int finishCursor = 0;
+        private final List<String> teleportedPlayers = new ArrayList<>();
         private int projectionTicks = 0;
+        private int priority = TeleportScheduler.DEFAULT_PRIORITY;
         private final Random random = new Random();
 
+        // Job control; destination states are only recorded when a job can roll back
+        private TeleportJob job;
+        private StructureSnapshot sourceSnapshot;
+        private boolean rollbackEnabled = true;
+        private final List<BlockData> previousStates = new ArrayList<>();
+
+        // Destination chunks are ticketed and loaded before the first block is placed
+        private long ticketKey;
+        private boolean ticketsAcquired = false;
+        private final TeleportScheduler.SliceChunks sliceChunks = new TeleportScheduler.SliceChunks();
+        private boolean chunksReady = false;
+        // Absolute x/z bounds to ticket when known up front, so a lazily decoded
+        // block list is not walked just to find them
+        private int[] pasteBounds;
+
+        // Region locks taken over from the caller, released when the task ends
+        private RegionLockManager.Lease lease;
+
+        // Continues the timings of the synchronous part of the teleport
+        private PhaseTimings timings = new PhaseTimings();
+        private long chunkWaitStart;
+
+        /**
+         * Snapshot adapter: the task walks a lazy
+         * {@link StructureSnapshot#asBlockDataList() view} of the snapshot, so no
+         * per-block objects are kept, and tickets the snapshot's box.
+         */
+        public AsyncPasteTask(StructureSnapshot snapshot, BlockPos targetPos, Level targetLevel, PasteMode mode,
+                BlockMatcher preservedBlocks, List<EntityData> entitiesToTeleport, Player player,
+                Selection selection, Rotation rotation, Mirror mirror, Vec3i sourceSize, int blocksPerTick,
+                TeleportResult.Builder resultBuilder, VisualizationType visualizationType, String visualizationAxis,
+                java.util.BitSet hullMask) {
+            this(snapshot.asBlockDataList(), targetPos, targetLevel, mode, preservedBlocks, entitiesToTeleport, player,
+                    selection, rotation, mirror, sourceSize, blocksPerTick, resultBuilder, visualizationType,
+                    visualizationAxis, hullMask);
+            BlockPos min = targetPos.offset(snapshot.getOffset());
+            setPasteBounds(min.getX(), min.getZ(), min.getX() + snapshot.getSizeX() - 1,
+                    min.getZ() + snapshot.getSizeZ() - 1);
+        }
+
         public AsyncPasteTask(List<BlockData> blocksToPaste, BlockPos targetPos, Level targetLevel, PasteMode mode,
                 List<BlockState> preservedBlocks, List<EntityData> entitiesToTeleport, Player player,
                 Selection selection, Rotation rotation, Mirror mirror, Vec3i sourceSize, int blocksPerTick,
                 TeleportResult.Builder resultBuilder, VisualizationType visualizationType, String visualizationAxis,
                 java.util.BitSet hullMask) {
+            this(blocksToPaste, targetPos, targetLevel, mode, BlockMatcher.forPreservation(preservedBlocks),
+                    entitiesToTeleport, player, selection, rotation, mirror, sourceSize, blocksPerTick, resultBuilder,
+                    visualizationType, visualizationAxis, hullMask);
+        }
+
+        private AsyncPasteTask(List<BlockData> blocksToPaste, BlockPos targetPos, Level targetLevel, PasteMode mode,
+                BlockMatcher preservedBlocks, List<EntityData> entitiesToTeleport, Player player,
+                Selection selection, Rotation rotation, Mirror mirror, Vec3i sourceSize, int blocksPerTick,
+                TeleportResult.Builder resultBuilder, VisualizationType visualizationType, String visualizationAxis,
+                java.util.BitSet hullMask) {
             this.blocksToPaste = blocksToPaste;
             this.targetPos = targetPos;
             this.targetLevel = targetLevel;
@@ -1787,20 +2989,242 @@ public class StructureTeleporter {
             this.blocksToPaste.sort(comparator);
         }
 
-        @SubscribeEvent
-        public void onServerTick(TickEvent.ServerTickEvent event) {
-            if (event.phase != TickEvent.Phase.END)
-                return;
+        public void setPriority(int priority) {
+            this.priority = priority;
+        }
+
+        @Override
+        public int getPriority() {
+            return priority;
+        }
+
+        /**
+         * Attach a job handle. {@code sourceSnapshot} is what was cleared from
+         * the source, pasted back when the job is cancelled with rollback.
+         */
+        public void setJob(TeleportJob job, StructureSnapshot sourceSnapshot) {
+            this.job = job;
+            this.sourceSnapshot = sourceSnapshot;
+        }
+
+        @Override
+        public TeleportJob getJob() {
+            return job;
+        }
+
+        /**
+         * Do not record the destination blocks this task replaces, so a job
+         * cancelled with rollback just stops. For pastes whose destination
+         * would not fit on the heap, like large library structures.
+         */
+        public void disableRollback() {
+            this.rollbackEnabled = false;
+        }
+
+        /**
+         * Take over the region locks of the teleport; they are released when
+         * the task completes, is cancelled or dropped.
+         */
+        public void setLease(RegionLockManager.Lease lease) {
+            lease.handOff();
+            this.lease = lease;
+        }
+
+        private void releaseLease() {
+            if (lease != null) {
+                lease.release();
+            }
+        }
+
+        /**
+         * Keep accumulating into the timings of the teleport that started this
+         * task; every slice adds a tick and its allocation.
+         */
+        public void setTimings(PhaseTimings timings) {
+            this.timings = timings;
+        }
+
+        /**
+         * Absolute x/z footprint to ticket instead of deriving it from the
+         * block list.
+         */
+        public void setPasteBounds(int minX, int minZ, int maxX, int maxZ) {
+            this.pasteBounds = new int[] { minX, minZ, maxX, maxZ };
+        }
+
+        @Override
+        public boolean runSlice(long deadlineNanos) {
             if (isCompleted)
-                return;
+                return true;
+
+            sliceChunks.clear();
+            timings.addTick();
+            timings.beginAllocation();
+            try {
+                return runTimedSlice(deadlineNanos);
+            } finally {
+                timings.endAllocation();
+            }
+        }
+
+        private boolean runTimedSlice(long deadlineNanos) {
+            if (job != null) {
+                if (job.isCancelRequested()) {
+                    cancel(job.isRollbackRequested());
+                    return true;
+                }
+                if (job.isPaused()) {
+                    return false;
+                }
+            }
+
+            if (!chunksReady && !awaitChunks()) {
+                return false;
+            }
 
             if (projectionTicks > 0) {
                 runProjection();
                 projectionTicks--;
+                return false;
+            }
+
+            int processed = currentIndex < blocksToPaste.size() ? processBatch(deadlineNanos) : 0;
+            if (currentIndex >= blocksToPaste.size()) {
+                finish(deadlineNanos, processed);
+            }
+            if (job != null && !isCompleted) {
+                job.setProgress(currentIndex, blocksToPaste.size());
+            }
+            return isCompleted;
+        }
+
+        /**
+         * Ticket every destination chunk once, then wait for the server to load
+         * them in the background.
+         */
+        private boolean awaitChunks() {
+            if (!(targetLevel instanceof ServerLevel sl)) {
+                chunksReady = true;
+                return true;
+            }
+
+            ChunkTicketManager tickets = ChunkTicketManager.getInstance();
+            if (!ticketsAcquired) {
+                ticketKey = job != null ? job.getId() : ChunkTicketManager.newAnonymousKey();
+                chunkWaitStart = timings.start();
+                if (pasteBounds != null) {
+                    tickets.acquire(ticketKey, sl, pasteBounds[0], pasteBounds[1], pasteBounds[2], pasteBounds[3]);
+                } else if (!blocksToPaste.isEmpty()) {
+                    int minX = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+                    int maxX = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+                    for (BlockData blockData : blocksToPaste) {
+                        minX = Math.min(minX, blockData.relativePos.getX());
+                        minZ = Math.min(minZ, blockData.relativePos.getZ());
+                        maxX = Math.max(maxX, blockData.relativePos.getX());
+                        maxZ = Math.max(maxZ, blockData.relativePos.getZ());
+                    }
+                    tickets.acquire(ticketKey, sl, targetPos.getX() + minX, targetPos.getZ() + minZ,
+                            targetPos.getX() + maxX, targetPos.getZ() + maxZ);
+                }
+                ticketsAcquired = true;
+            }
+
+            if (!tickets.isReady(ticketKey)) {
+                return false;
+            }
+            chunksReady = true;
+            timings.lap(PhaseTimings.Phase.CHUNK_LOAD_WAIT, chunkWaitStart);
+            if (job != null) {
+                job.setPhase(TeleportJob.Phase.PASTING);
+            }
+            return true;
+        }
+
+        private void releaseTickets() {
+            if (ticketsAcquired) {
+                ChunkTicketManager.getInstance().release(ticketKey);
+            }
+        }
+
+        private int touchedChunks() {
+            return sliceChunks.size();
+        }
+
+        @Override
+        public long getTicketKey() {
+            return ticketsAcquired ? ticketKey : 0L;
+        }
+
+        @Override
+        public int getSliceChunkCount() {
+            return sliceChunks.size();
+        }
+
+        @Override
+        public void onDropped(Throwable cause) {
+            isCompleted = true;
+            releaseTickets();
+            releaseLease();
+            restoreGameModes();
+            if (job != null) {
+                job.fail(cause);
+            }
+        }
+
+        private void cancel(boolean rollback) {
+            isCompleted = true;
+            releaseTickets();
+            if (rollback && rollbackEnabled) {
+                job.setPhase(TeleportJob.Phase.ROLLING_BACK);
+                rollback();
                 return;
             }
+            finishCancelled("Teleportation cancelled");
+        }
+
+        private void finishCancelled(String message) {
+            releaseLease();
+            restoreGameModes();
+            job.completeCancelled(resultBuilder
+                    .success(false)
+                    .message(message)
+                    .teleported(false)
+                    .timings(timings)
+                    .build());
+        }
+
+        /**
+         * Restore the destination, then paste the source back, tick-sliced
+         * through an {@link AsyncRestoreTask}. The restore runs under its own
+         * job because this one is already cancelled; the region locks are kept
+         * until it is done.
+         */
+        private void rollback() {
+            TeleportJob restoreJob = new TeleportJob();
+            AsyncRestoreTask task = new AsyncRestoreTask(restoreJob, null, blocksPerTick);
+            task.setPriority(priority);
+            task.add(StructureSnapshot.fromBlockDataList(previousStates), targetPos, targetLevel);
+            task.add(sourceSnapshot, selection.getMin(), selection.getWorld());
+            previousStates.clear();
+
+            restoreJob.getFuture().whenComplete((result, error) -> {
+                if (error != null) {
+                    releaseLease();
+                    restoreGameModes();
+                    job.fail(error);
+                } else {
+                    finishCancelled("Teleportation cancelled and rolled back");
+                }
+            });
+            TeleportScheduler.getInstance().submit(task);
+        }
 
-            processBatch();
+        private void restoreGameModes() {
+            for (EntityData info : entitiesToTeleport) {
+                if (info.entity instanceof ServerPlayer sp && info.originalGameType != null) {
+                    sp.setGameMode(info.originalGameType);
+                }
+            }
         }
 
         @SuppressWarnings("null")
@@ -1830,165 +3254,476 @@ public class StructureTeleporter {
                                 absolutePos.getX() + 0.5, absolutePos.getY() + 0.5, absolutePos.getZ() + 0.5,
                                 1, 0.1, 0.1, 0.1, 0.02);
 
-                        if (random.nextFloat() < 0.1f) {
-                            sl.playSound(null, absolutePos, SoundEvents.BEACON_AMBIENT, SoundSource.BLOCKS, 0.3f, 2.0f);
-                        }
-                    }
-                }
+                        if (random.nextFloat() < 0.1f) {
+                            sl.playSound(null, absolutePos, SoundEvents.BEACON_AMBIENT, SoundSource.BLOCKS, 0.3f, 2.0f);
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Place blocks until the batch cap or the deadline.
+         *
+         * @return blocks processed in this slice
+         */
+        @SuppressWarnings("null")
+        private int processBatch(long deadlineNanos) {
+            long start = timings.start();
+            int processed = 0;
+            int total = blocksToPaste.size();
+
+            while (processed < blocksPerTick && currentIndex < total
+                    && !TeleportScheduler.shouldYield(processed, deadlineNanos)) {
+                BlockData blockData = blocksToPaste.get(currentIndex);
+                @SuppressWarnings("null")
+                BlockPos absolutePos = targetPos.offset(blockData.relativePos);
+                sliceChunks.touch(absolutePos.getX(), absolutePos.getZ());
+
+                if (isOutsideHeightLimits(absolutePos, targetLevel.getMinBuildHeight(),
+                        targetLevel.getMaxBuildHeight())) {
+                    currentIndex++;
+                    processed++;
+                    continue;
+                }
+
+                BlockState existing = targetLevel.getBlockState(absolutePos);
+                if (shouldReplace(existing, blockData.blockState, mode, preservedBlocks)) {
+                    if (job != null && rollbackEnabled) {
+                        BlockEntity existingBe = targetLevel.getBlockEntity(absolutePos);
+                        previousStates.add(new BlockData(blockData.relativePos, existing,
+                                existingBe != null ? existingBe.saveWithFullMetadata() : null));
+                    }
+                    targetLevel.setBlock(absolutePos, blockData.blockState, 16);
+
+                    // WARP EFFECTS
+                    if (visualizationType == VisualizationType.WARP && random.nextFloat() < 0.2f) {
+                        if (targetLevel instanceof ServerLevel sl) {
+                            sl.sendParticles(ParticleTypes.PORTAL,
+                                    absolutePos.getX() + 0.5, absolutePos.getY() + 0.5, absolutePos.getZ() + 0.5,
+                                    3, 0.2, 0.2, 0.2, 0.05);
+
+                            if (random.nextFloat() < 0.05f) {
+                                sl.playSound(null, absolutePos, SoundEvents.ENDERMAN_TELEPORT, SoundSource.BLOCKS, 0.5f,
+                                        1.5f + random.nextFloat() * 0.5f);
+                            }
+                        }
+                    }
+
+                    if (blockData.nbt != null) {
+                        @SuppressWarnings("null")
+                        BlockEntity be = targetLevel.getBlockEntity(absolutePos);
+                        if (be != null) {
+                            CompoundTag tag = blockData.nbt.copy();
+                            tag.putInt("x", absolutePos.getX());
+                            tag.putInt("y", absolutePos.getY());
+                            tag.putInt("z", absolutePos.getZ());
+                            tag.remove("id");
+                            be.load(tag);
+                            be.setChanged();
+                        }
+                    }
+                }
+
+                currentIndex++;
+                processed++;
+            }
+            timings.setEventScope(processed, touchedChunks());
+            timings.lap(PhaseTimings.Phase.PASTE, start);
+            return processed;
+        }
+
+        /**
+         * Neighbour shapes, client sync and entity transfer after the last
+         * block, each resumed from {@code finishCursor} when the deadline hits.
+         *
+         * @param processed work already done in this slice
+         */
+        @SuppressWarnings("null")
+        private void finish(long deadlineNanos, int processed) {
+            int total = blocksToPaste.size();
+            if (finishPass == FINISH_SHAPES) {
+                long start = timings.start();
+                while (finishCursor < total && !TeleportScheduler.shouldYield(processed, deadlineNanos)) {
+                    BlockPos absolutePos = targetPos.offset(blocksToPaste.get(finishCursor++).relativePos);
+                    sliceChunks.touch(absolutePos.getX(), absolutePos.getZ());
+                    targetLevel.getBlockState(absolutePos).updateNeighbourShapes(targetLevel, absolutePos, 3);
+                    processed++;
+                }
+                timings.lap(PhaseTimings.Phase.NEIGHBOR_UPDATES, start);
+                if (finishCursor < total) {
+                    timings.setEventScope(processed, touchedChunks());
+                    return;
+                }
+                finishPass = FINISH_SYNC;
+                finishCursor = 0;
+            }
+
+            if (finishPass == FINISH_SYNC) {
+                long start = timings.start();
+                BlockPos.MutableBlockPos syncPos = new BlockPos.MutableBlockPos();
+                while (finishCursor < total && !TeleportScheduler.shouldYield(processed, deadlineNanos)) {
+                    syncPos.setWithOffset(targetPos, blocksToPaste.get(finishCursor++).relativePos);
+                    sliceChunks.touch(syncPos.getX(), syncPos.getZ());
+                    syncBlock(targetLevel, syncPos, targetLevel.getBlockState(syncPos));
+                    processed++;
+                }
+                timings.lap(PhaseTimings.Phase.CLIENT_SYNC, start);
+                if (finishCursor < total) {
+                    timings.setEventScope(processed, touchedChunks());
+                    return;
+                }
+                finishPass = FINISH_ENTITIES;
+                finishCursor = 0;
+            }
+
+            long start = timings.start();
+            while (finishCursor < entitiesToTeleport.size()
+                    && !TeleportScheduler.shouldYield(processed, deadlineNanos)) {
+                transferEntity(entitiesToTeleport.get(finishCursor++));
+                processed++;
+            }
+            timings.lap(PhaseTimings.Phase.ENTITY_TRANSFER, start);
+            timings.setEventScope(processed, touchedChunks());
+            if (finishCursor < entitiesToTeleport.size()) {
+                return;
+            }
+            complete();
+        }
+
+        @SuppressWarnings("null")
+        private void transferEntity(EntityData info) {
+            BlockPos transformedRelEntityPos = transformPos(
+                    new BlockPos((int) info.relX, (int) info.relY, (int) info.relZ), rotation, mirror, sourceSize);
+
+            double dx = info.relX - (int) info.relX;
+            double dz = info.relZ - (int) info.relZ;
+
+            double finalRelX = transformedRelEntityPos.getX();
+            double finalRelZ = transformedRelEntityPos.getZ();
+
+            if (rotation == Rotation.CLOCKWISE_90) {
+                finalRelX += 1.0 - dz;
+                finalRelZ += dx;
+            } else if (rotation == Rotation.CLOCKWISE_180) {
+                finalRelX += 1.0 - dx;
+                finalRelZ += 1.0 - dz;
+            } else if (rotation == Rotation.COUNTERCLOCKWISE_90) {
+                finalRelX += dz;
+                finalRelZ += 1.0 - dx;
+            } else {
+                finalRelX += dx;
+                finalRelZ += dz;
+            }
+
+            double tx = targetPos.getX() + finalRelX;
+            double ty = targetPos.getY() + info.relY;
+            double tz = targetPos.getZ() + finalRelZ;
+
+            float yRot = info.entity.getYRot();
+            yRot = mirrorRotation(mirror, yRot);
+            yRot = (yRot + rotation.ordinal() * 90) % 360;
+
+            if (info.entity instanceof ServerPlayer sp) {
+                if (targetLevel != selection.getWorld() && targetLevel instanceof ServerLevel sl) {
+                    sp.teleportTo(sl, tx, ty, tz, yRot, sp.getXRot());
+                } else {
+                    sp.connection.teleport(tx, ty, tz, yRot, sp.getXRot());
+                }
+                if (info.originalGameType != null) {
+                    sp.setGameMode(info.originalGameType);
+                }
+            } else if (info.entityData != null) {
+                if (targetLevel instanceof ServerLevel sl && info.entity.isRemoved()) {
+                    info.entity.teleportTo(sl, tx, ty, tz, Set.of(), yRot, info.entity.getXRot());
+                } else {
+                    if (targetLevel != selection.getWorld() && targetLevel instanceof ServerLevel sl) {
+                        info.entity.changeDimension(sl);
+                        info.entity.teleportTo(sl, tx, ty, tz, Set.of(), yRot, info.entity.getXRot());
+                    } else {
+                        info.entity.teleportTo(tx, ty, tz);
+                        info.entity.setYRot(yRot);
+                    }
+                }
+            }
+            if (info.playerName != null)
+                teleportedPlayers.add(info.playerName);
+        }
+
+        private void complete() {
+            isCompleted = true;
+            timings.endAllocation();
+            TeleportMetrics.getInstance().record(timings);
+
+            TeleportResult result = resultBuilder
+                    .success(true)
+                    .message("Teleportation complete (Async)")
+                    .teleported(true)
+                    .teleportedEntitiesCount(entitiesToTeleport.size())
+                    .teleportedPlayerNames(teleportedPlayers)
+                    .timings(timings)
+                    .build();
+
+            MinecraftForge.EVENT_BUS
+                    .post(new StructureTeleportEvent.Post(selection, targetLevel, targetPos, player, result));
+            previousStates.clear();
+            releaseTickets();
+            releaseLease();
+            if (job != null) {
+                job.complete(result);
             }
         }
+    }
 
-        @SuppressWarnings("null")
-        private void processBatch() {
-            int processed = 0;
-            int total = blocksToPaste.size();
+    /**
+     * Tick-sliced version of {@link #pasteStructure} with
+     * {@link PasteMode#FORCE_REPLACE} for a sequence of snapshots, used to
+     * restore undo history. Each snapshot gets the same three passes as the
+     * synchronous paste (clear top-down, place bottom-up, then neighbour
+     * updates and client sync), resumed across ticks within the scheduler's
+     * budget. Progress counts every present block once per pass.
+     */
+    public static class AsyncRestoreTask implements TeleportScheduler.ScheduledTask {
+        private final List<StructureSnapshot> snapshots = new ArrayList<>();
+        private final List<BlockPos> origins = new ArrayList<>();
+        private final List<Level> levels = new ArrayList<>();
+        private final Runnable onBlocksRestored;
+        private final TeleportJob job;
+        private final int blocksPerTick;
+        private int priority = TeleportScheduler.DEFAULT_PRIORITY;
 
-            while (processed < blocksPerTick && currentIndex < total) {
-                BlockData blockData = blocksToPaste.get(currentIndex);
-                @SuppressWarnings("null")
-                BlockPos absolutePos = targetPos.offset(blockData.relativePos);
+        private long totalWork = 0;
+        private long doneWork = 0;
+        private int blockCount = 0;
 
-                if (isOutsideHeightLimits(absolutePos, targetLevel.getMinBuildHeight(),
-                        targetLevel.getMaxBuildHeight())) {
-                    currentIndex++;
-                    processed++;
-                    continue;
-                }
+        // Cursor: snapshot, pass (0 clear, 1 place, 2 update) and linear position within the pass
+        private int step = 0;
+        private int pass = 0;
+        private int cursor = 0;
+        private boolean completed = false;
 
-                if (targetLevel instanceof ServerLevel sl) {
-                    @SuppressWarnings("null")
-                    ChunkPos cp = new ChunkPos(absolutePos);
-                    if (!sl.hasChunk(cp.x, cp.z)) {
-                        sl.getChunkSource().addRegionTicket(TicketType.FORCED, cp, 2, cp);
-                        sl.getChunk(cp.x, cp.z);
-                    }
-                }
+        private long ticketKey;
+        private boolean ticketsAcquired = false;
+        private final TeleportScheduler.SliceChunks sliceChunks = new TeleportScheduler.SliceChunks();
+
+        /**
+         * @param onBlocksRestored run once after the last block, before the job
+         *                         completes (e.g. moving entities back); may be
+         *                         {@code null}
+         * @param blocksPerTick    cap on blocks per tick on top of the time
+         *                         budget, 0 for none
+         */
+        public AsyncRestoreTask(TeleportJob job, Runnable onBlocksRestored, int blocksPerTick) {
+            this.job = job;
+            this.onBlocksRestored = onBlocksRestored;
+            this.blocksPerTick = blocksPerTick;
+        }
 
-                if (shouldReplace(targetLevel.getBlockState(absolutePos), blockData.blockState, mode,
-                        preservedBlocks)) {
-                    targetLevel.setBlock(absolutePos, blockData.blockState, 16);
+        /**
+         * Queue a snapshot to paste at {@code origin}; snapshots are restored in
+         * the order they were added. Empty snapshots are ignored.
+         */
+        public void add(StructureSnapshot snapshot, BlockPos origin, Level level) {
+            if (snapshot == null || snapshot.isEmpty()) {
+                return;
+            }
+            snapshots.add(snapshot);
+            origins.add(origin.offset(snapshot.getOffset()));
+            levels.add(level);
+            totalWork += 3L * snapshot.getBlockCount();
+            blockCount += snapshot.getBlockCount();
+        }
 
-                    // WARP EFFECTS
-                    if (visualizationType == VisualizationType.WARP && random.nextFloat() < 0.2f) {
-                        if (targetLevel instanceof ServerLevel sl) {
-                            sl.sendParticles(ParticleTypes.PORTAL,
-                                    absolutePos.getX() + 0.5, absolutePos.getY() + 0.5, absolutePos.getZ() + 0.5,
-                                    3, 0.2, 0.2, 0.2, 0.05);
+        public void setPriority(int priority) {
+            this.priority = priority;
+        }
 
-                            if (random.nextFloat() < 0.05f) {
-                                sl.playSound(null, absolutePos, SoundEvents.ENDERMAN_TELEPORT, SoundSource.BLOCKS, 0.5f,
-                                        1.5f + random.nextFloat() * 0.5f);
-                            }
-                        }
-                    }
+        @Override
+        public int getPriority() {
+            return priority;
+        }
 
-                    if (blockData.nbt != null) {
-                        @SuppressWarnings("null")
-                        BlockEntity be = targetLevel.getBlockEntity(absolutePos);
-                        if (be != null) {
-                            CompoundTag tag = blockData.nbt.copy();
-                            tag.putInt("x", absolutePos.getX());
-                            tag.putInt("y", absolutePos.getY());
-                            tag.putInt("z", absolutePos.getZ());
-                            tag.remove("id");
-                            be.load(tag);
-                            be.setChanged();
-                        }
-                    }
-                }
+        @Override
+        public TeleportJob getJob() {
+            return job;
+        }
 
-                currentIndex++;
-                processed++;
-            }
+        @Override
+        public long getTicketKey() {
+            return ticketKey;
+        }
 
-            if (currentIndex >= total) {
-                finish();
-            }
+        @Override
+        public int getSliceChunkCount() {
+            return sliceChunks.size();
         }
 
-        @SuppressWarnings("null")
-        private void finish() {
-            isCompleted = true;
-            MinecraftForge.EVENT_BUS.unregister(this);
+        @Override
+        public boolean runSlice(long deadlineNanos) {
+            if (completed)
+                return true;
 
-            for (BlockData blockData : blocksToPaste) {
-                @SuppressWarnings("null")
-                BlockPos absolutePos = targetPos.offset(blockData.relativePos);
-                @SuppressWarnings("null")
-                BlockState state = targetLevel.getBlockState(absolutePos);
-                state.updateNeighbourShapes(targetLevel, absolutePos, 3);
-                targetLevel.sendBlockUpdated(absolutePos, Blocks.AIR.defaultBlockState(), state, 3);
+            sliceChunks.clear();
+            if (job.isCancelRequested()) {
+                // Blocks already restored stay; the rest of the history entry is lost
+                completed = true;
+                releaseTickets();
+                job.completeCancelled(TeleportResult.builder()
+                        .success(false)
+                        .message("Undo cancelled")
+                        .totalBlocks(blockCount)
+                        .build());
+                return true;
+            }
+            if (job.isPaused()) {
+                return false;
             }
 
-            List<String> teleportedPlayers = new ArrayList<>();
-            for (EntityData info : entitiesToTeleport) {
-                BlockPos transformedRelEntityPos = transformPos(
-                        new BlockPos((int) info.relX, (int) info.relY, (int) info.relZ), rotation, mirror, sourceSize);
-
-                double dx = info.relX - (int) info.relX;
-                double dz = info.relZ - (int) info.relZ;
-
-                double finalRelX = transformedRelEntityPos.getX();
-                double finalRelZ = transformedRelEntityPos.getZ();
-
-                if (rotation == Rotation.CLOCKWISE_90) {
-                    finalRelX += 1.0 - dz;
-                    finalRelZ += dx;
-                } else if (rotation == Rotation.CLOCKWISE_180) {
-                    finalRelX += 1.0 - dx;
-                    finalRelZ += 1.0 - dz;
-                } else if (rotation == Rotation.COUNTERCLOCKWISE_90) {
-                    finalRelX += dz;
-                    finalRelZ += 1.0 - dx;
-                } else {
-                    finalRelX += dx;
-                    finalRelZ += dz;
+            int processed = 0;
+            while (step < snapshots.size()) {
+                if (!ticketsAcquired && !awaitChunks()) {
+                    return false;
+                }
+                if (blocksPerTick > 0 && processed >= blocksPerTick
+                        || TeleportScheduler.shouldYield(processed, deadlineNanos)) {
+                    job.setProgress(doneWork, totalWork);
+                    return false;
                 }
+                processed++;
+                advance();
+            }
 
-                double tx = targetPos.getX() + finalRelX;
-                double ty = targetPos.getY() + info.relY;
-                double tz = targetPos.getZ() + finalRelZ;
+            finish();
+            return true;
+        }
 
-                float yRot = info.entity.getYRot();
-                yRot = mirrorRotation(mirror, yRot);
-                yRot = (yRot + rotation.ordinal() * 90) % 360;
+        /**
+         * Ticket the current snapshot's chunks and wait until they are loaded.
+         */
+        private boolean awaitChunks() {
+            Level level = levels.get(step);
+            if (!(level instanceof ServerLevel sl)) {
+                ticketsAcquired = true;
+                return true;
+            }
+            ChunkTicketManager tickets = ChunkTicketManager.getInstance();
+            if (ticketKey == 0) {
+                StructureSnapshot snapshot = snapshots.get(step);
+                BlockPos origin = origins.get(step);
+                ticketKey = ChunkTicketManager.newAnonymousKey();
+                tickets.acquire(ticketKey, sl, origin.getX(), origin.getZ(),
+                        origin.getX() + snapshot.getSizeX() - 1, origin.getZ() + snapshot.getSizeZ() - 1);
+                job.setPhase(TeleportJob.Phase.LOADING);
+            }
+            if (!tickets.isReady(ticketKey)) {
+                return false;
+            }
+            ticketsAcquired = true;
+            job.setPhase(TeleportJob.Phase.PASTING);
+            return true;
+        }
 
-                if (info.entity instanceof ServerPlayer sp) {
-                    if (targetLevel != selection.getWorld() && targetLevel instanceof ServerLevel sl) {
-                        sp.teleportTo(sl, tx, ty, tz, yRot, sp.getXRot());
-                    } else {
-                        sp.connection.teleport(tx, ty, tz, yRot, sp.getXRot());
-                    }
-                    if (info.originalGameType != null) {
-                        sp.setGameMode(info.originalGameType);
-                    }
-                } else if (info.entityData != null) {
-                    if (targetLevel instanceof ServerLevel sl && info.entity.isRemoved()) {
-                        info.entity.teleportTo(sl, tx, ty, tz, Set.of(), yRot, info.entity.getXRot());
+        private void releaseTickets() {
+            if (ticketKey != 0) {
+                ChunkTicketManager.getInstance().release(ticketKey);
+                ticketKey = 0;
+            }
+        }
+
+        /**
+         * Handle the voxel under the cursor and move the cursor on, to the next
+         * pass or snapshot when the current one is exhausted.
+         */
+        @SuppressWarnings("null")
+        private void advance() {
+            StructureSnapshot snapshot = snapshots.get(step);
+            int sizeX = snapshot.getSizeX();
+            int sizeY = snapshot.getSizeY();
+            int sizeZ = snapshot.getSizeZ();
+            int layer = sizeX * sizeZ;
+
+            int layerIndex = cursor / layer;
+            int y = pass == 0 ? sizeY - 1 - layerIndex : layerIndex;
+            int rem = cursor % layer;
+            int x = rem / sizeZ;
+            int z = rem % sizeZ;
+            int index = snapshot.index(x, y, z);
+            BlockState incoming = snapshot.getState(index);
+
+            if (incoming != null) {
+                Level world = levels.get(step);
+                BlockPos origin = origins.get(step);
+                BlockPos pos = new BlockPos(origin.getX() + x, origin.getY() + y, origin.getZ() + z);
+                sliceChunks.touch(pos.getX(), pos.getZ());
+                if (!isOutsideHeightLimits(pos, world.getMinBuildHeight(), world.getMaxBuildHeight())) {
+                    if (pass == 0) {
+                        if (world.getBlockEntity(pos) != null) {
+                            world.removeBlockEntity(pos);
+                        }
+                        world.setBlock(pos, Blocks.AIR.defaultBlockState(), 16 | 32 | 64);
+                    } else if (pass == 1) {
+                        world.setBlock(pos, incoming, 16);
+                        CompoundTag nbt = snapshot.getBlockEntityTag(index);
+                        if (nbt != null) {
+                            BlockEntity be = world.getBlockEntity(pos);
+                            if (be != null) {
+                                CompoundTag tag = nbt.copy();
+                                tag.putInt("x", pos.getX());
+                                tag.putInt("y", pos.getY());
+                                tag.putInt("z", pos.getZ());
+                                tag.remove("id");
+                                be.load(tag);
+                                be.setChanged();
+                            }
+                        }
                     } else {
-                        if (targetLevel != selection.getWorld() && targetLevel instanceof ServerLevel sl) {
-                            info.entity.changeDimension(sl);
-                            info.entity.teleportTo(sl, tx, ty, tz, Set.of(), yRot, info.entity.getXRot());
+                        BlockState state = world.getBlockState(pos);
+                        world.updateNeighborsAt(pos, state.getBlock());
+                        state.updateNeighbourShapes(world, pos, 3);
+                        if (!state.canSurvive(world, pos)) {
+                            world.destroyBlock(pos, true);
                         } else {
-                            info.entity.teleportTo(tx, ty, tz);
-                            info.entity.setYRot(yRot);
+                            world.neighborChanged(pos, Blocks.AIR, pos.below());
                         }
+                        syncBlock(world, pos, state);
                     }
                 }
-                if (info.playerName != null)
-                    teleportedPlayers.add(info.playerName);
+                doneWork++;
             }
 
-            TeleportResult result = resultBuilder
+            if (++cursor < snapshot.getVolume()) {
+                return;
+            }
+            cursor = 0;
+            if (++pass < 3) {
+                return;
+            }
+            pass = 0;
+            step++;
+            releaseTickets();
+            ticketsAcquired = false;
+        }
+
+        private void finish() {
+            completed = true;
+            releaseTickets();
+            if (onBlocksRestored != null) {
+                onBlocksRestored.run();
+            }
+            job.setProgress(totalWork, totalWork);
+            job.complete(TeleportResult.builder()
                     .success(true)
-                    .message("Teleportation complete (Async)")
+                    .message("Undo complete")
                     .teleported(true)
-                    .teleportedEntitiesCount(entitiesToTeleport.size())
-                    .teleportedPlayerNames(teleportedPlayers)
-                    .build();
+                    .totalBlocks(blockCount)
+                    .build());
+        }
 
-            MinecraftForge.EVENT_BUS
-                    .post(new StructureTeleportEvent.Post(selection, targetLevel, targetPos, player, result));
+        @Override
+        public void onDropped(Throwable cause) {
+            completed = true;
+            releaseTickets();
+            job.fail(cause);
         }
     }
 
@@ -1997,7 +3732,7 @@ public class StructureTeleporter {
      * WARNING: This functionality is currently HIGHLY UNSTABLE and not
      * recommended for general use!
      */
-    public static class AsyncTeleportTask {
+    public static class AsyncTeleportTask implements TeleportScheduler.ScheduledTask {
         private final java.util.BitSet validBlocks; // The mask from simulation
         private final Level targetLevel;
         private final Level sourceWorld;
@@ -2006,6 +3741,7 @@ public class StructureTeleporter {
         private final java.util.BitSet hullMask;
 
         private int projectionTicks = 0;
+        private int priority = TeleportScheduler.DEFAULT_PRIORITY;
         private final Random random = new Random();
 
         // Iteration bounds
@@ -2021,17 +3757,19 @@ public class StructureTeleporter {
         private boolean completed = false;
 
         private final PasteMode pasteMode;
-        private final List<BlockState> preservedBlocks;
+        private final BlockMatcher preservedBlocks;
         private final List<EntityData> entitiesToTeleport;
         private final Rotation rotation;
         private final Mirror mirror;
         private final Vec3i sourceSize;
         private final BlockPos targetPos;
+        // Source-relative -> world destination, with the per-state rotate/mirror cache
+        private final StructureTransform transform;
         private final TeleportResult.Builder resultBuilder;
         private final Player player;
         private final Selection selection;
-        private final Set<BlockPos> filter;
-        private final List<BlockState> excludedBlocks;
+        private final RegionMask filter;
+        private final BlockMatcher excludedBlocks;
         private final boolean checkExclusions;
         private final boolean includeAir;
 
@@ -2042,29 +3780,38 @@ public class StructureTeleporter {
         private int destinationSolidBlocksLost = 0;
         private TeleportResult finalResult;
 
+        private final long ticketKey = ChunkTicketManager.newAnonymousKey();
+        private boolean ticketsAcquired = false;
+        // Source and destination counted apart, their columns alternate per block
+        private final TeleportScheduler.SliceChunks sourceChunks = new TeleportScheduler.SliceChunks();
+        private final TeleportScheduler.SliceChunks targetChunks = new TeleportScheduler.SliceChunks();
+        // Queued on the first slice; the task waits until it is granted
+        private RegionLockManager.Lease lease;
+
         @SuppressWarnings("null")
         public AsyncTeleportTask(BlockPos targetPos, Level targetLevel,
                 Level sourceWorld, PasteMode pasteMode, List<BlockState> preservedBlocks,
                 int blocksPerTick, List<EntityData> entities, Rotation rotation,
                 Mirror mirror, Vec3i sourceSize, TeleportResult.Builder resultBuilder,
                 Player player, Selection selection, List<BlockState> excludedBlocks,
-                boolean checkExclusions, Set<BlockPos> filter, boolean includeAir,
+                boolean checkExclusions, RegionMask filter, boolean includeAir,
                 java.util.BitSet validBlocks, java.util.BitSet hullMask, VisualizationType visualizationType) {
             this.targetLevel = targetLevel;
             this.sourceWorld = sourceWorld;
             this.blocksPerTick = blocksPerTick;
             this.pasteMode = pasteMode;
-            this.preservedBlocks = preservedBlocks;
+            this.preservedBlocks = BlockMatcher.forPreservation(preservedBlocks);
             this.entitiesToTeleport = entities;
             this.rotation = rotation;
             this.mirror = mirror;
             this.sourceSize = sourceSize;
             this.targetPos = targetPos;
+            this.transform = new StructureTransform(rotation, mirror, sourceSize, targetPos);
             this.resultBuilder = resultBuilder;
             this.player = player;
             this.selection = selection;
             this.filter = filter;
-            this.excludedBlocks = excludedBlocks;
+            this.excludedBlocks = BlockMatcher.forExclusions(excludedBlocks);
             this.checkExclusions = checkExclusions;
             this.includeAir = includeAir;
             this.validBlocks = validBlocks; // May be null if forced directly, handle graceful fallback?
@@ -2146,27 +3893,6 @@ public class StructureTeleporter {
 
             TeleportAPI.LOGGER
                     .debug("[TeleportAPI] AsyncTeleport Task created: " + stepX + ", " + stepY + ", " + stepZ);
-
-            // Force load chunks at target location
-            if (targetLevel instanceof ServerLevel serverLevel) {
-                Set<ChunkPos> targetedChunks = new HashSet<>();
-                BlockPos min = targetPos;
-                @SuppressWarnings("null")
-                BlockPos max = targetPos.offset(sourceSize);
-
-                for (int x = min.getX(); x <= max.getX(); x += 16) {
-                    for (int z = min.getZ(); z <= max.getZ(); z += 16) {
-                        targetedChunks.add(new ChunkPos(x >> 4, z >> 4));
-                    }
-                }
-                // Add edges
-                targetedChunks.add(new ChunkPos(min));
-                targetedChunks.add(new ChunkPos(max));
-
-                for (ChunkPos chunkPos : targetedChunks) {
-                    serverLevel.getChunkSource().addRegionTicket(TicketType.FORCED, chunkPos, 2, chunkPos);
-                }
-            }
         }
 
         public TeleportResult getResult() {
@@ -2180,18 +3906,83 @@ public class StructureTeleporter {
             return dx + width * (dy + height * dz);
         }
 
-        @SubscribeEvent
-        public void onServerTick(TickEvent.ServerTickEvent event) {
-            if (event.phase != TickEvent.Phase.END)
-                return;
+        public void setPriority(int priority) {
+            this.priority = priority;
+        }
+
+        @Override
+        public int getPriority() {
+            return priority;
+        }
+
+        @Override
+        public boolean runSlice(long deadlineNanos) {
+            if (completed)
+                return true;
+
+            sourceChunks.clear();
+            targetChunks.clear();
+            if (lease == null) {
+                lease = RegionLockManager.getInstance().acquire(lockBoxes(), null);
+            }
+            if (!lease.isGranted()) {
+                return false;
+            }
+
+            // Ticket source and destination once the areas are ours; wait until
+            // both have loaded so no batch loads a chunk synchronously
+            acquireTickets();
+            if (!ChunkTicketManager.getInstance().isReady(ticketKey)) {
+                return false;
+            }
 
             if (projectionTicks > 0) {
                 runProjection();
                 projectionTicks--;
+                return false;
+            }
+
+            processBatch(blocksPerTick, deadlineNanos);
+            return completed;
+        }
+
+        private List<RegionLockManager.Box> lockBoxes() {
+            return StructureTeleporter.lockBoxes(sourceWorld, selection.getMin(), selection.getMax(), targetLevel,
+                    targetPos, rotation, mirror);
+        }
+
+        private void acquireTickets() {
+            if (ticketsAcquired) {
                 return;
             }
+            ChunkTicketManager tickets = ChunkTicketManager.getInstance();
+            if (sourceWorld instanceof ServerLevel sourceLevel) {
+                tickets.acquire(ticketKey, sourceLevel, minX, minZ, maxX, maxZ);
+            }
+            if (targetLevel instanceof ServerLevel serverLevel) {
+                int[] target = ParallelScan.targetBounds(targetPos, sourceSize, rotation, mirror);
+                tickets.acquire(ticketKey, serverLevel, target[0], target[2], target[3], target[5]);
+            }
+            ticketsAcquired = true;
+        }
+
+        @Override
+        public long getTicketKey() {
+            return ticketsAcquired ? ticketKey : 0L;
+        }
+
+        @Override
+        public int getSliceChunkCount() {
+            return sourceChunks.size() + targetChunks.size();
+        }
 
-            processBatch(blocksPerTick);
+        @Override
+        public void onDropped(Throwable cause) {
+            completed = true;
+            ChunkTicketManager.getInstance().release(ticketKey);
+            if (lease != null) {
+                lease.release();
+            }
         }
 
         @SuppressWarnings("null")
@@ -2229,11 +4020,36 @@ public class StructureTeleporter {
             }
         }
 
+        /**
+         * Move up to {@code count} blocks right now, outside the scheduler. The
+         * first call locks the source and destination and tickets their chunks;
+         * chunks that are not loaded yet load synchronously. Does nothing while
+         * another job holds part of the area.
+         */
         public void processBatch(int count) {
+            if (completed) {
+                return;
+            }
+            if (lease == null) {
+                lease = RegionLockManager.getInstance().tryAcquire(lockBoxes());
+                if (lease == null) {
+                    TeleportAPI.LOGGER.debug("[TeleportAPI] AsyncTeleport batch skipped: area is locked");
+                    return;
+                }
+            }
+            if (!lease.isGranted()) {
+                return;
+            }
+            acquireTickets();
+            processBatch(count, Long.MAX_VALUE);
+        }
+
+        private void processBatch(int count, long deadlineNanos) {
             int actions = 0;
 
-            while (actions < count && !completed) {
+            while (actions < count && !completed && !TeleportScheduler.shouldYield(actions, deadlineNanos)) {
                 // Process current block logic
+                sourceChunks.touch(currentX, currentZ);
                 processCurrentBlock();
                 actions++;
 
@@ -2254,11 +4070,6 @@ public class StructureTeleporter {
 
             if (completed) {
                 onComplete();
-                try {
-                    MinecraftForge.EVENT_BUS.unregister(this);
-                } catch (Exception e) {
-                    // Ignore if not registered (Sync mode)
-                }
             }
         }
 
@@ -2277,16 +4088,15 @@ public class StructureTeleporter {
                 if (!wasValidDuringScan) {
                     // Block was AIR during simulation (bit=0)
                     // GAME DESIGN RULE: Force AIR at destination to match preview
-                    BlockPos relativePos = srcPos.subtract(new BlockPos(minX, minY, minZ));
-                    BlockPos transformedRelPos = transformPos(relativePos, rotation, mirror, sourceSize);
-                    @SuppressWarnings("null")
-                    BlockPos destPos = targetPos.offset(transformedRelPos);
+                    BlockPos destPos = BlockPos.of(transform.apply(currentX - minX, currentY - minY, currentZ - minZ));
+                    targetChunks.touch(destPos.getX(), destPos.getZ());
 
                     // Place AIR if allowed by paste mode
                     @SuppressWarnings("null")
                     BlockState existingState = targetLevel.getBlockState(destPos);
                     if (shouldReplace(existingState, Blocks.AIR.defaultBlockState(), pasteMode, preservedBlocks)) {
                         targetLevel.setBlock(destPos, Blocks.AIR.defaultBlockState(), 16);
+                        syncBlock(targetLevel, destPos, Blocks.AIR.defaultBlockState());
                     }
                     return; // Done with this position
                 }
@@ -2296,7 +4106,7 @@ public class StructureTeleporter {
 
             // Double check filter if provided (redundant if BitSet is accurate, but good
             // safety)
-            if (filter != null && !filter.contains(srcPos))
+            if (filter != null && !filter.contains(currentX, currentY, currentZ))
                 return;
 
             BlockState state = sourceWorld.getBlockState(srcPos);
@@ -2320,24 +4130,11 @@ public class StructureTeleporter {
             }
 
             // 2. Transform Destination
-            BlockPos relativePos = srcPos.subtract(new BlockPos(minX, minY, minZ));
-            BlockPos transformedRelPos = transformPos(relativePos, rotation, mirror, sourceSize);
-            @SuppressWarnings({ "null", "deprecation" })
-            BlockState transformedState = state.rotate(rotation).mirror(mirror);
-            @SuppressWarnings("null")
-            BlockPos destPos = targetPos.offset(transformedRelPos);
+            BlockPos destPos = BlockPos.of(transform.apply(currentX - minX, currentY - minY, currentZ - minZ));
+            targetChunks.touch(destPos.getX(), destPos.getZ());
+            BlockState transformedState = transform.apply(state);
 
             // 3. Place at Dest
-            // Chunk load check for Dest
-            if (targetLevel instanceof ServerLevel sl) {
-                // We could optimize this by caching current chunk, but simpler logic first
-                @SuppressWarnings("null")
-                ChunkPos cp = new ChunkPos(destPos);
-                if (!sl.hasChunk(cp.x, cp.z)) {
-                    sl.getChunkSource().addRegionTicket(TicketType.FORCED, cp, 2, cp);
-                    sl.getChunk(cp.x, cp.z);
-                }
-            }
 
             // Place
             try {
@@ -2348,6 +4145,7 @@ public class StructureTeleporter {
                     // We use 16 to suppress client updates during bulk operations.
                     // The bulk refresh at the end handles visual updates.
                     targetLevel.setBlock(destPos, transformedState, 16);
+                    syncBlock(targetLevel, destPos, transformedState);
 
                     // WARP EFFECTS
                     if (visualizationType == VisualizationType.WARP && random.nextFloat() < 0.2f) {
@@ -2418,42 +4216,20 @@ public class StructureTeleporter {
                 // Flag 16 (0x10): PREVENT_NEIGHBOR_REACTIONS
                 // 18 was (16 | 2) but 2 (UPDATE_CLIENTS) causes excessive lag.
                 sourceWorld.setBlock(srcPos, Blocks.AIR.defaultBlockState(), 16);
+                syncBlock(sourceWorld, srcPos, Blocks.AIR.defaultBlockState());
             }
         }
 
         @SuppressWarnings("null")
         private void onComplete() {
             TeleportAPI.LOGGER.debug("[TeleportAPI] Block placement complete, processing entities...");
-
-            // Bulk Client Refresh (Optimization for Flag 16)
-            // Bulk Client Refresh (Always execute for async teleport)
-            if (targetLevel instanceof ServerLevel serverLevel) {
-                Set<ChunkPos> affectedChunks = new HashSet<>();
-                BlockPos min = targetPos;
-                @SuppressWarnings("null")
-                BlockPos max = targetPos.offset(sourceSize);
-                for (int x = min.getX(); x <= max.getX(); x += 16) {
-                    for (int z = min.getZ(); z <= max.getZ(); z += 16) {
-                        affectedChunks.add(new ChunkPos(x >> 4, z >> 4));
-                    }
-                }
-                affectedChunks.add(new ChunkPos(min.getX() >> 4, min.getZ() >> 4));
-                affectedChunks.add(new ChunkPos(max.getX() >> 4, max.getZ() >> 4));
-
-                for (ChunkPos chunkPos : affectedChunks) {
-                    try {
-                        net.minecraft.world.level.chunk.LevelChunk chunk = serverLevel.getChunk(chunkPos.x, chunkPos.z);
-                        serverLevel.getChunkSource().chunkMap.getPlayers(chunkPos, false).forEach(player -> {
-                            player.connection.send(
-                                    new net.minecraft.network.protocol.game.ClientboundLevelChunkWithLightPacket(chunk,
-                                            serverLevel.getLightEngine(), null, null));
-                        });
-                    } catch (Exception e) {
-                        TeleportAPI.LOGGER.error("Failed to send chunk packet", e);
-                    }
-                }
+            ChunkTicketManager.getInstance().release(ticketKey);
+            if (lease != null) {
+                lease.release();
             }
 
+            // Client refresh already happened tick by tick through ClientSyncPlanner
+
             List<String> teleportedPlayers = new ArrayList<>();
             for (EntityData info : entitiesToTeleport) {
                 BlockPos transformedRelEntityPos = transformPos(
@@ -2555,6 +4331,23 @@ public class StructureTeleporter {
     @SuppressWarnings("null")
     public static void clearAreaWithMask(Level world, Selection selection, java.util.BitSet validBlocksMask,
             List<BlockState> excludedBlocks, boolean checkExclusions, boolean includeAir, Set<BlockPos> filter) {
+        clearArea(world, selection, validBlocksMask, BlockMatcher.forExclusions(excludedBlocks), checkExclusions,
+                includeAir, toMask(filter));
+    }
+
+    /**
+     * Clears the positions of the selection that are set in {@code mask}
+     * ({@code null} clears the whole selection).
+     */
+    public static void clearAreaWithMask(Level world, Selection selection, RegionMask mask,
+            List<BlockState> excludedBlocks, boolean checkExclusions, boolean includeAir) {
+        clearArea(world, selection, null, BlockMatcher.forExclusions(excludedBlocks), checkExclusions, includeAir,
+                mask);
+    }
+
+    @SuppressWarnings("null")
+    private static void clearArea(Level world, Selection selection, java.util.BitSet validBlocksMask,
+            BlockMatcher excludedBlocks, boolean checkExclusions, boolean includeAir, RegionMask filter) {
 
         BlockPos min = selection.getMin();
         BlockPos max = selection.getMax();
@@ -2566,9 +4359,9 @@ public class StructureTeleporter {
         for (int y = max.getY(); y >= min.getY(); y--) { // Top to bottom!
             for (int x = min.getX(); x <= max.getX(); x++) {
                 for (int z = min.getZ(); z <= max.getZ(); z++) {
-                    BlockPos pos = new BlockPos(x, y, z);
-                    if (filter != null && !filter.contains(pos))
+                    if (filter != null && !filter.contains(x, y, z))
                         continue;
+                    BlockPos pos = new BlockPos(x, y, z);
 
                     if (validBlocksMask != null) {
                         int index = (x - min.getX()) + width * ((y - min.getY()) + height * (z - min.getZ()));
@@ -2586,9 +4379,10 @@ public class StructureTeleporter {
                         if (be != null) {
                             world.removeBlockEntity(pos);
                         }
-                        // 2 = UPDATE_CLIENTS, 16 = NO_NEIGHBOR_UPDATE, 32 = NO_OBSERVER, 64 =
-                        // UPDATE_INVISIBLE
-                        world.setBlock(pos, Blocks.AIR.defaultBlockState(), 2 | 16 | 32 | 64);
+                        // 16 = NO_NEIGHBOR_UPDATE, 32 = NO_OBSERVER, 64 = UPDATE_INVISIBLE;
+                        // clients go through ClientSyncPlanner instead of UPDATE_CLIENTS
+                        world.setBlock(pos, Blocks.AIR.defaultBlockState(), 16 | 32 | 64);
+                        syncBlock(world, pos, Blocks.AIR.defaultBlockState());
                     }
                 }
             }
@@ -2598,6 +4392,50 @@ public class StructureTeleporter {
         notifyBoundingBoxNeighbors(world, min, max);
     }
 
+    /**
+     * Clears exactly the positions set in {@code mask}, top-down and without
+     * drops, then notifies the neighbours of the mask's box. Used after
+     * {@link #scanForTeleport}, which already decided what to clear.
+     */
+    @SuppressWarnings("null")
+    private static void clearMasked(Level world, RegionMask mask) {
+        BlockPos min = mask.getMin();
+        BlockPos max = mask.getMax();
+        java.util.BitSet bits = mask.getBits();
+        int width = mask.getSizeX();
+        int height = mask.getSizeY();
+
+        for (int y = max.getY(); y >= min.getY(); y--) { // Top to bottom!
+            for (int z = min.getZ(); z <= max.getZ(); z++) {
+                int rowBase = width * ((y - min.getY()) + height * (z - min.getZ()));
+                for (int i = bits.nextSetBit(rowBase); i >= 0 && i < rowBase + width; i = bits.nextSetBit(i + 1)) {
+                    BlockPos pos = new BlockPos(min.getX() + (i - rowBase), y, z);
+                    if (world.getBlockEntity(pos) != null) {
+                        world.removeBlockEntity(pos);
+                    }
+                    world.setBlock(pos, Blocks.AIR.defaultBlockState(), 16 | 32 | 64);
+                    syncBlock(world, pos, Blocks.AIR.defaultBlockState());
+                }
+            }
+        }
+
+        notifyBoundingBoxNeighbors(world, min, max);
+    }
+
+    /**
+     * Queue a client update for a changed block. On the server this goes
+     * through the per-level {@link ClientSyncPlanner}, which sends one bundle
+     * per chunk per tick; client levels fall back to {@code sendBlockUpdated}.
+     */
+    @SuppressWarnings("null")
+    private static void syncBlock(Level world, BlockPos pos, BlockState state) {
+        if (world instanceof ServerLevel serverLevel) {
+            ClientSyncPlanner.get(serverLevel).blockChanged(pos);
+        } else {
+            world.sendBlockUpdated(pos, Blocks.AIR.defaultBlockState(), state, 2);
+        }
+    }
+
     public static void notifyBoundingBoxNeighbors(Level world, BlockPos min, BlockPos max) {
         // X-axis faces (min and max X)
         for (int y = min.getY(); y <= max.getY(); y++) {
@@ -0,0 +1,139 @@
+package com.teleportapi;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Vec3i;
+import net.minecraft.world.level.block.Mirror;
+import net.minecraft.world.level.block.Rotation;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Rotation and mirror of one structure, compiled once per request.
+ * <p>
+ * Mirror followed by rotation around the structure's minimum corner is an
+ * affine map on X/Z, so positions are transformed with six precomputed
+ * coefficients instead of the switches in
+ * {@link StructureTeleporter#transformPos(BlockPos, Rotation, Mirror, Vec3i)}
+ * (which stays the reference definition). An optional origin is added, so
+ * the int and packed-long methods go straight from structure-relative to
+ * world coordinates without allocating.
+ * <p>
+ * Position methods are thread safe. {@link #apply(BlockState)} memoizes
+ * {@code rotate().mirror()} per state in an identity map and must only be
+ * used from one thread.
+ */
+public final class StructureTransform {
+    private final Rotation rotation;
+    private final Mirror mirror;
+    private final boolean identity;
+
+    // out.x = offsetX + xx * x + xz * z, out.z = offsetZ + zx * x + zz * z, out.y = offsetY + y
+    private final int offsetX, offsetY, offsetZ;
+    private final int xx, xz, zx, zz;
+    private final Vec3i transformedSize;
+
+    private final Map<BlockState, BlockState> stateCache = new IdentityHashMap<>();
+
+    /**
+     * @param size   structure extent minus one (the {@code size} argument of
+     *               {@code transformPos})
+     * @param origin added to every transformed position, e.g. the paste target
+     */
+    public StructureTransform(Rotation rotation, Mirror mirror, Vec3i size, BlockPos origin) {
+        this.rotation = rotation;
+        this.mirror = mirror;
+        this.identity = rotation == Rotation.NONE && mirror == Mirror.NONE;
+
+        // The map is affine, so the images of the origin and the unit vectors define it
+        BlockPos o = StructureTeleporter.transformPos(BlockPos.ZERO, rotation, mirror, size);
+        BlockPos ex = StructureTeleporter.transformPos(new BlockPos(1, 0, 0), rotation, mirror, size);
+        BlockPos ez = StructureTeleporter.transformPos(new BlockPos(0, 0, 1), rotation, mirror, size);
+        this.xx = ex.getX() - o.getX();
+        this.zx = ex.getZ() - o.getZ();
+        this.xz = ez.getX() - o.getX();
+        this.zz = ez.getZ() - o.getZ();
+        this.offsetX = origin.getX() + o.getX();
+        this.offsetY = origin.getY() + o.getY();
+        this.offsetZ = origin.getZ() + o.getZ();
+
+        boolean swapXZ = rotation == Rotation.CLOCKWISE_90 || rotation == Rotation.COUNTERCLOCKWISE_90;
+        this.transformedSize = swapXZ ? new Vec3i(size.getZ(), size.getY(), size.getX()) : size;
+    }
+
+    /**
+     * Structure-relative transform (no origin).
+     */
+    public static StructureTransform of(Rotation rotation, Mirror mirror, Vec3i size) {
+        return new StructureTransform(rotation, mirror, size, BlockPos.ZERO);
+    }
+
+    public Rotation getRotation() {
+        return rotation;
+    }
+
+    public Mirror getMirror() {
+        return mirror;
+    }
+
+    public boolean isIdentity() {
+        return identity;
+    }
+
+    /**
+     * Extent minus one after the transform (X and Z swap on quarter turns).
+     */
+    public Vec3i getTransformedSize() {
+        return transformedSize;
+    }
+
+    public int applyX(int x, int z) {
+        return offsetX + xx * x + xz * z;
+    }
+
+    public int applyY(int y) {
+        return offsetY + y;
+    }
+
+    public int applyZ(int x, int z) {
+        return offsetZ + zx * x + zz * z;
+    }
+
+    /**
+     * Transformed position as a {@link BlockPos#asLong} value.
+     */
+    public long apply(int x, int y, int z) {
+        return BlockPos.asLong(applyX(x, z), applyY(y), applyZ(x, z));
+    }
+
+    /**
+     * Transform a packed position ({@link BlockPos#asLong}).
+     */
+    public long apply(long packed) {
+        return apply(BlockPos.getX(packed), BlockPos.getY(packed), BlockPos.getZ(packed));
+    }
+
+    public BlockPos apply(BlockPos pos) {
+        int x = pos.getX();
+        int z = pos.getZ();
+        return new BlockPos(applyX(x, z), applyY(pos.getY()), applyZ(x, z));
+    }
+
+    /**
+     * {@code state.rotate(rotation).mirror(mirror)}, computed once per
+     * distinct state. Not thread safe.
+     */
+    @SuppressWarnings("deprecation")
+    public BlockState apply(BlockState state) {
+        if (identity) {
+            return state;
+        }
+        BlockState transformed = stateCache.get(state);
+        if (transformed == null) {
+            transformed = state.rotate(rotation).mirror(mirror);
+            stateCache.put(state, transformed);
+        }
+        return transformed;
+    }
+}
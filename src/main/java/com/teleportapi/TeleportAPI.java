@@ -1,5 +1,13 @@
 package com.teleportapi;
 
+import com.teleportapi.permissions.PermissionHelper;
+import com.teleportapi.structure.SectionStore;
+import com.teleportapi.structure.StructureLibrary;
+import com.teleportapi.undo.UndoManager;
+import com.teleportapi.world.ChunkTicketManager;
+import com.teleportapi.world.ClientSyncPlanner;
+import com.teleportapi.world.RegionLockManager;
+import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.fml.common.Mod;
 import net.minecraftforge.fml.event.lifecycle.FMLCommonSetupEvent;
 import net.minecraftforge.fml.javafmlmod.FMLJavaModLoadingContext;
@@ -15,6 +23,15 @@ public class TeleportAPI {
     public TeleportAPI() {
         FMLJavaModLoadingContext.get().getModEventBus()
                 .addListener(this::commonSetup);
+        MinecraftForge.EVENT_BUS.register(TeleportScheduler.getInstance());
+        MinecraftForge.EVENT_BUS.register(ClientSyncPlanner.class);
+        MinecraftForge.EVENT_BUS.register(ChunkTicketManager.getInstance());
+        MinecraftForge.EVENT_BUS.register(RegionLockManager.getInstance());
+        MinecraftForge.EVENT_BUS.register(UndoManager.getInstance());
+        MinecraftForge.EVENT_BUS.register(StructureLibrary.getInstance());
+        MinecraftForge.EVENT_BUS.register(SectionStore.getInstance());
+        MinecraftForge.EVENT_BUS.register(PermissionHelper.class);
+        MinecraftForge.EVENT_BUS.register(BlockMatcher.class);
     }
 
     private void commonSetup(final FMLCommonSetupEvent event) {
@@ -0,0 +1,180 @@
+package com.teleportapi;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Handle for a teleport or simulation started through
+ * {@link StructureTeleporter#teleportAsync(TeleportRequest)} or
+ * {@link StructureTeleporter#simulateAsync(TeleportRequest)}.
+ * <p>
+ * The future completes on the server thread with the final
+ * {@link TeleportResult}, also for cancelled jobs. It only completes
+ * exceptionally when the job crashed. Progress getters and the
+ * control methods are safe to call from any thread; pause and cancel take
+ * effect at the job's next scheduler slice.
+ */
+public final class TeleportJob {
+    public enum Phase {
+        QUEUED,
+        LOADING,
+        SCANNING,
+        PASTING,
+        ROLLING_BACK,
+        COMPLETED,
+        CANCELLED,
+        FAILED
+    }
+
+    private static final AtomicLong NEXT_ID = new AtomicLong();
+
+    private final long id = nextId();
+    private final CompletableFuture<TeleportResult> future = new CompletableFuture<>();
+    private volatile Phase phase = Phase.QUEUED;
+    private volatile long blocksDone = 0;
+    private volatile long blocksTotal = 0;
+    private volatile boolean paused = false;
+    private volatile boolean cancelRequested = false;
+    private volatile boolean rollbackRequested = false;
+    // Run on cancel, e.g. to take a queued job out of the lock queue
+    private volatile Runnable cancelHook;
+
+    /**
+     * Already finished job, for requests that ran synchronously or were
+     * rejected before any work was scheduled.
+     */
+    public static TeleportJob completed(TeleportResult result) {
+        TeleportJob job = new TeleportJob();
+        job.complete(result);
+        return job;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Next id from the job sequence, also used to tag synchronous requests
+     * that get no job, so ids in JFR recordings never collide.
+     */
+    static long nextId() {
+        return NEXT_ID.incrementAndGet();
+    }
+
+    public CompletableFuture<TeleportResult> getFuture() {
+        return future;
+    }
+
+    public Phase getPhase() {
+        return phase;
+    }
+
+    /**
+     * Blocks handled so far in the current phase.
+     */
+    public long getBlocksDone() {
+        return blocksDone;
+    }
+
+    /**
+     * Blocks the current phase has to handle, 0 while unknown.
+     */
+    public long getBlocksTotal() {
+        return blocksTotal;
+    }
+
+    /**
+     * Progress of the current phase between 0 and 1.
+     */
+    public double getProgress() {
+        long total = blocksTotal;
+        if (future.isDone()) {
+            return 1.0;
+        }
+        return total <= 0 ? 0.0 : Math.min(1.0, (double) blocksDone / total);
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    public boolean isDone() {
+        return future.isDone();
+    }
+
+    /**
+     * Stop giving this job tick time until {@link #resume()}. An off-thread
+     * scan that is already running finishes its current pass in the
+     * background, but its result is only applied once resumed.
+     */
+    public void pause() {
+        paused = true;
+    }
+
+    public void resume() {
+        paused = false;
+    }
+
+    /**
+     * Request cancellation. Works on paused jobs too.
+     *
+     * @param rollback restore the source and everything already pasted at the
+     *                 destination; without it the world stays as it is now
+     * @return false if the job has already finished
+     */
+    public boolean cancel(boolean rollback) {
+        if (future.isDone()) {
+            return false;
+        }
+        rollbackRequested = rollback;
+        cancelRequested = true;
+        Runnable hook = cancelHook;
+        if (hook != null) {
+            hook.run();
+        }
+        return true;
+    }
+
+    /**
+     * Run {@code hook} when the job is cancelled, or now if it already was.
+     * It may run on any thread and more than once.
+     */
+    void setCancelHook(Runnable hook) {
+        cancelHook = hook;
+        if (cancelRequested) {
+            hook.run();
+        }
+    }
+
+    boolean isCancelRequested() {
+        return cancelRequested;
+    }
+
+    boolean isRollbackRequested() {
+        return rollbackRequested;
+    }
+
+    void setPhase(Phase phase) {
+        this.phase = phase;
+    }
+
+    void setProgress(long done, long total) {
+        this.blocksTotal = total;
+        this.blocksDone = done;
+    }
+
+    void complete(TeleportResult result) {
+        phase = Phase.COMPLETED;
+        future.complete(result);
+    }
+
+    void completeCancelled(TeleportResult result) {
+        phase = Phase.CANCELLED;
+        future.complete(result);
+    }
+
+    void fail(Throwable cause) {
+        phase = Phase.FAILED;
+        future.completeExceptionally(cause);
+    }
+}
@@ -0,0 +1,190 @@
+package com.teleportapi;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Global aggregate of {@link PhaseTimings} over all completed teleports.
+ * <p>
+ * Every phase, the ticks spanned and the allocated bytes get a
+ * {@link Histogram} with power-of-two buckets. Teleports record from the
+ * server thread; reading (e.g. from a monitoring command or exporter) is safe
+ * from any thread, though a reader may see one teleport half-recorded.
+ */
+public final class TeleportMetrics {
+    private static final TeleportMetrics INSTANCE = new TeleportMetrics();
+
+    private final Map<PhaseTimings.Phase, Histogram> phases = new EnumMap<>(PhaseTimings.Phase.class);
+    private final Histogram busyNanos = new Histogram();
+    private final Histogram ticksSpanned = new Histogram();
+    private final Histogram allocatedBytes = new Histogram();
+    // Per-tick cost of flushing coalesced client updates, shared by all jobs
+    private final Histogram clientSyncFlushNanos = new Histogram();
+
+    private TeleportMetrics() {
+        for (PhaseTimings.Phase phase : PhaseTimings.Phase.values()) {
+            phases.put(phase, new Histogram());
+        }
+    }
+
+    public static TeleportMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Add one completed teleport.
+     */
+    public void record(PhaseTimings timings) {
+        for (PhaseTimings.Phase phase : PhaseTimings.Phase.values()) {
+            phases.get(phase).record(timings.getNanos(phase));
+        }
+        busyNanos.record(timings.getBusyNanos());
+        ticksSpanned.record(timings.getTicksSpanned());
+        if (timings.getAllocatedBytes() >= 0) {
+            allocatedBytes.record(timings.getAllocatedBytes());
+        }
+    }
+
+    public void recordClientSyncFlush(long nanos) {
+        clientSyncFlushNanos.record(nanos);
+    }
+
+    public Histogram getPhase(PhaseTimings.Phase phase) {
+        return phases.get(phase);
+    }
+
+    /**
+     * Sum of all phases per teleport, excluding chunk load waits.
+     */
+    public Histogram getBusyNanos() {
+        return busyNanos;
+    }
+
+    public Histogram getTicksSpanned() {
+        return ticksSpanned;
+    }
+
+    public Histogram getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    public Histogram getClientSyncFlushNanos() {
+        return clientSyncFlushNanos;
+    }
+
+    public long getTeleportCount() {
+        return busyNanos.getCount();
+    }
+
+    public void reset() {
+        for (Histogram histogram : phases.values()) {
+            histogram.reset();
+        }
+        busyNanos.reset();
+        ticksSpanned.reset();
+        allocatedBytes.reset();
+        clientSyncFlushNanos.reset();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("TeleportMetrics{teleports=").append(getTeleportCount());
+        for (Map.Entry<PhaseTimings.Phase, Histogram> entry : phases.entrySet()) {
+            Histogram histogram = entry.getValue();
+            if (histogram.getSum() > 0) {
+                sb.append(", ").append(entry.getKey().name().toLowerCase()).append('=').append(histogram);
+            }
+        }
+        sb.append(", ticks=").append(ticksSpanned);
+        sb.append(", allocated=").append(allocatedBytes);
+        sb.append(", clientSyncFlush=").append(clientSyncFlushNanos);
+        sb.append('}');
+        return sb.toString();
+    }
+
+    /**
+     * Histogram of non-negative values with one bucket per power of two:
+     * bucket 0 holds 0, bucket {@code i} holds {@code [2^(i-1), 2^i)}.
+     * Percentiles report the bucket's upper bound, so they are within a
+     * factor of two.
+     */
+    public static final class Histogram {
+        private static final int BUCKETS = 64;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong sum = new AtomicLong();
+        private final AtomicLong max = new AtomicLong();
+
+        static int bucketOf(long value) {
+            return value <= 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(value));
+        }
+
+        public void record(long value) {
+            long clamped = Math.max(0L, value);
+            buckets.incrementAndGet(bucketOf(clamped));
+            count.incrementAndGet();
+            sum.addAndGet(clamped);
+            max.accumulateAndGet(clamped, Math::max);
+        }
+
+        public long getCount() {
+            return count.get();
+        }
+
+        public long getSum() {
+            return sum.get();
+        }
+
+        public long getMax() {
+            return max.get();
+        }
+
+        public double getMean() {
+            long n = count.get();
+            return n == 0 ? 0.0 : (double) sum.get() / n;
+        }
+
+        /**
+         * Upper bound of the bucket containing the {@code q}-quantile
+         * ({@code 0 <= q <= 1}), capped at the recorded maximum; 0 if empty.
+         */
+        public long getPercentile(double q) {
+            long n = count.get();
+            if (n == 0) {
+                return 0;
+            }
+            long rank = Math.max(1L, (long) Math.ceil(q * n));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += buckets.get(i);
+                if (seen >= rank) {
+                    long upper = i == 0 ? 0 : (i >= 63 ? Long.MAX_VALUE : (1L << i) - 1);
+                    return Math.min(upper, max.get());
+                }
+            }
+            return max.get();
+        }
+
+        public long getBucketCount(int bucket) {
+            return buckets.get(bucket);
+        }
+
+        public void reset() {
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets.set(i, 0);
+            }
+            count.set(0);
+            sum.set(0);
+            max.set(0);
+        }
+
+        @Override
+        public String toString() {
+            return "{n=" + getCount() + ", mean=" + Math.round(getMean()) + ", p50=" + getPercentile(0.5)
+                    + ", p99=" + getPercentile(0.99) + ", max=" + getMax() + "}";
+        }
+    }
+}
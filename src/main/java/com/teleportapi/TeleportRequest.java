@@ -9,7 +9,6 @@ import net.minecraft.world.level.block.Mirror;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -25,6 +24,8 @@ public class TeleportRequest {
     private final List<BlockState> excludedBlocks;
     private final List<BlockState> preservedBlocks;
     private final PasteMode pasteMode;
+    private final BlockMatcher exclusionMatcher;
+    private final BlockMatcher preservationMatcher;
     private final boolean shouldTeleport;
     private final boolean checkExclusions;
     private final boolean includeAir;
@@ -33,7 +34,7 @@ public class TeleportRequest {
     @Nullable
     private final Player player;
     @Nullable
-    private final Set<BlockPos> filter;
+    private final RegionMask filter;
     private final Rotation rotation;
     private final Mirror mirror;
     @Nullable
@@ -42,6 +43,8 @@ public class TeleportRequest {
     private final java.util.BitSet validBlocksMask;
     @Nullable
     private final java.util.BitSet hullMask;
+    private final boolean sectionBatchedPaste;
+    private final int priority;
     /** WIP: Not implemented yet. Defaults to NONE. WARNING: HIGHLY UNSTABLE. */
     private final VisualizationType visualizationType;
     /** WIP: Not implemented yet. Defaults to "Y". WARNING: HIGHLY UNSTABLE. */
@@ -54,18 +57,24 @@ public class TeleportRequest {
         this.excludedBlocks = builder.excludedBlocks != null ? new ArrayList<>(builder.excludedBlocks) : null;
         this.preservedBlocks = builder.preservedBlocks != null ? new ArrayList<>(builder.preservedBlocks) : null;
         this.pasteMode = builder.pasteMode;
+        this.exclusionMatcher = builder.exclusionMatcher != null ? builder.exclusionMatcher
+                : BlockMatcher.forExclusions(excludedBlocks);
+        this.preservationMatcher = builder.preservationMatcher != null ? builder.preservationMatcher
+                : BlockMatcher.forPreservation(preservedBlocks);
         this.shouldTeleport = builder.shouldTeleport;
         this.checkExclusions = builder.checkExclusions;
         this.includeAir = builder.includeAir;
         this.teleportPlayers = builder.teleportPlayers;
         this.teleportEntities = builder.teleportEntities;
         this.player = builder.player;
-        this.filter = builder.filter != null ? new HashSet<>(builder.filter) : null;
+        this.filter = builder.filter;
         this.rotation = builder.rotation;
         this.mirror = builder.mirror;
         this.blocksPerTick = builder.blocksPerTick;
         this.validBlocksMask = builder.validBlocksMask;
         this.hullMask = builder.hullMask;
+        this.sectionBatchedPaste = builder.sectionBatchedPaste;
+        this.priority = builder.priority;
         this.visualizationType = builder.visualizationType;
         this.visualizationAxis = builder.visualizationAxis;
     }
@@ -94,6 +103,24 @@ public class TeleportRequest {
         return pasteMode;
     }
 
+    /**
+     * Exclusion filter for this request, compiled from
+     * {@link #getExcludedBlocks()} when the request is built unless one was set
+     * explicitly.
+     */
+    public BlockMatcher getExclusionMatcher() {
+        return exclusionMatcher;
+    }
+
+    /**
+     * Preservation filter for {@link PasteMode#PRESERVE_LIST}, compiled from
+     * {@link #getPreservedBlocks()} when the request is built unless one was
+     * set explicitly.
+     */
+    public BlockMatcher getPreservationMatcher() {
+        return preservationMatcher;
+    }
+
     public boolean shouldTeleport() {
         return shouldTeleport;
     }
@@ -119,8 +146,16 @@ public class TeleportRequest {
         return player;
     }
 
+    /**
+     * Coverage filter as a read-only set view of {@link #getFilterMask()}.
+     */
     @Nullable
     public Set<BlockPos> getFilter() {
+        return filter != null ? filter.asSet() : null;
+    }
+
+    @Nullable
+    public RegionMask getFilterMask() {
         return filter;
     }
 
@@ -147,6 +182,21 @@ public class TeleportRequest {
         return hullMask;
     }
 
+    /**
+     * Whether the paste is written section by section (see
+     * {@link com.teleportapi.world.SectionPasteWriter}).
+     */
+    public boolean isSectionBatchedPaste() {
+        return sectionBatchedPaste;
+    }
+
+    /**
+     * Relative share of the {@link TeleportScheduler} tick budget for async work.
+     */
+    public int getPriority() {
+        return priority;
+    }
+
     public VisualizationType getVisualizationType() {
         return visualizationType;
     }
@@ -162,18 +212,24 @@ public class TeleportRequest {
         private List<BlockState> excludedBlocks;
         private List<BlockState> preservedBlocks;
         private PasteMode pasteMode = PasteMode.FORCE_REPLACE;
+        private BlockMatcher exclusionMatcher;
+        private BlockMatcher preservationMatcher;
         private boolean shouldTeleport = true;
         private boolean checkExclusions = true;
         private boolean includeAir = true;
         private boolean teleportPlayers = true;
         private boolean teleportEntities = true;
         private Player player;
-        private Set<BlockPos> filter;
+        private RegionMask filter;
         private Rotation rotation = Rotation.NONE;
         private Mirror mirror = Mirror.NONE;
         private Integer blocksPerTick;
         private java.util.BitSet validBlocksMask;
         private java.util.BitSet hullMask;
+        private RegionMask validBlocksRegion;
+        private RegionMask hullRegion;
+        private boolean sectionBatchedPaste = false;
+        private int priority = TeleportScheduler.DEFAULT_PRIORITY;
         /** WIP: Not implemented yet. WARNING: HIGHLY UNSTABLE. */
         private VisualizationType visualizationType = VisualizationType.NONE;
         /** WIP: Not implemented yet. WARNING: HIGHLY UNSTABLE. */
@@ -200,6 +256,24 @@ public class TeleportRequest {
             return this;
         }
 
+        /**
+         * Exclusion filter supporting block tags (e.g. {@code #forge:ores}).
+         * Takes precedence over {@link #excludedBlocks(List)}.
+         */
+        public Builder excludedMatcher(@Nullable BlockMatcher exclusionMatcher) {
+            this.exclusionMatcher = exclusionMatcher;
+            return this;
+        }
+
+        /**
+         * Preservation filter supporting block tags. Takes precedence over
+         * {@link #preservedBlocks(List)}.
+         */
+        public Builder preservedMatcher(@Nullable BlockMatcher preservationMatcher) {
+            this.preservationMatcher = preservationMatcher;
+            return this;
+        }
+
         public Builder pasteMode(PasteMode pasteMode) {
             this.pasteMode = pasteMode;
             return this;
@@ -236,6 +310,16 @@ public class TeleportRequest {
         }
 
         public Builder filter(@Nullable Set<BlockPos> filter) {
+            this.filter = filter != null ? RegionMask.of(filter) : null;
+            return this;
+        }
+
+        /**
+         * Coverage filter as a mask, e.g. from
+         * {@link StructureTeleporter#getEnclosedMask(Selection, List)}. Not
+         * copied; do not modify it while the request runs.
+         */
+        public Builder filterMask(@Nullable RegionMask filter) {
             this.filter = filter;
             return this;
         }
@@ -265,6 +349,38 @@ public class TeleportRequest {
             return this;
         }
 
+        /**
+         * {@link #validBlocksMask} given as a {@link RegionMask} in world
+         * coordinates. It is re-laid over the selection box on {@link #build()}.
+         */
+        public Builder validBlocks(@Nullable RegionMask validBlocks) {
+            this.validBlocksRegion = validBlocks;
+            return this;
+        }
+
+        /**
+         * {@link #hullMask} given as a {@link RegionMask} in world coordinates.
+         */
+        public Builder hull(@Nullable RegionMask hull) {
+            this.hullRegion = hull;
+            return this;
+        }
+
+        /**
+         * Write the paste directly into chunk sections with one heightmap/light
+         * pass per chunk instead of one {@code setBlock} per block. Block
+         * {@code onPlace}/{@code onRemove} callbacks are skipped.
+         */
+        public Builder sectionBatchedPaste(boolean sectionBatchedPaste) {
+            this.sectionBatchedPaste = sectionBatchedPaste;
+            return this;
+        }
+
+        public Builder priority(int priority) {
+            this.priority = priority;
+            return this;
+        }
+
         /** WIP: Not implemented yet. WARNING: HIGHLY UNSTABLE. */
         public Builder visualizationType(VisualizationType visualizationType) {
             this.visualizationType = visualizationType;
@@ -282,6 +398,12 @@ public class TeleportRequest {
                 throw new IllegalStateException("Selection must be provided");
             if (targetPos == null)
                 throw new IllegalStateException("Target position must be provided");
+            if ((validBlocksRegion != null || hullRegion != null) && selection.isComplete()) {
+                if (validBlocksRegion != null)
+                    validBlocksMask = validBlocksRegion.reframe(selection.getMin(), selection.getMax()).getBits();
+                if (hullRegion != null)
+                    hullMask = hullRegion.reframe(selection.getMin(), selection.getMax()).getBits();
+            }
             return new TeleportRequest(this);
         }
     }
@@ -112,6 +112,7 @@ public class TeleportResult {
 
     private final java.util.BitSet validBlocksMask;
     private final java.util.BitSet hullMask;
+    private final PhaseTimings timings;
 
     public TeleportResult(boolean success, int totalBlocks, int excludedBlocks,
             Set<BlockState> excludedBlockTypes, String message, boolean teleported,
@@ -139,6 +140,24 @@ public class TeleportResult {
             double distance, String sourceDimension, String targetDimension,
             Map<BlockState, Integer> sourceBlockCounts, int fluidBlockCount, java.util.BitSet validBlocksMask,
             java.util.BitSet hullMask) {
+        this(success, totalBlocks, excludedBlocks, excludedBlockTypes, message, teleported,
+                replacedBlockCount, skippedBlockCount, skippedByLimitCount, airBlockCount,
+                solidBlockCount, destinationSolidBlocksLost, replacedBlocksMap, skippedBlocksMap,
+                teleportedEntitiesCount, teleportedPlayerNames, permissionDenied, failedPos, denialReason,
+                distance, sourceDimension, targetDimension, sourceBlockCounts, fluidBlockCount, validBlocksMask,
+                hullMask, null);
+    }
+
+    public TeleportResult(boolean success, int totalBlocks, int excludedBlocks,
+            Set<BlockState> excludedBlockTypes, String message, boolean teleported,
+            int replacedBlockCount, int skippedBlockCount, int skippedByLimitCount,
+            int airBlockCount, int solidBlockCount, int destinationSolidBlocksLost,
+            Map<BlockState, Integer> replacedBlocksMap, Map<BlockState, Integer> skippedBlocksMap,
+            int teleportedEntitiesCount, List<String> teleportedPlayerNames,
+            boolean permissionDenied, net.minecraft.core.BlockPos failedPos, String denialReason,
+            double distance, String sourceDimension, String targetDimension,
+            Map<BlockState, Integer> sourceBlockCounts, int fluidBlockCount, java.util.BitSet validBlocksMask,
+            java.util.BitSet hullMask, PhaseTimings timings) {
         this.success = success;
         this.totalBlocks = totalBlocks;
         this.excludedBlocks = excludedBlocks;
@@ -166,6 +185,7 @@ public class TeleportResult {
         this.fluidBlockCount = fluidBlockCount;
         this.validBlocksMask = validBlocksMask;
         this.hullMask = hullMask;
+        this.timings = timings != null ? timings.copy() : new PhaseTimings();
     }
 
     public static Builder builder() {
@@ -199,6 +219,7 @@ public class TeleportResult {
         private int fluidBlockCount;
         private java.util.BitSet validBlocksMask;
         private java.util.BitSet hullMask;
+        private PhaseTimings timings;
 
         public Builder success(boolean success) {
             this.success = success;
@@ -330,12 +351,18 @@ public class TeleportResult {
             return this;
         }
 
+        public Builder timings(PhaseTimings timings) {
+            this.timings = timings;
+            return this;
+        }
+
         public TeleportResult build() {
             return new TeleportResult(success, totalBlocks, excludedBlocks, excludedBlockTypes, message, teleported,
                     replacedBlockCount, skippedBlockCount, skippedByLimitCount, airBlockCount, solidBlockCount,
                     destinationSolidBlocksLost, replacedBlocksMap, skippedBlocksMap, teleportedEntitiesCount,
                     teleportedPlayerNames, permissionDenied, failedPos, denialReason, distance, sourceDimension,
-                    targetDimension, sourceBlockCounts, fluidBlockCount, validBlocksMask, hullMask);
+                    targetDimension, sourceBlockCounts, fluidBlockCount, validBlocksMask, hullMask,
+                    timings);
         }
     }
 
@@ -463,6 +490,14 @@ public class TeleportResult {
         return hullMask;
     }
 
+    /**
+     * Per-phase timings, ticks spanned and allocation of this operation. All
+     * zero for results that never reached the teleport itself.
+     */
+    public PhaseTimings getTimings() {
+        return timings;
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
@@ -489,6 +524,9 @@ public class TeleportResult {
             sb.append(", blockCounts=").append(sourceBlockCounts.size()).append(" types");
         }
         sb.append(", fluidBlocks=").append(fluidBlockCount);
+        if (timings.getBusyNanos() > 0) {
+            sb.append(", timings=").append(timings);
+        }
         sb.append(", message='").append(message).append('\'');
         sb.append('}');
         return sb.toString();
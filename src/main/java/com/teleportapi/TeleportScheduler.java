@@ -0,0 +1,293 @@
+package com.teleportapi;
+
+import com.teleportapi.jfr.TeleportPhaseEvent;
+import com.teleportapi.world.ChunkTicketManager;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.server.ServerStoppingEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.server.ServerLifecycleHooks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Central scheduler for all async teleport work.
+ * <p>
+ * Instead of every task subscribing to the server tick and burning through a
+ * fixed block count, the scheduler owns every running job and hands out a
+ * wall-clock budget per tick (5 ms by default). The budget is split across
+ * jobs by priority weight, and what a job leaves unused goes to the jobs after
+ * it. The starting job rotates each tick so equal priorities share fairly.
+ * <p>
+ * The budget shrinks automatically when the server's average tick time
+ * (excluding our own share) leaves less headroom than the configured budget.
+ * <p>
+ * Every slice is reported as a {@link TeleportPhaseEvent} while a JFR
+ * recording has it enabled.
+ */
+public class TeleportScheduler {
+    public static final int DEFAULT_PRIORITY = 1;
+    public static final double TARGET_TICK_MILLIS = 50.0;
+    // Headroom kept free below the target tick time
+    private static final double SAFETY_MARGIN_MILLIS = 5.0;
+    // Tasks check the clock every this many iterations
+    private static final int YIELD_CHECK_MASK = 63;
+
+    private static final TeleportScheduler INSTANCE = new TeleportScheduler();
+    private static double tickBudgetMillis = 5.0;
+    private static double minTickBudgetMillis = 0.5;
+
+    private final List<ScheduledTask> jobs = new ArrayList<>();
+    private int cursor = 0;
+    // Moving average of the time we actually spent per tick
+    private double ownMillisAverage = 0.0;
+
+    /**
+     * A unit of async work driven by the scheduler.
+     */
+    public interface ScheduledTask {
+        /**
+         * Do work until {@code deadlineNanos} ({@link System#nanoTime()} based).
+         *
+         * @return true when the task is finished and should be removed
+         */
+        boolean runSlice(long deadlineNanos);
+
+        /**
+         * Relative share of the tick budget. Values below 1 are treated as 1.
+         */
+        default int getPriority() {
+            return DEFAULT_PRIORITY;
+        }
+
+        /**
+         * Called when the scheduler drops the task without it finishing,
+         * because it threw or the server is stopping.
+         */
+        default void onDropped(Throwable cause) {
+        }
+
+        /**
+         * Job handle the task reports progress to, if any. Slice events take
+         * their request id, phase and block count from it.
+         */
+        default TeleportJob getJob() {
+            return null;
+        }
+
+        /**
+         * Key the task currently holds its chunk tickets under, 0 for none.
+         */
+        default long getTicketKey() {
+            return 0L;
+        }
+
+        /**
+         * Chunk columns the last slice read or wrote, or -1 if the task does
+         * not track it. Slice events then report every chunk ticketed under
+         * {@link #getTicketKey()} instead.
+         */
+        default int getSliceChunkCount() {
+            return -1;
+        }
+    }
+
+    /**
+     * Distinct chunk columns touched during one slice. Consecutive blocks in
+     * the same column only cost a comparison, so it can sit in block loops.
+     */
+    public static final class SliceChunks {
+        private final LongOpenHashSet chunks = new LongOpenHashSet();
+        private long last = Long.MAX_VALUE;
+
+        public void touch(int blockX, int blockZ) {
+            long chunk = ChunkPos.asLong(blockX >> 4, blockZ >> 4);
+            if (chunk != last) {
+                last = chunk;
+                chunks.add(chunk);
+            }
+        }
+
+        public int size() {
+            return chunks.size();
+        }
+
+        public void clear() {
+            chunks.clear();
+            last = Long.MAX_VALUE;
+        }
+    }
+
+    public static TeleportScheduler getInstance() {
+        return INSTANCE;
+    }
+
+    public static void setTickBudgetMillis(double value) {
+        tickBudgetMillis = Math.max(0.0, value);
+    }
+
+    public static double getTickBudgetMillis() {
+        return tickBudgetMillis;
+    }
+
+    public static void setMinTickBudgetMillis(double value) {
+        minTickBudgetMillis = Math.max(0.0, value);
+    }
+
+    public static double getMinTickBudgetMillis() {
+        return minTickBudgetMillis;
+    }
+
+    /**
+     * Helper for task loops: true once the deadline has passed, checking the
+     * clock only every 64 iterations so at least that much progress is made.
+     */
+    public static boolean shouldYield(int iterations, long deadlineNanos) {
+        return (iterations & YIELD_CHECK_MASK) == YIELD_CHECK_MASK && System.nanoTime() - deadlineNanos >= 0;
+    }
+
+    /**
+     * Budget for the next tick.
+     *
+     * @param baseMillis        configured budget
+     * @param minMillis         floor so running jobs always make progress
+     * @param averageTickMillis server average tick time, including our work
+     * @param ownMillis         our own average spend per tick
+     * @param targetTickMillis  tick time we try to stay under
+     */
+    public static long computeBudgetNanos(double baseMillis, double minMillis, double averageTickMillis,
+            double ownMillis, double targetTickMillis) {
+        double otherMillis = Math.max(0.0, averageTickMillis - ownMillis);
+        double availableMillis = targetTickMillis - SAFETY_MARGIN_MILLIS - otherMillis;
+        double budgetMillis = Math.max(minMillis, Math.min(baseMillis, availableMillis));
+        return (long) (budgetMillis * 1_000_000.0);
+    }
+
+    public void submit(ScheduledTask task) {
+        jobs.add(task);
+    }
+
+    public boolean cancel(ScheduledTask task) {
+        return jobs.remove(task);
+    }
+
+    public int getActiveJobCount() {
+        return jobs.size();
+    }
+
+    @SubscribeEvent
+    public void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase != TickEvent.Phase.END || jobs.isEmpty()) {
+            return;
+        }
+
+        MinecraftServer server = ServerLifecycleHooks.getCurrentServer();
+        double averageTickMillis = server != null ? server.getAverageTickTime() : 0.0;
+        long budget = computeBudgetNanos(tickBudgetMillis, minTickBudgetMillis, averageTickMillis,
+                ownMillisAverage, TARGET_TICK_MILLIS);
+
+        long start = System.nanoTime();
+        tick(budget);
+        double spentMillis = (System.nanoTime() - start) / 1_000_000.0;
+        ownMillisAverage = ownMillisAverage * 0.8 + spentMillis * 0.2;
+    }
+
+    @SubscribeEvent
+    public void onServerStopping(ServerStoppingEvent event) {
+        IllegalStateException stopping = new IllegalStateException("Server stopping");
+        for (ScheduledTask task : new ArrayList<>(jobs)) {
+            dropQuietly(task, stopping);
+        }
+        jobs.clear();
+        cursor = 0;
+        ownMillisAverage = 0.0;
+    }
+
+    /**
+     * Run one tick worth of jobs within {@code budgetNanos}.
+     */
+    void tick(long budgetNanos) {
+        int count = jobs.size();
+        if (count == 0) {
+            return;
+        }
+
+        // Rotate the starting job so nobody is always last in line
+        List<ScheduledTask> order = new ArrayList<>(count);
+        int start = cursor % count;
+        for (int i = 0; i < count; i++) {
+            order.add(jobs.get((start + i) % count));
+        }
+        cursor = start + 1;
+
+        int remainingWeight = 0;
+        for (ScheduledTask task : order) {
+            remainingWeight += Math.max(1, task.getPriority());
+        }
+
+        long tickStart = System.nanoTime();
+        for (ScheduledTask task : order) {
+            int weight = Math.max(1, task.getPriority());
+            long now = System.nanoTime();
+            long remaining = Math.max(0L, budgetNanos - (now - tickStart));
+            long share = remaining * weight / remainingWeight;
+            remainingWeight -= weight;
+
+            boolean done;
+            try {
+                done = runTracedSlice(task, now + share);
+            } catch (Exception e) {
+                TeleportAPI.LOGGER.error("[TeleportAPI] Scheduled task failed, dropping it", e);
+                dropQuietly(task, e);
+                done = true;
+            }
+            if (done) {
+                jobs.remove(task);
+            }
+        }
+    }
+
+    private static boolean runTracedSlice(ScheduledTask task, long deadlineNanos) {
+        TeleportPhaseEvent event = new TeleportPhaseEvent();
+        if (!event.isEnabled()) {
+            return task.runSlice(deadlineNanos);
+        }
+        TeleportJob job = task.getJob();
+        long blocksBefore = job != null ? job.getBlocksDone() : 0L;
+        event.begin();
+        boolean done = task.runSlice(deadlineNanos);
+        event.end();
+        if (event.shouldCommit()) {
+            if (job != null) {
+                event.requestId = job.getId();
+                event.phase = job.getPhase().name();
+                event.blocksProcessed = Math.max(0L, job.getBlocksDone() - blocksBefore);
+            } else {
+                event.phase = task.getClass().getSimpleName();
+            }
+            event.chunksTouched = chunksTouched(task);
+            event.commit();
+        }
+        return done;
+    }
+
+    private static int chunksTouched(ScheduledTask task) {
+        int chunks = task.getSliceChunkCount();
+        if (chunks >= 0) {
+            return chunks;
+        }
+        long key = task.getTicketKey();
+        return key != 0 ? ChunkTicketManager.getInstance().getChunkCount(key) : 0;
+    }
+
+    private static void dropQuietly(ScheduledTask task, Throwable cause) {
+        try {
+            task.onDropped(cause);
+        } catch (Exception e) {
+            TeleportAPI.LOGGER.error("[TeleportAPI] Failed to clean up dropped task", e);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.teleportapi.gametest;
+
+import com.teleportapi.PasteMode;
+import com.teleportapi.Selection;
+import com.teleportapi.StructureTeleporter;
+import com.teleportapi.TeleportResult;
+import com.teleportapi.VisualizationType;
+import com.teleportapi.world.RegionLockManager;
+import net.minecraft.core.BlockPos;
+import net.minecraft.gametest.framework.GameTest;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.Mirror;
+import net.minecraft.world.level.block.Rotation;
+import net.minecraftforge.gametest.GameTestHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * GameTests for driving {@link StructureTeleporter.AsyncTeleportTask} by
+ * hand through {@code processBatch(int)} instead of the scheduler.
+ *
+ * Tests covered:
+ * - A direct batch moves the blocks and releases the region locks
+ * - A direct batch does nothing while another lease holds the area
+ */
+@GameTestHolder("teleportapi")
+public class AsyncTeleportTaskGameTests {
+
+    private static Selection select(GameTestHelper helper, BlockPos min, BlockPos max) {
+        Selection selection = new Selection();
+        selection.setWorld(helper.getLevel());
+        selection.setFromCorners(helper.absolutePos(min), helper.absolutePos(max));
+        return selection;
+    }
+
+    private static StructureTeleporter.AsyncTeleportTask task(GameTestHelper helper, Selection selection,
+            BlockPos target) {
+        return new StructureTeleporter.AsyncTeleportTask(helper.absolutePos(target), helper.getLevel(),
+                helper.getLevel(), PasteMode.FORCE_REPLACE, null, 1, new ArrayList<>(), Rotation.NONE,
+                Mirror.NONE, selection.getMax().subtract(selection.getMin()), TeleportResult.builder(), null,
+                selection, null, true, null, false, null, null, VisualizationType.NONE);
+    }
+
+    /**
+     * Test that calling processBatch directly moves the blocks, completes the
+     * task and leaves no region lock behind.
+     *
+     * Structure: teleportapi:asyncteleporttaskgametests.floor9x6x5
+     */
+    @GameTest(template = "floor9x6x5")
+    public static void testDirectProcessBatchCompletes(GameTestHelper helper) {
+        helper.setBlock(new BlockPos(1, 1, 1), Blocks.STONE);
+        helper.setBlock(new BlockPos(2, 1, 1), Blocks.GOLD_BLOCK);
+        Selection selection = select(helper, new BlockPos(1, 1, 1), new BlockPos(2, 1, 1));
+        StructureTeleporter.AsyncTeleportTask task = task(helper, selection, new BlockPos(5, 1, 2));
+
+        task.processBatch(Integer.MAX_VALUE);
+
+        if (task.getResult() == null) {
+            helper.fail("Task should have completed in one batch");
+        }
+        helper.assertBlockPresent(Blocks.STONE, new BlockPos(5, 1, 2));
+        helper.assertBlockPresent(Blocks.GOLD_BLOCK, new BlockPos(6, 1, 2));
+        helper.assertBlockPresent(Blocks.AIR, new BlockPos(1, 1, 1));
+        if (RegionLockManager.getInstance().isLocked(helper.getLevel(), selection.getMin(), selection.getMax())) {
+            helper.fail("Source should be unlocked once the task completed");
+        }
+
+        GameTestTemplate.logDebug(helper, "Direct processBatch completed and released its lease");
+        helper.succeed();
+    }
+
+    /**
+     * Test that a direct batch leaves the world alone while another lease
+     * holds the source.
+     *
+     * Structure: teleportapi:asyncteleporttaskgametests.floor9x6x5
+     */
+    @GameTest(template = "floor9x6x5")
+    public static void testDirectProcessBatchWaitsForLock(GameTestHelper helper) {
+        helper.setBlock(new BlockPos(1, 1, 1), Blocks.STONE);
+        Selection selection = select(helper, new BlockPos(1, 1, 1), new BlockPos(1, 1, 1));
+        StructureTeleporter.AsyncTeleportTask task = task(helper, selection, new BlockPos(5, 1, 2));
+
+        RegionLockManager.Lease other = RegionLockManager.getInstance().tryAcquire(List.of(
+                RegionLockManager.Box.of(helper.getLevel(), selection.getMin(), selection.getMax())));
+        if (other == null) {
+            helper.fail("Could not lock the source for the test");
+            return;
+        }
+        try {
+            task.processBatch(Integer.MAX_VALUE);
+            helper.assertBlockPresent(Blocks.STONE, new BlockPos(1, 1, 1));
+            helper.assertBlockPresent(Blocks.AIR, new BlockPos(5, 1, 2));
+        } finally {
+            other.release();
+        }
+
+        task.processBatch(Integer.MAX_VALUE);
+        helper.assertBlockPresent(Blocks.STONE, new BlockPos(5, 1, 2));
+
+        GameTestTemplate.logDebug(helper, "Direct processBatch waited for the lock");
+        helper.succeed();
+    }
+}
@@ -0,0 +1,199 @@
+package com.teleportapi.gametest;
+
+import com.teleportapi.PasteMode;
+import com.teleportapi.Selection;
+import com.teleportapi.StructureSnapshot;
+import com.teleportapi.StructureTeleporter;
+import com.teleportapi.TeleportRequest;
+import com.teleportapi.TeleportResult;
+import net.minecraft.core.BlockPos;
+import net.minecraft.gametest.framework.GameTest;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.entity.ChestBlockEntity;
+import net.minecraft.world.level.levelgen.Heightmap;
+import net.minecraftforge.gametest.GameTestHolder;
+
+/**
+ * GameTests for the section-batched paste path
+ * ({@link com.teleportapi.world.SectionPasteWriter}). It writes chunk sections
+ * directly and redoes heightmaps, block entities and shell updates by hand,
+ * so these check the world looks the same as after a regular paste.
+ *
+ * Tests covered:
+ * - Placed block states at the destination, source cleared
+ * - Block entity NBT carried over
+ * - Heightmaps at source and destination
+ * - Shell blocks that cannot survive are dropped
+ * - Blocks just outside the pasted box get shape updates
+ */
+@GameTestHolder("teleportapi")
+public class SectionPasteWriterGameTests {
+
+    private static Selection select(GameTestHelper helper, BlockPos min, BlockPos max) {
+        Selection selection = new Selection();
+        selection.setWorld(helper.getLevel());
+        selection.setFromCorners(helper.absolutePos(min), helper.absolutePos(max));
+        return selection;
+    }
+
+    private static TeleportResult batchedTeleport(GameTestHelper helper, Selection selection, BlockPos target) {
+        TeleportRequest request = new TeleportRequest.Builder(selection, helper.absolutePos(target))
+                .sectionBatchedPaste(true)
+                .teleportEntities(false)
+                .teleportPlayers(false)
+                .build();
+        TeleportResult result = StructureTeleporter.teleport(request);
+        if (!result.isSuccess()) {
+            helper.fail("Batched teleport failed: " + result.getMessage());
+        }
+        return result;
+    }
+
+    /**
+     * Test that a batched teleport places the captured states at the
+     * destination and clears the source.
+     *
+     * Structure: teleportapi:sectionpastewritergametests.floor9x6x5
+     */
+    @GameTest(template = "floor9x6x5")
+    public static void testBatchedPastePlacesStates(GameTestHelper helper) {
+        helper.setBlock(new BlockPos(1, 1, 1), Blocks.STONE);
+        helper.setBlock(new BlockPos(2, 1, 1), Blocks.OAK_PLANKS);
+        helper.setBlock(new BlockPos(1, 2, 1), Blocks.GLASS);
+        helper.setBlock(new BlockPos(2, 2, 1), Blocks.GOLD_BLOCK);
+
+        batchedTeleport(helper, select(helper, new BlockPos(1, 1, 1), new BlockPos(2, 2, 1)),
+                new BlockPos(5, 1, 2));
+
+        helper.assertBlockPresent(Blocks.STONE, new BlockPos(5, 1, 2));
+        helper.assertBlockPresent(Blocks.OAK_PLANKS, new BlockPos(6, 1, 2));
+        helper.assertBlockPresent(Blocks.GLASS, new BlockPos(5, 2, 2));
+        helper.assertBlockPresent(Blocks.GOLD_BLOCK, new BlockPos(6, 2, 2));
+        helper.assertBlockPresent(Blocks.AIR, new BlockPos(1, 1, 1));
+        helper.assertBlockPresent(Blocks.AIR, new BlockPos(2, 2, 1));
+
+        GameTestTemplate.logDebug(helper, "Batched paste placed all states");
+        helper.succeed();
+    }
+
+    /**
+     * Test that a chest keeps its contents through a batched teleport.
+     *
+     * Structure: teleportapi:sectionpastewritergametests.floor9x6x5
+     */
+    @GameTest(template = "floor9x6x5")
+    public static void testBatchedPasteKeepsBlockEntityNbt(GameTestHelper helper) {
+        BlockPos source = new BlockPos(1, 1, 1);
+        BlockPos target = new BlockPos(5, 1, 3);
+        helper.setBlock(source, Blocks.CHEST);
+        BlockEntity sourceEntity = helper.getBlockEntity(source);
+        if (!(sourceEntity instanceof ChestBlockEntity chest)) {
+            helper.fail("Expected a chest block entity at the source");
+            return;
+        }
+        chest.setItem(0, new ItemStack(Items.DIAMOND, 5));
+
+        batchedTeleport(helper, select(helper, source, source), target);
+
+        helper.assertBlockPresent(Blocks.CHEST, target);
+        BlockEntity targetEntity = helper.getBlockEntity(target);
+        if (!(targetEntity instanceof ChestBlockEntity moved)) {
+            helper.fail("Expected a chest block entity at the destination");
+            return;
+        }
+        ItemStack stack = moved.getItem(0);
+        if (!stack.is(Items.DIAMOND) || stack.getCount() != 5) {
+            helper.fail("Expected 5 diamonds in the moved chest, got " + stack);
+        }
+        GameTestTemplate.assertBlockPosEquals(helper, helper.absolutePos(target), moved.getBlockPos(),
+                "block entity position");
+        if (helper.getBlockEntity(source) != null) {
+            helper.fail("Source block entity should be gone after the move");
+        }
+
+        GameTestTemplate.logDebug(helper, "Chest contents survived the batched paste");
+        helper.succeed();
+    }
+
+    /**
+     * Test that heightmaps are re-primed at both ends of a batched teleport.
+     *
+     * Structure: teleportapi:sectionpastewritergametests.floor9x6x5
+     */
+    @GameTest(template = "floor9x6x5")
+    public static void testBatchedPasteUpdatesHeightmaps(GameTestHelper helper) {
+        for (int y = 1; y <= 3; y++) {
+            helper.setBlock(new BlockPos(1, y, 1), Blocks.STONE);
+        }
+
+        batchedTeleport(helper, select(helper, new BlockPos(1, 1, 1), new BlockPos(1, 3, 1)),
+                new BlockPos(6, 1, 3));
+
+        BlockPos sourceColumn = helper.absolutePos(new BlockPos(1, 0, 1));
+        BlockPos targetColumn = helper.absolutePos(new BlockPos(6, 0, 3));
+        for (Heightmap.Types type : new Heightmap.Types[] { Heightmap.Types.WORLD_SURFACE,
+                Heightmap.Types.MOTION_BLOCKING }) {
+            int targetHeight = helper.getLevel().getHeight(type, targetColumn.getX(), targetColumn.getZ());
+            GameTestTemplate.assertCoordinateEquals(helper, targetColumn.getY() + 4, targetHeight,
+                    type + " at destination");
+            int sourceHeight = helper.getLevel().getHeight(type, sourceColumn.getX(), sourceColumn.getZ());
+            GameTestTemplate.assertCoordinateEquals(helper, sourceColumn.getY() + 1, sourceHeight,
+                    type + " at source");
+        }
+
+        GameTestTemplate.logDebug(helper, "Heightmaps follow the batched paste");
+        helper.succeed();
+    }
+
+    /**
+     * Test that a shell block that cannot survive where it lands is dropped,
+     * like a regular paste would.
+     *
+     * Structure: teleportapi:sectionpastewritergametests.floor9x6x5
+     */
+    @GameTest(template = "floor9x6x5")
+    public static void testBatchedPasteDropsUnsupportedShellBlocks(GameTestHelper helper) {
+        // Torch on top of a voxel that was not captured, so it lands over air
+        StructureSnapshot snapshot = new StructureSnapshot(1, 2, 1);
+        snapshot.set(0, 1, 0, Blocks.TORCH.defaultBlockState(), null);
+        BlockPos target = new BlockPos(4, 2, 2);
+
+        StructureTeleporter.pasteStructureBatched(snapshot, helper.absolutePos(target), helper.getLevel(),
+                PasteMode.FORCE_REPLACE, null);
+
+        helper.assertBlockPresent(Blocks.AIR, target.above());
+        helper.assertItemEntityPresent(Items.TORCH, target.above(), 2.0);
+
+        GameTestTemplate.logDebug(helper, "Unsupported shell torch was dropped");
+        helper.succeed();
+    }
+
+    /**
+     * Test that blocks just outside the pasted box get shape updates: sand
+     * resting on a block replaced with air starts falling.
+     *
+     * Structure: teleportapi:sectionpastewritergametests.floor9x6x5
+     */
+    @GameTest(template = "floor9x6x5")
+    public static void testBatchedPasteUpdatesOutsideNeighbors(GameTestHelper helper) {
+        BlockPos support = new BlockPos(4, 1, 2);
+        helper.setBlock(support, Blocks.STONE);
+        helper.setBlock(support.above(), Blocks.SAND);
+
+        StructureSnapshot snapshot = new StructureSnapshot(1, 1, 1);
+        snapshot.set(0, 0, 0, Blocks.AIR.defaultBlockState(), null);
+        StructureTeleporter.pasteStructureBatched(snapshot, helper.absolutePos(support), helper.getLevel(),
+                PasteMode.FORCE_REPLACE, null);
+
+        helper.assertBlockPresent(Blocks.AIR, support);
+        // Sand only falls if the shell update reached it
+        helper.succeedWhen(() -> {
+            helper.assertBlockPresent(Blocks.SAND, support);
+            helper.assertBlockPresent(Blocks.AIR, support.above());
+        });
+    }
+}
@@ -0,0 +1,324 @@
+package com.teleportapi.gametest;
+
+import com.teleportapi.StructureSnapshot;
+import com.teleportapi.structure.SpongeSchematicFormat;
+import com.teleportapi.structure.StructureFileReader;
+import com.teleportapi.structure.StructureFiles;
+import com.teleportapi.structure.StructureSection;
+import com.teleportapi.structure.VanillaStructureFormat;
+import net.minecraft.commands.arguments.blocks.BlockStateParser;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.gametest.framework.GameTest;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.IntTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.NbtUtils;
+import net.minecraft.nbt.Tag;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.StairBlock;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraftforge.gametest.GameTestHolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * GameTests for the structure file formats. They need the block registries,
+ * so they cannot run as plain JUnit tests.
+ *
+ * Tests covered:
+ * - Vanilla template round trip, palette remap and structure voids
+ * - Sponge schematic round trip, y -> z -> x varint order and palette remap
+ * - Block entity positions in both formats
+ * - .tps files through the channel and the memory-mapped reader
+ */
+@GameTestHolder("teleportapi")
+public class StructureFormatGameTests {
+
+    /**
+     * 18x2x3 snapshot spanning two sections along x, with air, a property
+     * state, a chest with contents and voxels that were not captured.
+     */
+    private static StructureSnapshot sample() {
+        StructureSnapshot snapshot = new StructureSnapshot(18, 2, 3, new BlockPos(1, -2, 3));
+        snapshot.set(0, 0, 0, Blocks.STONE.defaultBlockState(), null);
+        snapshot.set(1, 0, 0, Blocks.OAK_STAIRS.defaultBlockState().setValue(StairBlock.FACING, Direction.EAST),
+                null);
+        snapshot.set(2, 0, 0, Blocks.AIR.defaultBlockState(), null);
+        snapshot.set(0, 1, 0, Blocks.CHEST.defaultBlockState(), chestTag());
+        snapshot.set(17, 1, 2, Blocks.DIRT.defaultBlockState(), null);
+        return snapshot;
+    }
+
+    private static CompoundTag chestTag() {
+        CompoundTag item = new ItemStack(Items.DIAMOND, 5).save(new CompoundTag());
+        item.putByte("Slot", (byte) 0);
+        ListTag items = new ListTag();
+        items.add(item);
+        CompoundTag tag = new CompoundTag();
+        tag.putString("id", "minecraft:chest");
+        tag.putInt("x", 100);
+        tag.putInt("y", 64);
+        tag.putInt("z", 100);
+        tag.put("Items", items);
+        return tag;
+    }
+
+    /**
+     * Compare every voxel; without {@code airKept} air must have become "not
+     * captured".
+     */
+    private static void assertSameBlocks(GameTestHelper helper, StructureSnapshot expected,
+            StructureSnapshot actual, boolean airKept, String label) {
+        if (expected.getSizeX() != actual.getSizeX() || expected.getSizeY() != actual.getSizeY()
+                || expected.getSizeZ() != actual.getSizeZ()) {
+            helper.fail(label + ": size changed to " + actual.getSizeX() + "x" + actual.getSizeY() + "x"
+                    + actual.getSizeZ());
+        }
+        for (int i = 0; i < expected.getVolume(); i++) {
+            BlockState state = expected.getState(i);
+            boolean present = state != null && (airKept || !state.isAir());
+            if (actual.isPresent(i) != present) {
+                helper.fail(label + ": voxel " + i + " should be " + (present ? "captured" : "not captured"));
+            }
+            if (present && actual.getState(i) != state) {
+                helper.fail(label + ": voxel " + i + " expected " + state + " but was " + actual.getState(i));
+            }
+            CompoundTag tag = expected.getBlockEntityTag(i);
+            if (tag != null) {
+                CompoundTag read = actual.getBlockEntityTag(i);
+                if (read == null || !tag.get("Items").equals(read.get("Items"))) {
+                    helper.fail(label + ": block entity data at voxel " + i + " lost, got " + read);
+                }
+            }
+        }
+    }
+
+    private static ListTag intList(int... values) {
+        ListTag list = new ListTag();
+        for (int value : values) {
+            list.add(IntTag.valueOf(value));
+        }
+        return list;
+    }
+
+    /**
+     * Test that a snapshot survives a vanilla template round trip, with
+     * uncaptured voxels left out and block entity positions stripped.
+     *
+     * Structure: teleportapi:structureformatgametests.empty3x3x3
+     */
+    @GameTest(template = "empty3x3x3")
+    public static void testVanillaRoundTrip(GameTestHelper helper) throws IOException {
+        StructureSnapshot snapshot = sample();
+        CompoundTag template = VanillaStructureFormat.write(snapshot);
+
+        ListTag blocks = template.getList("blocks", Tag.TAG_COMPOUND);
+        GameTestTemplate.assertCoordinateEquals(helper, snapshot.getBlockCount(), blocks.size(),
+                "template block count");
+        for (int i = 0; i < blocks.size(); i++) {
+            CompoundTag nbt = blocks.getCompound(i).getCompound("nbt");
+            if (nbt.contains("x") || nbt.contains("y") || nbt.contains("z")) {
+                helper.fail("Template block entity data should not carry a position: " + nbt);
+            }
+        }
+
+        StructureSnapshot withAir = VanillaStructureFormat.read(template, true);
+        assertSameBlocks(helper, snapshot, withAir, true, "vanilla with air");
+        GameTestTemplate.assertBlockPosEquals(helper, BlockPos.ZERO, withAir.getOffset(), "template offset");
+        assertSameBlocks(helper, snapshot, VanillaStructureFormat.read(template, false), false, "vanilla without air");
+
+        GameTestTemplate.logDebug(helper, "Vanilla template round trip kept every voxel");
+        helper.succeed();
+    }
+
+    /**
+     * Test that template palettes with duplicates are merged and structure
+     * voids read as not captured.
+     *
+     * Structure: teleportapi:structureformatgametests.empty3x3x3
+     */
+    @GameTest(template = "empty3x3x3")
+    public static void testVanillaPaletteRemap(GameTestHelper helper) throws IOException {
+        ListTag palette = new ListTag();
+        palette.add(NbtUtils.writeBlockState(Blocks.DIRT.defaultBlockState()));
+        palette.add(NbtUtils.writeBlockState(Blocks.STONE.defaultBlockState()));
+        palette.add(NbtUtils.writeBlockState(Blocks.DIRT.defaultBlockState()));
+        palette.add(NbtUtils.writeBlockState(Blocks.STRUCTURE_VOID.defaultBlockState()));
+        ListTag blocks = new ListTag();
+        int[] states = { 2, 1, 3, 0 };
+        for (int x = 0; x < states.length; x++) {
+            CompoundTag block = new CompoundTag();
+            block.put("pos", intList(x, 0, 0));
+            block.putInt("state", states[x]);
+            blocks.add(block);
+        }
+        CompoundTag template = new CompoundTag();
+        template.put("size", intList(4, 1, 1));
+        template.put("palette", palette);
+        template.put("blocks", blocks);
+
+        StructureSnapshot snapshot = VanillaStructureFormat.read(template, true);
+        if (snapshot.getState(0, 0, 0) != Blocks.DIRT.defaultBlockState()
+                || snapshot.getState(1, 0, 0) != Blocks.STONE.defaultBlockState()
+                || snapshot.getState(3, 0, 0) != Blocks.DIRT.defaultBlockState()) {
+            helper.fail("Template palette ids were not remapped onto the right states");
+        }
+        if (snapshot.isPresent(snapshot.index(2, 0, 0))) {
+            helper.fail("Structure void should read as not captured");
+        }
+        // Not captured, dirt and stone
+        GameTestTemplate.assertCoordinateEquals(helper, 3, snapshot.getPalette().size(), "snapshot palette size");
+
+        helper.succeed();
+    }
+
+    /**
+     * Test that a snapshot survives a schematic round trip, that block data is
+     * written y -> z -> x with voids for uncaptured voxels and that block
+     * entities are keyed by {@code Pos}.
+     *
+     * Structure: teleportapi:structureformatgametests.empty3x3x3
+     */
+    @GameTest(template = "empty3x3x3")
+    public static void testSpongeRoundTrip(GameTestHelper helper) throws IOException {
+        StructureSnapshot snapshot = sample();
+        CompoundTag root = SpongeSchematicFormat.write(snapshot);
+        CompoundTag blocks = root.getCompound("Schematic").getCompound("Blocks");
+        CompoundTag palette = blocks.getCompound("Palette");
+        byte[] data = blocks.getByteArray("Data");
+
+        // Few enough states that every varint is a single byte
+        GameTestTemplate.assertCoordinateEquals(helper, snapshot.getVolume(), data.length, "data length");
+        int width = snapshot.getSizeX();
+        int length = snapshot.getSizeZ();
+        for (int y = 0; y < snapshot.getSizeY(); y++) {
+            for (int z = 0; z < length; z++) {
+                for (int x = 0; x < width; x++) {
+                    BlockState state = snapshot.getState(x, y, z);
+                    String key = BlockStateParser.serialize(
+                            state == null ? Blocks.STRUCTURE_VOID.defaultBlockState() : state);
+                    int expected = palette.getInt(key);
+                    if (data[x + width * (z + length * y)] != expected) {
+                        helper.fail("Schematic data out of y -> z -> x order at " + x + "," + y + "," + z);
+                    }
+                }
+            }
+        }
+
+        ListTag blockEntities = blocks.getList("BlockEntities", Tag.TAG_COMPOUND);
+        GameTestTemplate.assertCoordinateEquals(helper, 1, blockEntities.size(), "block entity count");
+        CompoundTag entry = blockEntities.getCompound(0);
+        int[] pos = entry.getIntArray("Pos");
+        GameTestTemplate.assertBlockPosEquals(helper, new BlockPos(0, 1, 0), new BlockPos(pos[0], pos[1], pos[2]),
+                "block entity Pos");
+        if (!"minecraft:chest".equals(entry.getString("Id"))) {
+            helper.fail("Block entity Id should be written next to Pos, got " + entry.getString("Id"));
+        }
+        CompoundTag entryData = entry.getCompound("Data");
+        if (entryData.contains("id") || entryData.contains("x") || entryData.contains("y")
+                || entryData.contains("z")) {
+            helper.fail("Block entity Data should not repeat id or position: " + entryData);
+        }
+
+        StructureSnapshot withAir = SpongeSchematicFormat.read(root, true);
+        assertSameBlocks(helper, snapshot, withAir, true, "schematic with air");
+        GameTestTemplate.assertBlockPosEquals(helper, snapshot.getOffset(), withAir.getOffset(), "schematic offset");
+        CompoundTag chest = withAir.getBlockEntityTag(withAir.index(0, 1, 0));
+        if (chest == null || !"minecraft:chest".equals(chest.getString("id"))) {
+            helper.fail("Block entity id should be restored from Id, got " + chest);
+        }
+        assertSameBlocks(helper, snapshot, SpongeSchematicFormat.read(root, false), false,
+                "schematic without air");
+
+        GameTestTemplate.logDebug(helper, "Schematic round trip kept every voxel");
+        helper.succeed();
+    }
+
+    /**
+     * Test that sparse schematic palette ids, multi-byte varints and
+     * structure voids are read correctly.
+     *
+     * Structure: teleportapi:structureformatgametests.empty3x3x3
+     */
+    @GameTest(template = "empty3x3x3")
+    public static void testSpongePaletteRemap(GameTestHelper helper) throws IOException {
+        CompoundTag palette = new CompoundTag();
+        palette.putInt("minecraft:dirt", 0);
+        palette.putInt("minecraft:structure_void", 5);
+        palette.putInt("minecraft:stone", 200);
+        CompoundTag blocks = new CompoundTag();
+        blocks.put("Palette", palette);
+        // 200 needs two varint bytes
+        blocks.putByteArray("Data", new byte[] { 0, (byte) 0xC8, 0x01, 5 });
+        CompoundTag schematic = new CompoundTag();
+        schematic.putInt("Version", SpongeSchematicFormat.VERSION);
+        schematic.putShort("Width", (short) 3);
+        schematic.putShort("Height", (short) 1);
+        schematic.putShort("Length", (short) 1);
+        schematic.put("Blocks", blocks);
+        CompoundTag root = new CompoundTag();
+        root.put("Schematic", schematic);
+
+        StructureSnapshot snapshot = SpongeSchematicFormat.read(root, true);
+        if (snapshot.getState(0, 0, 0) != Blocks.DIRT.defaultBlockState()
+                || snapshot.getState(1, 0, 0) != Blocks.STONE.defaultBlockState()) {
+            helper.fail("Schematic palette ids were not remapped onto the right states");
+        }
+        if (snapshot.isPresent(snapshot.index(2, 0, 0))) {
+            helper.fail("Structure void should read as not captured");
+        }
+        GameTestTemplate.assertCoordinateEquals(helper, 3, snapshot.getPalette().size(), "snapshot palette size");
+
+        helper.succeed();
+    }
+
+    /**
+     * Test that a .tps file reads back the same through the channel reader and
+     * the memory-mapped one, section by section and whole.
+     *
+     * Structure: teleportapi:structureformatgametests.empty3x3x3
+     */
+    @GameTest(template = "empty3x3x3")
+    public static void testStructureFileRoundTrip(GameTestHelper helper) throws IOException {
+        StructureSnapshot snapshot = sample();
+        Path file = Files.createTempFile("teleportapi-gametest", ".tps");
+        try {
+            StructureFiles.write(snapshot, file);
+            try (StructureFileReader reader = StructureFileReader.open(file)) {
+                checkStructureFile(helper, snapshot, reader, "channel");
+            }
+            try (StructureFileReader reader = StructureFileReader.map(file)) {
+                if (!reader.isMapped()) {
+                    helper.fail("map() should return a mapped reader");
+                }
+                checkStructureFile(helper, snapshot, reader, "mapped");
+            }
+            assertSameBlocks(helper, snapshot, StructureFiles.read(file), true, "StructureFiles.read");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        GameTestTemplate.logDebug(helper, "Structure file round trip kept every voxel");
+        helper.succeed();
+    }
+
+    private static void checkStructureFile(GameTestHelper helper, StructureSnapshot snapshot,
+            StructureFileReader reader, String label) throws IOException {
+        GameTestTemplate.assertBlockPosEquals(helper, snapshot.getOffset(), reader.getOffset(), label + " offset");
+        GameTestTemplate.assertCoordinateEquals(helper, snapshot.getBlockCount(), (int) reader.getBlockCount(),
+                label + " block count");
+        // Both x sections hold blocks
+        GameTestTemplate.assertCoordinateEquals(helper, 2, reader.getSections().size(), label + " section count");
+        StructureSection second = reader.readSection(1, 0, 0);
+        if (second == null || second.getState(1, 1, 2) != Blocks.DIRT.defaultBlockState()) {
+            helper.fail(label + ": second section lost its block");
+        }
+        assertSameBlocks(helper, snapshot, reader.toSnapshot(), true, label);
+    }
+}
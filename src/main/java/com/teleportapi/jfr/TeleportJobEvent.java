@@ -0,0 +1,53 @@
+package com.teleportapi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One call to {@code StructureTeleporter.teleport}/{@code teleportAsync}.
+ * For async requests it covers the synchronous part (scan, checks, clear);
+ * the tick slices that follow are {@link TeleportPhaseEvent}s with the same
+ * request id.
+ */
+@Name("com.teleportapi.TeleportJob")
+@Label("Teleport Job")
+@Category({ "TeleportAPI" })
+@Description("Teleport request handled on the server thread")
+@StackTrace(false)
+public class TeleportJobEvent extends Event {
+    @Label("Request Id")
+    public long requestId;
+
+    @Label("Source Dimension")
+    public String sourceDimension;
+
+    @Label("Target Dimension")
+    public String targetDimension;
+
+    @Label("Volume")
+    @Description("Blocks in the selection's bounding box")
+    public long volume;
+
+    @Label("Mode")
+    @Description("SIMULATE, SYNC, SYNC_BATCHED or ASYNC")
+    public String mode;
+
+    @Label("Blocks Processed")
+    public long blocksProcessed;
+
+    @Label("Chunks Touched")
+    @Description("Chunk columns of the source and destination boxes")
+    public int chunksTouched;
+
+    @Label("Success")
+    public boolean success;
+
+    @Label("Allocated")
+    @DataAmount
+    public long allocatedBytes;
+}
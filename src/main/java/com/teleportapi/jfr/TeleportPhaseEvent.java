@@ -0,0 +1,33 @@
+package com.teleportapi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One phase of a teleport (scan, capture, clear, paste, sync, entities, ...)
+ * or one scheduler slice of an async task. Slices are named after the job
+ * phase they ran in (e.g. {@code PASTING}), or the task class when there is
+ * no job; the phases timed inside a slice are nested in it.
+ */
+@Name("com.teleportapi.TeleportPhase")
+@Label("Teleport Phase")
+@Category({ "TeleportAPI" })
+@Description("Phase or tick slice of a teleport")
+@StackTrace(false)
+public class TeleportPhaseEvent extends Event {
+    @Label("Request Id")
+    public long requestId;
+
+    @Label("Phase")
+    public String phase;
+
+    @Label("Blocks Processed")
+    public long blocksProcessed;
+
+    @Label("Chunks Touched")
+    public int chunksTouched;
+}
@@ -4,6 +4,7 @@ import net.minecraft.core.BlockPos;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.common.util.FakePlayerFactory;
 import net.minecraftforge.event.level.BlockEvent;
@@ -17,13 +18,43 @@ import org.jetbrains.annotations.Nullable;
  */
 public class DefaultForgeChecker implements IPermissionChecker {
 
-    @SuppressWarnings("null")
     @Override
     public boolean canBreak(@Nullable Player player, Level level, BlockPos pos) {
         if (level.isClientSide)
             return true;
+        return postBreak(getPlayerOrFake(player, level), level, pos);
+    }
+
+    @Override
+    public boolean canPlace(@Nullable Player player, Level level, BlockPos pos) {
+        if (level.isClientSide)
+            return true;
+        return postPlace(getPlayerOrFake(player, level), level, pos);
+    }
+
+    /**
+     * Same sample points as the default, but the acting player (or fake
+     * player) is resolved once for the whole box.
+     */
+    @Nullable
+    @Override
+    public BlockPos checkRegion(@Nullable Player player, Level level, BoundingBox box, boolean checkBreak) {
+        if (level.isClientSide)
+            return null;
 
         Player effectivePlayer = getPlayerOrFake(player, level);
+        for (BlockPos pos : PermissionHelper.samplePoints(box)) {
+            boolean allowed = checkBreak ? postBreak(effectivePlayer, level, pos)
+                    : postPlace(effectivePlayer, level, pos);
+            if (!allowed) {
+                return pos;
+            }
+        }
+        return null;
+    }
+
+    @SuppressWarnings("null")
+    private static boolean postBreak(Player effectivePlayer, Level level, BlockPos pos) {
         BlockState state = level.getBlockState(pos);
 
         // Simulating the BreakEvent
@@ -32,13 +63,7 @@ public class DefaultForgeChecker implements IPermissionChecker {
     }
 
     @SuppressWarnings("null")
-    @Override
-    public boolean canPlace(@Nullable Player player, Level level, BlockPos pos) {
-        if (level.isClientSide)
-            return true;
-
-        Player effectivePlayer = getPlayerOrFake(player, level);
-
+    private static boolean postPlace(Player effectivePlayer, Level level, BlockPos pos) {
         // Simulating the EntityPlaceEvent
         net.minecraftforge.common.util.BlockSnapshot snapshot = net.minecraftforge.common.util.BlockSnapshot
                 .create(level.dimension(), level, pos);
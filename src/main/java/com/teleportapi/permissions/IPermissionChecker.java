@@ -3,6 +3,7 @@ package com.teleportapi.permissions;
 import net.minecraft.core.BlockPos;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.level.Level;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
 import org.jetbrains.annotations.Nullable;
 
 /**
@@ -31,6 +32,30 @@ public interface IPermissionChecker {
      */
     boolean canPlace(@Nullable Player player, Level level, BlockPos pos);
 
+    /**
+     * Check a whole box at once. {@link PermissionHelper} calls this once per
+     * chunk column of an area, so checkers that know their claims can answer
+     * with a single lookup. The default samples
+     * {@link PermissionHelper#samplePoints(BoundingBox)} through
+     * {@link #canBreak} or {@link #canPlace}.
+     *
+     * @param player     The player performing the action.
+     * @param level      The level where the action occurs.
+     * @param box        The blocks to check, inclusive.
+     * @param checkBreak True to check breaking, false to check placing.
+     * @return The first denied position, or null if the whole box is allowed.
+     */
+    @Nullable
+    default BlockPos checkRegion(@Nullable Player player, Level level, BoundingBox box, boolean checkBreak) {
+        for (BlockPos pos : PermissionHelper.samplePoints(box)) {
+            boolean allowed = checkBreak ? canBreak(player, level, pos) : canPlace(player, level, pos);
+            if (!allowed) {
+                return pos;
+            }
+        }
+        return null;
+    }
+
     /**
      * Priority of this checker. Higher values are checked first.
      */
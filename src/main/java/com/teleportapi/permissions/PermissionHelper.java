@@ -1,25 +1,49 @@
 package com.teleportapi.permissions;
 
 import com.teleportapi.Selection;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
 import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.Level;
+import net.minecraft.world.level.levelgen.structure.BoundingBox;
+import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.event.server.ServerStoppingEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.UUID;
 
 /**
  * Utility class to manage and execute permission checks over areas.
+ * <p>
+ * Results are cached per (player, dimension, chunk) with a TTL. Protection
+ * mods whose claims change should call {@link #invalidateChunk} (or
+ * {@link #invalidateAll}); logouts and level unloads invalidate on their own.
  */
 public class PermissionHelper {
     private static final List<IPermissionChecker> CHECKERS = new ArrayList<>();
     private static boolean enabled = true;
     private static boolean checkSource = true;
     private static boolean checkTarget = true;
+    private static long cacheTtlMillis = 30_000L;
+
+    // (player, dimension, break/place) -> chunk -> last result; main thread only
+    private static final Map<CacheKey, Long2ObjectMap<CachedResult>> CACHE = new HashMap<>();
+    private static long lastPurgeMillis = 0L;
 
     static {
         // Register default Forge checker
@@ -53,13 +77,32 @@ public class PermissionHelper {
     public static void registerChecker(IPermissionChecker checker) {
         CHECKERS.add(checker);
         CHECKERS.sort(Comparator.comparingInt(IPermissionChecker::getPriority).reversed());
+        invalidateAll();
     }
 
     /**
-     * Performs an optimized search of the area to check if the player has
-     * permissions.
-     * Instead of checking every block, it checks strategic points (corners, edges,
-     * centers, and per-chunk samples).
+     * Time a per-chunk result stays valid, 0 to disable the cache.
+     */
+    public static void setCacheTtlMillis(long value) {
+        cacheTtlMillis = Math.max(0L, value);
+        if (cacheTtlMillis == 0L) {
+            invalidateAll();
+        }
+    }
+
+    public static long getCacheTtlMillis() {
+        return cacheTtlMillis;
+    }
+
+    /**
+     * Checks the area chunk column by chunk column. Each column is answered by
+     * the checkers' {@link IPermissionChecker#checkRegion} and the result is
+     * cached per (player, dimension, chunk) for {@link #getCacheTtlMillis()},
+     * so repeated teleports through the same area skip the checkers. A cached
+     * result is only reused for a box inside the one it was computed for.
+     * The area's eight corners and its centre are checked once more on their
+     * own, together with the column that contains each, so small claims on
+     * the area's edges are not missed between section samples.
      */
     public static CheckResult checkAreaPermissions(@Nullable Player player, Level level, Selection selection,
             boolean checkBreak) {
@@ -74,53 +117,238 @@ public class PermissionHelper {
 
         BlockPos min = selection.getMin();
         BlockPos max = selection.getMax();
+        Set<BlockPos> keyPoints = keyPoints(min, max);
 
-        Set<BlockPos> pointsToCheck = new HashSet<>();
+        long now = System.currentTimeMillis();
+        Long2ObjectMap<CachedResult> cache = null;
+        if (cacheTtlMillis > 0) {
+            purgeExpired(now);
+            cache = CACHE.computeIfAbsent(
+                    new CacheKey(player != null ? player.getUUID() : null, level.dimension(), checkBreak),
+                    k -> new Long2ObjectOpenHashMap<>());
+        }
 
-        // 1. Corners (8 points)
-        pointsToCheck.add(new BlockPos(min.getX(), min.getY(), min.getZ()));
-        pointsToCheck.add(new BlockPos(max.getX(), min.getY(), min.getZ()));
-        pointsToCheck.add(new BlockPos(min.getX(), max.getY(), min.getZ()));
-        pointsToCheck.add(new BlockPos(min.getX(), min.getY(), max.getZ()));
-        pointsToCheck.add(new BlockPos(max.getX(), max.getY(), min.getZ()));
-        pointsToCheck.add(new BlockPos(max.getX(), min.getY(), max.getZ()));
-        pointsToCheck.add(new BlockPos(min.getX(), max.getY(), max.getZ()));
-        pointsToCheck.add(new BlockPos(max.getX(), max.getY(), max.getZ()));
+        for (int cx = min.getX() >> 4; cx <= max.getX() >> 4; cx++) {
+            for (int cz = min.getZ() >> 4; cz <= max.getZ() >> 4; cz++) {
+                BoundingBox column = new BoundingBox(
+                        Math.max(min.getX(), cx << 4), min.getY(), Math.max(min.getZ(), cz << 4),
+                        Math.min(max.getX(), (cx << 4) + 15), max.getY(), Math.min(max.getZ(), (cz << 4) + 15));
+                long chunk = ChunkPos.asLong(cx, cz);
 
-        // 2. Centers (1 point)
-        pointsToCheck.add(new BlockPos(
+                CachedResult cached = cache != null ? cache.get(chunk) : null;
+                CheckResult result;
+                if (cached != null && cached.answers(column, now)) {
+                    // The cached check may have sampled other points than this area's corners
+                    result = checkKeyPoints(player, level, column, keyPoints, cached.points, cached.result,
+                            checkBreak);
+                    if (result != cached.result) {
+                        cache.put(chunk, new CachedResult(column, cached.points, result, cached.expiresAtMillis));
+                    }
+                } else {
+                    Set<BlockPos> checkedPoints = new HashSet<>();
+                    result = checkKeyPoints(player, level, column, keyPoints, checkedPoints,
+                            checkColumn(player, level, column, checkBreak), checkBreak);
+                    if (cache != null) {
+                        cache.put(chunk, new CachedResult(column, checkedPoints, result, now + cacheTtlMillis));
+                    }
+                }
+                if (!result.isAllowed()) {
+                    return result;
+                }
+            }
+        }
+
+        return CheckResult.ALLOW;
+    }
+
+    /**
+     * Point-check the key points inside {@code column} that are not in
+     * {@code checked} yet, adding them to it, unless {@code result} already
+     * denies.
+     */
+    private static CheckResult checkKeyPoints(@Nullable Player player, Level level, BoundingBox column,
+            Set<BlockPos> keyPoints, Set<BlockPos> checked, CheckResult result, boolean checkBreak) {
+        for (BlockPos point : keyPoints) {
+            if (!result.isAllowed()) {
+                break;
+            }
+            if (column.isInside(point) && checked.add(point)) {
+                result = checkColumn(player, level, new BoundingBox(point), checkBreak);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The box's eight corners and its centre; fewer for flat boxes.
+     */
+    private static Set<BlockPos> keyPoints(BlockPos min, BlockPos max) {
+        Set<BlockPos> points = new LinkedHashSet<>();
+        for (int corner = 0; corner < 8; corner++) {
+            points.add(new BlockPos((corner & 1) == 0 ? min.getX() : max.getX(),
+                    (corner & 2) == 0 ? min.getY() : max.getY(),
+                    (corner & 4) == 0 ? min.getZ() : max.getZ()));
+        }
+        points.add(new BlockPos(
                 min.getX() + (max.getX() - min.getX()) / 2,
                 min.getY() + (max.getY() - min.getY()) / 2,
                 min.getZ() + (max.getZ() - min.getZ()) / 2));
+        return points;
+    }
 
-        // 3. Per-chunk samples
-        // This ensures that if the area spans multiple claims (which usually follow
-        // chunk boundaries),
-        // we check at least one point in each chunk.
-        for (int cx = min.getX() >> 4; cx <= max.getX() >> 4; cx++) {
-            for (int cz = min.getZ() >> 4; cz <= max.getZ() >> 4; cz++) {
-                int sampleX = Math.max(min.getX(), Math.min(max.getX(), (cx << 4) + 8));
-                int sampleZ = Math.max(min.getZ(), Math.min(max.getZ(), (cz << 4) + 8));
+    private static CheckResult checkColumn(@Nullable Player player, Level level, BoundingBox column,
+            boolean checkBreak) {
+        for (IPermissionChecker checker : CHECKERS) {
+            BlockPos denied = checker.checkRegion(player, level, column, checkBreak);
+            if (denied != null) {
+                return new CheckResult(false, denied, "Denied by " + checker.getClass().getSimpleName());
+            }
+        }
+        return CheckResult.ALLOW;
+    }
+
+    /**
+     * Strategic points for checkers that can only test single positions: one
+     * point per 16x16x16 section (its centre, clamped into the box). Areas
+     * spanning several claims, which usually follow chunk boundaries, get at
+     * least one point in each. A single-block box yields that block.
+     */
+    public static List<BlockPos> samplePoints(BoundingBox box) {
+        Set<BlockPos> points = new LinkedHashSet<>();
+        for (int cx = box.minX() >> 4; cx <= box.maxX() >> 4; cx++) {
+            int sampleX = Math.max(box.minX(), Math.min(box.maxX(), (cx << 4) + 8));
+            for (int cz = box.minZ() >> 4; cz <= box.maxZ() >> 4; cz++) {
+                int sampleZ = Math.max(box.minZ(), Math.min(box.maxZ(), (cz << 4) + 8));
                 // Sample at multiple heights if the area is vertically large
-                for (int cy = min.getY() >> 4; cy <= max.getY() >> 4; cy++) {
-                    int sampleY = Math.max(min.getY(), Math.min(max.getY(), (cy << 4) + 8));
-                    pointsToCheck.add(new BlockPos(sampleX, sampleY, sampleZ));
+                for (int cy = box.minY() >> 4; cy <= box.maxY() >> 4; cy++) {
+                    int sampleY = Math.max(box.minY(), Math.min(box.maxY(), (cy << 4) + 8));
+                    points.add(new BlockPos(sampleX, sampleY, sampleZ));
                 }
             }
         }
+        return new ArrayList<>(points);
+    }
+
+    /**
+     * Forget every cached result, e.g. after claims were edited in bulk.
+     */
+    public static void invalidateAll() {
+        CACHE.clear();
+    }
+
+    /**
+     * Forget cached results of one player ({@code null} for checks without a
+     * player).
+     */
+    public static void invalidatePlayer(@Nullable UUID player) {
+        CACHE.keySet().removeIf(key -> Objects.equals(key.player, player));
+    }
+
+    public static void invalidateDimension(ResourceKey<Level> dimension) {
+        CACHE.keySet().removeIf(key -> key.dimension == dimension);
+    }
+
+    /**
+     * Forget cached results for one chunk, e.g. when a claim there changes.
+     */
+    public static void invalidateChunk(ResourceKey<Level> dimension, int chunkX, int chunkZ) {
+        long chunk = ChunkPos.asLong(chunkX, chunkZ);
+        for (Map.Entry<CacheKey, Long2ObjectMap<CachedResult>> entry : CACHE.entrySet()) {
+            if (entry.getKey().dimension == dimension) {
+                entry.getValue().remove(chunk);
+            }
+        }
+    }
 
-        // Execute checks
-        for (BlockPos pos : pointsToCheck) {
-            for (IPermissionChecker checker : CHECKERS) {
-                boolean allowed = checkBreak ? checker.canBreak(player, level, pos)
-                        : checker.canPlace(player, level, pos);
-                if (!allowed) {
-                    return new CheckResult(false, pos, "Denied by " + checker.getClass().getSimpleName());
-                }
+    private static void purgeExpired(long now) {
+        if (now - lastPurgeMillis < cacheTtlMillis) {
+            return;
+        }
+        lastPurgeMillis = now;
+        Iterator<Long2ObjectMap<CachedResult>> it = CACHE.values().iterator();
+        while (it.hasNext()) {
+            Long2ObjectMap<CachedResult> chunks = it.next();
+            chunks.values().removeIf(cached -> cached.expiresAtMillis <= now);
+            if (chunks.isEmpty()) {
+                it.remove();
             }
         }
+    }
 
-        return CheckResult.ALLOW;
+    @SubscribeEvent
+    public static void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
+        invalidatePlayer(event.getEntity().getUUID());
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event) {
+        if (event.getLevel() instanceof Level level) {
+            invalidateDimension(level.dimension());
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStopping(ServerStoppingEvent event) {
+        invalidateAll();
+    }
+
+    private static final class CacheKey {
+        final UUID player;
+        final ResourceKey<Level> dimension;
+        final boolean checkBreak;
+
+        CacheKey(@Nullable UUID player, ResourceKey<Level> dimension, boolean checkBreak) {
+            this.player = player;
+            this.dimension = dimension;
+            this.checkBreak = checkBreak;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof CacheKey other))
+                return false;
+            return checkBreak == other.checkBreak && dimension == other.dimension
+                    && Objects.equals(player, other.player);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(player, dimension, checkBreak);
+        }
+    }
+
+    private static final class CachedResult {
+        final BoundingBox checked;
+        // Area corners and centres point-checked on top of the column; only
+        // touched on the main thread, like the rest of the cache
+        final Set<BlockPos> points;
+        final CheckResult result;
+        final long expiresAtMillis;
+
+        CachedResult(BoundingBox checked, Set<BlockPos> points, CheckResult result, long expiresAtMillis) {
+            this.checked = checked;
+            this.points = points;
+            this.result = result;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        /**
+         * An allow covers boxes inside the checked one; a deny covers any box
+         * containing the denied position.
+         */
+        boolean answers(BoundingBox box, long now) {
+            if (now >= expiresAtMillis) {
+                return false;
+            }
+            if (result.isAllowed()) {
+                return checked.minX() <= box.minX() && checked.maxX() >= box.maxX()
+                        && checked.minY() <= box.minY() && checked.maxY() >= box.maxY()
+                        && checked.minZ() <= box.minZ() && checked.maxZ() >= box.maxZ();
+            }
+            return box.isInside(result.getFailedPos());
+        }
     }
 
     public static class CheckResult {
@@ -0,0 +1,64 @@
+package com.teleportapi.structure;
+
+/**
+ * Fixed-width integer packing in the same layout as vanilla's
+ * {@code SimpleBitStorage}: values never straddle two longs, the lowest bits
+ * of each long hold the first value.
+ */
+public final class BitPacking {
+    private BitPacking() {
+    }
+
+    /**
+     * Bits needed to store ids {@code 0..count-1}; 0 when there is at most
+     * one distinct value.
+     */
+    public static int bitsFor(int count) {
+        return count <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(count - 1);
+    }
+
+    public static int longsFor(int size, int bits) {
+        if (bits == 0) {
+            return 0;
+        }
+        int perLong = 64 / bits;
+        return (size + perLong - 1) / perLong;
+    }
+
+    public static long[] pack(int[] values, int bits) {
+        if (bits == 0) {
+            return new long[0];
+        }
+        int perLong = 64 / bits;
+        long mask = (1L << bits) - 1;
+        long[] packed = new long[longsFor(values.length, bits)];
+        for (int i = 0; i < values.length; i++) {
+            int word = i / perLong;
+            int shift = (i - word * perLong) * bits;
+            packed[word] |= (values[i] & mask) << shift;
+        }
+        return packed;
+    }
+
+    /**
+     * Inverse of {@link #pack}; with {@code bits == 0} every value is 0.
+     */
+    public static int[] unpack(long[] packed, int bits, int size) {
+        int[] values = new int[size];
+        if (bits == 0) {
+            return values;
+        }
+        if (packed.length < longsFor(size, bits)) {
+            throw new IllegalArgumentException("Packed data too short: " + packed.length + " longs for " + size
+                    + " values of " + bits + " bits");
+        }
+        int perLong = 64 / bits;
+        long mask = (1L << bits) - 1;
+        for (int i = 0; i < size; i++) {
+            int word = i / perLong;
+            int shift = (i - word * perLong) * bits;
+            values[i] = (int) ((packed[word] >>> shift) & mask);
+        }
+        return values;
+    }
+}
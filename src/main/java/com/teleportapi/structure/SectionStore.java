@@ -0,0 +1,220 @@
+package com.teleportapi.structure;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
+import net.minecraftforge.event.server.ServerStoppingEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * Content-addressed, reference-counted store of encoded sections.
+ * <p>
+ * {@link #intern} keys data by a hash of its bytes, so identical sections
+ * (a 16x16x16 cube of stone, of air, the hull of a ship moved again) are kept
+ * once however many snapshots use them. Every intern or {@link #retain} must be
+ * matched by a {@link #release}. Sections nobody references stay cached, so a
+ * snapshot taken again soon reuses them, and are evicted oldest first once the
+ * cache is over {@link #getCacheBudget()}.
+ * <p>
+ * Hashes are only meaningful within this store and this server run; 0 is
+ * never a hash and can mark an empty section. Thread safe.
+ */
+public final class SectionStore {
+    private static final SectionStore INSTANCE = new SectionStore(16L * 1024 * 1024);
+
+    private static final class Entry {
+        final byte[] data;
+        int references;
+
+        Entry(byte[] data) {
+            this.data = data;
+        }
+    }
+
+    private final Long2ObjectMap<Entry> entries = new Long2ObjectOpenHashMap<>();
+    // Unreferenced entries, least recently released first
+    private final LongLinkedOpenHashSet unreferenced = new LongLinkedOpenHashSet();
+    private long cacheBudget;
+    private long storedBytes = 0;
+    private long referencedBytes = 0;
+    private long logicalBytes = 0;
+
+    public SectionStore(long cacheBudget) {
+        this.cacheBudget = cacheBudget;
+    }
+
+    /**
+     * Store shared by undo history and stored blueprints.
+     */
+    public static SectionStore getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Add a reference to {@code data}, storing it if no identical section is
+     * stored yet. The array must not be modified afterwards.
+     *
+     * @return the hash to {@link #get} and {@link #release} it with
+     */
+    public synchronized long intern(byte[] data) {
+        long hash = hash(data);
+        while (true) {
+            Entry entry = entries.get(hash);
+            if (entry == null) {
+                entry = new Entry(data);
+                entries.put(hash, entry);
+                storedBytes += data.length;
+                reference(hash, entry);
+                return hash;
+            }
+            if (Arrays.equals(entry.data, data)) {
+                reference(hash, entry);
+                return hash;
+            }
+            // Truncated hash collision: probe the next key
+            hash = hash + 1 == 0 ? 1 : hash + 1;
+        }
+    }
+
+    /**
+     * Add a reference to a section that is already referenced.
+     *
+     * @throws IllegalStateException if nothing is stored under {@code hash}
+     */
+    public synchronized void retain(long hash) {
+        Entry entry = entries.get(hash);
+        if (entry == null) {
+            throw new IllegalStateException("No section stored for hash " + Long.toHexString(hash));
+        }
+        reference(hash, entry);
+    }
+
+    private void reference(long hash, Entry entry) {
+        if (entry.references++ == 0) {
+            unreferenced.remove(hash);
+            referencedBytes += entry.data.length;
+        }
+        logicalBytes += entry.data.length;
+    }
+
+    /**
+     * Drop a reference. The last one moves the section to the cache of
+     * unreferenced sections. Unknown hashes are ignored, e.g. after
+     * {@link #clear()}.
+     */
+    public synchronized void release(long hash) {
+        Entry entry = entries.get(hash);
+        if (entry == null || entry.references == 0) {
+            return;
+        }
+        logicalBytes -= entry.data.length;
+        if (--entry.references == 0) {
+            referencedBytes -= entry.data.length;
+            unreferenced.add(hash);
+            evict();
+        }
+    }
+
+    /**
+     * The stored bytes; the array is shared and must not be modified.
+     *
+     * @throws IllegalStateException if nothing is stored under {@code hash}
+     */
+    public synchronized byte[] get(long hash) {
+        Entry entry = entries.get(hash);
+        if (entry == null) {
+            throw new IllegalStateException("No section stored for hash " + Long.toHexString(hash));
+        }
+        return entry.data;
+    }
+
+    public synchronized boolean contains(long hash) {
+        return entries.containsKey(hash);
+    }
+
+    public synchronized int getReferenceCount(long hash) {
+        Entry entry = entries.get(hash);
+        return entry != null ? entry.references : 0;
+    }
+
+    /**
+     * Bytes kept for unreferenced sections before the oldest are evicted.
+     */
+    public synchronized void setCacheBudget(long bytes) {
+        cacheBudget = bytes;
+        evict();
+    }
+
+    public synchronized long getCacheBudget() {
+        return cacheBudget;
+    }
+
+    private void evict() {
+        while (storedBytes - referencedBytes > cacheBudget && !unreferenced.isEmpty()) {
+            Entry entry = entries.remove(unreferenced.removeFirstLong());
+            storedBytes -= entry.data.length;
+        }
+    }
+
+    /**
+     * Number of distinct sections stored, cached ones included.
+     */
+    public synchronized int getSectionCount() {
+        return entries.size();
+    }
+
+    /**
+     * Bytes held, cached sections included.
+     */
+    public synchronized long getStoredBytes() {
+        return storedBytes;
+    }
+
+    /**
+     * Bytes of the sections that are referenced, each counted once.
+     */
+    public synchronized long getReferencedBytes() {
+        return referencedBytes;
+    }
+
+    /**
+     * Bytes the references would take without sharing, to compare with
+     * {@link #getReferencedBytes()}.
+     */
+    public synchronized long getLogicalBytes() {
+        return logicalBytes;
+    }
+
+    /**
+     * Drop every section, referenced or not. Outstanding hashes become
+     * invalid.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        unreferenced.clear();
+        storedBytes = 0;
+        referencedBytes = 0;
+        logicalBytes = 0;
+    }
+
+    @SubscribeEvent
+    public void onServerStopping(ServerStoppingEvent event) {
+        clear();
+    }
+
+    static long hash(byte[] data) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(data);
+            long hash = ByteBuffer.wrap(digest).getLong();
+            return hash == 0 ? 1 : hash;
+        } catch (NoSuchAlgorithmException e) {
+            // Every JRE ships SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.teleportapi.structure;
+
+import com.teleportapi.StructureSnapshot;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * A {@link StructureSnapshot} kept as references into a {@link SectionStore}.
+ * <p>
+ * The snapshot is cut into 16x16x16 sections, each encoded like a structure
+ * file section (with block state registry ids as the global palette) and
+ * deflated, and only the store hash of each non-empty section is kept here. Snapshots of
+ * similar areas therefore share their identical sections. Call
+ * {@link #release()} once the snapshot is no longer needed.
+ * <p>
+ * Encodings use this run's block state ids, so hashes and
+ * {@link #writeTo(DataOutput) written} data are only valid until the server
+ * stops.
+ */
+public final class SectionedSnapshot {
+    // Registry id + 1, so that 0 stays "not captured"
+    private static final List<BlockState> STATE_IDS = new AbstractList<>() {
+        @Override
+        public BlockState get(int id) {
+            return id == 0 ? null : Block.stateById(id - 1);
+        }
+
+        @Override
+        public int size() {
+            return Block.BLOCK_STATE_REGISTRY.size() + 1;
+        }
+    };
+
+    private final SectionStore store;
+    private final int sizeX, sizeY, sizeZ;
+    private final BlockPos offset;
+    private final BlockPos counts;
+    // Store hash per section, x fastest then y then z; 0 for empty sections
+    private final long[] hashes;
+    private final long encodedSize;
+    private boolean released = false;
+
+    private SectionedSnapshot(SectionStore store, int sizeX, int sizeY, int sizeZ, BlockPos offset, long[] hashes,
+            long encodedSize) {
+        this.store = store;
+        this.sizeX = sizeX;
+        this.sizeY = sizeY;
+        this.sizeZ = sizeZ;
+        this.offset = offset;
+        this.counts = StructureSection.sectionsFor(sizeX, sizeY, sizeZ);
+        this.hashes = hashes;
+        this.encodedSize = encodedSize;
+    }
+
+    /**
+     * Intern the sections of {@code snapshot} in {@code store}.
+     */
+    public static SectionedSnapshot of(StructureSnapshot snapshot, SectionStore store) {
+        BlockPos counts = StructureSection.sectionsFor(snapshot.getSizeX(), snapshot.getSizeY(),
+                snapshot.getSizeZ());
+        long[] hashes = new long[counts.getX() * counts.getY() * counts.getZ()];
+        long encodedSize = 0;
+        int i = 0;
+        for (int sz = 0; sz < counts.getZ(); sz++) {
+            for (int sy = 0; sy < counts.getY(); sy++) {
+                for (int sx = 0; sx < counts.getX(); sx++, i++) {
+                    StructureSection section = StructureSection.of(snapshot, sx, sy, sz);
+                    if (section == null) {
+                        continue;
+                    }
+                    byte[] data = encode(section);
+                    hashes[i] = store.intern(data);
+                    encodedSize += data.length;
+                }
+            }
+        }
+        return new SectionedSnapshot(store, snapshot.getSizeX(), snapshot.getSizeY(), snapshot.getSizeZ(),
+                snapshot.getOffset(), hashes, encodedSize);
+    }
+
+    private static byte[] encode(StructureSection section) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (DeflaterOutputStream out = new DeflaterOutputStream(bytes, deflater, 4096)) {
+            out.write(StructureFileFormat.encodeSection(section, state -> Block.getId(state) + 1));
+        } catch (IOException e) {
+            // Only in-memory streams are involved
+            throw new IllegalStateException("Failed to encode section", e);
+        } finally {
+            deflater.end();
+        }
+        return bytes.toByteArray();
+    }
+
+    private static StructureSection decode(byte[] data) throws IOException {
+        try (InflaterInputStream in = new InflaterInputStream(new ByteArrayInputStream(data))) {
+            return StructureFileFormat.decodeSection(ByteBuffer.wrap(in.readAllBytes()), STATE_IDS);
+        }
+    }
+
+    /**
+     * Decode the whole snapshot.
+     *
+     * @throws IllegalStateException if the snapshot was released
+     */
+    public StructureSnapshot toSnapshot() throws IOException {
+        checkNotReleased();
+        StructureSnapshot snapshot = new StructureSnapshot(sizeX, sizeY, sizeZ, offset);
+        int i = 0;
+        for (int sz = 0; sz < counts.getZ(); sz++) {
+            for (int sy = 0; sy < counts.getY(); sy++) {
+                for (int sx = 0; sx < counts.getX(); sx++, i++) {
+                    if (hashes[i] != 0) {
+                        decode(store.get(hashes[i])).copyInto(snapshot, sx * StructureSection.SIZE,
+                                sy * StructureSection.SIZE, sz * StructureSection.SIZE);
+                    }
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Store hash of a section, 0 if it is empty.
+     */
+    public long getSectionHash(int sectionX, int sectionY, int sectionZ) {
+        return hashes[sectionX + counts.getX() * (sectionY + counts.getY() * sectionZ)];
+    }
+
+    public BlockPos getSectionCounts() {
+        return counts;
+    }
+
+    public int getSizeX() {
+        return sizeX;
+    }
+
+    public int getSizeY() {
+        return sizeY;
+    }
+
+    public int getSizeZ() {
+        return sizeZ;
+    }
+
+    public BlockPos getOffset() {
+        return offset;
+    }
+
+    /**
+     * Encoded size of all sections as if none were shared; what
+     * {@link #writeTo} writes, give or take the table.
+     */
+    public long getEncodedSize() {
+        return encodedSize;
+    }
+
+    public boolean isReleased() {
+        return released;
+    }
+
+    /**
+     * Drop the references into the store. Safe to call more than once.
+     */
+    public void release() {
+        if (released) {
+            return;
+        }
+        released = true;
+        for (long hash : hashes) {
+            if (hash != 0) {
+                store.release(hash);
+            }
+        }
+    }
+
+    /**
+     * Write the snapshot with its section data inlined, so it can be read back
+     * by {@link #read(DataInput)} without the store.
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        checkNotReleased();
+        out.writeInt(sizeX);
+        out.writeInt(sizeY);
+        out.writeInt(sizeZ);
+        out.writeInt(offset.getX());
+        out.writeInt(offset.getY());
+        out.writeInt(offset.getZ());
+        for (long hash : hashes) {
+            if (hash == 0) {
+                out.writeInt(-1);
+            } else {
+                byte[] data = store.get(hash);
+                out.writeInt(data.length);
+                out.write(data);
+            }
+        }
+    }
+
+    /**
+     * Decode a snapshot written by {@link #writeTo(DataOutput)}.
+     */
+    public static StructureSnapshot read(DataInput in) throws IOException {
+        int sizeX = in.readInt();
+        int sizeY = in.readInt();
+        int sizeZ = in.readInt();
+        BlockPos offset = new BlockPos(in.readInt(), in.readInt(), in.readInt());
+        if (sizeX <= 0 || sizeY <= 0 || sizeZ <= 0) {
+            throw new IOException("Corrupt snapshot size " + sizeX + "x" + sizeY + "x" + sizeZ);
+        }
+        BlockPos counts = StructureSection.sectionsFor(sizeX, sizeY, sizeZ);
+        StructureSnapshot snapshot = new StructureSnapshot(sizeX, sizeY, sizeZ, offset);
+        for (int sz = 0; sz < counts.getZ(); sz++) {
+            for (int sy = 0; sy < counts.getY(); sy++) {
+                for (int sx = 0; sx < counts.getX(); sx++) {
+                    int length = in.readInt();
+                    if (length < 0) {
+                        continue;
+                    }
+                    byte[] data = new byte[length];
+                    in.readFully(data);
+                    decode(data).copyInto(snapshot, sx * StructureSection.SIZE, sy * StructureSection.SIZE,
+                            sz * StructureSection.SIZE);
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    private void checkNotReleased() {
+        if (released) {
+            throw new IllegalStateException("Snapshot was released");
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.teleportapi.structure;
+
+import com.teleportapi.StructureSnapshot;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.util.SimpleBitStorage;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fills a {@link StructureSnapshot} from a foreign palette without going
+ * through per-block objects.
+ * <p>
+ * The source palette is remapped once up front (duplicates merged,
+ * {@code null} entries meaning "not captured"), so each voxel is a single
+ * packed write of an already known id.
+ */
+final class SnapshotBuilder {
+    private final int sizeX, sizeY, sizeZ;
+    private final BlockPos offset;
+    private final List<BlockState> palette = new ArrayList<>();
+    private final int[] remap;
+    private final SimpleBitStorage storage;
+    private final Int2ObjectMap<CompoundTag> blockEntities = new Int2ObjectOpenHashMap<>();
+
+    /**
+     * @param sourcePalette states by source id; {@code null} entries are
+     *                      treated as not captured
+     */
+    SnapshotBuilder(int sizeX, int sizeY, int sizeZ, BlockPos offset, List<BlockState> sourcePalette)
+            throws IOException {
+        if (sizeX <= 0 || sizeY <= 0 || sizeZ <= 0) {
+            throw new IOException("Empty structure (" + sizeX + "x" + sizeY + "x" + sizeZ + ")");
+        }
+        if ((long) sizeX * sizeY * sizeZ > Integer.MAX_VALUE) {
+            throw new IOException("Structure too large: " + sizeX + "x" + sizeY + "x" + sizeZ);
+        }
+        this.sizeX = sizeX;
+        this.sizeY = sizeY;
+        this.sizeZ = sizeZ;
+        this.offset = offset;
+        this.palette.add(null);
+
+        Map<BlockState, Integer> ids = new IdentityHashMap<>();
+        this.remap = new int[sourcePalette.size()];
+        for (int source = 0; source < remap.length; source++) {
+            BlockState state = sourcePalette.get(source);
+            if (state == null) {
+                continue;
+            }
+            Integer id = ids.get(state);
+            if (id == null) {
+                id = palette.size();
+                palette.add(state);
+                ids.put(state, id);
+            }
+            remap[source] = id;
+        }
+        this.storage = new SimpleBitStorage(Math.max(1, BitPacking.bitsFor(palette.size())), sizeX * sizeY * sizeZ);
+    }
+
+    boolean contains(int x, int y, int z) {
+        return x >= 0 && y >= 0 && z >= 0 && x < sizeX && y < sizeY && z < sizeZ;
+    }
+
+    /**
+     * Store source palette id {@code sourceId} at local {@code (x, y, z)}.
+     */
+    void set(int x, int y, int z, int sourceId) throws IOException {
+        if (sourceId < 0 || sourceId >= remap.length) {
+            throw new IOException("Palette id " + sourceId + " out of range at " + x + "," + y + "," + z);
+        }
+        storage.set(index(x, y, z), remap[sourceId]);
+    }
+
+    /**
+     * Attach block entity data; ignored where no block was stored.
+     */
+    void setBlockEntity(int x, int y, int z, CompoundTag tag) {
+        int index = index(x, y, z);
+        if (storage.get(index) != 0) {
+            blockEntities.put(index, tag);
+        }
+    }
+
+    StructureSnapshot build() {
+        return StructureSnapshot.fromPacked(sizeX, sizeY, sizeZ, offset, palette, storage.getBits(), storage.getRaw(),
+                blockEntities);
+    }
+
+    private int index(int x, int y, int z) {
+        return x + sizeX * (y + sizeY * z);
+    }
+
+    /**
+     * Palette ids of {@code snapshot}, one per dense index, for writers that
+     * walk every voxel.
+     */
+    static SimpleBitStorage idsOf(StructureSnapshot snapshot) {
+        return new SimpleBitStorage(snapshot.getBitsPerBlock(), snapshot.getVolume(), snapshot.getPackedIds());
+    }
+}
@@ -0,0 +1,240 @@
+package com.teleportapi.structure;
+
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.teleportapi.StructureSnapshot;
+import com.teleportapi.TeleportAPI;
+import net.minecraft.SharedConstants;
+import net.minecraft.commands.arguments.blocks.BlockStateParser;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.nbt.Tag;
+import net.minecraft.util.SimpleBitStorage;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converts between {@link StructureSnapshot}s and Sponge Schematic v3
+ * ({@code .schem}, as written by WorldEdit and most external editors).
+ * <p>
+ * The schematic palette is parsed once into snapshot palette ids and the
+ * varint block data is decoded straight into the snapshot's packed ids, so a
+ * multi-million block schematic costs its packed snapshot, not a block list.
+ * Structure voids mark "not captured" voxels in both directions. The
+ * schematic {@code Offset} is the snapshot offset. Biomes and entities are not
+ * carried over, and states are read as-is, without upgrading schematics saved
+ * by older versions; states that do not parse are left out with a warning.
+ */
+public final class SpongeSchematicFormat {
+    public static final String EXTENSION = ".schem";
+    public static final int VERSION = 3;
+
+    private static final int MAX_SIZE = 0xFFFF;
+    // Far above the number of block states; guards the palette allocation
+    private static final int MAX_PALETTE_ID = 1 << 20;
+
+    private SpongeSchematicFormat() {
+    }
+
+    public static StructureSnapshot read(Path file, boolean includeAir) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return read(NbtIo.readCompressed(in), includeAir);
+        }
+    }
+
+    /**
+     * @param root       the file's root tag, holding the {@code Schematic}
+     *                   compound
+     * @param includeAir keep air voxels, so pasting clears the destination
+     */
+    public static StructureSnapshot read(CompoundTag root, boolean includeAir) throws IOException {
+        CompoundTag schematic = root.contains("Schematic", Tag.TAG_COMPOUND) ? root.getCompound("Schematic") : root;
+        int version = schematic.getInt("Version");
+        if (version != VERSION) {
+            throw new IOException("Unsupported schematic version " + version);
+        }
+        int width = schematic.getShort("Width") & 0xFFFF;
+        int height = schematic.getShort("Height") & 0xFFFF;
+        int length = schematic.getShort("Length") & 0xFFFF;
+        int[] offset = schematic.getIntArray("Offset");
+        BlockPos origin = offset.length == 3 ? new BlockPos(offset[0], offset[1], offset[2]) : BlockPos.ZERO;
+
+        CompoundTag blocks = schematic.getCompound("Blocks");
+        SnapshotBuilder builder = new SnapshotBuilder(width, height, length, origin,
+                readPalette(blocks.getCompound("Palette"), includeAir));
+
+        // Varints in y -> z -> x order
+        byte[] data = blocks.getByteArray("Data");
+        int position = 0;
+        if (data.length > 0) {
+            for (int y = 0; y < height; y++) {
+                for (int z = 0; z < length; z++) {
+                    for (int x = 0; x < width; x++) {
+                        int value = 0;
+                        int shift = 0;
+                        byte b;
+                        do {
+                            if (position >= data.length) {
+                                throw new IOException("Schematic block data ends at " + x + "," + y + "," + z);
+                            }
+                            if (shift > 28) {
+                                throw new IOException("Schematic palette id too long at " + x + "," + y + "," + z);
+                            }
+                            b = data[position++];
+                            value |= (b & 0x7F) << shift;
+                            shift += 7;
+                        } while ((b & 0x80) != 0);
+                        builder.set(x, y, z, value);
+                    }
+                }
+            }
+        }
+
+        ListTag blockEntities = blocks.getList("BlockEntities", Tag.TAG_COMPOUND);
+        for (int i = 0; i < blockEntities.size(); i++) {
+            CompoundTag entry = blockEntities.getCompound(i);
+            int[] pos = entry.getIntArray("Pos");
+            if (pos.length != 3 || !builder.contains(pos[0], pos[1], pos[2])) {
+                continue;
+            }
+            CompoundTag tag = entry.getCompound("Data").copy();
+            if (entry.contains("Id", Tag.TAG_STRING)) {
+                tag.putString("id", entry.getString("Id"));
+            }
+            builder.setBlockEntity(pos[0], pos[1], pos[2], tag);
+        }
+        return builder.build();
+    }
+
+    private static List<BlockState> readPalette(CompoundTag paletteTag, boolean includeAir) throws IOException {
+        List<BlockState> palette = new ArrayList<>(Collections.nCopies(paletteTag.size(), null));
+        for (String key : paletteTag.getAllKeys()) {
+            int id = paletteTag.getInt(key);
+            if (id < 0 || id >= MAX_PALETTE_ID) {
+                throw new IOException("Schematic palette id " + id + " out of range");
+            }
+            while (palette.size() <= id) {
+                palette.add(null);
+            }
+            BlockState state;
+            try {
+                state = BlockStateParser.parseForBlock(BuiltInRegistries.BLOCK.asLookup(), key, false).blockState();
+            } catch (CommandSyntaxException e) {
+                TeleportAPI.LOGGER.warn("[TeleportAPI] Schematic: skipping unknown block state {}", key);
+                continue;
+            }
+            if (state.is(Blocks.STRUCTURE_VOID) || (state.isAir() && !includeAir)) {
+                continue;
+            }
+            palette.set(id, state);
+        }
+        return palette;
+    }
+
+    public static void write(StructureSnapshot snapshot, Path file) throws IOException {
+        CompoundTag root = write(snapshot);
+        try (OutputStream out = Files.newOutputStream(file)) {
+            NbtIo.writeCompressed(root, out);
+        }
+    }
+
+    /**
+     * Root tag of a schematic file for {@code snapshot}.
+     *
+     * @throws IllegalArgumentException if a dimension exceeds what the format
+     *                                  can store
+     */
+    public static CompoundTag write(StructureSnapshot snapshot) {
+        int width = snapshot.getSizeX();
+        int height = snapshot.getSizeY();
+        int length = snapshot.getSizeZ();
+        if (width > MAX_SIZE || height > MAX_SIZE || length > MAX_SIZE) {
+            throw new IllegalArgumentException("Snapshot too large for a schematic: " + width + "x" + height + "x"
+                    + length);
+        }
+
+        // Snapshot id -> schematic id; id 0 becomes a structure void
+        List<BlockState> states = snapshot.getPalette();
+        Map<String, Integer> keys = new HashMap<>();
+        CompoundTag palette = new CompoundTag();
+        int[] remap = new int[states.size()];
+        for (int id = 0; id < states.size(); id++) {
+            BlockState state = id == 0 ? Blocks.STRUCTURE_VOID.defaultBlockState() : states.get(id);
+            String key = BlockStateParser.serialize(state);
+            Integer schematicId = keys.get(key);
+            if (schematicId == null) {
+                schematicId = keys.size();
+                keys.put(key, schematicId);
+                palette.putInt(key, schematicId);
+            }
+            remap[id] = schematicId;
+        }
+
+        SimpleBitStorage ids = SnapshotBuilder.idsOf(snapshot);
+        ByteArrayOutputStream data = new ByteArrayOutputStream(snapshot.getVolume());
+        ListTag blockEntities = new ListTag();
+        for (int y = 0; y < height; y++) {
+            for (int z = 0; z < length; z++) {
+                for (int x = 0; x < width; x++) {
+                    int index = snapshot.index(x, y, z);
+                    int value = remap[ids.get(index)];
+                    while ((value & ~0x7F) != 0) {
+                        data.write((value & 0x7F) | 0x80);
+                        value >>>= 7;
+                    }
+                    data.write(value);
+
+                    CompoundTag nbt = snapshot.getBlockEntityTag(index);
+                    if (nbt != null) {
+                        CompoundTag tag = nbt.copy();
+                        String id = tag.getString("id");
+                        tag.remove("id");
+                        tag.remove("x");
+                        tag.remove("y");
+                        tag.remove("z");
+                        CompoundTag entry = new CompoundTag();
+                        entry.putIntArray("Pos", new int[] { x, y, z });
+                        if (!id.isEmpty()) {
+                            entry.putString("Id", id);
+                        }
+                        entry.put("Data", tag);
+                        blockEntities.add(entry);
+                    }
+                }
+            }
+        }
+
+        CompoundTag blocks = new CompoundTag();
+        blocks.put("Palette", palette);
+        blocks.putByteArray("Data", data.toByteArray());
+        blocks.put("BlockEntities", blockEntities);
+
+        BlockPos offset = snapshot.getOffset();
+        CompoundTag schematic = new CompoundTag();
+        schematic.putInt("Version", VERSION);
+        schematic.putInt("DataVersion", SharedConstants.getCurrentVersion().getDataVersion().getVersion());
+        schematic.putShort("Width", (short) width);
+        schematic.putShort("Height", (short) height);
+        schematic.putShort("Length", (short) length);
+        schematic.putIntArray("Offset", new int[] { offset.getX(), offset.getY(), offset.getZ() });
+        schematic.put("Blocks", blocks);
+
+        CompoundTag root = new CompoundTag();
+        root.put("Schematic", schematic);
+        return root;
+    }
+}
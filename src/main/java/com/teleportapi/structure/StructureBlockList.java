@@ -0,0 +1,121 @@
+package com.teleportapi.structure;
+
+import com.teleportapi.StructureTeleporter.BlockData;
+import net.minecraft.core.BlockPos;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Read-only {@link BlockData} view of a structure file that decodes sections
+ * on demand.
+ * <p>
+ * Only the directory is consulted up front: blocks are numbered section by
+ * section, bottom section layer first, and {@link #get} decodes the section
+ * holding the requested block the first time it is reached. The last decoded
+ * section is kept, so a paste walking the list in order decodes each section
+ * once per pass and never holds more than one of them. Elements are created on
+ * each call, with {@code relativePos} relative to the structure origin like
+ * {@link com.teleportapi.StructureSnapshot#toBlockDataList()}.
+ * <p>
+ * Not thread safe; give each task its own view.
+ */
+public final class StructureBlockList extends AbstractList<BlockData> implements RandomAccess {
+    private final StructureFileReader reader;
+    private final StructureFileFormat.SectionEntry[] sections;
+    // starts[i] is the list index of the first block of sections[i]
+    private final int[] starts;
+    private final int size;
+
+    private int cachedSection = -1;
+    private StructureSection cached;
+    private short[] cachedIndices;
+
+    public StructureBlockList(StructureFileReader reader) {
+        if (reader.getBlockCount() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Structure has too many blocks for a list: "
+                    + reader.getBlockCount());
+        }
+        this.reader = reader;
+        List<StructureFileFormat.SectionEntry> ordered = new ArrayList<>(reader.getSections());
+        ordered.sort(Comparator.comparingInt(entry -> entry.y));
+        this.sections = ordered.toArray(new StructureFileFormat.SectionEntry[0]);
+        this.starts = new int[sections.length];
+        int total = 0;
+        for (int i = 0; i < sections.length; i++) {
+            starts[i] = total;
+            total += sections[i].blockCount;
+        }
+        this.size = total;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public BlockData get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        int section = sectionOf(starts, index);
+        if (section != cachedSection) {
+            load(section);
+        }
+        int local = cachedIndices[index - starts[section]];
+        StructureFileFormat.SectionEntry entry = sections[section];
+        BlockPos offset = reader.getOffset();
+        BlockPos pos = new BlockPos(
+                offset.getX() + entry.x * StructureSection.SIZE + (local & 15),
+                offset.getY() + entry.y * StructureSection.SIZE + ((local >> 4) & 15),
+                offset.getZ() + entry.z * StructureSection.SIZE + (local >> 8));
+        return new BlockData(pos, cached.getState(local), cached.getBlockEntityTag(local));
+    }
+
+    private void load(int section) {
+        StructureSection decoded;
+        try {
+            decoded = reader.readSection(sections[section]);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read structure section", e);
+        }
+        short[] indices = new short[decoded.getBlockCount()];
+        int n = 0;
+        for (int i = 0; i < StructureSection.VOLUME; i++) {
+            if (decoded.getId(i) != 0) {
+                indices[n++] = (short) i;
+            }
+        }
+        if (n != indices.length || n != sections[section].blockCount) {
+            throw new UncheckedIOException(new IOException("Section " + sections[section].x + ","
+                    + sections[section].y + "," + sections[section].z + " does not match its directory entry"));
+        }
+        cached = decoded;
+        cachedIndices = indices;
+        cachedSection = section;
+    }
+
+    /**
+     * Position of the section holding list index {@code index}: the last
+     * section whose start is at or before it. Empty sections share their start
+     * with the next one and are skipped.
+     */
+    static int sectionOf(int[] starts, int index) {
+        int found = Arrays.binarySearch(starts, index);
+        if (found < 0) {
+            return -found - 2;
+        }
+        // Runs of equal starts come from sections without blocks; take the last
+        while (found + 1 < starts.length && starts[found + 1] == index) {
+            found++;
+        }
+        return found;
+    }
+}
@@ -0,0 +1,241 @@
+package com.teleportapi.structure;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.nbt.NbtUtils;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToIntFunction;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Layout of structure files ({@code .tps}), shared by
+ * {@link StructureFileWriter} and {@link StructureFileReader}. All numbers are
+ * big-endian.
+ *
+ * <pre>
+ * header (64 bytes)
+ *   int  magic "TPST", int version
+ *   int  sizeX, sizeY, sizeZ, int offsetX, offsetY, offsetZ
+ *   long directoryPosition, long directoryLength (0 until the writer closes)
+ *   padding
+ * section records, in the order they were written
+ *   int  local palette size n (entry 0 is always "not captured")
+ *   int  global palette id for local entries 1..n-1
+ *   byte bits, then the 4096 local ids packed with {@link BitPacking}
+ *   int  length, then that many bytes of deflated NBT:
+ *        int count, (short index, tag) block entities; int count, entity tags
+ * directory (deflated)
+ *   int  palette size, block state tags for global ids 1..
+ *   int  section count, per section: int x, y, z, long position,
+ *        int length, int blocks, int entities
+ * </pre>
+ *
+ * A streaming writer only knows the palette and the section table once the
+ * last section is written, so they live in the directory at the end and the
+ * header points to them. Packed ids are stored raw so a section can be
+ * decoded straight from a mapped buffer without inflating anything but its
+ * NBT.
+ */
+public final class StructureFileFormat {
+    public static final int MAGIC = 0x54505354; // "TPST"
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 64;
+    public static final String EXTENSION = ".tps";
+
+    /**
+     * Directory entry of one section.
+     */
+    public static final class SectionEntry {
+        public final int x, y, z;
+        public final long position;
+        public final int length;
+        public final int blockCount;
+        public final int entityCount;
+
+        SectionEntry(int x, int y, int z, long position, int length, int blockCount, int entityCount) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.position = position;
+            this.length = length;
+            this.blockCount = blockCount;
+            this.entityCount = entityCount;
+        }
+    }
+
+    private StructureFileFormat() {
+    }
+
+    static byte[] encodeSection(StructureSection section, ToIntFunction<BlockState> globalId) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        List<BlockState> palette = section.getPalette();
+        out.writeInt(palette.size());
+        for (int local = 1; local < palette.size(); local++) {
+            out.writeInt(globalId.applyAsInt(palette.get(local)));
+        }
+
+        int bits = BitPacking.bitsFor(palette.size());
+        out.writeByte(bits);
+        if (bits > 0) {
+            int[] ids = new int[StructureSection.VOLUME];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = section.getId(i);
+            }
+            for (long word : BitPacking.pack(ids, bits)) {
+                out.writeLong(word);
+            }
+        }
+
+        Int2ObjectMap<CompoundTag> blockEntities = section.getBlockEntities();
+        List<CompoundTag> entities = section.getEntities();
+        if (blockEntities.isEmpty() && entities.isEmpty()) {
+            out.writeInt(0);
+        } else {
+            byte[] nbt = deflateNbt(blockEntities, entities);
+            out.writeInt(nbt.length);
+            out.write(nbt);
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static byte[] deflateNbt(Int2ObjectMap<CompoundTag> blockEntities, List<CompoundTag> entities)
+            throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes, deflater, 4096))) {
+            out.writeInt(blockEntities.size());
+            for (Int2ObjectMap.Entry<CompoundTag> entry : blockEntities.int2ObjectEntrySet()) {
+                out.writeShort(entry.getIntKey());
+                NbtIo.write(entry.getValue(), out);
+            }
+            out.writeInt(entities.size());
+            for (CompoundTag entity : entities) {
+                NbtIo.write(entity, out);
+            }
+        } finally {
+            deflater.end();
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decode one section record. {@code buffer} is positioned at the record
+     * and left after it.
+     */
+    static StructureSection decodeSection(ByteBuffer buffer, List<BlockState> globalPalette) throws IOException {
+        int paletteSize = buffer.getInt();
+        if (paletteSize < 1 || paletteSize > StructureSection.VOLUME + 1) {
+            throw new IOException("Corrupt section palette size " + paletteSize);
+        }
+        List<BlockState> palette = new ArrayList<>(paletteSize);
+        palette.add(null);
+        for (int local = 1; local < paletteSize; local++) {
+            int global = buffer.getInt();
+            if (global <= 0 || global >= globalPalette.size()) {
+                throw new IOException("Palette id " + global + " out of range");
+            }
+            palette.add(globalPalette.get(global));
+        }
+
+        int bits = buffer.get();
+        if (bits != BitPacking.bitsFor(paletteSize)) {
+            throw new IOException("Corrupt section: " + bits + " bits for " + paletteSize + " palette entries");
+        }
+        long[] packed = new long[BitPacking.longsFor(StructureSection.VOLUME, bits)];
+        buffer.asLongBuffer().get(packed);
+        buffer.position(buffer.position() + packed.length * Long.BYTES);
+        int[] ids = BitPacking.unpack(packed, bits, StructureSection.VOLUME);
+
+        StructureSection section = new StructureSection();
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] >= paletteSize) {
+                throw new IOException("Local id " + ids[i] + " out of range at " + i);
+            }
+            if (ids[i] != 0) {
+                section.set(i, palette.get(ids[i]), null);
+            }
+        }
+
+        int nbtLength = buffer.getInt();
+        if (nbtLength > 0) {
+            byte[] nbt = new byte[nbtLength];
+            buffer.get(nbt);
+            try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(nbt)))) {
+                int blockEntityCount = in.readInt();
+                for (int i = 0; i < blockEntityCount; i++) {
+                    int index = in.readUnsignedShort();
+                    CompoundTag tag = NbtIo.read(in);
+                    BlockState state = section.getState(index);
+                    if (state != null) {
+                        section.set(index, state, tag);
+                    }
+                }
+                int entityCount = in.readInt();
+                for (int i = 0; i < entityCount; i++) {
+                    section.addEntity(NbtIo.read(in));
+                }
+            }
+        }
+        return section;
+    }
+
+    static byte[] encodeDirectory(List<BlockState> palette, List<SectionEntry> sections) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes, deflater, 8192))) {
+            out.writeInt(palette.size() - 1);
+            for (int id = 1; id < palette.size(); id++) {
+                NbtIo.write(NbtUtils.writeBlockState(palette.get(id)), out);
+            }
+            out.writeInt(sections.size());
+            for (SectionEntry entry : sections) {
+                out.writeInt(entry.x);
+                out.writeInt(entry.y);
+                out.writeInt(entry.z);
+                out.writeLong(entry.position);
+                out.writeInt(entry.length);
+                out.writeInt(entry.blockCount);
+                out.writeInt(entry.entityCount);
+            }
+        } finally {
+            deflater.end();
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decode the directory into {@code palette} (starting with the
+     * {@code null} entry) and {@code sections}.
+     */
+    static void decodeDirectory(byte[] data, List<BlockState> palette, List<SectionEntry> sections)
+            throws IOException {
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(data)))) {
+            int paletteSize = in.readInt();
+            palette.add(null);
+            for (int i = 0; i < paletteSize; i++) {
+                palette.add(NbtUtils.readBlockState(BuiltInRegistries.BLOCK.asLookup(), NbtIo.read(in)));
+            }
+            int sectionCount = in.readInt();
+            for (int i = 0; i < sectionCount; i++) {
+                sections.add(new SectionEntry(in.readInt(), in.readInt(), in.readInt(), in.readLong(), in.readInt(),
+                        in.readInt(), in.readInt()));
+            }
+        }
+    }
+}
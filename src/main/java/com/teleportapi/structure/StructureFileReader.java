@@ -0,0 +1,228 @@
+package com.teleportapi.structure;
+
+import com.teleportapi.StructureSnapshot;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.block.state.BlockState;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Random access to a {@link StructureFileFormat} file.
+ * <p>
+ * Opening reads only the header and directory; {@link #readSection} then
+ * decodes one section with a single positional read, so a paste can walk the
+ * file section by section without loading the structure. A reader from
+ * {@link #map} serves sections from a read-only memory mapping instead, so
+ * the encoded structure lives in the page cache rather than on the heap.
+ * Reads do not share state, so one reader can serve several threads.
+ */
+public final class StructureFileReader implements Closeable {
+    private final FileChannel channel;
+    private final MappedByteBuffer mapped;
+    private final int sizeX, sizeY, sizeZ;
+    private final BlockPos offset;
+    private final List<BlockState> palette = new ArrayList<>();
+    private final List<StructureFileFormat.SectionEntry> sections = new ArrayList<>();
+    private final Long2ObjectMap<StructureFileFormat.SectionEntry> sectionIndex = new Long2ObjectOpenHashMap<>();
+    private final long blockCount;
+
+    /**
+     * Visitor for {@link #forEachSection}.
+     */
+    @FunctionalInterface
+    public interface SectionVisitor {
+        void accept(int sectionX, int sectionY, int sectionZ, StructureSection section) throws IOException;
+    }
+
+    private StructureFileReader(FileChannel channel, MappedByteBuffer mapped) throws IOException {
+        this.channel = channel;
+        this.mapped = mapped;
+        ByteBuffer header = read(0L, StructureFileFormat.HEADER_SIZE);
+        if (header.getInt() != StructureFileFormat.MAGIC) {
+            throw new IOException("Not a structure file");
+        }
+        int version = header.getInt();
+        if (version != StructureFileFormat.VERSION) {
+            throw new IOException("Unsupported structure file version " + version);
+        }
+        this.sizeX = header.getInt();
+        this.sizeY = header.getInt();
+        this.sizeZ = header.getInt();
+        this.offset = new BlockPos(header.getInt(), header.getInt(), header.getInt());
+        long directoryPosition = header.getLong();
+        long directoryLength = header.getLong();
+        if (sizeX <= 0 || sizeY <= 0 || sizeZ <= 0) {
+            throw new IOException("Corrupt structure size " + sizeX + "x" + sizeY + "x" + sizeZ);
+        }
+        long fileSize = mapped != null ? mapped.capacity() : channel.size();
+        if (directoryPosition < StructureFileFormat.HEADER_SIZE || directoryLength <= 0
+                || directoryLength > Integer.MAX_VALUE || directoryPosition + directoryLength > fileSize) {
+            throw new IOException("Incomplete structure file");
+        }
+
+        byte[] directory = new byte[(int) directoryLength];
+        read(directoryPosition, directory.length).get(directory);
+        StructureFileFormat.decodeDirectory(directory, palette, sections);
+
+        BlockPos counts = StructureSection.sectionsFor(sizeX, sizeY, sizeZ);
+        long blocks = 0;
+        for (StructureFileFormat.SectionEntry entry : sections) {
+            if (entry.x < 0 || entry.y < 0 || entry.z < 0 || entry.x >= counts.getX() || entry.y >= counts.getY()
+                    || entry.z >= counts.getZ() || entry.position < StructureFileFormat.HEADER_SIZE
+                    || entry.position + entry.length > directoryPosition) {
+                throw new IOException("Corrupt section entry " + entry.x + "," + entry.y + "," + entry.z);
+            }
+            sectionIndex.put(BlockPos.asLong(entry.x, entry.y, entry.z), entry);
+            blocks += entry.blockCount;
+        }
+        this.blockCount = blocks;
+    }
+
+    public static StructureFileReader open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new StructureFileReader(channel, null);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Map {@code file} read-only. Only the header and directory are decoded
+     * now. The mapping stays valid after the file channel is closed and is
+     * released once the reader is garbage collected; {@link #close()} does
+     * nothing.
+     */
+    public static StructureFileReader map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Structure file too large to map (" + size + " bytes), use open()");
+            }
+            return new StructureFileReader(null, channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        }
+    }
+
+    public boolean isMapped() {
+        return mapped != null;
+    }
+
+    /**
+     * Size of the encoded file, i.e. the mapped bytes for a mapped reader.
+     */
+    public long getFileSize() throws IOException {
+        return mapped != null ? mapped.capacity() : channel.size();
+    }
+
+    public int getSizeX() {
+        return sizeX;
+    }
+
+    public int getSizeY() {
+        return sizeY;
+    }
+
+    public int getSizeZ() {
+        return sizeZ;
+    }
+
+    /**
+     * Position of local (0,0,0) relative to the structure origin.
+     */
+    public BlockPos getOffset() {
+        return offset;
+    }
+
+    public long getBlockCount() {
+        return blockCount;
+    }
+
+    /**
+     * Global palette, entry 0 is always {@code null}.
+     */
+    public List<BlockState> getPalette() {
+        return Collections.unmodifiableList(palette);
+    }
+
+    /**
+     * Directory entries of the stored (non-empty) sections, in file order.
+     */
+    public List<StructureFileFormat.SectionEntry> getSections() {
+        return Collections.unmodifiableList(sections);
+    }
+
+    public boolean hasSection(int sectionX, int sectionY, int sectionZ) {
+        return sectionIndex.containsKey(BlockPos.asLong(sectionX, sectionY, sectionZ));
+    }
+
+    /**
+     * Decode one section, or {@code null} if it is empty.
+     */
+    @Nullable
+    public StructureSection readSection(int sectionX, int sectionY, int sectionZ) throws IOException {
+        StructureFileFormat.SectionEntry entry = sectionIndex.get(BlockPos.asLong(sectionX, sectionY, sectionZ));
+        return entry == null ? null : readSection(entry);
+    }
+
+    public StructureSection readSection(StructureFileFormat.SectionEntry entry) throws IOException {
+        return StructureFileFormat.decodeSection(read(entry.position, entry.length), palette);
+    }
+
+    /**
+     * Decode every stored section in file order, one at a time.
+     */
+    public void forEachSection(SectionVisitor visitor) throws IOException {
+        for (StructureFileFormat.SectionEntry entry : sections) {
+            visitor.accept(entry.x, entry.y, entry.z, readSection(entry));
+        }
+    }
+
+    /**
+     * Load the whole structure into memory.
+     */
+    public StructureSnapshot toSnapshot() throws IOException {
+        StructureSnapshot snapshot = new StructureSnapshot(sizeX, sizeY, sizeZ, offset);
+        forEachSection((x, y, z, section) -> section.copyInto(snapshot, x * StructureSection.SIZE,
+                y * StructureSection.SIZE, z * StructureSection.SIZE));
+        return snapshot;
+    }
+
+    private ByteBuffer read(long position, int length) throws IOException {
+        if (mapped != null) {
+            // Independent view, so concurrent reads never share a position
+            return mapped.slice((int) position, length);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        long pos = position;
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, pos);
+            if (n < 0) {
+                throw new EOFException("Structure file truncated at " + pos);
+            }
+            pos += n;
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.teleportapi.structure;
+
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams a structure to a {@link StructureFileFormat} file one
+ * {@link StructureSection} at a time, so only the global palette and the
+ * section table stay in memory.
+ * <p>
+ * Data goes to a temporary file next to the target that replaces it on
+ * {@link #close()}, so an interrupted export never leaves a half-written file
+ * under the real name. Not thread safe.
+ */
+public final class StructureFileWriter implements Closeable {
+    private final Path file;
+    private final Path tempFile;
+    private final FileChannel channel;
+    private final int sizeX, sizeY, sizeZ;
+    private final BlockPos offset;
+    private final BlockPos sectionCounts;
+
+    private final List<BlockState> palette = new ArrayList<>();
+    private final Map<BlockState, Integer> paletteIds = new IdentityHashMap<>();
+    private final List<StructureFileFormat.SectionEntry> sections = new ArrayList<>();
+    private final LongSet written = new LongOpenHashSet();
+    private long position = StructureFileFormat.HEADER_SIZE;
+    private long blockCount = 0;
+    private boolean closed = false;
+
+    /**
+     * @param offset position of local (0,0,0) relative to the structure
+     *               origin, as in {@link com.teleportapi.StructureSnapshot}
+     */
+    public StructureFileWriter(Path file, int sizeX, int sizeY, int sizeZ, BlockPos offset) throws IOException {
+        if (sizeX <= 0 || sizeY <= 0 || sizeZ <= 0) {
+            throw new IllegalArgumentException("Structure size must be positive: " + sizeX + "x" + sizeY + "x" + sizeZ);
+        }
+        this.file = file;
+        this.sizeX = sizeX;
+        this.sizeY = sizeY;
+        this.sizeZ = sizeZ;
+        this.offset = offset;
+        this.sectionCounts = StructureSection.sectionsFor(sizeX, sizeY, sizeZ);
+        this.palette.add(null);
+
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        this.channel = FileChannel.open(tempFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        writeHeader(0L, 0L);
+    }
+
+    /**
+     * Append a section. Empty sections are skipped; every section may be
+     * written once.
+     */
+    public void writeSection(int sectionX, int sectionY, int sectionZ, StructureSection section) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("Writer is closed");
+        }
+        if (sectionX < 0 || sectionY < 0 || sectionZ < 0 || sectionX >= sectionCounts.getX()
+                || sectionY >= sectionCounts.getY() || sectionZ >= sectionCounts.getZ()) {
+            throw new IllegalArgumentException("Section " + sectionX + "," + sectionY + "," + sectionZ
+                    + " outside the structure");
+        }
+        if (!written.add(BlockPos.asLong(sectionX, sectionY, sectionZ))) {
+            throw new IllegalArgumentException("Section " + sectionX + "," + sectionY + "," + sectionZ
+                    + " written twice");
+        }
+        if (section.isEmpty()) {
+            return;
+        }
+
+        byte[] record = StructureFileFormat.encodeSection(section, this::globalId);
+        writeFully(ByteBuffer.wrap(record), position);
+        sections.add(new StructureFileFormat.SectionEntry(sectionX, sectionY, sectionZ, position, record.length,
+                section.getBlockCount(), section.getEntities().size()));
+        position += record.length;
+        blockCount += section.getBlockCount();
+    }
+
+    private int globalId(BlockState state) {
+        Integer id = paletteIds.get(state);
+        if (id == null) {
+            id = palette.size();
+            palette.add(state);
+            paletteIds.put(state, id);
+        }
+        return id;
+    }
+
+    public long getBlockCount() {
+        return blockCount;
+    }
+
+    public int getSectionCount() {
+        return sections.size();
+    }
+
+    public long getBytesWritten() {
+        return position;
+    }
+
+    /**
+     * Write the directory and header and move the file into place. If that
+     * fails the temporary file is deleted and nothing is published.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            try (channel) {
+                byte[] directory = StructureFileFormat.encodeDirectory(palette, sections);
+                writeFully(ByteBuffer.wrap(directory), position);
+                writeHeader(position, directory.length);
+                channel.force(false);
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            deleteTempFile();
+            throw e;
+        }
+    }
+
+    /**
+     * Close without publishing the file, e.g. after a failed export.
+     */
+    public void abort() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // The temp file is deleted either way
+        }
+        deleteTempFile();
+    }
+
+    private void deleteTempFile() {
+        try {
+            Files.deleteIfExists(tempFile);
+        } catch (IOException e) {
+            // Nothing was published; a stale temp file is overwritten next time
+        }
+    }
+
+    private void writeHeader(long directoryPosition, long directoryLength) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(StructureFileFormat.HEADER_SIZE);
+        header.putInt(StructureFileFormat.MAGIC);
+        header.putInt(StructureFileFormat.VERSION);
+        header.putInt(sizeX).putInt(sizeY).putInt(sizeZ);
+        header.putInt(offset.getX()).putInt(offset.getY()).putInt(offset.getZ());
+        header.putLong(directoryPosition);
+        header.putLong(directoryLength);
+        header.rewind();
+        writeFully(header, 0L);
+    }
+
+    private void writeFully(ByteBuffer buffer, long at) throws IOException {
+        long pos = at;
+        while (buffer.hasRemaining()) {
+            pos += channel.write(buffer, pos);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.teleportapi.structure;
+
+import com.teleportapi.StructureSnapshot;
+import com.teleportapi.StructureTeleporter;
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.DoubleTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.phys.AABB;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Entry points for structure files: export a region of a level straight to
+ * disk, and convert between files and {@link StructureSnapshot}s. Besides our
+ * own {@code .tps} files, {@link #read} and {@link #write} handle vanilla
+ * structure templates ({@code .nbt}) and Sponge schematics ({@code .schem}) by
+ * extension.
+ */
+public final class StructureFiles {
+    private StructureFiles() {
+    }
+
+    /**
+     * Capture {@code min..max} of {@code level} into {@code file} one section
+     * at a time, so memory use does not grow with the region. The structure
+     * origin is {@code min}. Runs synchronously and loads chunks as it goes;
+     * call it from a command or tool, not every tick.
+     *
+     * @param includeAir      also store air, so pasting clears the destination
+     * @param includeEntities store non-player entities, with {@code Pos}
+     *                        relative to {@code min}
+     * @return number of blocks written
+     */
+    @SuppressWarnings("null")
+    public static long export(Level level, BlockPos min, BlockPos max, Path file, boolean includeAir,
+            boolean includeEntities) throws IOException {
+        BlockPos lo = new BlockPos(Math.min(min.getX(), max.getX()), Math.min(min.getY(), max.getY()),
+                Math.min(min.getZ(), max.getZ()));
+        BlockPos hi = new BlockPos(Math.max(min.getX(), max.getX()), Math.max(min.getY(), max.getY()),
+                Math.max(min.getZ(), max.getZ()));
+        int sizeX = hi.getX() - lo.getX() + 1;
+        int sizeY = hi.getY() - lo.getY() + 1;
+        int sizeZ = hi.getZ() - lo.getZ() + 1;
+        BlockPos counts = StructureSection.sectionsFor(sizeX, sizeY, sizeZ);
+
+        StructureFileWriter writer = new StructureFileWriter(file, sizeX, sizeY, sizeZ, BlockPos.ZERO);
+        try {
+            // Bottom-up, so a streaming paste reading in file order places supports first
+            for (int sy = 0; sy < counts.getY(); sy++) {
+                for (int sz = 0; sz < counts.getZ(); sz++) {
+                    for (int sx = 0; sx < counts.getX(); sx++) {
+                        int baseX = sx * StructureSection.SIZE;
+                        int baseY = sy * StructureSection.SIZE;
+                        int baseZ = sz * StructureSection.SIZE;
+                        int endX = Math.min(StructureSection.SIZE, sizeX - baseX);
+                        int endY = Math.min(StructureSection.SIZE, sizeY - baseY);
+                        int endZ = Math.min(StructureSection.SIZE, sizeZ - baseZ);
+
+                        // Read from the chunk sections and cleaned like a teleport capture
+                        StructureSection section = new StructureSection();
+                        BlockPos sectionMin = lo.offset(baseX, baseY, baseZ);
+                        StructureTeleporter.captureRegion(level, sectionMin,
+                                sectionMin.offset(endX - 1, endY - 1, endZ - 1), includeAir, section::set);
+
+                        if (includeEntities) {
+                            addEntities(level, lo, section, lo.getX() + baseX, lo.getY() + baseY, lo.getZ() + baseZ,
+                                    endX, endY, endZ);
+                        }
+                        writer.writeSection(sx, sy, sz, section);
+                    }
+                }
+            }
+            long written = writer.getBlockCount();
+            writer.close();
+            return written;
+        } catch (IOException | RuntimeException e) {
+            writer.abort();
+            throw e;
+        }
+    }
+
+    private static void addEntities(Level level, BlockPos origin, StructureSection section, int x, int y, int z,
+            int sizeX, int sizeY, int sizeZ) {
+        // Each entity belongs to the section containing its position
+        AABB box = new AABB(x, y, z, x + sizeX, y + sizeY, z + sizeZ);
+        List<Entity> entities = level.getEntitiesOfClass(Entity.class, box,
+                entity -> !(entity instanceof Player) && box.contains(entity.position()));
+        for (Entity entity : entities) {
+            CompoundTag tag = new CompoundTag();
+            if (!entity.save(tag)) {
+                continue; // passengers are saved with their vehicle
+            }
+            ListTag pos = new ListTag();
+            pos.add(DoubleTag.valueOf(entity.getX() - origin.getX()));
+            pos.add(DoubleTag.valueOf(entity.getY() - origin.getY()));
+            pos.add(DoubleTag.valueOf(entity.getZ() - origin.getZ()));
+            tag.put("Pos", pos);
+            section.addEntity(tag);
+        }
+    }
+
+    /**
+     * Write a snapshot in the format given by the file extension; anything
+     * but {@code .nbt} and {@code .schem} is written section by section as a
+     * structure file.
+     */
+    public static void write(StructureSnapshot snapshot, Path file) throws IOException {
+        String name = file.getFileName().toString();
+        if (name.endsWith(VanillaStructureFormat.EXTENSION)) {
+            VanillaStructureFormat.write(snapshot, file);
+            return;
+        }
+        if (name.endsWith(SpongeSchematicFormat.EXTENSION)) {
+            SpongeSchematicFormat.write(snapshot, file);
+            return;
+        }
+        BlockPos counts = StructureSection.sectionsFor(snapshot.getSizeX(), snapshot.getSizeY(),
+                snapshot.getSizeZ());
+        StructureFileWriter writer = new StructureFileWriter(file, snapshot.getSizeX(), snapshot.getSizeY(),
+                snapshot.getSizeZ(), snapshot.getOffset());
+        try {
+            for (int sy = 0; sy < counts.getY(); sy++) {
+                for (int sz = 0; sz < counts.getZ(); sz++) {
+                    for (int sx = 0; sx < counts.getX(); sx++) {
+                        StructureSection section = StructureSection.of(snapshot, sx, sy, sz);
+                        if (section != null) {
+                            writer.writeSection(sx, sy, sz, section);
+                        }
+                    }
+                }
+            }
+            writer.close();
+        } catch (IOException | RuntimeException e) {
+            writer.abort();
+            throw e;
+        }
+    }
+
+    /**
+     * Load a whole structure into a snapshot, converting {@code .nbt}
+     * templates and {@code .schem} schematics (air included in both)
+     * directly.
+     */
+    public static StructureSnapshot read(Path file) throws IOException {
+        String name = file.getFileName().toString();
+        if (name.endsWith(VanillaStructureFormat.EXTENSION)) {
+            return VanillaStructureFormat.read(file, true);
+        }
+        if (name.endsWith(SpongeSchematicFormat.EXTENSION)) {
+            return SpongeSchematicFormat.read(file, true);
+        }
+        try (StructureFileReader reader = StructureFileReader.open(file)) {
+            return reader.toSnapshot();
+        }
+    }
+}
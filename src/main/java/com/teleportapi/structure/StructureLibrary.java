@@ -0,0 +1,163 @@
+package com.teleportapi.structure;
+
+import com.teleportapi.StructureSnapshot;
+import com.teleportapi.TeleportAPI;
+import net.minecraftforge.event.server.ServerStoppingEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Named structure files kept ready for pasting.
+ * <p>
+ * Files are memory-mapped with {@link StructureFileReader#map}; loading
+ * decodes only the header and section directory, and a section is decoded
+ * when a paste reaches it. The encoded data stays off-heap in the page cache,
+ * so a large library costs little more than its palettes and directories.
+ * Hand the readers to
+ * {@link com.teleportapi.StructureTeleporter#pasteStructure(StructureFileReader, net.minecraft.core.BlockPos,
+ * net.minecraft.world.level.Level, com.teleportapi.PasteMode, java.util.List)} or
+ * {@link com.teleportapi.StructureTeleporter#pasteStructureAsync}.
+ * <p>
+ * Blueprints kept in memory instead of in a file are stored as
+ * {@link SectionedSnapshot}s, so their sections are shared with each other and
+ * with undo history through the {@link SectionStore}. Cleared when the server
+ * stops.
+ */
+public final class StructureLibrary {
+    private static final StructureLibrary INSTANCE = new StructureLibrary();
+
+    private final Map<String, StructureFileReader> structures = new ConcurrentHashMap<>();
+    private final Map<String, SectionedSnapshot> blueprints = new ConcurrentHashMap<>();
+
+    private StructureLibrary() {
+    }
+
+    public static StructureLibrary getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Map {@code file} under {@code name}, replacing any structure of that
+     * name.
+     */
+    public StructureFileReader load(String name, Path file) throws IOException {
+        StructureFileReader reader = StructureFileReader.map(file);
+        structures.put(name, reader);
+        return reader;
+    }
+
+    /**
+     * Map every {@code .tps} file in {@code directory}, named after the file
+     * without its extension. Files that fail to load are logged and skipped.
+     *
+     * @return number of structures loaded
+     */
+    public int loadDirectory(Path directory) throws IOException {
+        int loaded = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory,
+                "*" + StructureFileFormat.EXTENSION)) {
+            for (Path file : files) {
+                String fileName = file.getFileName().toString();
+                String name = fileName.substring(0, fileName.length() - StructureFileFormat.EXTENSION.length());
+                try {
+                    load(name, file);
+                    loaded++;
+                } catch (IOException e) {
+                    TeleportAPI.LOGGER.warn("[TeleportAPI] Skipping structure file {}: {}", file, e.getMessage());
+                }
+            }
+        }
+        return loaded;
+    }
+
+    @Nullable
+    public StructureFileReader get(String name) {
+        return structures.get(name);
+    }
+
+    /**
+     * Forget a structure. Pastes already running keep their reader; the
+     * mapping is released once nothing refers to it.
+     */
+    public boolean unload(String name) {
+        return structures.remove(name) != null;
+    }
+
+    public Set<String> getNames() {
+        return Set.copyOf(structures.keySet());
+    }
+
+    public int size() {
+        return structures.size();
+    }
+
+    /**
+     * Keep {@code snapshot} in memory under {@code name}, replacing (and
+     * releasing) any blueprint of that name.
+     */
+    public SectionedSnapshot putBlueprint(String name, StructureSnapshot snapshot) {
+        SectionedSnapshot blueprint = SectionedSnapshot.of(snapshot, SectionStore.getInstance());
+        SectionedSnapshot previous = blueprints.put(name, blueprint);
+        if (previous != null) {
+            previous.release();
+        }
+        return blueprint;
+    }
+
+    @Nullable
+    public SectionedSnapshot getBlueprint(String name) {
+        return blueprints.get(name);
+    }
+
+    /**
+     * Forget a blueprint and release its sections; it cannot be decoded
+     * afterwards.
+     */
+    public boolean removeBlueprint(String name) {
+        SectionedSnapshot blueprint = blueprints.remove(name);
+        if (blueprint == null) {
+            return false;
+        }
+        blueprint.release();
+        return true;
+    }
+
+    public Set<String> getBlueprintNames() {
+        return Set.copyOf(blueprints.keySet());
+    }
+
+    /**
+     * Total size of the mapped files.
+     */
+    public long getMappedBytes() {
+        long total = 0;
+        for (StructureFileReader reader : structures.values()) {
+            try {
+                total += reader.getFileSize();
+            } catch (IOException e) {
+                // Mapped readers never fail here
+            }
+        }
+        return total;
+    }
+
+    public void clear() {
+        structures.clear();
+        for (String name : blueprints.keySet()) {
+            removeBlueprint(name);
+        }
+    }
+
+    @SubscribeEvent
+    public void onServerStopping(ServerStoppingEvent event) {
+        clear();
+    }
+}
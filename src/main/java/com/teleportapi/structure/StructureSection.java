@@ -0,0 +1,185 @@
+package com.teleportapi.structure;
+
+import com.teleportapi.StructureSnapshot;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.world.level.block.state.BlockState;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One 16x16x16 cube of a structure file, the unit the file is written and
+ * read in.
+ * <p>
+ * Coordinates are local to the section (0..15). Voxels keep an id into a small
+ * section palette whose entry 0 is {@code null} ("not captured"), like
+ * {@link StructureSnapshot}. Entity tags are stored as given; the exporter
+ * writes their {@code Pos} relative to the structure origin.
+ */
+public final class StructureSection {
+    public static final int SIZE = 16;
+    public static final int VOLUME = SIZE * SIZE * SIZE;
+
+    private final List<BlockState> palette = new ArrayList<>();
+    private final Map<BlockState, Integer> paletteIds = new IdentityHashMap<>();
+    private final int[] ids = new int[VOLUME];
+    private final Int2ObjectMap<CompoundTag> blockEntities = new Int2ObjectOpenHashMap<>();
+    private final List<CompoundTag> entities = new ArrayList<>();
+    private int blockCount;
+
+    public StructureSection() {
+        palette.add(null);
+    }
+
+    public static int index(int x, int y, int z) {
+        return x + SIZE * (y + SIZE * z);
+    }
+
+    public void set(int x, int y, int z, @Nullable BlockState state, @Nullable CompoundTag nbt) {
+        set(index(x, y, z), state, nbt);
+    }
+
+    public void set(int index, @Nullable BlockState state, @Nullable CompoundTag nbt) {
+        int id = state == null ? 0 : idFor(state);
+        int previous = ids[index];
+        ids[index] = id;
+        if (previous == 0 && id != 0) {
+            blockCount++;
+        } else if (previous != 0 && id == 0) {
+            blockCount--;
+        }
+        if (nbt != null && id != 0) {
+            blockEntities.put(index, nbt);
+        } else {
+            blockEntities.remove(index);
+        }
+    }
+
+    private int idFor(BlockState state) {
+        Integer id = paletteIds.get(state);
+        if (id == null) {
+            id = palette.size();
+            palette.add(state);
+            paletteIds.put(state, id);
+        }
+        return id;
+    }
+
+    @Nullable
+    public BlockState getState(int x, int y, int z) {
+        return getState(index(x, y, z));
+    }
+
+    @Nullable
+    public BlockState getState(int index) {
+        return palette.get(ids[index]);
+    }
+
+    @Nullable
+    public CompoundTag getBlockEntityTag(int index) {
+        return blockEntities.get(index);
+    }
+
+    public void addEntity(CompoundTag tag) {
+        entities.add(tag);
+    }
+
+    public List<CompoundTag> getEntities() {
+        return Collections.unmodifiableList(entities);
+    }
+
+    public int getBlockCount() {
+        return blockCount;
+    }
+
+    /**
+     * True when the section has neither blocks nor entities; such sections
+     * are not written.
+     */
+    public boolean isEmpty() {
+        return blockCount == 0 && entities.isEmpty();
+    }
+
+    /**
+     * Section palette, entry 0 is always {@code null}.
+     */
+    public List<BlockState> getPalette() {
+        return Collections.unmodifiableList(palette);
+    }
+
+    int getId(int index) {
+        return ids[index];
+    }
+
+    Int2ObjectMap<CompoundTag> getBlockEntities() {
+        return blockEntities;
+    }
+
+    /**
+     * Visit every captured voxel, x fastest then y then z.
+     */
+    public void forEachBlock(StructureSnapshot.BlockVisitor visitor) {
+        for (int index = 0; index < VOLUME; index++) {
+            int id = ids[index];
+            if (id != 0) {
+                visitor.accept(index & 15, (index >> 4) & 15, index >> 8, palette.get(id),
+                        blockEntities.get(index));
+            }
+        }
+    }
+
+    /**
+     * Copy the blocks into {@code snapshot}, with local (0,0,0) of this section
+     * at {@code (baseX, baseY, baseZ)} in the snapshot. Voxels outside the
+     * snapshot are ignored.
+     */
+    public void copyInto(StructureSnapshot snapshot, int baseX, int baseY, int baseZ) {
+        forEachBlock((x, y, z, state, nbt) -> {
+            int sx = baseX + x;
+            int sy = baseY + y;
+            int sz = baseZ + z;
+            if (sx >= 0 && sy >= 0 && sz >= 0 && sx < snapshot.getSizeX() && sy < snapshot.getSizeY()
+                    && sz < snapshot.getSizeZ()) {
+                snapshot.set(sx, sy, sz, state, nbt);
+            }
+        });
+    }
+
+    /**
+     * The part of {@code snapshot} covered by section {@code (sectionX,
+     * sectionY, sectionZ)}, or {@code null} if that part is empty.
+     */
+    @Nullable
+    public static StructureSection of(StructureSnapshot snapshot, int sectionX, int sectionY, int sectionZ) {
+        StructureSection section = new StructureSection();
+        int baseX = sectionX * SIZE;
+        int baseY = sectionY * SIZE;
+        int baseZ = sectionZ * SIZE;
+        int maxX = Math.min(SIZE, snapshot.getSizeX() - baseX);
+        int maxY = Math.min(SIZE, snapshot.getSizeY() - baseY);
+        int maxZ = Math.min(SIZE, snapshot.getSizeZ() - baseZ);
+        for (int z = 0; z < maxZ; z++) {
+            for (int y = 0; y < maxY; y++) {
+                for (int x = 0; x < maxX; x++) {
+                    int index = snapshot.index(baseX + x, baseY + y, baseZ + z);
+                    BlockState state = snapshot.getState(index);
+                    if (state != null) {
+                        section.set(x, y, z, state, snapshot.getBlockEntityTag(index));
+                    }
+                }
+            }
+        }
+        return section.isEmpty() ? null : section;
+    }
+
+    static BlockPos sectionsFor(int sizeX, int sizeY, int sizeZ) {
+        return new BlockPos((sizeX + SIZE - 1) / SIZE, (sizeY + SIZE - 1) / SIZE, (sizeZ + SIZE - 1) / SIZE);
+    }
+}
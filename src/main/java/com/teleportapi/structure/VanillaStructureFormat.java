@@ -0,0 +1,150 @@
+package com.teleportapi.structure;
+
+import com.teleportapi.StructureSnapshot;
+import net.minecraft.SharedConstants;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.IntTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.nbt.NbtUtils;
+import net.minecraft.nbt.Tag;
+import net.minecraft.util.SimpleBitStorage;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Converts between {@link StructureSnapshot}s and the NBT of vanilla
+ * structure templates ({@code .nbt}, as saved by structure blocks).
+ * <p>
+ * The template palette is mapped onto the snapshot palette once and block
+ * entries are written straight into its packed ids, so no scratch level or
+ * block list is involved. Voxels a template leaves out (structure voids) are
+ * "not captured" in the snapshot and vice versa; air is only kept when asked
+ * for, as with {@link SpongeSchematicFormat}. Only the first palette of
+ * multi-palette templates is read, and template entities are not carried
+ * over, as snapshots hold blocks only. States are read as-is, without
+ * upgrading templates saved by older versions.
+ */
+public final class VanillaStructureFormat {
+    public static final String EXTENSION = ".nbt";
+
+    private VanillaStructureFormat() {
+    }
+
+    public static StructureSnapshot read(Path file, boolean includeAir) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return read(NbtIo.readCompressed(in), includeAir);
+        }
+    }
+
+    /**
+     * @param includeAir keep air voxels, so pasting clears the destination
+     */
+    public static StructureSnapshot read(CompoundTag template, boolean includeAir) throws IOException {
+        ListTag size = template.getList("size", Tag.TAG_INT);
+        if (size.size() != 3) {
+            throw new IOException("Structure template has no size");
+        }
+
+        ListTag paletteTag = template.contains("palettes", Tag.TAG_LIST)
+                ? template.getList("palettes", Tag.TAG_LIST).getList(0)
+                : template.getList("palette", Tag.TAG_COMPOUND);
+        List<BlockState> palette = new ArrayList<>(paletteTag.size());
+        for (int i = 0; i < paletteTag.size(); i++) {
+            BlockState state = NbtUtils.readBlockState(BuiltInRegistries.BLOCK.asLookup(), paletteTag.getCompound(i));
+            // null entries are left out of the snapshot
+            palette.add(state.is(Blocks.STRUCTURE_VOID) || (state.isAir() && !includeAir) ? null : state);
+        }
+
+        SnapshotBuilder builder = new SnapshotBuilder(size.getInt(0), size.getInt(1), size.getInt(2), BlockPos.ZERO,
+                palette);
+        ListTag blocks = template.getList("blocks", Tag.TAG_COMPOUND);
+        for (int i = 0; i < blocks.size(); i++) {
+            CompoundTag block = blocks.getCompound(i);
+            ListTag pos = block.getList("pos", Tag.TAG_INT);
+            int x = pos.getInt(0);
+            int y = pos.getInt(1);
+            int z = pos.getInt(2);
+            if (pos.size() != 3 || !builder.contains(x, y, z)) {
+                throw new IOException("Structure template block " + i + " outside the template");
+            }
+            builder.set(x, y, z, block.getInt("state"));
+            if (block.contains("nbt", Tag.TAG_COMPOUND)) {
+                builder.setBlockEntity(x, y, z, block.getCompound("nbt"));
+            }
+        }
+        return builder.build();
+    }
+
+    public static void write(StructureSnapshot snapshot, Path file) throws IOException {
+        CompoundTag template = write(snapshot);
+        try (OutputStream out = Files.newOutputStream(file)) {
+            NbtIo.writeCompressed(template, out);
+        }
+    }
+
+    /**
+     * Template NBT for {@code snapshot}. The snapshot offset is dropped: the
+     * template origin is the snapshot's local (0,0,0).
+     */
+    public static CompoundTag write(StructureSnapshot snapshot) {
+        // Snapshot id n is template id n - 1
+        List<BlockState> states = snapshot.getPalette();
+        ListTag palette = new ListTag();
+        for (int id = 1; id < states.size(); id++) {
+            palette.add(NbtUtils.writeBlockState(states.get(id)));
+        }
+
+        SimpleBitStorage ids = SnapshotBuilder.idsOf(snapshot);
+        ListTag blocks = new ListTag();
+        for (int z = 0; z < snapshot.getSizeZ(); z++) {
+            for (int y = 0; y < snapshot.getSizeY(); y++) {
+                for (int x = 0; x < snapshot.getSizeX(); x++) {
+                    int index = snapshot.index(x, y, z);
+                    int id = ids.get(index);
+                    if (id == 0) {
+                        continue;
+                    }
+                    CompoundTag block = new CompoundTag();
+                    block.put("pos", intList(x, y, z));
+                    block.putInt("state", id - 1);
+                    CompoundTag nbt = snapshot.getBlockEntityTag(index);
+                    if (nbt != null) {
+                        CompoundTag copy = nbt.copy();
+                        copy.remove("x");
+                        copy.remove("y");
+                        copy.remove("z");
+                        block.put("nbt", copy);
+                    }
+                    blocks.add(block);
+                }
+            }
+        }
+
+        CompoundTag template = new CompoundTag();
+        template.put("size", intList(snapshot.getSizeX(), snapshot.getSizeY(), snapshot.getSizeZ()));
+        template.put("palette", palette);
+        template.put("blocks", blocks);
+        template.put("entities", new ListTag());
+        template.putInt("DataVersion", SharedConstants.getCurrentVersion().getDataVersion().getVersion());
+        return template;
+    }
+
+    private static ListTag intList(int x, int y, int z) {
+        ListTag list = new ListTag();
+        list.add(IntTag.valueOf(x));
+        list.add(IntTag.valueOf(y));
+        list.add(IntTag.valueOf(z));
+        return list;
+    }
+}
@@ -1,53 +1,165 @@
 package com.teleportapi.undo;
 
+import com.teleportapi.StructureSnapshot;
 import com.teleportapi.StructureTeleporter;
 import com.teleportapi.StructureTeleporter.BlockData;
 import com.teleportapi.StructureTeleporter.EntityData;
+import com.teleportapi.TeleportJob;
+import com.teleportapi.TeleportScheduler;
+import com.teleportapi.structure.SectionStore;
+import com.teleportapi.structure.SectionedSnapshot;
+import com.teleportapi.world.RegionLockManager;
 import net.minecraft.core.BlockPos;
 import net.minecraft.world.level.Level;
 
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 /**
  * Stores the context of a teleportation action to allow for undo operations.
+ * <p>
+ * Both snapshots are kept as {@link SectionedSnapshot}s in the shared
+ * {@link SectionStore}, so sections identical to those of other contexts (or
+ * stored blueprints) are held once, and only decoded on {@link #restore()},
+ * {@link #restoreAsync(int)} or when a getter asks for them. The
+ * {@link UndoManager} may move the encoded data to a file when the history
+ * is over its memory budget; it is read back lazily.
  */
 public class UndoContext {
     private final Level sourceLevel;
     private final Level targetLevel;
     private final BlockPos sourceOrigin;
     private final BlockPos targetOrigin;
-    private final List<BlockData> sourceSnapshot;
-    private final List<BlockData> targetSnapshot;
     private final List<EntityData> entities;
 
+    // Store references, null when absent or spilled
+    private SectionedSnapshot sourceData;
+    private SectionedSnapshot targetData;
+    private final long encodedSize;
+    private Path spillFile;
+
+    // World-space {min, max} written by a restore, null when that side is empty
+    private final BlockPos[] sourceBox;
+    private final BlockPos[] targetBox;
+
+    // Set by UndoManager when pushed
+    UUID owner;
+
+    /**
+     * Legacy list adapter. The lists are converted to palette-compressed
+     * snapshots so the history does not keep per-block objects alive.
+     */
     public UndoContext(Level sourceLevel, Level targetLevel, BlockPos sourceOrigin, BlockPos targetOrigin,
             List<BlockData> sourceSnapshot, List<BlockData> targetSnapshot, List<EntityData> entities) {
+        this(sourceLevel, targetLevel, sourceOrigin, targetOrigin, StructureSnapshot.fromBlockDataList(sourceSnapshot),
+                StructureSnapshot.fromBlockDataList(targetSnapshot), entities);
+    }
+
+    public UndoContext(Level sourceLevel, Level targetLevel, BlockPos sourceOrigin, BlockPos targetOrigin,
+            StructureSnapshot sourceSnapshot, StructureSnapshot targetSnapshot, List<EntityData> entities) {
         this.sourceLevel = sourceLevel;
         this.targetLevel = targetLevel;
         this.sourceOrigin = sourceOrigin;
         this.targetOrigin = targetOrigin;
-        this.sourceSnapshot = sourceSnapshot;
-        this.targetSnapshot = targetSnapshot;
         this.entities = entities;
+        this.sourceBox = box(sourceSnapshot, sourceOrigin);
+        this.targetBox = box(targetSnapshot, targetOrigin);
+        this.sourceData = encode(sourceSnapshot);
+        this.targetData = encode(targetSnapshot);
+        this.encodedSize = length(sourceData) + length(targetData);
+    }
+
+    private static SectionedSnapshot encode(StructureSnapshot snapshot) {
+        return snapshot != null && !snapshot.isEmpty()
+                ? SectionedSnapshot.of(snapshot, SectionStore.getInstance())
+                : null;
+    }
+
+    private static long length(SectionedSnapshot data) {
+        return data != null ? data.getEncodedSize() : 0;
+    }
+
+    private static BlockPos[] box(StructureSnapshot snapshot, BlockPos origin) {
+        if (snapshot == null || snapshot.isEmpty()) {
+            return null;
+        }
+        BlockPos min = origin.offset(snapshot.getOffset());
+        return new BlockPos[] { min,
+                min.offset(snapshot.getSizeX() - 1, snapshot.getSizeY() - 1, snapshot.getSizeZ() - 1) };
     }
 
     /**
      * Reverts the teleportation action.
+     *
+     * @throws UncheckedIOException if spilled snapshot data cannot be read
      */
     public void restore() {
+        StructureSnapshot[] payload = payload();
+
         // 1. Restore Target Area:
-        if (targetSnapshot != null && !targetSnapshot.isEmpty()) {
+        StructureSnapshot targetSnapshot = payload[1];
+        if (targetSnapshot != null) {
             StructureTeleporter.pasteStructure(targetSnapshot, targetOrigin, targetLevel,
                     com.teleportapi.PasteMode.FORCE_REPLACE, null);
         }
 
         // 2. Restore Source Area:
-        if (sourceSnapshot != null && !sourceSnapshot.isEmpty()) {
+        StructureSnapshot sourceSnapshot = payload[0];
+        if (sourceSnapshot != null) {
             StructureTeleporter.pasteStructure(sourceSnapshot, sourceOrigin, sourceLevel,
                     com.teleportapi.PasteMode.FORCE_REPLACE, null);
         }
 
         // 3. Teleport Entities back to Source:
+        restoreEntities();
+    }
+
+    /**
+     * Reverts the teleportation action over several ticks through the
+     * {@link TeleportScheduler}: target first, then source, then entities,
+     * like {@link #restore()}. The encoded data is decoded up front, so the
+     * context can be discarded as soon as this returns.
+     *
+     * @param blocksPerTick cap on blocks per tick on top of the scheduler's
+     *                      time budget, 0 for none
+     * @return the job tracking progress; it completes once entities are back
+     * @throws UncheckedIOException if spilled snapshot data cannot be read
+     */
+    public TeleportJob restoreAsync(int blocksPerTick) {
+        StructureSnapshot[] payload = payload();
+        TeleportJob job = new TeleportJob();
+        StructureTeleporter.AsyncRestoreTask task = new StructureTeleporter.AsyncRestoreTask(job,
+                this::restoreEntities, blocksPerTick);
+        task.add(payload[1], targetOrigin, targetLevel);
+        task.add(payload[0], sourceOrigin, sourceLevel);
+        TeleportScheduler.getInstance().submit(task);
+        return job;
+    }
+
+    /**
+     * Boxes a restore writes to, for {@link RegionLockManager}.
+     */
+    public List<RegionLockManager.Box> getLockBoxes() {
+        List<RegionLockManager.Box> boxes = new ArrayList<>(2);
+        if (targetBox != null) {
+            boxes.add(RegionLockManager.Box.of(targetLevel, targetBox[0], targetBox[1]));
+        }
+        if (sourceBox != null) {
+            boxes.add(RegionLockManager.Box.of(sourceLevel, sourceBox[0], sourceBox[1]));
+        }
+        return boxes;
+    }
+
+    private void restoreEntities() {
         if (entities != null && !entities.isEmpty()) {
             // Move from targetLevel back to sourceLevel (sourceOrigin). Rotation/Mirror
             // NONE.
@@ -67,4 +179,117 @@ public class UndoContext {
     public Level getTargetLevel() {
         return targetLevel;
     }
+
+    /**
+     * Decodes the source snapshot; {@code null} if nothing was captured.
+     */
+    public StructureSnapshot getSourceSnapshot() {
+        return payload()[0];
+    }
+
+    /**
+     * Decodes the target snapshot; {@code null} if nothing was captured.
+     */
+    public StructureSnapshot getTargetSnapshot() {
+        return payload()[1];
+    }
+
+    /**
+     * Size of the encoded snapshots in bytes, on disk or in memory before
+     * sections shared with other snapshots are deducted.
+     */
+    public long getEncodedSize() {
+        return encodedSize;
+    }
+
+    public boolean isSpilled() {
+        return spillFile != null;
+    }
+
+    /**
+     * Encode the snapshots in the spill file format. The data stays resident
+     * until {@link #spilled(Path)}, so the file can be written off-thread.
+     */
+    byte[] encodeSpill() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeBlock(out, sourceData);
+            writeBlock(out, targetData);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * The {@link #encodeSpill()} bytes are now in {@code file}: read from
+     * there from now on and drop the store references.
+     */
+    void spilled(Path file) {
+        if (spillFile != null) {
+            return;
+        }
+        spillFile = file;
+        releaseData();
+    }
+
+    private void releaseData() {
+        if (sourceData != null) {
+            sourceData.release();
+            sourceData = null;
+        }
+        if (targetData != null) {
+            targetData.release();
+            targetData = null;
+        }
+    }
+
+    /**
+     * Decoded source and target snapshots, read from the spill file if
+     * needed. Spilled data stays on disk until {@link #discard()}.
+     */
+    private StructureSnapshot[] payload() {
+        if (spillFile == null) {
+            try {
+                return new StructureSnapshot[] { decode(sourceData), decode(targetData) };
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(spillFile)))) {
+            return new StructureSnapshot[] { readBlock(in), readBlock(in) };
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read spilled undo data " + spillFile, e);
+        }
+    }
+
+    private static StructureSnapshot decode(SectionedSnapshot data) throws IOException {
+        return data != null ? data.toSnapshot() : null;
+    }
+
+    /**
+     * Release the store references and delete the spill file, if any. The
+     * context cannot be restored afterwards.
+     */
+    void discard() {
+        releaseData();
+        if (spillFile == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(spillFile);
+        } catch (IOException e) {
+            com.teleportapi.TeleportAPI.LOGGER.warn("[TeleportAPI] Could not delete undo file " + spillFile, e);
+        }
+        spillFile = null;
+    }
+
+    private static void writeBlock(DataOutputStream out, SectionedSnapshot data) throws IOException {
+        out.writeBoolean(data != null);
+        if (data != null) {
+            data.writeTo(out);
+        }
+    }
+
+    private static StructureSnapshot readBlock(DataInputStream in) throws IOException {
+        return in.readBoolean() ? SectionedSnapshot.read(in) : null;
+    }
 }
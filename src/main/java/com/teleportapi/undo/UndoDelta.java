@@ -0,0 +1,78 @@
+package com.teleportapi.undo;
+
+import com.teleportapi.StructureSnapshot;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sparse recorder for the blocks an operation is about to change.
+ * <p>
+ * Only the recorded positions cost memory while capturing; the snapshot built
+ * by {@link #toSnapshot(BlockPos)} covers just their bounding box, with every
+ * other position absent so that restoring it leaves those blocks alone.
+ */
+public final class UndoDelta {
+    private final LongArrayList positions = new LongArrayList();
+    private final LongOpenHashSet recorded = new LongOpenHashSet();
+    private final List<BlockState> states = new ArrayList<>();
+    private final List<CompoundTag> tags = new ArrayList<>();
+
+    private int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+    private int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+
+    /**
+     * Record the state (and block entity tag) to put back at a world position.
+     * A position already recorded keeps its first record.
+     */
+    public void add(int x, int y, int z, BlockState state, CompoundTag tag) {
+        long pos = BlockPos.asLong(x, y, z);
+        if (!recorded.add(pos)) {
+            return;
+        }
+        positions.add(pos);
+        states.add(state);
+        tags.add(tag);
+        minX = Math.min(minX, x);
+        minY = Math.min(minY, y);
+        minZ = Math.min(minZ, z);
+        maxX = Math.max(maxX, x);
+        maxY = Math.max(maxY, y);
+        maxZ = Math.max(maxZ, z);
+    }
+
+    public boolean contains(int x, int y, int z) {
+        return recorded.contains(BlockPos.asLong(x, y, z));
+    }
+
+    public int size() {
+        return positions.size();
+    }
+
+    public boolean isEmpty() {
+        return positions.isEmpty();
+    }
+
+    /**
+     * Snapshot of the recorded blocks with its offset relative to
+     * {@code origin}, or {@code null} if nothing was recorded.
+     */
+    public StructureSnapshot toSnapshot(BlockPos origin) {
+        if (positions.isEmpty()) {
+            return null;
+        }
+        StructureSnapshot snapshot = new StructureSnapshot(maxX - minX + 1, maxY - minY + 1, maxZ - minZ + 1,
+                new BlockPos(minX - origin.getX(), minY - origin.getY(), minZ - origin.getZ()));
+        for (int i = 0; i < positions.size(); i++) {
+            long pos = positions.getLong(i);
+            snapshot.set(BlockPos.getX(pos) - minX, BlockPos.getY(pos) - minY, BlockPos.getZ(pos) - minZ,
+                    states.get(i), tags.get(i));
+        }
+        return snapshot;
+    }
+}
@@ -1,18 +1,70 @@
 package com.teleportapi.undo;
 
+import com.teleportapi.TeleportAPI;
+import com.teleportapi.TeleportJob;
+import com.teleportapi.structure.SectionStore;
+import com.teleportapi.world.RegionLockManager;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.level.storage.LevelResource;
+import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.event.server.ServerStartedEvent;
+import net.minecraftforge.event.server.ServerStoppingEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Manages undo history for players.
+ * <p>
+ * Contexts hold their snapshots as deduplicated sections in the shared
+ * {@link SectionStore}, and the referenced bytes of that store are kept under
+ * {@link #getMemoryBudget()}. When a push goes over it, the oldest contexts
+ * in memory (across all players) are written to {@code data/teleportapi_undo}
+ * in the world folder and read back on {@link #undo(Player)}. Contexts are
+ * encoded on the main thread and written by a background IO thread; they
+ * stay in memory until their file is complete. Spilled data is itself capped by
+ * {@link #getDiskBudget()}; beyond that the oldest contexts are dropped from
+ * history. Logging out moves a player's history to disk.
+ * <p>
+ * Undo runs tick-sliced through the {@link com.teleportapi.TeleportScheduler}
+ * and holds {@link RegionLockManager} locks on the areas it restores until it
+ * finishes, so teleports and other undos cannot write there meanwhile. Main
+ * thread only.
  */
 public class UndoManager {
     private static final UndoManager INSTANCE = new UndoManager();
+    private static final String SPILL_DIRECTORY = "teleportapi_undo";
+    private static final ExecutorService SPILL_IO = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "TeleportAPI-UndoIO");
+        thread.setDaemon(true);
+        return thread;
+    });
     private static int maxHistory = 5;
     private static boolean requireCheats = true;
+    private static long memoryBudget = 256L * 1024 * 1024;
+    private static long diskBudget = 4L * 1024 * 1024 * 1024;
+    private static int restoreBlocksPerTick = 0;
 
     private final Map<UUID, Deque<UndoContext>> history = new HashMap<>();
+    // In memory / on disk, oldest first. Only the newest context of a stack is
+    // ever used, so push order is also least-recently-used order.
+    private final Set<UndoContext> resident = new LinkedHashSet<>();
+    private final Set<UndoContext> spilled = new LinkedHashSet<>();
+    // Encoded and queued for writing, still in memory
+    private final Set<UndoContext> spilling = new HashSet<>();
+    private long residentBytes = 0;
+    private long spillingBytes = 0;
+    private long spilledBytes = 0;
+    private long nextFileId = 0;
 
     private UndoManager() {
     }
@@ -37,39 +89,302 @@ public class UndoManager {
         return requireCheats;
     }
 
+    /**
+     * Referenced {@link SectionStore} bytes allowed before history spills to
+     * disk. Shared sections count once; stored blueprints count too.
+     */
+    public static void setMemoryBudget(long bytes) {
+        memoryBudget = bytes;
+    }
+
+    public static long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    /**
+     * Spilled bytes kept on disk before the oldest history is dropped.
+     */
+    public static void setDiskBudget(long bytes) {
+        diskBudget = bytes;
+    }
+
+    public static long getDiskBudget() {
+        return diskBudget;
+    }
+
+    /**
+     * Cap on blocks restored per tick on top of the scheduler's time budget,
+     * 0 for none.
+     */
+    public static void setRestoreBlocksPerTick(int value) {
+        restoreBlocksPerTick = Math.max(0, value);
+    }
+
+    public static int getRestoreBlocksPerTick() {
+        return restoreBlocksPerTick;
+    }
+
+    /**
+     * Encoded size of the contexts in memory, before sharing, including those
+     * still being written to disk.
+     */
+    public long getResidentBytes() {
+        return residentBytes + spillingBytes;
+    }
+
+    public long getSpilledBytes() {
+        return spilledBytes;
+    }
+
     public void push(Player player, UndoContext context) {
         if (player == null)
             return;
-        history.computeIfAbsent(player.getUUID(), k -> new ArrayDeque<>()).push(context);
+        context.owner = player.getUUID();
+        Deque<UndoContext> stack = history.computeIfAbsent(context.owner, k -> new ArrayDeque<>());
+        stack.push(context);
+        if (context.getEncodedSize() > 0) {
+            resident.add(context);
+            residentBytes += context.getEncodedSize();
+        }
 
         // Enforce limit
-        Deque<UndoContext> stack = history.get(player.getUUID());
         while (stack.size() > maxHistory) {
-            stack.removeLast();
+            UndoContext oldest = stack.removeLast();
+            forget(oldest);
+            oldest.discard();
         }
+        enforceBudgets();
     }
 
+    /**
+     * Start undoing the player's last action.
+     *
+     * @return true if the restore was scheduled
+     * @see #undoAsync(Player)
+     */
     public boolean undo(Player player) {
+        return undoAsync(player) != null;
+    }
+
+    /**
+     * Start undoing the player's last action in the background.
+     *
+     * @return the job reporting progress, or {@code null} if there is nothing
+     *         to undo, the player lacks permission, the area is locked by
+     *         another operation or the history could not be read
+     */
+    public TeleportJob undoAsync(Player player) {
         if (player == null)
-            return false;
+            return null;
 
         // Check for cheats/permissions if required
         if (requireCheats && !player.hasPermissions(2)) {
-            return false;
+            return null;
         }
 
         Deque<UndoContext> stack = history.get(player.getUUID());
         if (stack == null || stack.isEmpty())
-            return false;
+            return null;
+
+        UndoContext context = stack.peek();
+        RegionLockManager.Lease lease = RegionLockManager.getInstance().tryAcquire(context.getLockBoxes());
+        if (lease == null) {
+            return null;
+        }
+
+        TeleportJob job;
+        try {
+            job = context.restoreAsync(restoreBlocksPerTick);
+        } catch (UncheckedIOException e) {
+            TeleportAPI.LOGGER.error("[TeleportAPI] Undo failed: snapshot data unreadable", e);
+            lease.release();
+            // Unreadable data will never restore; drop the entry
+            stack.pop();
+            forget(context);
+            context.discard();
+            return null;
+        } catch (RuntimeException e) {
+            // Keep the entry so the undo can be retried
+            lease.release();
+            throw e;
+        }
 
-        UndoContext context = stack.pop();
-        context.restore();
-        return true;
+        stack.pop();
+        forget(context);
+        // The restore holds the decoded snapshots from here on
+        context.discard();
+        job.getFuture().whenComplete((result, error) -> lease.release());
+        return job;
     }
 
     public void clear(Player player) {
         if (player != null) {
-            history.remove(player.getUUID());
+            Deque<UndoContext> stack = history.remove(player.getUUID());
+            if (stack != null) {
+                for (UndoContext context : stack) {
+                    forget(context);
+                    context.discard();
+                }
+            }
+        }
+    }
+
+    /**
+     * Move a player's history out of memory while they are offline.
+     */
+    @SubscribeEvent
+    public void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
+        Deque<UndoContext> stack = history.get(event.getEntity().getUUID());
+        if (stack != null) {
+            for (UndoContext context : new ArrayList<>(stack)) {
+                if (resident.remove(context)) {
+                    residentBytes -= context.getEncodedSize();
+                    spillOrDrop(context);
+                }
+            }
+            enforceBudgets();
+        }
+    }
+
+    /**
+     * Spill files from a previous run refer to levels that no longer exist.
+     */
+    @SubscribeEvent
+    public void onServerStarted(ServerStartedEvent event) {
+        deleteSpillFiles(spillDirectory(event.getServer()));
+    }
+
+    @SubscribeEvent
+    public void onServerStopping(ServerStoppingEvent event) {
+        for (Deque<UndoContext> stack : history.values()) {
+            for (UndoContext context : stack) {
+                context.discard();
+            }
+        }
+        history.clear();
+        resident.clear();
+        spilled.clear();
+        spilling.clear();
+        residentBytes = 0;
+        spilledBytes = 0;
+        spillingBytes = 0;
+    }
+
+    /**
+     * Contexts still being written count as freed, so one push does not spill
+     * more than it needs to while their store references are still held.
+     */
+    private void enforceBudgets() {
+        SectionStore store = SectionStore.getInstance();
+        while (store.getReferencedBytes() - spillingBytes > memoryBudget && !resident.isEmpty()) {
+            UndoContext oldest = resident.iterator().next();
+            resident.remove(oldest);
+            residentBytes -= oldest.getEncodedSize();
+            spillOrDrop(oldest);
+        }
+        while (spilledBytes > diskBudget && !spilled.isEmpty()) {
+            UndoContext oldest = spilled.iterator().next();
+            spilled.remove(oldest);
+            spilledBytes -= oldest.getEncodedSize();
+            drop(oldest);
+        }
+    }
+
+    private void spillOrDrop(UndoContext context) {
+        MinecraftServer server = context.getSourceLevel() != null ? context.getSourceLevel().getServer() : null;
+        if (server == null) {
+            drop(context);
+            return;
+        }
+        Path file = spillDirectory(server).resolve(context.owner + "-" + (nextFileId++) + ".bin");
+        byte[] bytes;
+        try {
+            bytes = context.encodeSpill();
+        } catch (IOException e) {
+            TeleportAPI.LOGGER.warn("[TeleportAPI] Could not encode undo history for " + file + ", dropping it", e);
+            drop(context);
+            return;
+        }
+        spilling.add(context);
+        spillingBytes += context.getEncodedSize();
+        CompletableFuture.runAsync(() -> {
+            try {
+                Files.createDirectories(file.getParent());
+                Files.write(file, bytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, SPILL_IO).whenComplete((result, error) -> server.execute(() -> finishSpill(context, file, error)));
+    }
+
+    /**
+     * Main-thread end of a spill write. A context undone, cleared or dropped
+     * meanwhile no longer wants the file.
+     */
+    private void finishSpill(UndoContext context, Path file, Throwable error) {
+        if (!spilling.remove(context)) {
+            deleteQuietly(file);
+            return;
+        }
+        spillingBytes -= context.getEncodedSize();
+        if (error != null) {
+            TeleportAPI.LOGGER.warn("[TeleportAPI] Could not spill undo history to " + file + ", dropping it", error);
+            deleteQuietly(file);
+            drop(context);
+            return;
+        }
+        context.spilled(file);
+        spilled.add(context);
+        spilledBytes += context.getEncodedSize();
+        enforceBudgets();
+    }
+
+    /**
+     * Remove a context from its owner's history entirely.
+     */
+    private void drop(UndoContext context) {
+        Deque<UndoContext> stack = history.get(context.owner);
+        if (stack != null) {
+            stack.remove(context);
+            if (stack.isEmpty()) {
+                history.remove(context.owner);
+            }
+        }
+        context.discard();
+    }
+
+    private void forget(UndoContext context) {
+        if (resident.remove(context)) {
+            residentBytes -= context.getEncodedSize();
+        } else if (spilling.remove(context)) {
+            spillingBytes -= context.getEncodedSize();
+        } else if (spilled.remove(context)) {
+            spilledBytes -= context.getEncodedSize();
+        }
+    }
+
+    private static Path spillDirectory(MinecraftServer server) {
+        return server.getWorldPath(LevelResource.ROOT).resolve("data").resolve(SPILL_DIRECTORY).normalize();
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            TeleportAPI.LOGGER.warn("[TeleportAPI] Could not delete undo file " + file, e);
+        }
+    }
+
+    private static void deleteSpillFiles(Path directory) {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.bin")) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            TeleportAPI.LOGGER.warn("[TeleportAPI] Could not clean undo directory " + directory, e);
         }
     }
 }
@@ -0,0 +1,203 @@
+package com.teleportapi.world;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.TicketType;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.event.server.ServerStoppingEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Owns the chunk tickets held by teleport jobs.
+ * <p>
+ * Tickets use a dedicated {@link #TICKET_TYPE} keyed by the job id, so they
+ * never collide with other mods' or players' tickets and can all be removed
+ * with {@link #release(long)} when the job completes, fails or is cancelled.
+ * Adding a ticket makes the server load the chunk in the background; jobs
+ * poll {@link #isReady(long)} from their scheduler slice instead of loading
+ * chunks synchronously in the middle of a batch.
+ * <p>
+ * Positive keys are {@link com.teleportapi.TeleportJob} ids. Work without a
+ * job handle takes a key from {@link #newAnonymousKey()}. Main thread only.
+ */
+public class ChunkTicketManager {
+    public static final TicketType<Long> TICKET_TYPE = TicketType.create("teleportapi_job", Long::compare);
+    // Same radius the API always used for its paste tickets
+    private static final int TICKET_RADIUS = 2;
+
+    private static final ChunkTicketManager INSTANCE = new ChunkTicketManager();
+    private static final AtomicLong ANONYMOUS_KEYS = new AtomicLong();
+
+    // Job key -> tickets held in each level
+    private final Long2ObjectMap<List<Held>> held = new Long2ObjectOpenHashMap<>();
+
+    private static class Held {
+        final ServerLevel level;
+        final LongSet chunks = new LongOpenHashSet();
+        // Chunks not yet seen loaded, shrinks as isReady polls
+        final LongSet pending = new LongOpenHashSet();
+
+        Held(ServerLevel level) {
+            this.level = level;
+        }
+    }
+
+    public static ChunkTicketManager getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Key for work that has no job handle. Never collides with job ids.
+     */
+    public static long newAnonymousKey() {
+        return -ANONYMOUS_KEYS.incrementAndGet();
+    }
+
+    /**
+     * Add tickets for every chunk overlapping the block range
+     * {@code [minX, maxX] x [minZ, maxZ]}. Chunks the key already holds are
+     * skipped.
+     */
+    public void acquire(long key, ServerLevel level, int minX, int minZ, int maxX, int maxZ) {
+        Held entry = entryFor(key, level);
+        for (int cx = minX >> 4; cx <= maxX >> 4; cx++) {
+            for (int cz = minZ >> 4; cz <= maxZ >> 4; cz++) {
+                long chunk = ChunkPos.asLong(cx, cz);
+                if (entry.chunks.add(chunk)) {
+                    ChunkPos pos = new ChunkPos(cx, cz);
+                    level.getChunkSource().addRegionTicket(TICKET_TYPE, pos, TICKET_RADIUS, key);
+                    entry.pending.add(chunk);
+                }
+            }
+        }
+    }
+
+    /**
+     * True once every chunk acquired under {@code key} is fully loaded.
+     */
+    public boolean isReady(long key) {
+        List<Held> entries = held.get(key);
+        if (entries == null) {
+            return true;
+        }
+        boolean ready = true;
+        for (Held entry : entries) {
+            LongIterator it = entry.pending.iterator();
+            while (it.hasNext()) {
+                long chunk = it.nextLong();
+                if (entry.level.getChunkSource().getChunkNow(ChunkPos.getX(chunk), ChunkPos.getZ(chunk)) != null) {
+                    it.remove();
+                } else {
+                    ready = false;
+                }
+            }
+        }
+        return ready;
+    }
+
+    /**
+     * Chunks still loading for {@code key}, for progress reporting.
+     */
+    public int getPendingCount(long key) {
+        List<Held> entries = held.get(key);
+        int count = 0;
+        if (entries != null) {
+            for (Held entry : entries) {
+                count += entry.pending.size();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Remove every ticket held under {@code key}. Safe to call more than once.
+     */
+    public void release(long key) {
+        List<Held> entries = held.remove(key);
+        if (entries == null) {
+            return;
+        }
+        for (Held entry : entries) {
+            removeTickets(key, entry);
+        }
+    }
+
+    /**
+     * Chunks ticketed under {@code key} across all levels.
+     */
+    public int getChunkCount(long key) {
+        List<Held> entries = held.get(key);
+        int count = 0;
+        if (entries != null) {
+            for (Held entry : entries) {
+                count += entry.chunks.size();
+            }
+        }
+        return count;
+    }
+
+    public int getHeldChunkCount() {
+        int count = 0;
+        for (List<Held> entries : held.values()) {
+            for (Held entry : entries) {
+                count += entry.chunks.size();
+            }
+        }
+        return count;
+    }
+
+    @SubscribeEvent
+    public void onLevelUnload(LevelEvent.Unload event) {
+        if (!(event.getLevel() instanceof ServerLevel level)) {
+            return;
+        }
+        Iterator<List<Held>> it = held.values().iterator();
+        while (it.hasNext()) {
+            List<Held> entries = it.next();
+            entries.removeIf(entry -> entry.level == level);
+            if (entries.isEmpty()) {
+                it.remove();
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public void onServerStopping(ServerStoppingEvent event) {
+        for (Long2ObjectMap.Entry<List<Held>> entry : held.long2ObjectEntrySet()) {
+            for (Held levelEntry : entry.getValue()) {
+                removeTickets(entry.getLongKey(), levelEntry);
+            }
+        }
+        held.clear();
+    }
+
+    private Held entryFor(long key, ServerLevel level) {
+        List<Held> entries = held.computeIfAbsent(key, k -> new ArrayList<>());
+        for (Held entry : entries) {
+            if (entry.level == level) {
+                return entry;
+            }
+        }
+        Held entry = new Held(level);
+        entries.add(entry);
+        return entry;
+    }
+
+    private static void removeTickets(long key, Held entry) {
+        LongIterator it = entry.chunks.iterator();
+        while (it.hasNext()) {
+            long chunk = it.nextLong();
+            entry.level.getChunkSource().removeRegionTicket(TICKET_TYPE, new ChunkPos(chunk), TICKET_RADIUS, key);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.teleportapi.world;
+
+import com.teleportapi.TeleportAPI;
+import com.teleportapi.TeleportMetrics;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.shorts.ShortOpenHashSet;
+import it.unimi.dsi.fastutil.shorts.ShortSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.network.protocol.Packet;
+import net.minecraft.network.protocol.game.ClientGamePacketListener;
+import net.minecraft.network.protocol.game.ClientboundBundlePacket;
+import net.minecraft.network.protocol.game.ClientboundLevelChunkWithLightPacket;
+import net.minecraft.network.protocol.game.ClientboundSectionBlocksUpdatePacket;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.level.LevelEvent;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Coalesces client synchronization for bulk block changes.
+ * <p>
+ * Changed positions are recorded per chunk section instead of calling
+ * {@code sendBlockUpdated} for every block (which also re-checks the path of
+ * every navigating mob). At the end of the server tick each dirty chunk is
+ * flushed once:
+ * <ul>
+ * <li>below the density threshold, one {@link ClientboundSectionBlocksUpdatePacket}
+ * per touched section plus block entity data;</li>
+ * <li>at or above it, a single {@link ClientboundLevelChunkWithLightPacket}.</li>
+ * </ul>
+ * Density is changed blocks divided by the volume of the touched sections.
+ * All packets for a chunk go out as one bundle, so a watching player receives
+ * at most one update per chunk per tick.
+ */
+public class ClientSyncPlanner {
+    public static final double DEFAULT_FULL_CHUNK_THRESHOLD = 0.25;
+    private static final int SECTION_VOLUME = 16 * 16 * 16;
+
+    private static double fullChunkThreshold = DEFAULT_FULL_CHUNK_THRESHOLD;
+    private static final Map<ResourceKey<Level>, ClientSyncPlanner> PLANNERS = new HashMap<>();
+
+    private final ServerLevel level;
+    // ChunkPos long -> (SectionPos long -> packed section-relative positions)
+    private final Long2ObjectMap<Long2ObjectMap<ShortSet>> pending = new Long2ObjectOpenHashMap<>();
+
+    private ClientSyncPlanner(ServerLevel level) {
+        this.level = level;
+    }
+
+    public static ClientSyncPlanner get(ServerLevel level) {
+        return PLANNERS.computeIfAbsent(level.dimension(), key -> new ClientSyncPlanner(level));
+    }
+
+    /**
+     * Fraction of a touched section volume (0..1) at which a whole chunk is
+     * resent instead of section deltas.
+     */
+    public static void setFullChunkThreshold(double value) {
+        fullChunkThreshold = Math.max(0.0, value);
+    }
+
+    public static double getFullChunkThreshold() {
+        return fullChunkThreshold;
+    }
+
+    /**
+     * Record a changed block. The client is updated when the planner is
+     * flushed at the end of the tick.
+     */
+    public void blockChanged(BlockPos pos) {
+        if (level.isOutsideBuildHeight(pos)) {
+            return;
+        }
+        long chunkKey = ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4);
+        Long2ObjectMap<ShortSet> sections = pending.get(chunkKey);
+        if (sections == null) {
+            sections = new Long2ObjectOpenHashMap<>();
+            pending.put(chunkKey, sections);
+        }
+        long sectionKey = SectionPos.asLong(pos.getX() >> 4, pos.getY() >> 4, pos.getZ() >> 4);
+        ShortSet changed = sections.get(sectionKey);
+        if (changed == null) {
+            changed = new ShortOpenHashSet();
+            sections.put(sectionKey, changed);
+        }
+        changed.add(SectionPos.sectionRelativePos(pos));
+    }
+
+    public boolean hasPending() {
+        return !pending.isEmpty();
+    }
+
+    /**
+     * Send everything recorded so far and clear the plan.
+     */
+    @SuppressWarnings("null")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        for (Long2ObjectMap.Entry<Long2ObjectMap<ShortSet>> entry : pending.long2ObjectEntrySet()) {
+            ChunkPos chunkPos = new ChunkPos(entry.getLongKey());
+            List<ServerPlayer> players = level.getChunkSource().chunkMap.getPlayers(chunkPos, false);
+            if (players.isEmpty()) {
+                continue;
+            }
+            LevelChunk chunk = level.getChunkSource().getChunkNow(chunkPos.x, chunkPos.z);
+            if (chunk == null) {
+                continue;
+            }
+
+            try {
+                Packet<ClientGamePacketListener> packet = planChunk(chunk, entry.getValue());
+                for (ServerPlayer player : players) {
+                    player.connection.send(packet);
+                }
+            } catch (Exception e) {
+                TeleportAPI.LOGGER.error("[TeleportAPI] Failed to sync chunk " + chunkPos, e);
+            }
+        }
+        pending.clear();
+    }
+
+    @SuppressWarnings("null")
+    private Packet<ClientGamePacketListener> planChunk(LevelChunk chunk, Long2ObjectMap<ShortSet> sections) {
+        int changedBlocks = 0;
+        for (ShortSet changed : sections.values()) {
+            changedBlocks += changed.size();
+        }
+
+        double density = (double) changedBlocks / ((double) sections.size() * SECTION_VOLUME);
+        if (density >= fullChunkThreshold) {
+            return new ClientboundLevelChunkWithLightPacket(chunk, level.getLightEngine(), null, null);
+        }
+
+        List<Packet<ClientGamePacketListener>> packets = new ArrayList<>();
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        for (Long2ObjectMap.Entry<ShortSet> sectionEntry : sections.long2ObjectEntrySet()) {
+            SectionPos sectionPos = SectionPos.of(sectionEntry.getLongKey());
+            LevelChunkSection section = chunk.getSection(chunk.getSectionIndexFromSectionY(sectionPos.y()));
+            ShortSet changed = sectionEntry.getValue();
+            packets.add(new ClientboundSectionBlocksUpdatePacket(sectionPos, changed, section));
+
+            // Section deltas carry block states only; block entity data is sent separately
+            for (short packed : changed) {
+                pos.set(sectionPos.relativeToBlockX(packed), sectionPos.relativeToBlockY(packed),
+                        sectionPos.relativeToBlockZ(packed));
+                if (!chunk.getBlockState(pos).hasBlockEntity()) {
+                    continue;
+                }
+                BlockEntity be = chunk.getBlockEntity(pos);
+                if (be != null) {
+                    Packet<ClientGamePacketListener> bePacket = be.getUpdatePacket();
+                    if (bePacket != null) {
+                        packets.add(bePacket);
+                    }
+                }
+            }
+        }
+        return packets.size() == 1 ? packets.get(0) : new ClientboundBundlePacket(packets);
+    }
+
+    /**
+     * Flush after every other end-of-tick listener (including the async tasks)
+     * has recorded its changes.
+     */
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase != TickEvent.Phase.END) {
+            return;
+        }
+        for (ClientSyncPlanner planner : PLANNERS.values()) {
+            if (!planner.pending.isEmpty()) {
+                long start = System.nanoTime();
+                planner.flush();
+                TeleportMetrics.getInstance().recordClientSyncFlush(System.nanoTime() - start);
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLevelUnload(LevelEvent.Unload event) {
+        if (event.getLevel() instanceof ServerLevel serverLevel) {
+            ClientSyncPlanner planner = PLANNERS.get(serverLevel.dimension());
+            if (planner != null && planner.level == serverLevel) {
+                PLANNERS.remove(serverLevel.dimension());
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.teleportapi.world;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Set of inclusive integer boxes with overlap queries.
+ * <p>
+ * Boxes are kept sorted by their minimum X together with a multiset of their
+ * X extents. A box overlapping {@code [minX, maxX]} must start within
+ * {@code [minX - widestExtent, maxX]}, so a query only looks at that slice of
+ * the sorted map instead of every box. Not thread safe.
+ *
+ * @param <T> value stored with each box; removal matches it by identity
+ */
+public final class RegionIndex<T> {
+    private static final class Entry<T> {
+        final int minX, minY, minZ;
+        final int maxX, maxY, maxZ;
+        final T value;
+
+        Entry(int minX, int minY, int minZ, int maxX, int maxY, int maxZ, T value) {
+            this.minX = minX;
+            this.minY = minY;
+            this.minZ = minZ;
+            this.maxX = maxX;
+            this.maxY = maxY;
+            this.maxZ = maxZ;
+            this.value = value;
+        }
+
+        boolean overlaps(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+            return this.minX <= maxX && this.maxX >= minX
+                    && this.minY <= maxY && this.maxY >= minY
+                    && this.minZ <= maxZ && this.maxZ >= minZ;
+        }
+    }
+
+    private final TreeMap<Integer, List<Entry<T>>> byMinX = new TreeMap<>();
+    // X extent (maxX - minX) -> number of boxes with it
+    private final TreeMap<Integer, Integer> extents = new TreeMap<>();
+    private int size = 0;
+
+    public void add(int minX, int minY, int minZ, int maxX, int maxY, int maxZ, T value) {
+        if (minX > maxX || minY > maxY || minZ > maxZ) {
+            throw new IllegalArgumentException("Empty box");
+        }
+        byMinX.computeIfAbsent(minX, k -> new ArrayList<>(1))
+                .add(new Entry<>(minX, minY, minZ, maxX, maxY, maxZ, value));
+        extents.merge(maxX - minX, 1, Integer::sum);
+        size++;
+    }
+
+    /**
+     * Remove a box previously added with exactly these bounds and value.
+     *
+     * @return false if it was not present
+     */
+    public boolean remove(int minX, int minY, int minZ, int maxX, int maxY, int maxZ, T value) {
+        List<Entry<T>> bucket = byMinX.get(minX);
+        if (bucket == null) {
+            return false;
+        }
+        for (int i = 0; i < bucket.size(); i++) {
+            Entry<T> entry = bucket.get(i);
+            if (entry.value == value && entry.minY == minY && entry.minZ == minZ
+                    && entry.maxX == maxX && entry.maxY == maxY && entry.maxZ == maxZ) {
+                bucket.remove(i);
+                if (bucket.isEmpty()) {
+                    byMinX.remove(minX);
+                }
+                int extent = maxX - minX;
+                if (extents.merge(extent, -1, Integer::sum) == 0) {
+                    extents.remove(extent);
+                }
+                size--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Value of some box overlapping the given one, or {@code null} if none
+     * does.
+     */
+    public T findOverlap(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        if (size == 0) {
+            return null;
+        }
+        int from = (int) Math.max(Integer.MIN_VALUE, (long) minX - extents.lastKey());
+        for (Map.Entry<Integer, List<Entry<T>>> bucket : byMinX.subMap(from, true, maxX, true).entrySet()) {
+            for (Entry<T> entry : bucket.getValue()) {
+                if (entry.overlaps(minX, minY, minZ, maxX, maxY, maxZ)) {
+                    return entry.value;
+                }
+            }
+        }
+        return null;
+    }
+
+    public boolean overlaps(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        return findOverlap(minX, minY, minZ, maxX, maxY, maxZ) != null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+}
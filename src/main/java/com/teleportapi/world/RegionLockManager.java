@@ -0,0 +1,301 @@
+package com.teleportapi.world;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.Level;
+import net.minecraftforge.event.server.ServerStoppingEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Exclusive locks on block boxes, so jobs never write into an area another
+ * job is still moving, pasting or restoring.
+ * <p>
+ * A {@link Lease} covers all boxes of one operation (typically source and
+ * destination) and is granted all at once or not at all, so no job ever holds
+ * part of what it needs while waiting for the rest and jobs cannot deadlock.
+ * Its boxes are kept in one canonical order (dimension, then minimum corner)
+ * so grants are deterministic.
+ * <p>
+ * {@link #tryAcquire} fails immediately on a conflict; {@link #acquire}
+ * queues the lease instead and grants it once every overlapping lease ahead
+ * of it has been released. Waiting leases only block later ones they
+ * overlap, so jobs on disjoint boxes run side by side. Held boxes are indexed
+ * per dimension in a {@link RegionIndex}. Main thread only.
+ */
+public class RegionLockManager {
+    private static final RegionLockManager INSTANCE = new RegionLockManager();
+    private static final Comparator<Box> CANONICAL_ORDER = Comparator
+            .comparing((Box box) -> box.dimension.location().toString())
+            .thenComparingInt(box -> box.minX)
+            .thenComparingInt(box -> box.minY)
+            .thenComparingInt(box -> box.minZ);
+
+    private final Map<ResourceKey<Level>, RegionIndex<Lease>> held = new HashMap<>();
+    private final Deque<Lease> waiting = new ArrayDeque<>();
+    private boolean granting = false;
+    private boolean regrant = false;
+
+    /**
+     * Inclusive block box in one dimension.
+     */
+    public static final class Box {
+        final ResourceKey<Level> dimension;
+        final int minX, minY, minZ;
+        final int maxX, maxY, maxZ;
+
+        public Box(ResourceKey<Level> dimension, BlockPos a, BlockPos b) {
+            this.dimension = dimension;
+            this.minX = Math.min(a.getX(), b.getX());
+            this.minY = Math.min(a.getY(), b.getY());
+            this.minZ = Math.min(a.getZ(), b.getZ());
+            this.maxX = Math.max(a.getX(), b.getX());
+            this.maxY = Math.max(a.getY(), b.getY());
+            this.maxZ = Math.max(a.getZ(), b.getZ());
+        }
+
+        public static Box of(Level level, BlockPos a, BlockPos b) {
+            return new Box(level.dimension(), a, b);
+        }
+
+        public boolean overlaps(Box other) {
+            return dimension == other.dimension
+                    && minX <= other.maxX && maxX >= other.minX
+                    && minY <= other.maxY && maxY >= other.minY
+                    && minZ <= other.maxZ && maxZ >= other.minZ;
+        }
+    }
+
+    /**
+     * Handle for a set of locked (or queued) boxes. Release it exactly when
+     * the work is done; releasing twice is harmless.
+     */
+    public final class Lease {
+        private final List<Box> boxes;
+        private final Consumer<Lease> onGranted;
+        private final Runnable onDropped;
+        private boolean granted = false;
+        private boolean released = false;
+        private boolean handedOff = false;
+
+        private Lease(List<Box> boxes, Consumer<Lease> onGranted, Runnable onDropped) {
+            List<Box> sorted = new ArrayList<>(boxes);
+            sorted.sort(CANONICAL_ORDER);
+            this.boxes = Collections.unmodifiableList(sorted);
+            this.onGranted = onGranted;
+            this.onDropped = onDropped;
+        }
+
+        public List<Box> getBoxes() {
+            return boxes;
+        }
+
+        public boolean isGranted() {
+            return granted && !released;
+        }
+
+        public boolean isReleased() {
+            return released;
+        }
+
+        /**
+         * Mark the lease as owned by a scheduled task that releases it when it
+         * finishes, so whoever acquired it must not release it on return.
+         */
+        public void handOff() {
+            handedOff = true;
+        }
+
+        public boolean isHandedOff() {
+            return handedOff;
+        }
+
+        public void release() {
+            RegionLockManager.this.release(this);
+        }
+    }
+
+    public static RegionLockManager getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Lock {@code boxes} now if nothing held or queued overlaps them.
+     *
+     * @return the granted lease, or {@code null} on a conflict
+     */
+    public Lease tryAcquire(List<Box> boxes) {
+        Lease lease = new Lease(boxes, null, null);
+        if (conflictsWithHeld(lease) || conflictsWithAny(lease, waiting)) {
+            return null;
+        }
+        grant(lease);
+        return lease;
+    }
+
+    /**
+     * Lock {@code boxes}, queueing behind overlapping leases if necessary.
+     * {@code onGranted} runs once the lease is granted: right away if it can
+     * be, otherwise from the {@link Lease#release()} that frees the boxes.
+     * A queued lease can be released to leave the queue.
+     *
+     * @param onGranted may be {@code null}; poll {@link Lease#isGranted()}
+     *                  instead
+     */
+    public Lease acquire(List<Box> boxes, Consumer<Lease> onGranted) {
+        return acquire(boxes, onGranted, null);
+    }
+
+    /**
+     * {@link #acquire(List, Consumer)} for callers that must hear about a
+     * queued lease that will never be granted.
+     *
+     * @param onDropped runs if the lease is still queued when the server
+     *                  stops; may be {@code null}
+     */
+    public Lease acquire(List<Box> boxes, Consumer<Lease> onGranted, Runnable onDropped) {
+        Lease lease = new Lease(boxes, onGranted, onDropped);
+        if (conflictsWithHeld(lease) || conflictsWithAny(lease, waiting)) {
+            waiting.addLast(lease);
+            return lease;
+        }
+        grant(lease);
+        if (onGranted != null) {
+            onGranted.accept(lease);
+        }
+        return lease;
+    }
+
+    /**
+     * True if a held lease covers any block of the box.
+     */
+    public boolean isLocked(Level level, BlockPos min, BlockPos max) {
+        Box box = Box.of(level, min, max);
+        RegionIndex<Lease> index = held.get(box.dimension);
+        return index != null && index.overlaps(box.minX, box.minY, box.minZ, box.maxX, box.maxY, box.maxZ);
+    }
+
+    public int getHeldCount() {
+        int count = 0;
+        for (RegionIndex<Lease> index : held.values()) {
+            count += index.size();
+        }
+        return count;
+    }
+
+    public int getWaitingCount() {
+        return waiting.size();
+    }
+
+    private void release(Lease lease) {
+        if (lease.released) {
+            return;
+        }
+        lease.released = true;
+        if (!lease.granted) {
+            waiting.remove(lease);
+        } else {
+            for (Box box : lease.boxes) {
+                RegionIndex<Lease> index = held.get(box.dimension);
+                if (index != null) {
+                    index.remove(box.minX, box.minY, box.minZ, box.maxX, box.maxY, box.maxZ, lease);
+                    if (index.isEmpty()) {
+                        held.remove(box.dimension);
+                    }
+                }
+            }
+        }
+        grantWaiting();
+    }
+
+    /**
+     * Grant queued leases in FIFO order. A lease is skipped while it overlaps
+     * a held lease or an earlier one that is still waiting. Callbacks may
+     * release leases again; that just triggers another round.
+     */
+    private void grantWaiting() {
+        if (granting) {
+            regrant = true;
+            return;
+        }
+        granting = true;
+        try {
+            do {
+                regrant = false;
+                List<Lease> granted = new ArrayList<>();
+                List<Lease> stillWaiting = new ArrayList<>();
+                for (Iterator<Lease> it = waiting.iterator(); it.hasNext();) {
+                    Lease lease = it.next();
+                    if (conflictsWithHeld(lease) || conflictsWithAny(lease, stillWaiting)) {
+                        stillWaiting.add(lease);
+                        continue;
+                    }
+                    it.remove();
+                    grant(lease);
+                    granted.add(lease);
+                }
+                for (Lease lease : granted) {
+                    if (lease.onGranted != null && !lease.released) {
+                        lease.onGranted.accept(lease);
+                    }
+                }
+            } while (regrant);
+        } finally {
+            granting = false;
+        }
+    }
+
+    private void grant(Lease lease) {
+        lease.granted = true;
+        for (Box box : lease.boxes) {
+            held.computeIfAbsent(box.dimension, k -> new RegionIndex<>())
+                    .add(box.minX, box.minY, box.minZ, box.maxX, box.maxY, box.maxZ, lease);
+        }
+    }
+
+    private boolean conflictsWithHeld(Lease lease) {
+        for (Box box : lease.boxes) {
+            RegionIndex<Lease> index = held.get(box.dimension);
+            if (index != null && index.overlaps(box.minX, box.minY, box.minZ, box.maxX, box.maxY, box.maxZ)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean conflictsWithAny(Lease lease, Iterable<Lease> others) {
+        for (Lease other : others) {
+            for (Box box : lease.boxes) {
+                for (Box otherBox : other.boxes) {
+                    if (box.overlaps(otherBox)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    @SubscribeEvent
+    public void onServerStopping(ServerStoppingEvent event) {
+        List<Lease> dropped = new ArrayList<>(waiting);
+        held.clear();
+        waiting.clear();
+        for (Lease lease : dropped) {
+            lease.released = true;
+            if (lease.onDropped != null) {
+                lease.onDropped.run();
+            }
+        }
+    }
+}
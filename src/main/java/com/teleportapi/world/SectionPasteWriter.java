@@ -0,0 +1,224 @@
+package com.teleportapi.world;
+
+import com.teleportapi.StructureSnapshot;
+import com.teleportapi.StructureTeleporter;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.levelgen.Heightmap;
+import net.minecraft.world.level.lighting.LevelLightEngine;
+import net.minecraft.world.level.lighting.LightEngine;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Section-batched paste writer.
+ * <p>
+ * Instead of one {@code Level#setBlock} per block (which updates heightmaps,
+ * queues a light check and marks the chunk dirty every time), blocks are
+ * grouped by chunk section and written straight into
+ * {@link LevelChunkSection#setBlockState}. Afterwards, once per touched chunk,
+ * heightmaps are re-primed, light is re-checked only where light properties
+ * actually changed, block entities are created and the chunk is marked unsaved.
+ * Neighbor updates only run on the structure's outer shell and clients are
+ * synced through {@link ClientSyncPlanner}.
+ * <p>
+ * Like other raw section writers, {@code onPlace}/{@code onRemove} callbacks
+ * are not fired for the written blocks.
+ */
+public class SectionPasteWriter {
+
+    /**
+     * Decides whether an incoming block replaces the existing one.
+     */
+    @FunctionalInterface
+    public interface ReplacePolicy {
+        boolean shouldReplace(BlockState existing, BlockState incoming);
+    }
+
+    /**
+     * Paste a snapshot so that its structure origin lands on {@code targetPos}.
+     *
+     * @return number of blocks that were actually changed
+     */
+    @SuppressWarnings("null")
+    public static int paste(ServerLevel level, StructureSnapshot snapshot, BlockPos targetPos, ReplacePolicy policy) {
+        BlockPos origin = targetPos.offset(snapshot.getOffset());
+        int minX = origin.getX();
+        int minZ = origin.getZ();
+        int maxX = minX + snapshot.getSizeX() - 1;
+        int maxZ = minZ + snapshot.getSizeZ() - 1;
+        int minY = Math.max(origin.getY(), level.getMinBuildHeight());
+        int maxY = Math.min(origin.getY() + snapshot.getSizeY() - 1, level.getMaxBuildHeight() - 1);
+        if (minY > maxY) {
+            return 0;
+        }
+
+        int changed = 0;
+        for (int cx = minX >> 4; cx <= maxX >> 4; cx++) {
+            for (int cz = minZ >> 4; cz <= maxZ >> 4; cz++) {
+                LevelChunk chunk = level.getChunk(cx, cz);
+                changed += writeChunk(level, chunk, snapshot, origin,
+                        Math.max(minX, cx << 4), Math.min(maxX, (cx << 4) + 15), minY, maxY,
+                        Math.max(minZ, cz << 4), Math.min(maxZ, (cz << 4) + 15), policy);
+            }
+        }
+
+        updateShell(level, snapshot, origin, minY, maxY);
+        return changed;
+    }
+
+    @SuppressWarnings("null")
+    private static int writeChunk(ServerLevel level, LevelChunk chunk, StructureSnapshot snapshot, BlockPos origin,
+            int x0, int x1, int minY, int maxY, int z0, int z1, ReplacePolicy policy) {
+        LevelLightEngine lightEngine = level.getChunkSource().getLightEngine();
+        ClientSyncPlanner planner = ClientSyncPlanner.get(level);
+        LongArrayList changedPositions = new LongArrayList();
+        List<BlockState> previousStates = new ArrayList<>();
+        int changed = 0;
+
+        for (int sy = minY >> 4; sy <= maxY >> 4; sy++) {
+            LevelChunkSection section = chunk.getSection(chunk.getSectionIndexFromSectionY(sy));
+            boolean wasEmpty = section.hasOnlyAir();
+            int y0 = Math.max(minY, sy << 4);
+            int y1 = Math.min(maxY, (sy << 4) + 15);
+            int sectionStart = changedPositions.size();
+
+            // Raw writes only while the section is held; side effects run afterwards
+            section.acquire();
+            try {
+                for (int y = y0; y <= y1; y++) {
+                    for (int x = x0; x <= x1; x++) {
+                        for (int z = z0; z <= z1; z++) {
+                            int index = snapshot.index(x - origin.getX(), y - origin.getY(), z - origin.getZ());
+                            BlockState incoming = snapshot.getState(index);
+                            if (incoming == null) {
+                                continue;
+                            }
+                            BlockState existing = section.getBlockState(x & 15, y & 15, z & 15);
+                            if (existing == incoming && !incoming.hasBlockEntity()) {
+                                continue;
+                            }
+                            if (!policy.shouldReplace(existing, incoming)) {
+                                continue;
+                            }
+                            section.setBlockState(x & 15, y & 15, z & 15, incoming, false);
+                            changedPositions.add(BlockPos.asLong(x, y, z));
+                            previousStates.add(existing);
+                        }
+                    }
+                }
+            } finally {
+                section.release();
+            }
+
+            boolean isEmpty = section.hasOnlyAir();
+            if (wasEmpty != isEmpty) {
+                lightEngine.updateSectionStatus(SectionPos.of(chunk.getPos(), sy), isEmpty);
+            }
+            changed += changedPositions.size() - sectionStart;
+        }
+
+        if (changed == 0) {
+            return 0;
+        }
+
+        // Once per chunk: heightmaps
+        Set<Heightmap.Types> heightmapTypes = EnumSet.noneOf(Heightmap.Types.class);
+        for (Map.Entry<Heightmap.Types, Heightmap> entry : chunk.getHeightmaps()) {
+            heightmapTypes.add(entry.getKey());
+        }
+        if (!heightmapTypes.isEmpty()) {
+            Heightmap.primeHeightmaps(chunk, heightmapTypes);
+        }
+
+        // Once per chunk: light, POI and block entities for the changed positions
+        for (int i = 0; i < changedPositions.size(); i++) {
+            BlockPos pos = BlockPos.of(changedPositions.getLong(i));
+            BlockState previous = previousStates.get(i);
+            BlockState state = chunk.getBlockState(pos);
+
+            if (previous.hasBlockEntity()) {
+                chunk.removeBlockEntity(pos);
+            }
+            if (LightEngine.hasDifferentLightProperties(chunk, pos, previous, state)) {
+                chunk.getSkyLightSources().update(chunk, pos.getX() & 15, pos.getY(), pos.getZ() & 15);
+                lightEngine.checkBlock(pos);
+            }
+            level.onBlockStateChange(pos, previous, state);
+
+            if (state.hasBlockEntity()) {
+                BlockEntity be = chunk.getBlockEntity(pos, LevelChunk.EntityCreationType.IMMEDIATE);
+                CompoundTag nbt = snapshot.getBlockEntityTag(
+                        snapshot.index(pos.getX() - origin.getX(), pos.getY() - origin.getY(),
+                                pos.getZ() - origin.getZ()));
+                if (be != null && nbt != null) {
+                    CompoundTag tag = nbt.copy();
+                    tag.putInt("x", pos.getX());
+                    tag.putInt("y", pos.getY());
+                    tag.putInt("z", pos.getZ());
+                    tag.remove("id");
+                    be.load(tag);
+                    be.setChanged();
+                }
+            }
+
+            planner.blockChanged(pos);
+        }
+
+        chunk.setUnsaved(true);
+        return changed;
+    }
+
+    /**
+     * Neighbor/shape updates and survival checks for the outer shell of the
+     * pasted box, plus notification of the blocks just outside it. Interior
+     * blocks were captured together and are already consistent with each other.
+     */
+    @SuppressWarnings("null")
+    private static void updateShell(ServerLevel level, StructureSnapshot snapshot, BlockPos origin, int minY,
+            int maxY) {
+        int sizeX = snapshot.getSizeX();
+        int sizeY = snapshot.getSizeY();
+        int sizeZ = snapshot.getSizeZ();
+
+        for (int x = 0; x < sizeX; x++) {
+            for (int y = 0; y < sizeY; y++) {
+                int worldY = origin.getY() + y;
+                if (worldY < minY || worldY > maxY) {
+                    continue;
+                }
+                boolean xyShell = x == 0 || x == sizeX - 1 || y == 0 || y == sizeY - 1;
+                // Interior rows only need their two Z end caps
+                int zStep = xyShell ? 1 : Math.max(1, sizeZ - 1);
+                for (int z = 0; z < sizeZ; z += zStep) {
+                    if (!snapshot.isPresent(snapshot.index(x, y, z))) {
+                        continue;
+                    }
+                    BlockPos pos = origin.offset(x, y, z);
+                    BlockState state = level.getBlockState(pos);
+
+                    level.updateNeighborsAt(pos, state.getBlock());
+                    state.updateNeighbourShapes(level, pos, 3);
+                    if (!state.canSurvive(level, pos)) {
+                        level.destroyBlock(pos, true);
+                    }
+                }
+            }
+        }
+
+        StructureTeleporter.notifyBoundingBoxNeighbors(level,
+                new BlockPos(origin.getX(), minY, origin.getZ()),
+                new BlockPos(origin.getX() + sizeX - 1, maxY, origin.getZ() + sizeZ - 1));
+    }
+}
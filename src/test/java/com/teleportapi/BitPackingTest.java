@@ -0,0 +1,58 @@
+package com.teleportapi;
+
+import com.teleportapi.structure.BitPacking;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the packed id layout of structure file sections.
+ */
+class BitPackingTest {
+
+    @Test
+    void testBitsFor() {
+        assertEquals(0, BitPacking.bitsFor(0));
+        assertEquals(0, BitPacking.bitsFor(1));
+        assertEquals(1, BitPacking.bitsFor(2));
+        assertEquals(2, BitPacking.bitsFor(3));
+        assertEquals(2, BitPacking.bitsFor(4));
+        assertEquals(3, BitPacking.bitsFor(5));
+        assertEquals(13, BitPacking.bitsFor(4097));
+    }
+
+    @Test
+    void testValuesDoNotSpanLongs() {
+        // 5 bits: 12 values per long, the top 4 bits stay unused
+        assertEquals(342, BitPacking.longsFor(4096, 5));
+        assertEquals(64, BitPacking.longsFor(4096, 1));
+        assertEquals(0, BitPacking.longsFor(4096, 0));
+    }
+
+    @Test
+    void testRoundTrip() {
+        Random random = new Random(7);
+        for (int bits = 1; bits <= 13; bits++) {
+            int[] values = new int[4096];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = random.nextInt(1 << bits);
+            }
+            long[] packed = BitPacking.pack(values, bits);
+            assertEquals(BitPacking.longsFor(values.length, bits), packed.length);
+            assertArrayEquals(values, BitPacking.unpack(packed, bits, values.length), "bits=" + bits);
+        }
+    }
+
+    @Test
+    void testZeroBitsUnpacksToZeros() {
+        assertEquals(0, BitPacking.pack(new int[16], 0).length);
+        assertArrayEquals(new int[16], BitPacking.unpack(new long[0], 0, 16));
+    }
+
+    @Test
+    void testShortInputRejected() {
+        assertThrows(IllegalArgumentException.class, () -> BitPacking.unpack(new long[1], 4, 100));
+    }
+}
@@ -0,0 +1,59 @@
+package com.teleportapi;
+
+import com.teleportapi.world.RegionIndex;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the box overlap index behind RegionLockManager.
+ */
+class RegionIndexTest {
+
+    @Test
+    void testOverlapIsInclusive() {
+        RegionIndex<String> index = new RegionIndex<>();
+        index.add(0, 0, 0, 9, 9, 9, "a");
+
+        assertEquals("a", index.findOverlap(9, 9, 9, 12, 12, 12));
+        assertNull(index.findOverlap(10, 0, 0, 12, 9, 9));
+        assertNull(index.findOverlap(0, 10, 0, 9, 12, 9));
+        assertNull(index.findOverlap(0, 0, -5, 9, 9, -1));
+    }
+
+    @Test
+    void testWideBoxStartingFarLeftIsFound() {
+        RegionIndex<String> index = new RegionIndex<>();
+        index.add(-1000, 0, 0, 1000, 0, 0, "wide");
+        index.add(50, 0, 0, 51, 0, 0, "narrow");
+
+        // The wide box starts long before the query; the extent bound must still reach it
+        assertEquals("wide", index.findOverlap(500, 0, 0, 501, 0, 0));
+        assertTrue(index.overlaps(50, 0, 0, 50, 0, 0));
+    }
+
+    @Test
+    void testRemoveMatchesValueAndBounds() {
+        RegionIndex<String> index = new RegionIndex<>();
+        String a = "a";
+        String b = "b";
+        index.add(0, 0, 0, 5, 5, 5, a);
+        index.add(0, 0, 0, 5, 5, 5, b);
+        assertEquals(2, index.size());
+
+        assertFalse(index.remove(0, 0, 0, 5, 5, 6, a));
+        assertTrue(index.remove(0, 0, 0, 5, 5, 5, a));
+        assertEquals("b", index.findOverlap(1, 1, 1, 1, 1, 1));
+        assertTrue(index.remove(0, 0, 0, 5, 5, 5, b));
+        assertTrue(index.isEmpty());
+        assertNull(index.findOverlap(1, 1, 1, 1, 1, 1));
+    }
+
+    @Test
+    void testExtremeCoordinates() {
+        RegionIndex<String> index = new RegionIndex<>();
+        index.add(Integer.MIN_VALUE, 0, 0, Integer.MIN_VALUE + 10, 0, 0, "edge");
+        assertEquals("edge", index.findOverlap(Integer.MIN_VALUE, 0, 0, Integer.MIN_VALUE, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> index.add(1, 0, 0, 0, 0, 0, "empty"));
+    }
+}
@@ -0,0 +1,177 @@
+package com.teleportapi;
+
+import com.teleportapi.world.RegionLockManager;
+import com.teleportapi.world.RegionLockManager.Box;
+import com.teleportapi.world.RegionLockManager.Lease;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.Level;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for lease granting and queueing in RegionLockManager.
+ */
+class RegionLockManagerTest {
+
+    private static final ResourceKey<Level> OVERWORLD = ResourceKey.create(Registries.DIMENSION,
+            new ResourceLocation("teleportapi", "test_overworld"));
+    private static final ResourceKey<Level> NETHER = ResourceKey.create(Registries.DIMENSION,
+            new ResourceLocation("teleportapi", "test_nether"));
+
+    private RegionLockManager locks;
+
+    @BeforeEach
+    void setUp() {
+        locks = new RegionLockManager();
+    }
+
+    private static Box box(ResourceKey<Level> dimension, int minX, int maxX) {
+        return new Box(dimension, new BlockPos(minX, 0, 0), new BlockPos(maxX, 10, 10));
+    }
+
+    @Test
+    void testTryAcquireFailsOnOverlapOnly() {
+        Lease first = locks.tryAcquire(List.of(box(OVERWORLD, 0, 9)));
+        assertNotNull(first);
+        assertTrue(first.isGranted());
+
+        assertNull(locks.tryAcquire(List.of(box(OVERWORLD, 9, 20))));
+        assertNotNull(locks.tryAcquire(List.of(box(OVERWORLD, 10, 20))));
+        // Same coordinates in another dimension do not overlap
+        assertNotNull(locks.tryAcquire(List.of(box(NETHER, 0, 9))));
+        assertEquals(3, locks.getHeldCount());
+        assertEquals(0, locks.getWaitingCount());
+
+        first.release();
+        assertTrue(first.isReleased());
+        assertNotNull(locks.tryAcquire(List.of(box(OVERWORLD, 9, 9))));
+    }
+
+    @Test
+    void testTryAcquireRespectsQueuedLeases() {
+        Lease held = locks.tryAcquire(List.of(box(OVERWORLD, 0, 9)));
+        Lease queued = locks.acquire(List.of(box(OVERWORLD, 5, 30)), null);
+        assertFalse(queued.isGranted());
+
+        // Free of held boxes, but it would jump the queued lease
+        assertNull(locks.tryAcquire(List.of(box(OVERWORLD, 20, 25))));
+
+        held.release();
+        assertTrue(queued.isGranted());
+    }
+
+    @Test
+    void testAcquireGrantsImmediatelyWithoutConflict() {
+        List<Lease> granted = new ArrayList<>();
+        Lease lease = locks.acquire(List.of(box(OVERWORLD, 0, 9), box(NETHER, 0, 9)), granted::add);
+
+        assertTrue(lease.isGranted());
+        assertEquals(List.of(lease), granted);
+        assertEquals(2, locks.getHeldCount());
+    }
+
+    @Test
+    void testQueuedLeasesAreGrantedInOrderSkippingOnlyOverlaps() {
+        Lease held = locks.tryAcquire(List.of(box(OVERWORLD, 0, 9)));
+        List<String> order = new ArrayList<>();
+
+        Lease a = locks.acquire(List.of(box(OVERWORLD, 0, 5)), l -> order.add("a"));
+        // Overlaps the waiting lease a, so it has to wait behind it
+        Lease b = locks.acquire(List.of(box(OVERWORLD, 5, 15)), l -> order.add("b"));
+        // Disjoint from everything held and queued: granted right away
+        Lease c = locks.acquire(List.of(box(NETHER, 0, 9)), l -> order.add("c"));
+
+        assertEquals(List.of("c"), order);
+        assertEquals(2, locks.getWaitingCount());
+
+        held.release();
+        assertEquals(List.of("c", "a"), order);
+        assertTrue(a.isGranted());
+        assertFalse(b.isGranted());
+
+        a.release();
+        assertEquals(List.of("c", "a", "b"), order);
+        assertTrue(b.isGranted());
+        assertTrue(c.isGranted());
+        assertEquals(0, locks.getWaitingCount());
+    }
+
+    @Test
+    void testLaterDisjointWaiterIsNotBlockedByEarlierOne() {
+        Lease held = locks.tryAcquire(List.of(box(OVERWORLD, 0, 9), box(OVERWORLD, 50, 59)));
+        Lease first = locks.acquire(List.of(box(OVERWORLD, 0, 9)), null);
+        Lease second = locks.acquire(List.of(box(OVERWORLD, 50, 59)), null);
+
+        held.release();
+        assertTrue(first.isGranted());
+        assertTrue(second.isGranted());
+    }
+
+    @Test
+    void testReleaseFromOnGrantedGrantsNextWaiter() {
+        Lease held = locks.tryAcquire(List.of(box(OVERWORLD, 0, 9)));
+        List<String> order = new ArrayList<>();
+
+        // A job that finishes inside its grant callback releases re-entrantly
+        Lease a = locks.acquire(List.of(box(OVERWORLD, 0, 9)), l -> {
+            order.add("a");
+            l.release();
+        });
+        Lease b = locks.acquire(List.of(box(OVERWORLD, 0, 9)), l -> order.add("b"));
+
+        held.release();
+        assertEquals(List.of("a", "b"), order);
+        assertTrue(a.isReleased());
+        assertTrue(b.isGranted());
+        assertEquals(1, locks.getHeldCount());
+        assertEquals(0, locks.getWaitingCount());
+    }
+
+    @Test
+    void testReleasingQueuedLeaseLeavesTheQueue() {
+        Lease held = locks.tryAcquire(List.of(box(OVERWORLD, 0, 9)));
+        List<String> order = new ArrayList<>();
+        Lease a = locks.acquire(List.of(box(OVERWORLD, 0, 20)), l -> order.add("a"));
+        Lease b = locks.acquire(List.of(box(OVERWORLD, 15, 20)), l -> order.add("b"));
+
+        // b was only waiting behind a
+        a.release();
+        assertEquals(List.of("b"), order);
+        assertFalse(a.isGranted());
+        assertTrue(b.isGranted());
+
+        held.release();
+        assertEquals(List.of("b"), order);
+        assertEquals(1, locks.getHeldCount());
+        assertEquals(0, locks.getWaitingCount());
+    }
+
+    @Test
+    void testServerStopDropsQueuedLeases() {
+        Lease held = locks.tryAcquire(List.of(box(OVERWORLD, 0, 9)));
+        int[] dropped = { 0 };
+        List<String> granted = new ArrayList<>();
+        Lease queued = locks.acquire(List.of(box(OVERWORLD, 0, 9)), l -> granted.add("queued"),
+                () -> dropped[0]++);
+
+        locks.onServerStopping(null);
+        assertEquals(1, dropped[0]);
+        assertTrue(queued.isReleased());
+        assertEquals(0, locks.getHeldCount());
+        assertEquals(0, locks.getWaitingCount());
+
+        // Releases arriving after the stop are harmless and grant nothing
+        held.release();
+        queued.release();
+        assertTrue(granted.isEmpty());
+        assertEquals(1, dropped[0]);
+    }
+}
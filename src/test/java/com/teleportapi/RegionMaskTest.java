@@ -0,0 +1,142 @@
+package com.teleportapi;
+
+import net.minecraft.core.BlockPos;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for RegionMask indexing and the Set adapter.
+ */
+class RegionMaskTest {
+
+    @Test
+    void testIndexMatchesScanLayout() {
+        RegionMask mask = new RegionMask(new BlockPos(10, 20, 30), new BlockPos(13, 22, 31));
+        assertEquals(4, mask.getSizeX());
+        assertEquals(3, mask.getSizeY());
+        assertEquals(2, mask.getSizeZ());
+        assertEquals(24, mask.getVolume());
+
+        assertEquals(0, mask.index(10, 20, 30));
+        assertEquals(1 + 4 * (2 + 3 * 1), mask.index(11, 22, 31));
+        assertEquals(-1, mask.index(9, 20, 30));
+        assertEquals(-1, mask.index(10, 23, 30));
+    }
+
+    @Test
+    void testSetAndContains() {
+        RegionMask mask = new RegionMask(new BlockPos(0, 0, 0), new BlockPos(2, 2, 2));
+        mask.set(1, 1, 1);
+
+        assertTrue(mask.contains(1, 1, 1));
+        assertTrue(mask.contains(new BlockPos(1, 1, 1)));
+        assertFalse(mask.contains(0, 0, 0));
+        assertFalse(mask.contains(5, 5, 5));
+        assertEquals(1, mask.cardinality());
+        assertThrows(IllegalArgumentException.class, () -> mask.set(3, 0, 0));
+
+        mask.clear(1, 1, 1);
+        assertTrue(mask.isEmpty());
+    }
+
+    @Test
+    void testOfRoundTrip() {
+        Set<BlockPos> positions = new HashSet<>(List.of(
+                new BlockPos(-3, 64, 7), new BlockPos(2, 70, 7), new BlockPos(0, 65, 9)));
+        RegionMask mask = RegionMask.of(positions);
+
+        assertEquals(new BlockPos(-3, 64, 7), mask.getMin());
+        assertEquals(new BlockPos(2, 70, 9), mask.getMax());
+        assertEquals(positions, mask.toPositionSet());
+        assertEquals(positions, mask.asSet());
+        assertTrue(mask.asSet().contains(new BlockPos(0, 65, 9)));
+        assertFalse(mask.asSet().contains(new BlockPos(0, 65, 8)));
+    }
+
+    @Test
+    void testEmptyAndFull() {
+        assertTrue(RegionMask.of(new HashSet<>()).isEmpty());
+        assertTrue(RegionMask.empty().asSet().isEmpty());
+        assertFalse(RegionMask.empty().contains(0, 0, 0));
+
+        RegionMask full = RegionMask.full(new BlockPos(0, 0, 0), new BlockPos(1, 1, 1));
+        assertEquals(8, full.cardinality());
+        assertEquals(8, full.asSet().size());
+    }
+
+    @Test
+    void testUnionIntersectSubtractAcrossBoxes() {
+        RegionMask a = RegionMask.full(new BlockPos(0, 0, 0), new BlockPos(3, 0, 0));
+        RegionMask b = RegionMask.full(new BlockPos(2, 0, 0), new BlockPos(5, 0, 0));
+
+        RegionMask union = a.union(b);
+        assertEquals(new BlockPos(0, 0, 0), union.getMin());
+        assertEquals(new BlockPos(5, 0, 0), union.getMax());
+        assertEquals(6, union.cardinality());
+
+        RegionMask intersection = a.intersect(b);
+        assertEquals(Set.of(new BlockPos(2, 0, 0), new BlockPos(3, 0, 0)), intersection.toPositionSet());
+
+        RegionMask difference = a.subtract(b);
+        assertEquals(Set.of(new BlockPos(0, 0, 0), new BlockPos(1, 0, 0)), difference.toPositionSet());
+
+        RegionMask far = RegionMask.full(new BlockPos(10, 10, 10), new BlockPos(11, 11, 11));
+        assertTrue(a.intersect(far).isEmpty());
+        assertEquals(a.toPositionSet(), a.union(RegionMask.empty()).toPositionSet());
+    }
+
+    @Test
+    void testSameBoxOperationsDoNotModifyOperands() {
+        BlockPos min = new BlockPos(0, 0, 0);
+        BlockPos max = new BlockPos(1, 1, 1);
+        RegionMask a = new RegionMask(min, max);
+        a.set(0, 0, 0);
+        a.set(1, 1, 1);
+        RegionMask b = new RegionMask(min, max);
+        b.set(1, 1, 1);
+
+        assertEquals(2, a.union(b).cardinality());
+        assertEquals(1, a.intersect(b).cardinality());
+        assertEquals(Set.of(new BlockPos(0, 0, 0)), a.subtract(b).toPositionSet());
+        assertEquals(2, a.cardinality());
+        assertEquals(1, b.cardinality());
+    }
+
+    @Test
+    void testDilateAndErode() {
+        RegionMask single = new RegionMask(new BlockPos(5, 5, 5), new BlockPos(5, 5, 5));
+        single.set(5, 5, 5);
+
+        RegionMask grown = single.dilate(1);
+        assertEquals(new BlockPos(4, 4, 4), grown.getMin());
+        assertEquals(7, grown.cardinality());
+        assertTrue(grown.contains(4, 5, 5));
+        assertFalse(grown.contains(4, 4, 5), "Dilation is face-connected");
+        assertEquals(25, single.dilate(2).cardinality());
+
+        // Eroding the plus shape leaves only its centre
+        RegionMask eroded = grown.erode(1);
+        assertEquals(Set.of(new BlockPos(5, 5, 5)), eroded.toPositionSet());
+
+        RegionMask cube = RegionMask.full(new BlockPos(0, 0, 0), new BlockPos(4, 4, 4));
+        assertEquals(27, cube.erode(1).cardinality());
+        assertEquals(1, cube.erode(2).cardinality());
+        assertTrue(cube.erode(3).isEmpty());
+    }
+
+    @Test
+    void testReframe() {
+        RegionMask mask = new RegionMask(new BlockPos(0, 0, 0), new BlockPos(9, 9, 9));
+        mask.set(2, 3, 4);
+        mask.set(9, 9, 9);
+
+        RegionMask reframed = mask.reframe(new BlockPos(2, 3, 4), new BlockPos(3, 4, 5));
+        assertEquals(Set.of(new BlockPos(2, 3, 4)), reframed.toPositionSet());
+        assertTrue(reframed.getBits().get(0));
+    }
+}
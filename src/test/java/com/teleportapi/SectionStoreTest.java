@@ -0,0 +1,91 @@
+package com.teleportapi;
+
+import com.teleportapi.structure.SectionStore;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for sharing, reference counting and eviction in the section store.
+ */
+class SectionStoreTest {
+
+    @Test
+    void testIdenticalDataIsStoredOnce() {
+        SectionStore store = new SectionStore(0);
+        long a = store.intern(new byte[] { 1, 2, 3 });
+        long b = store.intern(new byte[] { 1, 2, 3 });
+        long c = store.intern(new byte[] { 4, 5 });
+
+        assertEquals(a, b);
+        assertNotEquals(a, c);
+        assertNotEquals(0L, a);
+        assertEquals(2, store.getSectionCount());
+        assertEquals(2, store.getReferenceCount(a));
+        assertEquals(5, store.getReferencedBytes());
+        assertEquals(8, store.getLogicalBytes());
+        assertArrayEquals(new byte[] { 1, 2, 3 }, store.get(a));
+    }
+
+    @Test
+    void testLastReleaseEvictsWithoutCache() {
+        SectionStore store = new SectionStore(0);
+        long hash = store.intern(new byte[] { 7 });
+        store.retain(hash);
+
+        store.release(hash);
+        assertTrue(store.contains(hash));
+        store.release(hash);
+        assertFalse(store.contains(hash));
+        assertEquals(0, store.getStoredBytes());
+        assertEquals(0, store.getLogicalBytes());
+        assertThrows(IllegalStateException.class, () -> store.get(hash));
+    }
+
+    @Test
+    void testUnreferencedSectionsAreCachedOldestFirst() {
+        SectionStore store = new SectionStore(4);
+        long first = store.intern(new byte[] { 1, 1 });
+        long second = store.intern(new byte[] { 2, 2 });
+        long third = store.intern(new byte[] { 3, 3 });
+
+        store.release(first);
+        store.release(second);
+        assertTrue(store.contains(first));
+        assertTrue(store.contains(second));
+
+        // Cache over budget: the oldest unreferenced section goes
+        store.release(third);
+        assertFalse(store.contains(first));
+        assertTrue(store.contains(second));
+        assertTrue(store.contains(third));
+        assertEquals(0, store.getReferencedBytes());
+        assertEquals(4, store.getStoredBytes());
+    }
+
+    @Test
+    void testInterningRevivesCachedSection() {
+        SectionStore store = new SectionStore(1024);
+        long hash = store.intern(new byte[] { 9, 9, 9 });
+        store.release(hash);
+        assertEquals(0, store.getReferenceCount(hash));
+
+        assertEquals(hash, store.intern(new byte[] { 9, 9, 9 }));
+        assertEquals(1, store.getReferenceCount(hash));
+        assertEquals(3, store.getReferencedBytes());
+
+        // Shrinking the cache must not evict referenced sections
+        store.setCacheBudget(0);
+        assertTrue(store.contains(hash));
+    }
+
+    @Test
+    void testReleaseOfUnknownHashIsIgnored() {
+        SectionStore store = new SectionStore(0);
+        long hash = store.intern(new byte[] { 1 });
+        store.clear();
+        store.release(hash);
+        assertEquals(0, store.getSectionCount());
+        assertThrows(IllegalStateException.class, () -> store.retain(hash));
+    }
+}
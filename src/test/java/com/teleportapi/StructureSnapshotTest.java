@@ -0,0 +1,85 @@
+package com.teleportapi;
+
+import net.minecraft.core.BlockPos;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for StructureSnapshot layout and legacy list adapters.
+ * Note: BlockState instances require a bootstrapped registry, so these tests
+ * only cover the parts that do not need real block states.
+ */
+class StructureSnapshotTest {
+
+    @Test
+    void testNewSnapshotIsEmpty() {
+        StructureSnapshot snapshot = new StructureSnapshot(4, 3, 2);
+
+        assertTrue(snapshot.isEmpty());
+        assertEquals(0, snapshot.getBlockCount());
+        assertEquals(24, snapshot.getVolume());
+        assertEquals(BlockPos.ZERO, snapshot.getOffset());
+        // Palette slot 0 is reserved for "not captured"
+        assertEquals(1, snapshot.getPalette().size());
+        assertNull(snapshot.getPalette().get(0));
+        assertTrue(snapshot.toBlockDataList().isEmpty());
+    }
+
+    @Test
+    void testIndexMatchesValidBlocksMaskLayout() {
+        StructureSnapshot snapshot = new StructureSnapshot(5, 4, 3);
+        int width = 5;
+        int height = 4;
+
+        for (int x = 0; x < 5; x++) {
+            for (int y = 0; y < 4; y++) {
+                for (int z = 0; z < 3; z++) {
+                    assertEquals(x + width * (y + height * z), snapshot.index(x, y, z));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testInvalidSizesRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new StructureSnapshot(0, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new StructureSnapshot(1, -1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new StructureSnapshot(70000, 70000, 70000));
+    }
+
+    @Test
+    void testFromBlockDataListNullOrEmpty() {
+        assertNull(StructureSnapshot.fromBlockDataList(null));
+        assertNull(StructureSnapshot.fromBlockDataList(new ArrayList<>()));
+    }
+
+    @Test
+    void testFromBlockDataListDerivesBoundsAndOffset() {
+        List<StructureTeleporter.BlockData> blocks = new ArrayList<>();
+        blocks.add(new StructureTeleporter.BlockData(new BlockPos(-2, 0, 5), null, null));
+        blocks.add(new StructureTeleporter.BlockData(new BlockPos(3, 4, 7), null, null));
+
+        StructureSnapshot snapshot = StructureSnapshot.fromBlockDataList(blocks);
+
+        assertNotNull(snapshot);
+        assertEquals(6, snapshot.getSizeX());
+        assertEquals(5, snapshot.getSizeY());
+        assertEquals(3, snapshot.getSizeZ());
+        assertEquals(new BlockPos(-2, 0, 5), snapshot.getOffset());
+        // Null states are treated as "not captured"
+        assertTrue(snapshot.isEmpty());
+    }
+
+    @Test
+    void testPackedIdsSizedForVolume() {
+        StructureSnapshot snapshot = new StructureSnapshot(16, 16, 16);
+
+        assertEquals(1, snapshot.getBitsPerBlock());
+        // 4096 voxels at 1 bit each fit in 64 longs
+        assertEquals(64, snapshot.getPackedIds().length);
+    }
+}
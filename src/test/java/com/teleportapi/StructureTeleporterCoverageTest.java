@@ -132,4 +132,30 @@ public class StructureTeleporterCoverageTest {
         assertTrue(enclosed.contains(new BlockPos(1, 1, 1)), "Interior of L-shape should be enclosed");
         assertFalse(enclosed.contains(new BlockPos(4, 4, 4)), "Outside point should not be enclosed");
     }
+
+    @Test
+    void testEnclosedMaskMatchesPositionSet() {
+        BlockPos min = new BlockPos(-2, 60, 5);
+        BlockPos max = new BlockPos(2, 64, 9);
+
+        // Hollow 5x5x5 box with a hole in the top face
+        StructureTeleporter.StateProvider<String> provider = pos -> {
+            boolean face = pos.getX() == -2 || pos.getX() == 2 || pos.getY() == 60 || pos.getY() == 64
+                    || pos.getZ() == 5 || pos.getZ() == 9;
+            boolean hole = pos.getX() == 0 && pos.getY() == 64 && pos.getZ() == 7;
+            return face && !hole ? "hull" : "air";
+        };
+        StructureTeleporter.StateMatcher<String> matcher = (s, l) -> l.contains(s);
+
+        RegionMask mask = StructureTeleporter.getEnclosedMaskGeneric(min, max, coverageBlocks, provider, matcher);
+        Set<BlockPos> enclosed = StructureTeleporter.getEnclosedPositionsGeneric(min, max, coverageBlocks, provider,
+                matcher);
+
+        assertEquals(min, mask.getMin());
+        assertEquals(max, mask.getMax());
+        assertEquals(enclosed, mask.toPositionSet());
+        // Shell minus the hole; the interior is reachable through the hole
+        assertEquals(5 * 5 * 5 - 3 * 3 * 3 - 1, mask.cardinality());
+        assertFalse(mask.contains(0, 62, 7));
+    }
 }
@@ -0,0 +1,86 @@
+package com.teleportapi;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the TeleportJob handle state machine.
+ */
+class TeleportJobTest {
+
+    @Test
+    void testCompletedJob() {
+        TeleportResult result = TeleportResult.builder().success(true).message("done").build();
+        TeleportJob job = TeleportJob.completed(result);
+
+        assertTrue(job.isDone());
+        assertEquals(TeleportJob.Phase.COMPLETED, job.getPhase());
+        assertSame(result, job.getFuture().join());
+        assertEquals(1.0, job.getProgress());
+    }
+
+    @Test
+    void testCancelOnlyBeforeCompletion() {
+        TeleportJob job = new TeleportJob();
+        assertTrue(job.cancel(true));
+        assertTrue(job.isCancelRequested());
+        assertTrue(job.isRollbackRequested());
+
+        job.completeCancelled(TeleportResult.builder().success(false).message("cancelled").build());
+        assertEquals(TeleportJob.Phase.CANCELLED, job.getPhase());
+        assertFalse(job.cancel(false));
+    }
+
+    @Test
+    void testCancelHookRunsOnCancel() {
+        TeleportJob job = new TeleportJob();
+        int[] runs = new int[1];
+        job.setCancelHook(() -> runs[0]++);
+        assertEquals(0, runs[0]);
+
+        assertTrue(job.cancel(false));
+        assertEquals(1, runs[0]);
+    }
+
+    @Test
+    void testCancelHookRunsAtOnceOnCancelledJob() {
+        TeleportJob job = new TeleportJob();
+        job.cancel(false);
+        int[] runs = new int[1];
+        job.setCancelHook(() -> runs[0]++);
+        assertEquals(1, runs[0]);
+    }
+
+    @Test
+    void testPauseAndResume() {
+        TeleportJob job = new TeleportJob();
+        job.pause();
+        assertTrue(job.isPaused());
+        job.resume();
+        assertFalse(job.isPaused());
+    }
+
+    @Test
+    void testProgress() {
+        TeleportJob job = new TeleportJob();
+        assertEquals(0.0, job.getProgress());
+        job.setProgress(25, 100);
+        assertEquals(0.25, job.getProgress(), 1e-9);
+        assertEquals(25, job.getBlocksDone());
+        assertEquals(100, job.getBlocksTotal());
+    }
+
+    @Test
+    void testFailCompletesExceptionally() {
+        TeleportJob job = new TeleportJob();
+        job.fail(new IllegalStateException("boom"));
+        assertEquals(TeleportJob.Phase.FAILED, job.getPhase());
+        assertTrue(job.getFuture().isCompletedExceptionally());
+    }
+
+    @Test
+    void testIdsAreUnique() {
+        assertNotEquals(new TeleportJob().getId(), new TeleportJob().getId());
+    }
+}
@@ -0,0 +1,101 @@
+package com.teleportapi;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for PhaseTimings and the histograms of TeleportMetrics.
+ */
+class TeleportMetricsTest {
+
+    @Test
+    void testHistogramBuckets() {
+        assertEquals(0, TeleportMetrics.Histogram.bucketOf(0));
+        assertEquals(1, TeleportMetrics.Histogram.bucketOf(1));
+        assertEquals(2, TeleportMetrics.Histogram.bucketOf(2));
+        assertEquals(2, TeleportMetrics.Histogram.bucketOf(3));
+        assertEquals(3, TeleportMetrics.Histogram.bucketOf(4));
+        assertEquals(63, TeleportMetrics.Histogram.bucketOf(Long.MAX_VALUE));
+    }
+
+    @Test
+    void testHistogramStatistics() {
+        TeleportMetrics.Histogram histogram = new TeleportMetrics.Histogram();
+        assertEquals(0, histogram.getPercentile(0.5));
+
+        for (int i = 0; i < 99; i++) {
+            histogram.record(10);
+        }
+        histogram.record(5000);
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(99 * 10 + 5000, histogram.getSum());
+        assertEquals(5000, histogram.getMax());
+        // 10 lies in [8, 16)
+        assertEquals(15, histogram.getPercentile(0.5));
+        // The top percentile is capped at the recorded maximum
+        assertEquals(5000, histogram.getPercentile(1.0));
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+    }
+
+    @Test
+    void testPhaseTimingsAccumulate() {
+        PhaseTimings timings = new PhaseTimings();
+        timings.add(PhaseTimings.Phase.PASTE, 100);
+        timings.add(PhaseTimings.Phase.PASTE, 50);
+        timings.add(PhaseTimings.Phase.SCAN, 25);
+        timings.add(PhaseTimings.Phase.CHUNK_LOAD_WAIT, 1000);
+        timings.addTick();
+        timings.addTick();
+
+        assertEquals(150, timings.getNanos(PhaseTimings.Phase.PASTE));
+        // Waiting for chunks is not busy time
+        assertEquals(175, timings.getBusyNanos());
+        assertEquals(2, timings.getTicksSpanned());
+
+        PhaseTimings copy = timings.copy();
+        timings.add(PhaseTimings.Phase.PASTE, 1);
+        assertEquals(150, copy.getNanos(PhaseTimings.Phase.PASTE));
+        assertEquals(2, copy.getTicksSpanned());
+    }
+
+    @Test
+    void testAllocationIsNonNegativeOrUnsupported() {
+        PhaseTimings timings = new PhaseTimings();
+        timings.beginAllocation();
+        byte[][] garbage = new byte[64][];
+        for (int i = 0; i < garbage.length; i++) {
+            garbage[i] = new byte[1024];
+        }
+        timings.endAllocation();
+
+        if (PhaseTimings.currentThreadAllocatedBytes() < 0) {
+            assertEquals(-1, timings.getAllocatedBytes());
+        } else {
+            assertTrue(timings.getAllocatedBytes() >= 64 * 1024, "allocated " + timings.getAllocatedBytes());
+        }
+        assertEquals(64, garbage.length);
+    }
+
+    @Test
+    void testRegistryRecordsTeleports() {
+        TeleportMetrics metrics = TeleportMetrics.getInstance();
+        metrics.reset();
+
+        PhaseTimings timings = new PhaseTimings();
+        timings.add(PhaseTimings.Phase.CLEAR, 2000);
+        timings.setTicksSpanned(3);
+        metrics.record(timings);
+
+        assertEquals(1, metrics.getTeleportCount());
+        assertEquals(2000, metrics.getPhase(PhaseTimings.Phase.CLEAR).getSum());
+        assertEquals(1, metrics.getPhase(PhaseTimings.Phase.PASTE).getCount());
+        assertEquals(3, metrics.getTicksSpanned().getMax());
+        metrics.reset();
+        assertEquals(0, metrics.getTeleportCount());
+    }
+}
@@ -0,0 +1,55 @@
+package com.teleportapi;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the JFR phase events committed by PhaseTimings.
+ */
+class TeleportPhaseEventTest {
+
+    @Test
+    void testLapsCommitPhaseEvents() throws Exception {
+        Path file = Files.createTempFile("teleport-phases", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.teleportapi.TeleportPhase");
+            recording.start();
+
+            PhaseTimings timings = new PhaseTimings();
+            timings.setRequestId(42);
+            timings.setEventScope(1000, 4);
+            long start = timings.start();
+            start = timings.lap(PhaseTimings.Phase.SCAN, start);
+            timings.setEventScope(500, 2);
+            timings.lap(PhaseTimings.Phase.CLEAR, start);
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        Files.deleteIfExists(file);
+        assertEquals(2, events.size());
+        assertEquals("SCAN", events.get(0).getString("phase"));
+        assertEquals(42, events.get(0).getLong("requestId"));
+        assertEquals(1000, events.get(0).getLong("blocksProcessed"));
+        assertEquals("CLEAR", events.get(1).getString("phase"));
+        assertEquals(2, events.get(1).getInt("chunksTouched"));
+    }
+
+    @Test
+    void testNoEventsWithoutRecording() {
+        PhaseTimings timings = new PhaseTimings();
+        long start = timings.start();
+        timings.lap(PhaseTimings.Phase.PASTE, start);
+        assertTrue(timings.getNanos(PhaseTimings.Phase.PASTE) >= 0);
+    }
+}
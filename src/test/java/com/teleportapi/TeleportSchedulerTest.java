@@ -0,0 +1,148 @@
+package com.teleportapi;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for TeleportScheduler budget calculation and job lifecycle.
+ */
+class TeleportSchedulerTest {
+
+    private static final long MS = 1_000_000L;
+
+    @Test
+    void testFullBudgetWhenServerIdle() {
+        long budget = TeleportScheduler.computeBudgetNanos(5.0, 0.5, 10.0, 0.0, 50.0);
+        assertEquals(5 * MS, budget);
+    }
+
+    @Test
+    void testBudgetShrinksWhenTickTimeRises() {
+        // 42 ms of other work leaves 3 ms below the 45 ms safety line
+        long budget = TeleportScheduler.computeBudgetNanos(5.0, 0.5, 42.0, 0.0, 50.0);
+        assertEquals(3 * MS, budget);
+    }
+
+    @Test
+    void testOwnSpendIsNotCountedAgainstBudget() {
+        // Average includes our own 5 ms, so the rest of the server only uses 35 ms
+        long budget = TeleportScheduler.computeBudgetNanos(5.0, 0.5, 40.0, 5.0, 50.0);
+        assertEquals(5 * MS, budget);
+    }
+
+    @Test
+    void testBudgetNeverBelowFloor() {
+        long budget = TeleportScheduler.computeBudgetNanos(5.0, 0.5, 120.0, 0.0, 50.0);
+        assertEquals(MS / 2, budget);
+    }
+
+    @Test
+    void testFinishedJobsAreRemoved() {
+        TeleportScheduler scheduler = new TeleportScheduler();
+        CountingTask twoSlices = new CountingTask(2);
+        CountingTask oneSlice = new CountingTask(1);
+        scheduler.submit(twoSlices);
+        scheduler.submit(oneSlice);
+
+        scheduler.tick(5 * MS);
+        assertEquals(1, scheduler.getActiveJobCount());
+
+        scheduler.tick(5 * MS);
+        assertEquals(0, scheduler.getActiveJobCount());
+        assertEquals(2, twoSlices.runs);
+        assertEquals(1, oneSlice.runs);
+    }
+
+    @Test
+    void testStartingJobRotatesEachTick() {
+        TeleportScheduler scheduler = new TeleportScheduler();
+        List<String> order = new ArrayList<>();
+        scheduler.submit(new NamedTask("a", order));
+        scheduler.submit(new NamedTask("b", order));
+
+        scheduler.tick(5 * MS);
+        scheduler.tick(5 * MS);
+
+        assertEquals(List.of("a", "b", "b", "a"), order);
+    }
+
+    @Test
+    void testFailingJobIsDropped() {
+        TeleportScheduler scheduler = new TeleportScheduler();
+        scheduler.submit(deadline -> {
+            throw new IllegalStateException("boom");
+        });
+        CountingTask survivor = new CountingTask(3);
+        scheduler.submit(survivor);
+
+        scheduler.tick(5 * MS);
+
+        assertEquals(1, scheduler.getActiveJobCount());
+        assertEquals(1, survivor.runs);
+    }
+
+    @Test
+    void testFailingJobIsNotifiedWhenDropped() {
+        TeleportScheduler scheduler = new TeleportScheduler();
+        List<Throwable> dropped = new ArrayList<>();
+        scheduler.submit(new TeleportScheduler.ScheduledTask() {
+            @Override
+            public boolean runSlice(long deadlineNanos) {
+                throw new IllegalStateException("boom");
+            }
+
+            @Override
+            public void onDropped(Throwable cause) {
+                dropped.add(cause);
+            }
+        });
+
+        scheduler.tick(5 * MS);
+
+        assertEquals(1, dropped.size());
+        assertEquals("boom", dropped.get(0).getMessage());
+    }
+
+    @Test
+    void testShouldYieldOnlyChecksPeriodically() {
+        long past = System.nanoTime() - MS;
+        assertFalse(TeleportScheduler.shouldYield(0, past));
+        assertTrue(TeleportScheduler.shouldYield(63, past));
+        assertFalse(TeleportScheduler.shouldYield(63, System.nanoTime() + 1000 * MS));
+    }
+
+    private static class CountingTask implements TeleportScheduler.ScheduledTask {
+        private final int slicesNeeded;
+        int runs = 0;
+
+        CountingTask(int slicesNeeded) {
+            this.slicesNeeded = slicesNeeded;
+        }
+
+        @Override
+        public boolean runSlice(long deadlineNanos) {
+            runs++;
+            return runs >= slicesNeeded;
+        }
+    }
+
+    private static class NamedTask implements TeleportScheduler.ScheduledTask {
+        private final String name;
+        private final List<String> order;
+
+        NamedTask(String name, List<String> order) {
+            this.name = name;
+            this.order = order;
+        }
+
+        @Override
+        public boolean runSlice(long deadlineNanos) {
+            order.add(name);
+            return false;
+        }
+    }
+}
@@ -51,4 +51,34 @@ class TransformationTest {
         // FRONT_BACK: -yRot % 360 -> -90
         assertEquals(-90.0f, result);
     }
+
+    @Test
+    void testStructureTransformMatchesTransformPos() {
+        Vec3i size = new Vec3i(4, 2, 7);
+        BlockPos origin = new BlockPos(-30, 70, 12);
+        for (Rotation rotation : Rotation.values()) {
+            for (Mirror mirror : Mirror.values()) {
+                StructureTransform transform = new StructureTransform(rotation, mirror, size, origin);
+                for (int x = 0; x <= size.getX(); x++) {
+                    for (int y = 0; y <= size.getY(); y++) {
+                        for (int z = 0; z <= size.getZ(); z++) {
+                            BlockPos expected = origin.offset(StructureTeleporter.transformPos(new BlockPos(x, y, z),
+                                    rotation, mirror, size));
+                            assertEquals(expected, BlockPos.of(transform.apply(x, y, z)), rotation + " " + mirror);
+                            assertEquals(expected, transform.apply(new BlockPos(x, y, z)));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testStructureTransformSize() {
+        Vec3i size = new Vec3i(4, 2, 7);
+        assertEquals(new Vec3i(7, 2, 4), StructureTransform.of(Rotation.CLOCKWISE_90, Mirror.NONE, size)
+                .getTransformedSize());
+        assertEquals(size, StructureTransform.of(Rotation.CLOCKWISE_180, Mirror.LEFT_RIGHT, size)
+                .getTransformedSize());
+    }
 }